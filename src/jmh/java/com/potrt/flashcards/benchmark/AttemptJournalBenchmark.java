@@ -0,0 +1,76 @@
+package com.potrt.flashcards.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.japanese.AttemptJournal;
+import com.potrt.flashcards.japanese.JapaneseWord;
+
+/**
+ * Benchmarks attempting words of a {@link SyntheticDictionary} with and without an {@link AttemptJournal},
+ * which commits to a temporary file on the local disk.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttemptJournalBenchmark {
+    @Param({"NONE", "JOURNAL"})
+    public String journaling;
+
+    @Param({"100"})
+    public long commitIntervalMillis;
+
+    private SyntheticDictionary dictionary;
+    private List<JapaneseWord> words;
+    private Path file;
+    private AttemptJournal journal;
+
+    @Setup
+    public void setup() throws IOException {
+        dictionary = new SyntheticDictionary(100_000);
+        words = dictionary.getWords();
+        if (journaling.equals("JOURNAL")) {
+            file = Files.createTempFile("attempts", ".journal");
+            journal = AttemptJournal.open(file, commitIntervalMillis);
+            dictionary.getKanjiDictionary().setAttemptListener(journal);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (journal != null) {
+            dictionary.getKanjiDictionary().setAttemptListener(null);
+            journal.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Attempts a random word, which attempts both of its kanji readings.
+     */
+    @Benchmark
+    public void attempt() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        words.get(random.nextInt(words.size())).attempt(random.nextInt(4) != 0);
+    }
+}
@@ -0,0 +1,86 @@
+package com.potrt.flashcards.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.japanese.AttemptJournal;
+import com.potrt.flashcards.japanese.JapaneseWord;
+
+/**
+ * Benchmarks replaying an {@link AttemptJournal} of many sessions of random attempts of a {@link SyntheticDictionary},
+ * on a {@link ForkJoinPool} of each number of threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttemptJournalReplayBenchmark {
+    @Param({"1", "4"})
+    public int threads;
+
+    @Param({"2000000"})
+    public int attempts;
+
+    private SyntheticDictionary dictionary;
+    private Path file;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() throws IOException {
+        dictionary = new SyntheticDictionary(100_000);
+        List<JapaneseWord> words = dictionary.getWords();
+        file = Files.createTempFile("attempts", ".journal");
+        Files.delete(file);
+
+        Random random = new Random(0);
+        int sessions = 20;
+        for (int session = 0; session < sessions; session++) {
+            try (AttemptJournal journal = AttemptJournal.open(file, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS)) {
+                dictionary.getKanjiDictionary().setAttemptListener(journal);
+                for (int i = 0; i < attempts / sessions; i++) {
+                    words.get(random.nextInt(words.size())).attempt(random.nextInt(4) != 0);
+                    if (i % 10_000 == 0) {
+                        journal.commit();
+                    }
+                }
+                dictionary.getKanjiDictionary().setAttemptListener(null);
+            }
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Replays the whole journal into the dictionary, whose scores keep growing with each replay.
+     * @return The {@link AttemptJournal.Result}.
+     */
+    @Benchmark
+    public AttemptJournal.Result replay() throws IOException {
+        return AttemptJournal.replay(file, dictionary.getKanjiDictionary(), 0, pool);
+    }
+}
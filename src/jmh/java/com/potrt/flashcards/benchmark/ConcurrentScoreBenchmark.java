@@ -0,0 +1,76 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.ConcurrentScore;
+import com.potrt.flashcards.Score;
+
+/**
+ * Compares {@link Score} against {@link ConcurrentScore} when one score is attempted and read by several threads at once,
+ * like a popular kanji reading shared between learners.
+ * <p>
+ * {@link Score} loses updates under contention, so its numbers are only a baseline for the cost of thread-safety.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentScoreBenchmark {
+    @Param({"PLAIN", "CONCURRENT"})
+    public String implementation;
+
+    private Score score;
+
+    @Setup
+    public void setup() {
+        score = implementation.equals("PLAIN") ? new Score() : new ConcurrentScore();
+    }
+
+    /**
+     * Attempts the shared score.
+     */
+    @Benchmark
+    @Group("attemptAndRead")
+    @GroupThreads(3)
+    public void attempt() {
+        score.attempt(ThreadLocalRandom.current().nextInt(4) != 0);
+    }
+
+    /**
+     * Reads the success rate of the shared score.
+     * @return The success rate.
+     */
+    @Benchmark
+    @Group("attemptAndRead")
+    @GroupThreads(1)
+    public double read() {
+        return score.getSuccessRate();
+    }
+
+    /**
+     * Only attempts the shared score, from 4 threads.
+     */
+    @Benchmark
+    @Group("attemptOnly")
+    @GroupThreads(4)
+    public void attemptOnly() {
+        score.attempt(ThreadLocalRandom.current().nextInt(4) != 0);
+    }
+}
@@ -0,0 +1,65 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.japanese.FuriganaAligner;
+import com.potrt.flashcards.japanese.JapaneseWord;
+import com.potrt.flashcards.japanese.JapaneseWordBuilder;
+
+/**
+ * Benchmarks splitting the whole reading of each word of {@link SyntheticDictionary}s of different sizes across its kanji
+ * with a {@link FuriganaAligner}, as an import of words that only give their whole reading would.
+ * Each kanji has {@value SyntheticDictionary#READINGS_PER_KANJI} known readings, and every fourth word ends in kana.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FuriganaAlignerBenchmark {
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private String[] kanji;
+    private String[] readings;
+    private FuriganaAligner aligner;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SyntheticDictionary dictionary = new SyntheticDictionary(size);
+        List<JapaneseWord> words = dictionary.getWords();
+        kanji = new String[size];
+        readings = new String[size];
+        for (int i = 0; i < size; i++) {
+            kanji[i] = words.get(i).getKanji();
+            readings[i] = words.get(i).getFurigana();
+        }
+        aligner = new FuriganaAligner(dictionary.getKanjiDictionary());
+    }
+
+    /**
+     * Aligns the next word.
+     * @return The {@link JapaneseWordBuilder}.
+     */
+    @Benchmark
+    public JapaneseWordBuilder align() {
+        int i = next;
+        next = i + 1 == size ? 0 : i + 1;
+        return aligner.align(kanji[i], readings[i]);
+    }
+}
@@ -0,0 +1,90 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.japanese.JapaneseWord;
+import com.potrt.flashcards.japanese.JapaneseWordDictionary;
+
+/**
+ * Benchmarks {@link JapaneseWordDictionary#getWordsByFurigana(String)} against a linear scan of every word,
+ * looking up the furigana of words of a {@link SyntheticDictionary}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Thread)
+public class FuriganaLookupBenchmark {
+    /**
+     * The number of different furigana that are looked up in turn.
+     */
+    static final int LOOKUPS = 1024;
+
+    @Param({"500000"})
+    public int size;
+
+    private JapaneseWordDictionary dictionary;
+    private List<JapaneseWord> words;
+    private String[] furigana;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SyntheticDictionary synthetic = new SyntheticDictionary(size);
+        dictionary = synthetic.getWordDictionary();
+        words = synthetic.getWords();
+
+        furigana = new String[LOOKUPS];
+        int step = size / LOOKUPS;
+        for (int i = 0; i < LOOKUPS; i++) {
+            furigana[i] = words.get(i * step).getFurigana();
+        }
+    }
+
+    /**
+     * Looks the next furigana up in the index.
+     * @return The words read with the furigana.
+     */
+    @Benchmark
+    public Set<JapaneseWord> index() {
+        return dictionary.getWordsByFurigana(nextFurigana());
+    }
+
+    /**
+     * Looks the next furigana up by checking every word.
+     * @return The words read with the furigana.
+     */
+    @Benchmark
+    public Set<JapaneseWord> linearScan() {
+        String reading = nextFurigana();
+        Set<JapaneseWord> out = new HashSet<>();
+        for (JapaneseWord word : words) {
+            if (word.getFurigana().equals(reading)) {
+                out.add(word);
+            }
+        }
+        return out;
+    }
+
+    private String nextFurigana() {
+        String out = furigana[next];
+        next = (next + 1) % LOOKUPS;
+        return out;
+    }
+}
@@ -0,0 +1,104 @@
+package com.potrt.flashcards.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.japanese.JapaneseCorpusCoverage;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+import com.potrt.flashcards.japanese.JapaneseWord;
+import com.potrt.flashcards.japanese.JapaneseWordDictionary;
+
+/**
+ * Benchmarks counting the words of {@link SyntheticDictionary}s of different sizes in a corpus file of about {@value #CORPUS_MB} MB
+ * with a {@link JapaneseCorpusCoverage}, on the common pool.  The corpus is lines of random words, written in kanji or furigana,
+ * between kana particles and punctuation.  Divide {@value #CORPUS_MB} MB by the time per analysis for the throughput.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class JapaneseCorpusCoverageBenchmark {
+    /**
+     * The size of the corpus, in megabytes.
+     */
+    static final int CORPUS_MB = 64;
+
+    private static final String[] FILLERS = {"は", "を", "に", "の", "が", "。", "、", "と", "ですね。"};
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private JapaneseWordDictionary dictionary;
+    private Path corpus;
+
+    @Setup
+    public void setup() throws IOException {
+        SyntheticDictionary synthetic = new SyntheticDictionary(size);
+        dictionary = synthetic.getWordDictionary();
+        List<JapaneseWord> words = synthetic.getWords();
+        Random random = new Random(0);
+        corpus = Files.createTempFile("corpus", ".txt");
+        long bytes = (long) CORPUS_MB << 20;
+        try (BufferedWriter writer = Files.newBufferedWriter(corpus, StandardCharsets.UTF_8)) {
+            // Japanese text is almost all three byte characters.
+            for (long written = 0; written < bytes; written += 3) {
+                JapaneseWord word = words.get(random.nextInt(words.size()));
+                String text = random.nextInt(4) == 0 ? word.getFurigana() : word.getKanji();
+                String filler = FILLERS[random.nextInt(FILLERS.length)];
+                writer.write(text);
+                writer.write(filler);
+                written += 3L * (text.length() + filler.length() - 1);
+                if (filler.endsWith("。") && random.nextBoolean()) {
+                    writer.write('\n');
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(corpus);
+    }
+
+    /**
+     * Counts the words written in kanji.
+     * @return The {@link JapaneseCorpusCoverage}.
+     * @throws IOException Thrown when the corpus cannot be read.
+     */
+    @Benchmark
+    public JapaneseCorpusCoverage analyze() throws IOException {
+        return JapaneseCorpusCoverage.analyze(corpus, dictionary);
+    }
+
+    /**
+     * Counts the words written in kanji, and weights the dictionary's scores by them.
+     * @return The coverage.
+     * @throws IOException Thrown when the corpus cannot be read.
+     */
+    @Benchmark
+    public double coverage() throws IOException {
+        JapaneseCorpusCoverage coverage = JapaneseCorpusCoverage.analyze(corpus, dictionary);
+        return coverage.getWordCoverage(JapaneseKanjiWithReading::getScore) + coverage.getReadingCoverage(JapaneseKanjiWithReading::getScore);
+    }
+}
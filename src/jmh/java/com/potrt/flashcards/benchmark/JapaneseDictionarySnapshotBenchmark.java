@@ -0,0 +1,79 @@
+package com.potrt.flashcards.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.japanese.JapaneseDictionarySnapshot;
+import com.potrt.flashcards.japanese.JapaneseKanjiDictionary;
+import com.potrt.flashcards.japanese.JapaneseWord;
+import com.potrt.flashcards.japanese.JapaneseWordDictionary;
+
+/**
+ * Benchmarks reading a {@link JapaneseDictionarySnapshot} of a {@link SyntheticDictionary} into empty dictionaries,
+ * as a service does on a cold start.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class JapaneseDictionarySnapshotBenchmark {
+    @Param({"1000000"})
+    public int size;
+
+    private Path file;
+    private JapaneseWordDictionary dictionary;
+
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws IOException {
+        SyntheticDictionary synthetic = new SyntheticDictionary(size);
+        List<JapaneseWord> words = synthetic.getWords();
+        for (int i = 0; i < words.size(); i += 3) {
+            words.get(i).attempt(i % 2 == 0);
+        }
+        file = Files.createTempFile("dictionary", ".snapshot");
+        JapaneseDictionarySnapshot.write(synthetic.getWordDictionary(), file);
+    }
+
+    @Setup(Level.Iteration)
+    public void newDictionary() {
+        // Collect the previous iteration's dictionary now, rather than while the next one is read.
+        dictionary = null;
+        System.gc();
+        dictionary = new JapaneseWordDictionary(new JapaneseKanjiDictionary());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshot() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Reads the whole snapshot.
+     * @return The dictionary read into.
+     * @throws IOException Thrown when the snapshot cannot be read.
+     */
+    @Benchmark
+    public JapaneseWordDictionary read() throws IOException {
+        JapaneseDictionarySnapshot.read(file, dictionary);
+        return dictionary;
+    }
+}
@@ -0,0 +1,67 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.japanese.JapaneseFlashcard;
+import com.potrt.flashcards.japanese.JapaneseFlashcardScheduler;
+import com.potrt.flashcards.japanese.JapaneseWord;
+
+/**
+ * Benchmarks taking the next due card of a {@link JapaneseFlashcardScheduler} and reviewing it,
+ * with the cards of a {@link SyntheticDictionary} added many times over to reach each number of cards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class JapaneseFlashcardSchedulerBenchmark {
+    @Param({"100000", "5000000"})
+    public int cards;
+
+    private long now;
+    private Random random;
+    private JapaneseFlashcardScheduler scheduler;
+
+    @Setup
+    public void setup() {
+        List<JapaneseWord> words = new SyntheticDictionary(100_000).getWords();
+        random = new Random(0);
+        scheduler = new JapaneseFlashcardScheduler(() -> now, cards);
+        for (int i = 0; i < cards; i++) {
+            // Spread the new cards over a month, so reviews move cards all through the heap.
+            now = random.nextInt(30) * JapaneseFlashcardScheduler.DAY_MILLIS;
+            scheduler.add(new JapaneseFlashcard(words.get(i % words.size())));
+        }
+    }
+
+    /**
+     * Reviews the next due card, or moves the clock on to it if none is due.
+     * @return The card id.
+     */
+    @Benchmark
+    public int reviewNextDue() {
+        int card = scheduler.nextDue();
+        if (card < 0) {
+            now = scheduler.nextDueTime();
+            card = scheduler.nextDue();
+        }
+        scheduler.review(card, random.nextInt(6));
+        return card;
+    }
+}
@@ -0,0 +1,108 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.potrt.flashcards.Score;
+import com.potrt.flashcards.japanese.JapaneseKanji;
+import com.potrt.flashcards.japanese.JapaneseWord;
+
+/**
+ * Benchmarks {@link JapaneseKanji#getReadings()} and {@link JapaneseKanji#getScore()} for the kanji of
+ * {@link SyntheticDictionary}s of different sizes, and visiting the words of a kanji
+ * through a copy, {@link JapaneseKanji#getWordsView()}, and {@link JapaneseKanji#forEachWord(Consumer)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Thread)
+public class JapaneseKanjiBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private JapaneseKanji[] kanji;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SyntheticDictionary dictionary = new SyntheticDictionary(size);
+        kanji = dictionary.getKanji();
+
+        // Give every reading some score so the aggregation has work to do.
+        int i = 0;
+        for (JapaneseWord word : dictionary.getWords()) {
+            word.attempt(i++ % 3 != 0);
+        }
+    }
+
+    /**
+     * Gets the readings of the next kanji, ordered by usage.
+     * @return The readings.
+     */
+    @Benchmark
+    public List<String> getReadings() {
+        return nextKanji().getReadings();
+    }
+
+    /**
+     * Gets the aggregated score of the next kanji.
+     * @return The aggregated {@link Score}.
+     */
+    @Benchmark
+    public Score getScore() {
+        return nextKanji().getScore();
+    }
+
+    /**
+     * Visits the words of the next kanji through a copy.
+     * @param blackhole The {@link Blackhole} that consumes each word.
+     */
+    @Benchmark
+    public void getWordsCopy(Blackhole blackhole) {
+        for (JapaneseWord word : nextKanji().getWords()) {
+            blackhole.consume(word);
+        }
+    }
+
+    /**
+     * Visits the words of the next kanji through a live view.
+     * @param blackhole The {@link Blackhole} that consumes each word.
+     */
+    @Benchmark
+    public void getWordsView(Blackhole blackhole) {
+        for (JapaneseWord word : nextKanji().getWordsView()) {
+            blackhole.consume(word);
+        }
+    }
+
+    /**
+     * Visits the words of the next kanji with {@link JapaneseKanji#forEachWord(Consumer)}.
+     * @param blackhole The {@link Blackhole} that consumes each word.
+     */
+    @Benchmark
+    public void forEachWord(Blackhole blackhole) {
+        nextKanji().forEachWord(blackhole::consume);
+    }
+
+    private JapaneseKanji nextKanji() {
+        JapaneseKanji out = kanji[next];
+        next = (next + 1) % kanji.length;
+        return out;
+    }
+}
@@ -0,0 +1,101 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.potrt.flashcards.japanese.JapaneseKanji;
+import com.potrt.flashcards.japanese.JapaneseKanjiDictionary;
+
+/**
+ * Benchmarks loading and looking up the ~13,000 JIS kanji in a {@link JapaneseKanjiDictionary},
+ * with a boxed {@link HashMap} as a baseline for the lookups.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JapaneseKanjiDictionaryBenchmark {
+    /**
+     * The number of kanji, roughly the number of JIS kanji.
+     */
+    static final int KANJI_COUNT = 13_000;
+
+    private static final int FIRST_KANJI = 0x4E00;
+
+    private JapaneseKanjiDictionary dictionary;
+    private Map<Character, JapaneseKanji> hashMap;
+
+    /**
+     * The kanji text that is looked up, in a scattered order.
+     */
+    private char[] text;
+
+    @Setup
+    public void setup() {
+        dictionary = load();
+        hashMap = new HashMap<>();
+        for (int i = 0; i < KANJI_COUNT; i++) {
+            char kanji = (char) (FIRST_KANJI + i);
+            hashMap.put(kanji, dictionary.get(kanji));
+        }
+
+        text = new char[KANJI_COUNT];
+        for (int i = 0; i < KANJI_COUNT; i++) {
+            text[i] = (char) (FIRST_KANJI + (int) ((i * 7919L) % KANJI_COUNT));
+        }
+    }
+
+    /**
+     * Creates every kanji in a new dictionary.
+     * @return The dictionary.
+     */
+    @Benchmark
+    @OperationsPerInvocation(KANJI_COUNT)
+    public JapaneseKanjiDictionary load() {
+        JapaneseKanjiDictionary out = new JapaneseKanjiDictionary();
+        for (int i = 0; i < KANJI_COUNT; i++) {
+            out.create((char) (FIRST_KANJI + i), "kanji");
+        }
+        return out;
+    }
+
+    /**
+     * Looks up every kanji of the text in the dictionary, by code point.
+     * @param blackhole The sink for the kanji.
+     */
+    @Benchmark
+    @OperationsPerInvocation(KANJI_COUNT)
+    public void lookup(Blackhole blackhole) {
+        for (char kanji : text) {
+            blackhole.consume(dictionary.get(kanji));
+        }
+    }
+
+    /**
+     * Looks up every kanji of the text in a {@link HashMap} keyed by {@link Character}.
+     * @param blackhole The sink for the kanji.
+     */
+    @Benchmark
+    @OperationsPerInvocation(KANJI_COUNT)
+    public void hashMapLookup(Blackhole blackhole) {
+        for (char kanji : text) {
+            blackhole.consume(hashMap.get(kanji));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.japanese.JapaneseTextScanner;
+import com.potrt.flashcards.japanese.JapaneseWord;
+
+/**
+ * Benchmarks scanning about a million characters of text for the words of {@link SyntheticDictionary}s of different sizes
+ * with a {@link JapaneseTextScanner}.  The text is random words, written in kanji or furigana, between kana particles and punctuation.
+ * Divide {@value #TEXT_LENGTH} characters, two bytes each, by the time per scan for the throughput.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class JapaneseTextScannerBenchmark {
+    /**
+     * The length of the text, in {@code char}s.
+     */
+    static final int TEXT_LENGTH = 1 << 20;
+
+    private static final String[] FILLERS = {"は", "を", "に", "の", "が", "。", "、", "と", "ですね。"};
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private String text;
+    private JapaneseTextScanner kanjiScanner;
+    private JapaneseTextScanner furiganaScanner;
+
+    @Setup
+    public void setup() {
+        SyntheticDictionary dictionary = new SyntheticDictionary(size);
+        List<JapaneseWord> words = dictionary.getWords();
+        Random random = new Random(0);
+        StringBuilder builder = new StringBuilder(TEXT_LENGTH + 16);
+        while (builder.length() < TEXT_LENGTH) {
+            JapaneseWord word = words.get(random.nextInt(words.size()));
+            builder.append(random.nextInt(4) == 0 ? word.getFurigana() : word.getKanji());
+            builder.append(FILLERS[random.nextInt(FILLERS.length)]);
+        }
+        text = builder.substring(0, TEXT_LENGTH);
+
+        long start = System.nanoTime();
+        kanjiScanner = dictionary.getWordDictionary().getTextScanner(false);
+        long kanjiBuilt = System.nanoTime();
+        furiganaScanner = dictionary.getWordDictionary().getTextScanner(true);
+        long furiganaBuilt = System.nanoTime();
+        System.out.printf("%nBuilt the kanji scanner (%d states) in %d ms, and the furigana scanner (%d states) in %d ms%n",
+            kanjiScanner.numStates(), (kanjiBuilt - start) / 1_000_000, furiganaScanner.numStates(), (furiganaBuilt - kanjiBuilt) / 1_000_000);
+    }
+
+    /**
+     * Scans the text for words written in kanji.
+     * @return The number of matches.
+     */
+    @Benchmark
+    public int scanKanji() {
+        return kanjiScanner.scan(text, (start, end, word) -> {});
+    }
+
+    /**
+     * Scans the text for words written in kanji or furigana.
+     * @return The number of matches.
+     */
+    @Benchmark
+    public int scanFurigana() {
+        return furiganaScanner.scan(text, (start, end, word) -> {});
+    }
+}
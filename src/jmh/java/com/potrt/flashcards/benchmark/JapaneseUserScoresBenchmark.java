@@ -0,0 +1,78 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.Score;
+import com.potrt.flashcards.japanese.JapaneseKanji;
+import com.potrt.flashcards.japanese.JapaneseUserScores;
+import com.potrt.flashcards.japanese.JapaneseWord;
+
+/**
+ * Benchmarks many users attempting the words of one shared {@link SyntheticDictionary}, each with their own {@link JapaneseUserScores}.
+ * The setup prints how many bytes of scores each user needs once they have attempted every reading.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class JapaneseUserScoresBenchmark {
+    @Param({"100000"})
+    public int size;
+
+    @Param({"1000"})
+    public int users;
+
+    private List<JapaneseWord> words;
+    private JapaneseKanji[] kanji;
+    private JapaneseUserScores[] scores;
+
+    @Setup
+    public void setup() {
+        SyntheticDictionary dictionary = new SyntheticDictionary(size);
+        words = dictionary.getWords();
+        kanji = dictionary.getKanji();
+        scores = new JapaneseUserScores[users];
+        for (int i = 0; i < users; i++) {
+            scores[i] = new JapaneseUserScores(dictionary.getKanjiDictionary());
+        }
+        for (JapaneseWord word : words) {
+            scores[0].attempt(word, true);
+        }
+        System.out.printf("%n%d readings, %d bytes of scores per user%n", dictionary.getKanjiDictionary().numReadings(), scores[0].sizeInBytes());
+    }
+
+    /**
+     * Attempts a random word for a random user.
+     */
+    @Benchmark
+    public void attempt() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        scores[random.nextInt(users)].attempt(words.get(random.nextInt(words.size())), random.nextInt(4) != 0);
+    }
+
+    /**
+     * Gets a random user's score for a random kanji, adding up its readings.
+     * @return The {@link Score}.
+     */
+    @Benchmark
+    public Score kanjiScore() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return scores[random.nextInt(users)].getScore(kanji[random.nextInt(kanji.length)]);
+    }
+}
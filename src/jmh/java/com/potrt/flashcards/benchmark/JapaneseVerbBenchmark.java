@@ -0,0 +1,98 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.potrt.flashcards.japanese.JapaneseKanji;
+import com.potrt.flashcards.japanese.JapaneseWordBuilder;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+import com.potrt.flashcards.japanese.verb.JapaneseVerbConjugationCache;
+import com.potrt.flashcards.japanese.verb.JapaneseVerbForm;
+
+/**
+ * Benchmarks {@link JapaneseVerb#conjugate(JapaneseVerbForm)}, with and without a {@link JapaneseVerbConjugationCache},
+ * for each {@link JapaneseVerbType}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JapaneseVerbBenchmark {
+    /**
+     * Every form that the default conjugation tables define.
+     */
+    static final JapaneseVerbForm[] FORMS = {
+        JapaneseVerbForm.of(true, true, "Present Indicative"),
+        JapaneseVerbForm.of(true, false, "Present Indicative"),
+        JapaneseVerbForm.of(false, true, "Present Indicative"),
+        JapaneseVerbForm.of(false, false, "Present Indicative"),
+        JapaneseVerbForm.of(true, true, "Past Indicative")
+    };
+
+    @Param({"GODAN", "ICHIDAN", "IRREGULAR"})
+    public JapaneseVerbType verbType;
+
+    private JapaneseVerb verb;
+    private JapaneseVerbConjugationCache cache;
+
+    @Setup
+    public void setup() {
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        switch (verbType) {
+            case GODAN:
+                builder.add(new JapaneseKanji('飲', "drink").withReading("の"));
+                builder.add("む");
+                break;
+            case ICHIDAN:
+                builder.add(new JapaneseKanji('見', "see").withReading("み"));
+                builder.add("る");
+                break;
+            case IRREGULAR:
+            default:
+                builder.add("くる");
+                break;
+        }
+        verb = new JapaneseVerb(builder, "verb", verbType);
+        cache = new JapaneseVerbConjugationCache(FORMS.length);
+    }
+
+    /**
+     * Conjugates the verb to every form.
+     * @param blackhole Consumes the conjugated representations.
+     */
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void conjugate(Blackhole blackhole) {
+        for (JapaneseVerbForm form : FORMS) {
+            blackhole.consume(verb.conjugate(form));
+        }
+    }
+
+    /**
+     * Conjugates the verb to every form through a {@link JapaneseVerbConjugationCache} that holds all of them.
+     * @param blackhole Consumes the conjugated representations.
+     */
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void conjugateCached(Blackhole blackhole) {
+        for (JapaneseVerbForm form : FORMS) {
+            blackhole.consume(cache.conjugate(verb, form));
+        }
+    }
+}
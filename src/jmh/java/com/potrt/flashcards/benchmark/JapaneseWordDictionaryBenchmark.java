@@ -0,0 +1,151 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.potrt.flashcards.japanese.JapaneseWord;
+import com.potrt.flashcards.japanese.JapaneseWordDictionary;
+
+/**
+ * Benchmarks {@link JapaneseWordDictionary#put(JapaneseWord)} and {@link JapaneseWordDictionary#replace(JapaneseWord)}
+ * against {@link SyntheticDictionary}s of different sizes, including replacing only the definitions of the words of one hot kanji.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Thread)
+public class JapaneseWordDictionaryBenchmark {
+    /**
+     * The number of new words added per {@code put} invocation.
+     */
+    static final int BATCH = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * The dictionary that {@code put} adds to.  It is rebuilt every iteration so each batch inserts new words.
+     */
+    @State(Scope.Thread)
+    public static class PutState {
+        SyntheticDictionary dictionary;
+        List<JapaneseWord> batch;
+
+        @Setup(Level.Iteration)
+        public void setup(JapaneseWordDictionaryBenchmark benchmark) {
+            dictionary = new SyntheticDictionary(benchmark.size);
+            batch = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                batch.add(dictionary.word(benchmark.size + i, "new word " + i));
+            }
+        }
+    }
+
+    /**
+     * The dictionary that {@code replace} updates, along with replacement words for every entry.
+     */
+    @State(Scope.Thread)
+    public static class ReplaceState {
+        SyntheticDictionary dictionary;
+        JapaneseWord[] replacements;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setup(JapaneseWordDictionaryBenchmark benchmark) {
+            dictionary = new SyntheticDictionary(benchmark.size);
+            replacements = new JapaneseWord[Math.min(benchmark.size, BATCH)];
+            for (int i = 0; i < replacements.length; i++) {
+                int index = (int) ((long) i * benchmark.size / replacements.length);
+                replacements[i] = dictionary.word(index, "replaced word " + index);
+            }
+        }
+    }
+
+    /**
+     * The dictionary that {@code replaceDefinition} updates, along with two versions, differing only in their definitions,
+     * of every word whose first kanji is the first kanji of the pool, like a nightly sync touching every word with 人.
+     */
+    @State(Scope.Thread)
+    public static class HotKanjiState {
+        SyntheticDictionary dictionary;
+        JapaneseWord[][] replacements;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setup(JapaneseWordDictionaryBenchmark benchmark) {
+            dictionary = new SyntheticDictionary(benchmark.size);
+            int count = (benchmark.size + SyntheticDictionary.KANJI_COUNT - 1) / SyntheticDictionary.KANJI_COUNT;
+            replacements = new JapaneseWord[2][count];
+            for (int i = 0; i < count; i++) {
+                int index = i * SyntheticDictionary.KANJI_COUNT;
+                replacements[0][i] = dictionary.word(index, "synced word " + index);
+                replacements[1][i] = dictionary.word(index, "word " + index);
+            }
+        }
+    }
+
+    /**
+     * Adds a batch of new words to the dictionary.
+     * @param state The {@link PutState}.
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, batchSize = 1)
+    @Measurement(iterations = 10, batchSize = 1)
+    @OperationsPerInvocation(BATCH)
+    public void put(PutState state, Blackhole blackhole) {
+        JapaneseWordDictionary dictionary = state.dictionary.getWordDictionary();
+        for (JapaneseWord word : state.batch) {
+            blackhole.consume(dictionary.put(word));
+        }
+    }
+
+    /**
+     * Replaces an existing word with a new instance that has the same kanji.
+     * @param state The {@link ReplaceState}.
+     * @return The word inside the dictionary.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public JapaneseWord replace(ReplaceState state) {
+        JapaneseWord word = state.replacements[state.next];
+        state.next = (state.next + 1) % state.replacements.length;
+        return state.dictionary.getWordDictionary().replace(word);
+    }
+
+    /**
+     * Replaces only the definition of one of the words of a hot kanji, alternating between two definitions.
+     * @param state The {@link HotKanjiState}.
+     * @return The word inside the dictionary.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public JapaneseWord replaceDefinition(HotKanjiState state) {
+        int count = state.replacements[0].length;
+        JapaneseWord word = state.replacements[state.next / count][state.next % count];
+        state.next = (state.next + 1) % (2 * count);
+        return state.dictionary.getWordDictionary().replace(word);
+    }
+}
@@ -0,0 +1,90 @@
+package com.potrt.flashcards.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+import com.potrt.flashcards.japanese.JapaneseWord;
+import com.potrt.flashcards.japanese.JapaneseWordDictionary;
+import com.potrt.flashcards.japanese.JapaneseWordImporter;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+
+/**
+ * Benchmarks importing a csv file of {@link SyntheticDictionary} words with {@link JapaneseWordImporter}
+ * into an empty {@link JapaneseWordDictionary}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class JapaneseWordImporterBenchmark {
+    @Param({"1000000"})
+    public int rows;
+
+    private Path file;
+    private JapaneseWordDictionary dictionary;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        SyntheticDictionary synthetic = new SyntheticDictionary(0);
+        file = Files.createTempFile("words", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < rows; i++) {
+                JapaneseWord word = synthetic.word(i, "word " + i);
+                JapaneseKanjiWithReading[] readings = synthetic.readings(i);
+                writer.write(word.getKanji());
+                writer.write(',');
+                writer.write(readings[0].getFurigana());
+                writer.write(JapaneseWordImporter.READING_SEPARATOR);
+                writer.write(readings[1].getFurigana());
+                writer.write(',');
+                writer.write(word.getDefinition());
+                writer.write(',');
+                if (word instanceof JapaneseVerb) {
+                    writer.write(((JapaneseVerb) word).getVerbType().name());
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void newDictionary() {
+        dictionary = new SyntheticDictionary(0).getWordDictionary();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Imports the whole file.
+     * @return The {@link JapaneseWordImporter.Result}.
+     * @throws IOException Thrown when the file cannot be read.
+     */
+    @Benchmark
+    public JapaneseWordImporter.Result importFile() throws IOException {
+        return JapaneseWordImporter.csv(dictionary).importFrom(file);
+    }
+}
@@ -0,0 +1,68 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.japanese.JapaneseWord;
+import com.potrt.flashcards.japanese.JapaneseWordSampler;
+
+/**
+ * Benchmarks sampling the words of {@link SyntheticDictionary}s of different sizes with a {@link JapaneseWordSampler},
+ * and attempting a word, which updates the sampler's weights.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class JapaneseWordSamplerBenchmark {
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private List<JapaneseWord> words;
+    private JapaneseWordSampler sampler;
+
+    @Setup
+    public void setup() {
+        SyntheticDictionary dictionary = new SyntheticDictionary(size);
+        words = dictionary.getWords();
+        sampler = new JapaneseWordSampler(new Random(0));
+        for (JapaneseWord word : words) {
+            sampler.add(word);
+        }
+        dictionary.getKanjiDictionary().setAttemptListener(sampler);
+    }
+
+    /**
+     * Samples a word.
+     * @return The {@link JapaneseWord}.
+     */
+    @Benchmark
+    public JapaneseWord sample() {
+        return sampler.sample();
+    }
+
+    /**
+     * Attempts a random word, which updates the weights of both of its kanji readings.
+     */
+    @Benchmark
+    public void attempt() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        words.get(random.nextInt(words.size())).attempt(random.nextInt(4) != 0);
+    }
+}
@@ -0,0 +1,92 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.japanese.JapaneseWord;
+import com.potrt.flashcards.japanese.JapaneseWordDictionary;
+
+/**
+ * Benchmarks {@link JapaneseWordDictionary#prefixSearch(String, int)} with kanji and furigana prefixes, as typed
+ * into an autocompleting editor, against a {@link SyntheticDictionary}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Thread)
+public class PrefixSearchBenchmark {
+    /**
+     * The number of different prefixes that are searched in turn.
+     */
+    static final int PREFIXES = 1024;
+
+    @Param({"1000000"})
+    public int size;
+
+    /**
+     * The number of characters of the key typed so far.
+     */
+    @Param({"1", "2", "3"})
+    public int length;
+
+    @Param({"10"})
+    public int limit;
+
+    private JapaneseWordDictionary dictionary;
+    private String[] kanjiPrefixes;
+    private String[] furiganaPrefixes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SyntheticDictionary synthetic = new SyntheticDictionary(size);
+        dictionary = synthetic.getWordDictionary();
+
+        kanjiPrefixes = new String[PREFIXES];
+        furiganaPrefixes = new String[PREFIXES];
+        int step = size / PREFIXES;
+        for (int i = 0; i < PREFIXES; i++) {
+            JapaneseWord word = synthetic.getWords().get(i * step);
+            kanjiPrefixes[i] = word.getKanji().substring(0, Math.min(length, word.getKanji().length()));
+            furiganaPrefixes[i] = word.getFurigana().substring(0, Math.min(length, word.getFurigana().length()));
+        }
+    }
+
+    /**
+     * Searches the next kanji prefix.
+     * @return The words found.
+     */
+    @Benchmark
+    public List<JapaneseWord> kanji() {
+        return dictionary.prefixSearch(kanjiPrefixes[nextIndex()], limit);
+    }
+
+    /**
+     * Searches the next furigana prefix.
+     * @return The words found.
+     */
+    @Benchmark
+    public List<JapaneseWord> furigana() {
+        return dictionary.prefixSearch(furiganaPrefixes[nextIndex()], limit);
+    }
+
+    private int nextIndex() {
+        int out = next;
+        next = (next + 1) % PREFIXES;
+        return out;
+    }
+}
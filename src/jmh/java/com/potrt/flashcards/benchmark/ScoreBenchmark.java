@@ -0,0 +1,58 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.potrt.flashcards.Score;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+
+/**
+ * Benchmarks {@link Score#Score(List)} aggregation over the reading scores of every word in
+ * {@link SyntheticDictionary}s of different sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Thread)
+public class ScoreBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private List<Score> scores;
+
+    @Setup
+    public void setup() {
+        SyntheticDictionary dictionary = new SyntheticDictionary(size);
+        scores = new ArrayList<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            dictionary.getWords().get(i).attempt(i % 3 != 0);
+            for (JapaneseKanjiWithReading reading : dictionary.readings(i)) {
+                scores.add(reading.getScore());
+            }
+        }
+    }
+
+    /**
+     * Aggregates every score into one.
+     * @return The aggregated {@link Score}.
+     */
+    @Benchmark
+    public Score aggregate() {
+        return new Score(scores);
+    }
+}
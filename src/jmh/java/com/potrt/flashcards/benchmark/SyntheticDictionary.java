@@ -0,0 +1,154 @@
+package com.potrt.flashcards.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.potrt.flashcards.japanese.JapaneseKanji;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+import com.potrt.flashcards.japanese.JapaneseKanjiDictionary;
+import com.potrt.flashcards.japanese.JapaneseWord;
+import com.potrt.flashcards.japanese.JapaneseWordBuilder;
+import com.potrt.flashcards.japanese.JapaneseWordDictionary;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+
+/**
+ * A {@link SyntheticDictionary} generates a deterministic {@link JapaneseKanjiDictionary} and {@link JapaneseWordDictionary}
+ * of a given size for benchmarking.
+ * <p>
+ * Every word is made of two kanji from a pool of {@value #KANJI_COUNT} CJK ideographs, so any size up to
+ * {@code KANJI_COUNT * KANJI_COUNT} words has unique keys.  Every eighth word is a godan verb and every eighth
+ * word (offset by four) is an ichidan verb.
+ */
+public class SyntheticDictionary {
+    /**
+     * The number of kanji in the pool.
+     */
+    public static final int KANJI_COUNT = 2000;
+
+    /**
+     * The number of readings each kanji can be used with.
+     */
+    public static final int READINGS_PER_KANJI = 4;
+
+    private static final int FIRST_KANJI = 0x4E00;
+    private static final String[] SYLLABLES = {
+        "か", "き", "く", "け", "こ", "さ", "し", "す", "せ", "そ", "た", "ち", "て", "と", "な", "に",
+        "の", "は", "ひ", "ふ", "ほ", "ま", "み", "め", "も", "や", "ゆ", "よ", "ら", "り", "れ", "ろ"
+    };
+
+    private final JapaneseKanjiDictionary kanjiDictionary = new JapaneseKanjiDictionary();
+    private final JapaneseWordDictionary wordDictionary = new JapaneseWordDictionary(kanjiDictionary);
+    private final JapaneseKanji[] kanji = new JapaneseKanji[KANJI_COUNT];
+    private final List<JapaneseWord> words;
+
+    /**
+     * Creates a new {@link SyntheticDictionary} and fills it with {@code size} words.
+     * @param size The number of words.
+     */
+    public SyntheticDictionary(int size) {
+        if (size > KANJI_COUNT * KANJI_COUNT) {
+            throw new IllegalArgumentException(String.format("A synthetic dictionary can have at most %d words.", KANJI_COUNT * KANJI_COUNT));
+        }
+
+        for (int i = 0; i < KANJI_COUNT; i++) {
+            kanji[i] = kanjiDictionary.create((char) (FIRST_KANJI + i), "kanji " + i);
+        }
+
+        words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            JapaneseWord word = word(i, "word " + i);
+            wordDictionary.put(word);
+            words.add(word);
+        }
+    }
+
+    /**
+     * Creates the word with the given index.  It is not added to the dictionary.
+     * @param index The index of the word.  Indices at or after {@link #size()} create words that are not in the dictionary yet.
+     * @param definition The definition to give the word.
+     * @return The {@link JapaneseWord}.
+     */
+    public JapaneseWord word(int index, String definition) {
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        for (JapaneseKanjiWithReading reading : readings(index)) {
+            builder.add(reading);
+        }
+
+        switch (index % 8) {
+            case 0:
+                builder.add("む");
+                return new JapaneseVerb(builder, definition, JapaneseVerbType.GODAN);
+            case 4:
+                builder.add("る");
+                return new JapaneseVerb(builder, definition, JapaneseVerbType.ICHIDAN);
+            default:
+                return new JapaneseWord(builder, definition);
+        }
+    }
+
+    /**
+     * Gets the kanji, with their readings, that the word with the given index is made of.
+     * @param index The index of the word.
+     * @return The {@link JapaneseKanjiWithReading}s in order.
+     */
+    public JapaneseKanjiWithReading[] readings(int index) {
+        int first = index % KANJI_COUNT;
+        int second = (index / KANJI_COUNT) % KANJI_COUNT;
+        return new JapaneseKanjiWithReading[] {
+            kanji[first].withReading(reading(first, index)),
+            kanji[second].withReading(reading(second, index / KANJI_COUNT))
+        };
+    }
+
+    /**
+     * Gets the kanji dictionary.
+     * @return The {@link JapaneseKanjiDictionary}.
+     */
+    public JapaneseKanjiDictionary getKanjiDictionary() {
+        return kanjiDictionary;
+    }
+
+    /**
+     * Gets the word dictionary.
+     * @return The {@link JapaneseWordDictionary}.
+     */
+    public JapaneseWordDictionary getWordDictionary() {
+        return wordDictionary;
+    }
+
+    /**
+     * Gets the kanji in the pool.
+     * @return The {@link JapaneseKanji} in the order they were created.
+     */
+    public JapaneseKanji[] getKanji() {
+        return kanji;
+    }
+
+    /**
+     * Gets the words in the dictionary.
+     * @return The {@link JapaneseWord}s in the order they were added.
+     */
+    public List<JapaneseWord> getWords() {
+        return words;
+    }
+
+    /**
+     * Gets the number of words in the dictionary.
+     * @return The number of words.
+     */
+    public int size() {
+        return words.size();
+    }
+
+    /**
+     * Picks one of the readings of a kanji.
+     * @param kanjiIndex The index of the kanji.
+     * @param seed A value used to pick the reading.
+     * @return The furigana reading.
+     */
+    private static String reading(int kanjiIndex, int seed) {
+        int r = seed % READINGS_PER_KANJI;
+        return SYLLABLES[(kanjiIndex + r) % SYLLABLES.length] + SYLLABLES[(kanjiIndex * 7 + r) % SYLLABLES.length];
+    }
+}
@@ -0,0 +1,117 @@
+package com.potrt.flashcards;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link ConcurrentScore} is a {@link Score} that can be attempted from many threads at once without losing updates.
+ * <p>
+ * The successes and attempts are packed into a single {@link AtomicLong}, so an attempt is one lock-free compare-and-set,
+ * and {@link #snapshot()}, {@link #getFailures()}, and {@link #getSuccessRate()} always see successes and attempts from the same moment.
+ * Because of the packing, a {@link ConcurrentScore} can hold at most {@value #MAX_ATTEMPTS} attempts.
+ */
+public class ConcurrentScore extends Score {
+    /**
+     * The maximum number of attempts a {@link ConcurrentScore} can hold.
+     */
+    public static final long MAX_ATTEMPTS = 0xFFFFFFFFL;
+
+    private static final long ATTEMPT = 1L;
+    private static final long SUCCESS = 1L << 32;
+
+    /**
+     * The successes in the upper 32 bits, and the attempts in the lower 32 bits.
+     */
+    private final AtomicLong state;
+
+    /**
+     * Creates a new score with no data.
+     */
+    public ConcurrentScore() {
+        state = new AtomicLong();
+    }
+
+    /**
+     * Creates a new score from the total number of attempts, and the number of successes.
+     * @param successes The total number of successes.
+     * @param attempts The total number of attempts.
+     * @throws IllegalArgumentException Thrown if there are more successes than attempts, or more than {@value #MAX_ATTEMPTS} attempts.
+     */
+    public ConcurrentScore(long successes, long attempts) {
+        if (successes > attempts) { throw new IllegalArgumentException("There cannot be more successes than attempts."); }
+        if (successes < 0 || attempts > MAX_ATTEMPTS) { throw new IllegalArgumentException(String.format("A concurrent score can hold between 0 and %d attempts.", MAX_ATTEMPTS)); }
+        state = new AtomicLong(successes * SUCCESS + attempts * ATTEMPT);
+    }
+
+    /**
+     * Adds a new successful or failed attempt.
+     * @param succeeded If the attempt was successful.
+     * @throws IllegalStateException Thrown if the score already holds {@value #MAX_ATTEMPTS} attempts.
+     */
+    @Override
+    public void attempt(boolean succeeded) {
+        long delta = succeeded ? SUCCESS + ATTEMPT : ATTEMPT;
+        state.getAndUpdate(current -> {
+            // Checked before writing, so a full score is never wrapped into its successes, even for a moment.
+            if (attemptsOf(current) == MAX_ATTEMPTS) {
+                throw new IllegalStateException(String.format("A concurrent score can hold at most %d attempts.", MAX_ATTEMPTS));
+            }
+            return current + delta;
+        });
+    }
+
+    /**
+     * Adds the successes and attempts of another score to this one, in one atomic update.
+     * @param score The score to add.
+     * @throws IllegalStateException Thrown if the score would hold more than {@value #MAX_ATTEMPTS} attempts.
+     */
+    @Override
+    public void add(Score score) {
+        long successes = score.getSuccesses();
+        long attempts = score.getAttempts();
+        state.getAndUpdate(current -> {
+            if (attemptsOf(current) + attempts > MAX_ATTEMPTS) {
+                throw new IllegalStateException(String.format("A concurrent score can hold at most %d attempts.", MAX_ATTEMPTS));
+            }
+            return current + successes * SUCCESS + attempts * ATTEMPT;
+        });
+    }
+
+    @Override
+    public long getSuccesses() {
+        return successesOf(state.get());
+    }
+
+    @Override
+    public long getFailures() {
+        long current = state.get();
+        return attemptsOf(current) - successesOf(current);
+    }
+
+    @Override
+    public long getAttempts() {
+        return attemptsOf(state.get());
+    }
+
+    @Override
+    public double getSuccessRate() {
+        long current = state.get();
+        return (double) successesOf(current) / (double) attemptsOf(current);
+    }
+
+    /**
+     * Gets a copy of the score as it is right now.
+     * @return A {@link Score} with the current successes and attempts, that does not change with this score.
+     */
+    public Score snapshot() {
+        long current = state.get();
+        return new Score(successesOf(current), attemptsOf(current));
+    }
+
+    private static long successesOf(long state) {
+        return state >>> 32;
+    }
+
+    private static long attemptsOf(long state) {
+        return state & MAX_ATTEMPTS;
+    }
+}
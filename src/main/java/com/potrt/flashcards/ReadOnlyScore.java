@@ -0,0 +1,71 @@
+package com.potrt.flashcards;
+
+/**
+ * A {@link ReadOnlyScore} is a live, read-only view of another {@link Score}.
+ * <p>
+ * It always reflects the current values of the score it views, but it cannot be attempted.
+ * To keep the values of a moment, copy it with {@link #snapshot()}.
+ */
+public class ReadOnlyScore extends Score {
+    private final Score score;
+
+    /**
+     * Creates a read-only view of a score.
+     * @param score The score to view.
+     */
+    public ReadOnlyScore(Score score) {
+        this.score = score;
+    }
+
+    /**
+     * Always fails, as the score cannot be changed through this view.
+     * @param succeeded If the attempt was successful.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void attempt(boolean succeeded) {
+        throw new UnsupportedOperationException("A read-only score cannot be attempted.");
+    }
+
+    /**
+     * Always fails, as the score cannot be changed through this view.
+     * @param score The score to add.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void add(Score score) {
+        throw new UnsupportedOperationException("A read-only score cannot be added to.");
+    }
+
+    /**
+     * Gets a copy of the viewed score as it is right now.
+     * @return A {@link Score} that does not change with the viewed score.
+     *         If the viewed score is a {@link ConcurrentScore}, its successes and attempts are from the same moment.
+     */
+    public Score snapshot() {
+        if (score instanceof ConcurrentScore) {
+            return ((ConcurrentScore) score).snapshot();
+        }
+        return new Score(score.getSuccesses(), score.getAttempts());
+    }
+
+    @Override
+    public long getSuccesses() {
+        return score.getSuccesses();
+    }
+
+    @Override
+    public long getFailures() {
+        return score.getFailures();
+    }
+
+    @Override
+    public long getAttempts() {
+        return score.getAttempts();
+    }
+
+    @Override
+    public double getSuccessRate() {
+        return score.getSuccessRate();
+    }
+}
@@ -59,6 +59,15 @@ public class Score {
         attempts++;
     }
 
+    /**
+     * Adds the successes and attempts of another score to this one.
+     * @param score The score to add.
+     */
+    public void add(Score score) {
+        successes += score.getSuccesses();
+        attempts += score.getAttempts();
+    }
+
     /**
      * Gets the number of successes.
      * @return The number of successes.
@@ -72,7 +81,7 @@ public class Score {
      * @return
      */
     public long getFailures() {
-        return attempts - successes;
+        return getAttempts() - getSuccesses();
     }
 
     /**
@@ -88,7 +97,7 @@ public class Score {
      * @return The success rate from ranging from 0.00 to 1.00.
      */
     public double getSuccessRate() {
-        return (double) successes / (double) attempts;
+        return (double) getSuccesses() / (double) getAttempts();
     }
 
     /**
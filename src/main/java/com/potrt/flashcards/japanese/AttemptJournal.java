@@ -0,0 +1,888 @@
+package com.potrt.flashcards.japanese;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import com.potrt.flashcards.Score;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+
+/**
+ * An {@link AttemptJournal} is a write-ahead journal of attempts, so the scores of a dictionary survive a crash.
+ * <p>
+ * It is an {@link AttemptListener}: once set on a {@link JapaneseKanjiDictionary}, every attempt of a reading
+ * (and so every {@link JapaneseWord#attempt(boolean)}) is recorded as a compact binary record.
+ * Records are buffered in memory and group-committed: a background thread writes everything buffered and
+ * forces it to disk once per commit interval, so an attempt costs a buffer append rather than a disk write,
+ * and a crash loses at most the attempts of the last interval.
+ * <p>
+ * At startup, {@link #replay(Path, JapaneseKanjiDictionary, long, ForkJoinPool)} adds the journaled attempts back to the scores of a dictionary,
+ * before the journal is opened again with {@link #open(Path, long, long)}.  The journal is split into segments of whole batches,
+ * which are folded into partial {@link Score}s per reading in parallel, and the partial scores are then added together.
+ * {@link #compact(JapaneseWordDictionary, Path, Path)} writes the replayed scores to a {@link JapaneseDictionarySnapshot} and empties the journal,
+ * so it does not grow forever:
+ * <pre>
+ * long generation = JapaneseDictionarySnapshot.read(snapshot, dictionary);
+ * AttemptJournal.replay(journal, dictionary.getKanjiDictionary(), generation, ForkJoinPool.commonPool());
+ * AttemptJournal.compact(dictionary, snapshot, journal);
+ * dictionary.getKanjiDictionary().setAttemptListener(AttemptJournal.open(journal, generation, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS));
+ * </pre>
+ * <p>
+ * The file is big-endian.  After a header ({@code int} magic, {@code int} version, {@code long} generation), each commit is written as one batch:
+ * {@code int} length, {@code int} CRC-32 of the records, then the records.
+ * A batch that is cut short or fails its checksum, as a crash while writing leaves it, ends the journal.
+ * <pre>
+ * attempt: int reading id * 2 + (1 if succeeded), long time in milliseconds
+ * reading: int -1, int reading id, char kanji, short length, char[] furigana
+ * session: int -2, long time in milliseconds
+ * </pre>
+ * Reading ids are dense, numbered from 0 in the order readings are first attempted, and a reading record defines its id before it is used.
+ * Each {@link #open(Path, long)} starts a new session, which numbers the readings from 0 again, with a batch that starts with a session record.
+ * The generation counts how many times the journal has been compacted, starting from 1.
+ */
+public final class AttemptJournal implements AttemptListener, Closeable {
+    private static Logger logger = Logger.getLogger(AttemptJournal.class.getName());
+
+    /**
+     * The default time between commits.
+     */
+    public static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 100;
+
+    private static final int MAGIC = 0x4A524E4C;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final long FIRST_GENERATION = 1;
+    private static final int BATCH_HEADER_BYTES = 8;
+    private static final int READING = -1;
+    private static final int SESSION = -2;
+    private static final int MAX_READINGS = 1 << 30;
+    private static final int INITIAL_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Replay splits the journal into about this many segments per thread, so threads that finish early can take more.
+     */
+    private static final int SEGMENTS_PER_THREAD = 4;
+
+    /**
+     * Replay does not split the journal into segments smaller than this.
+     */
+    private static final int MIN_SEGMENT_BYTES = 1 << 16;
+
+    /**
+     * Buffered records past this size are committed without waiting for the rest of the interval.
+     */
+    private static final int EARLY_COMMIT_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final long commitIntervalMillis;
+    private final Thread committer;
+
+    /**
+     * Guards {@link #buffer}, {@link #ids}, and {@link #closed}.
+     */
+    private final Object lock = new Object();
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private final Map<JapaneseKanjiWithReading, Integer> ids = new IdentityHashMap<>();
+    private boolean closed;
+
+    /**
+     * Guards {@link #spare} and writing to {@link #channel}, so one commit happens at a time.
+     */
+    private final Object commitLock = new Object();
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private final ByteBuffer batchHeader = ByteBuffer.allocate(BATCH_HEADER_BYTES);
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * The exception that stopped the journal from committing, or null.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Creates a journal that appends to an open file.
+     * @param channel The file, positioned after its last complete batch.
+     * @param commitIntervalMillis The time between commits.
+     */
+    private AttemptJournal(FileChannel channel, long commitIntervalMillis) {
+        this.channel = channel;
+        this.commitIntervalMillis = commitIntervalMillis;
+        buffer.putInt(SESSION).putLong(System.currentTimeMillis());
+
+        committer = new Thread(this::commitPeriodically, "attempt-journal-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Opens a journal of a dictionary that was not read from a snapshot.
+     * @param path The path of the journal file.
+     * @param commitIntervalMillis The time between commits, which is the most time of attempts a crash can lose.
+     * @return The {@link AttemptJournal}, which should then be set as the {@link AttemptListener} of the dictionary.
+     * @throws IOException Thrown when the file cannot be opened, or is not a valid journal.
+     * @throws IllegalArgumentException Thrown if the commit interval is not positive.
+     * @see #open(Path, long, long)
+     */
+    public static AttemptJournal open(Path path, long commitIntervalMillis) throws IOException {
+        return open(path, 0, commitIntervalMillis);
+    }
+
+    /**
+     * Opens a journal to append attempts to, creating the file if it does not exist.
+     * @param path The path of the journal file.
+     * @param snapshotGeneration The journal generation returned by {@link JapaneseDictionarySnapshot#read(Path, JapaneseWordDictionary)},
+     *                           or 0 if the dictionary was not read from a snapshot.
+     *                           A journal of this generation or older is replaced with an empty journal of the next generation.
+     * @param commitIntervalMillis The time between commits, which is the most time of attempts a crash can lose.
+     * @return The {@link AttemptJournal}, which should then be set as the {@link AttemptListener} of the dictionary.
+     * @throws IOException Thrown when the file cannot be opened, or is not a valid journal.
+     * @throws IllegalArgumentException Thrown if the snapshot generation is negative, or the commit interval is not positive.
+     * @apiNote Replay the journal with {@link #replay(Path, JapaneseKanjiDictionary, long, ForkJoinPool)}, and compact it, before opening it.
+     *          If the last batch was cut short by a crash, it is cut off before new batches are appended.
+     *          If a crash stopped {@link #compact(JapaneseWordDictionary, Path, Path)} after it wrote the snapshot, the journal is still of the snapshot's generation,
+     *          so replay would skip everything appended to it; it is rolled forward to the next generation instead.
+     */
+    public static AttemptJournal open(Path path, long snapshotGeneration, long commitIntervalMillis) throws IOException {
+        if (snapshotGeneration < 0) { throw new IllegalArgumentException("The snapshot generation of an attempt journal cannot be negative."); }
+        if (commitIntervalMillis <= 0) { throw new IllegalArgumentException("The commit interval of an attempt journal must be positive."); }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                writeHeader(channel, Math.max(FIRST_GENERATION, snapshotGeneration + 1));
+            } else if (readHeader(map(channel)) <= snapshotGeneration) {
+                if (logger.isLoggable(Level.WARNING)) {
+                    logger.warning(String.format("Attempt journal '%s' is of a generation the snapshot already includes, "
+                        + "so it was replaced with an empty journal of generation %d.", path, snapshotGeneration + 1));
+                }
+                channel.close();
+                replace(path, snapshotGeneration + 1);
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } else {
+                ByteBuffer file = map(channel);
+                readHeader(file);
+                long end = findEnd(file);
+                if (end < channel.size()) {
+                    if (logger.isLoggable(Level.WARNING)) {
+                        logger.warning(String.format("Cut off %d bytes of an incomplete batch at the end of attempt journal '%s'.", channel.size() - end, path));
+                    }
+                    channel.truncate(end);
+                }
+            }
+            channel.position(channel.size());
+            return new AttemptJournal(channel, commitIntervalMillis);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Records an attempt, to be written with the next commit.
+     * @param reading The {@link JapaneseKanjiWithReading} that was attempted.
+     * @param succeeded If the attempt was successful.
+     * @throws IllegalStateException Thrown if the journal is closed or has failed, so the attempt cannot be recorded.
+     */
+    @Override
+    public void attempted(JapaneseKanjiWithReading reading, boolean succeeded) {
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            checkOpen();
+
+            Integer id = ids.get(reading);
+            if (id == null) {
+                id = defineReading(reading);
+            }
+            ensureRemaining(12);
+            buffer.putInt((id << 1) | (succeeded ? 1 : 0)).putLong(now);
+            if (buffer.position() >= EARLY_COMMIT_BYTES) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Checks that the journal can record an attempt, before any score of the attempt is changed.
+     * @throws IllegalStateException Thrown if the journal is closed or has failed.
+     * @apiNote An attempt can still be refused by {@link #attempted(JapaneseKanjiWithReading, boolean)} if the journal is closed in between,
+     *          which is why the journal should be removed as the listener before it is closed.
+     */
+    @Override
+    public void beforeAttempt() {
+        synchronized (lock) {
+            checkOpen();
+        }
+    }
+
+    /**
+     * Checks that the journal is neither closed nor failed.
+     * @throws IllegalStateException Thrown if it is.
+     */
+    private void checkOpen() {
+        if (closed) { throw new IllegalStateException("The attempt journal is closed."); }
+        if (failure != null) { throw new IllegalStateException("The attempt journal can no longer be written.", failure); }
+    }
+
+    /**
+     * Gives a reading the next id, and records its definition.
+     * @param reading The {@link JapaneseKanjiWithReading}.
+     * @return The id.
+     * @throws IllegalStateException Thrown if the session has run out of ids.
+     */
+    private int defineReading(JapaneseKanjiWithReading reading) {
+        int id = ids.size();
+        if (id == MAX_READINGS) { throw new IllegalStateException(String.format("An attempt journal session can hold at most %d readings.", MAX_READINGS)); }
+
+        String furigana = reading.getFurigana();
+        ensureRemaining(12 + 2 * furigana.length());
+        buffer.putInt(READING).putInt(id).putChar(reading.getKanji()).putShort((short) furigana.length());
+        for (int i = 0; i < furigana.length(); i++) {
+            buffer.putChar(furigana.charAt(i));
+        }
+        ids.put(reading, id);
+        return id;
+    }
+
+    /**
+     * Grows the buffer if it does not have room for a record.
+     * @param bytes The size of the record.
+     */
+    private void ensureRemaining(int bytes) {
+        if (buffer.remaining() >= bytes) { return; }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+
+    /**
+     * Writes every attempt recorded so far as one batch, and forces it to disk.
+     * @throws IOException Thrown when the batch cannot be written.  The journal then stops recording.
+     */
+    public void commit() throws IOException {
+        synchronized (commitLock) {
+            if (failure != null) { throw new IOException("The attempt journal can no longer be written.", failure); }
+
+            ByteBuffer records;
+            synchronized (lock) {
+                if (buffer.position() == 0) { return; }
+                records = buffer;
+                buffer = spare;
+            }
+
+            try {
+                records.flip();
+                crc.reset();
+                crc.update(records);
+                records.rewind();
+                batchHeader.clear();
+                batchHeader.putInt(records.remaining()).putInt((int) crc.getValue());
+                batchHeader.flip();
+
+                ByteBuffer[] batch = {batchHeader, records};
+                while (records.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            } finally {
+                records.clear();
+                spare = records;
+            }
+        }
+    }
+
+    /**
+     * Commits once per interval, or sooner if enough records are buffered, until the journal is closed.
+     */
+    private void commitPeriodically() {
+        while (true) {
+            synchronized (lock) {
+                if (!closed && buffer.position() < EARLY_COMMIT_BYTES) {
+                    try {
+                        lock.wait(commitIntervalMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (closed) { return; }
+            }
+
+            try {
+                commit();
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "The attempt journal failed to commit, so no more attempts will be recorded.", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Commits every attempt recorded so far, and closes the journal.
+     * @throws IOException Thrown when the last batch cannot be written, or the file cannot be closed.
+     * @apiNote Remove the journal as the {@link AttemptListener} of the dictionary first, as it cannot record any more attempts.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) { return; }
+            closed = true;
+            lock.notifyAll();
+        }
+
+        try {
+            committer.join();
+            commit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the attempt journal.", e);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the header of a new journal.
+     * @param channel The empty file.
+     * @param generation The generation of the journal.
+     * @throws IOException Thrown when the header cannot be written.
+     */
+    private static void writeHeader(FileChannel channel, long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putLong(generation);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+
+    /**
+     * Adds every attempt in a journal back to the scores of a dictionary, folding segments of the journal on the common pool.
+     * @param path The path of the journal file.  If there is none, nothing is replayed.
+     * @param dictionary The {@link JapaneseKanjiDictionary}, with the words it had when the journal was written.
+     * @return The {@link Result}.
+     * @throws IOException Thrown when the file cannot be read, or is not a valid journal.
+     * @see #replay(Path, JapaneseKanjiDictionary, long, ForkJoinPool)
+     */
+    public static Result replay(Path path, JapaneseKanjiDictionary dictionary) throws IOException {
+        return replay(path, dictionary, 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Adds every attempt in a journal back to the scores of a dictionary, unless a snapshot already includes them.
+     * @param path The path of the journal file.  If there is none, nothing is replayed.
+     * @param dictionary The {@link JapaneseKanjiDictionary}, with the words it had when the journal was written.
+     * @param snapshotGeneration The journal generation returned by {@link JapaneseDictionarySnapshot#read(Path, JapaneseWordDictionary)},
+     *                           or 0 if the dictionary was not read from a snapshot.  A journal of this generation or older is not replayed.
+     * @param pool The {@link ForkJoinPool} that folds the segments of the journal.
+     * @return The {@link Result}.
+     * @throws IOException Thrown when the file cannot be read, or is not a valid journal.
+     * @apiNote The attempts are added without telling the dictionary's {@link AttemptListener}, so they are not journaled twice.
+     *          Attempts of readings that are no longer in the dictionary, or no longer have any words, are skipped.
+     */
+    public static Result replay(Path path, JapaneseKanjiDictionary dictionary, long snapshotGeneration, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() == 0) { return new Result(0, 0); }
+
+            ByteBuffer file = map(channel);
+            long generation = readHeader(file);
+            if (generation <= snapshotGeneration) {
+                if (logger.isLoggable(Level.WARNING)) {
+                    logger.warning(String.format("Attempt journal '%s' is generation %d, which the snapshot already includes, so it was not replayed.", path, generation));
+                }
+                return new Result(0, 0);
+            }
+            return replay(file, dictionary, pool);
+        } catch (NoSuchFileException e) {
+            // Nothing has been journaled yet.
+            return new Result(0, 0);
+        }
+    }
+
+    /**
+     * Replays the batches of a journal.
+     * @param file The journal, positioned after its header.
+     * @param dictionary The {@link JapaneseKanjiDictionary} to replay the attempts into.
+     * @param pool The {@link ForkJoinPool} that folds the segments of the journal.
+     * @return The {@link Result}.
+     * @throws IOException Thrown if a batch is not valid.
+     */
+    private static Result replay(ByteBuffer file, JapaneseKanjiDictionary dictionary, ForkJoinPool pool) throws IOException {
+        Batches batches = new Batches(file);
+        if (batches.size == 0) { return new Result(0, 0); }
+
+        int segmentBytes = Math.max(MIN_SEGMENT_BYTES, batches.bytes(0, batches.size) / (pool.getParallelism() * SEGMENTS_PER_THREAD));
+        List<Segment> segments;
+        try {
+            segments = pool.invoke(new Fold(file, batches, 0, batches.size, segmentBytes));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // A batch that fails its checksum ends the journal, so nothing after it is replayed even if later segments folded it.
+        int end = batches.size;
+        for (Segment segment : segments) {
+            if (segment.end < segment.to) {
+                end = Math.min(end, segment.end);
+            }
+        }
+
+        Map<Long, JapaneseKanjiWithReading> readings = new HashMap<>();
+        Set<Long> defined = new HashSet<>();
+        for (Segment segment : segments) {
+            if (segment.first >= end) { continue; }
+            for (int i = 0; i < segment.definitions.size(); i++) {
+                Definition definition = segment.definitions.get(i);
+                if (!defined.add(definition.key)) {
+                    throw new IOException(String.format("The attempt journal defines reading %d twice in one session.", (int) definition.key));
+                }
+                JapaneseKanji japaneseKanji = dictionary.find(definition.kanji);
+                if (japaneseKanji != null) {
+                    readings.put(definition.key, japaneseKanji.withReading(definition.furigana));
+                }
+            }
+        }
+
+        long skipped = 0;
+        Map<JapaneseKanjiWithReading, List<Score>> partials = new IdentityHashMap<>();
+        for (Segment segment : segments) {
+            if (segment.first >= end) { continue; }
+            for (SessionScores session : segment.sessions) {
+                for (int id = 0; id < session.size; id++) {
+                    if (session.attempts[id] == 0) { continue; }
+                    long key = key(session.session, id);
+                    if (!defined.contains(key)) {
+                        throw new IOException(String.format("The attempt journal uses reading %d without defining it.", id));
+                    }
+                    JapaneseKanjiWithReading reading = readings.get(key);
+                    if (reading == null) {
+                        skipped += session.attempts[id];
+                    } else {
+                        partials.computeIfAbsent(reading, r -> new ArrayList<>()).add(new Score(session.successes[id], session.attempts[id]));
+                    }
+                }
+            }
+        }
+
+        long replayed = 0;
+        for (Map.Entry<JapaneseKanjiWithReading, List<Score>> entry : partials.entrySet()) {
+            Score score = new Score(entry.getValue());
+            if (entry.getKey().replay(score)) {
+                replayed += score.getAttempts();
+            } else {
+                skipped += score.getAttempts();
+            }
+        }
+        return new Result(replayed, skipped);
+    }
+
+    /**
+     * Compacts a journal: writes a snapshot of a dictionary that includes the journal's attempts, and then replaces the journal
+     * with an empty one of the next generation.
+     * @param dictionary The {@link JapaneseWordDictionary}, which the journal has been replayed into.
+     * @param snapshot The path of the snapshot file.
+     * @param journal The path of the journal file.  If there is none, an empty one is created.
+     * @throws IOException Thrown when either file cannot be written, or the journal is not a valid journal.
+     * @apiNote The journal must not be open, and no attempts should be made until this returns.
+     *          The snapshot is on disk before the journal is replaced, so a crash loses neither.
+     *          If it is stopped by a crash after writing the snapshot, the snapshot's journal generation stops the old journal from being replayed again,
+     *          and {@link #open(Path, long, long)} replaces it with an empty journal of the next generation.
+     */
+    public static void compact(JapaneseWordDictionary dictionary, Path snapshot, Path journal) throws IOException {
+        long generation = 0;
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ)) {
+            if (channel.size() > 0) {
+                generation = readHeader(map(channel));
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing has been journaled yet.
+        }
+
+        JapaneseDictionarySnapshot.write(dictionary, snapshot, generation);
+        replace(journal, generation + 1);
+    }
+
+    /**
+     * Atomically replaces a journal with an empty one.
+     * @param journal The path of the journal file.
+     * @param generation The generation of the empty journal.
+     * @throws IOException Thrown when the journal cannot be written.
+     */
+    private static void replace(Path journal, long generation) throws IOException {
+        Path temporary = journal.resolveSibling(journal.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeHeader(channel, generation);
+            }
+            Files.move(temporary, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            JapaneseDictionarySnapshot.forceDirectory(journal);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Maps a journal file.
+     * @param channel The file.
+     * @return The mapped file.
+     * @throws IOException Thrown when the file cannot be mapped.
+     */
+    private static ByteBuffer map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(String.format("The attempt journal is %d bytes, but at most %d bytes can be mapped.", size, Integer.MAX_VALUE));
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * Reads the header of a journal.
+     * @param file The journal, which is left positioned after its header.
+     * @return The generation of the journal.
+     * @throws IOException Thrown if the file is not a journal of a version that can be read.
+     */
+    private static long readHeader(ByteBuffer file) throws IOException {
+        if (file.remaining() < 8 || file.getInt() != MAGIC) {
+            throw new IOException("The file is not an attempt journal.");
+        }
+        int version = file.getInt();
+        if (version != VERSION || file.remaining() < 8) {
+            throw new IOException(String.format("The attempt journal is version %d, but only version %d can be read.", version, VERSION));
+        }
+        return file.getLong();
+    }
+
+    /**
+     * Finds the end of the last complete batch of a journal.
+     * @param file The journal, positioned after its header.
+     * @return The end of the last batch that is not cut short and passes its checksum.
+     */
+    private static long findEnd(ByteBuffer file) {
+        Batches batches = new Batches(file);
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < batches.size; i++) {
+            if (!batches.isComplete(i, crc)) { return batches.offsets[i]; }
+        }
+        return batches.end;
+    }
+
+    /**
+     * Gets the key of a reading id in a session.
+     * @param session The index of the session in the journal.
+     * @param id The reading id.
+     * @return The key.
+     */
+    private static long key(int session, int id) {
+        return ((long) session << 32) | id;
+    }
+
+    /**
+     * The {@link Batches} of a journal are where each batch starts, found by following the batch lengths without reading the records.
+     */
+    private static final class Batches {
+        private final ByteBuffer file;
+        private int[] offsets = new int[64];
+        private int[] sessions = new int[64];
+        private int size;
+        private final int end;
+
+        /**
+         * Finds the batches of a journal, up to one that is cut short.
+         * @param file The journal, positioned after its header.
+         */
+        Batches(ByteBuffer file) {
+            this.file = file;
+            int offset = file.position();
+            int session = -1;
+            while (file.limit() - offset >= BATCH_HEADER_BYTES) {
+                int length = file.getInt(offset);
+                if (length <= 0 || length > file.limit() - offset - BATCH_HEADER_BYTES) { break; }
+                if (session < 0 || (length >= 4 && file.getInt(offset + BATCH_HEADER_BYTES) == SESSION)) {
+                    session++;
+                }
+
+                if (size == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, size * 2);
+                    sessions = Arrays.copyOf(sessions, size * 2);
+                }
+                offsets[size] = offset;
+                sessions[size] = session;
+                size++;
+                offset += BATCH_HEADER_BYTES + length;
+            }
+            end = offset;
+        }
+
+        /**
+         * Gets the number of bytes of a range of batches.
+         * @param from The first batch.
+         * @param to The batch after the last.
+         * @return The number of bytes.
+         */
+        int bytes(int from, int to) {
+            return (to == size ? end : offsets[to]) - offsets[from];
+        }
+
+        /**
+         * Gets the records of a batch.
+         * @param i The batch.
+         * @return The records.
+         */
+        ByteBuffer records(int i) {
+            ByteBuffer records = file.duplicate();
+            records.limit(offsets[i] + BATCH_HEADER_BYTES + file.getInt(offsets[i]));
+            records.position(offsets[i] + BATCH_HEADER_BYTES);
+            return records;
+        }
+
+        /**
+         * Checks that a batch passes its checksum, as a batch that was being written when the journal crashed does not.
+         * @param i The batch.
+         * @param crc The {@link CRC32} to use.
+         * @return Whether it does.
+         */
+        boolean isComplete(int i, CRC32 crc) {
+            crc.reset();
+            crc.update(records(i));
+            return (int) crc.getValue() == file.getInt(offsets[i] + 4);
+        }
+    }
+
+    /**
+     * A {@link Fold} folds a range of batches into {@link Segment}s, splitting it until the segments are small enough.
+     */
+    private static final class Fold extends RecursiveTask<List<Segment>> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer file;
+        private final Batches batches;
+        private final int from;
+        private final int to;
+        private final int segmentBytes;
+
+        /**
+         * Creates a new {@link Fold}.
+         * @param file The journal.
+         * @param batches The {@link Batches} of the journal.
+         * @param from The first batch.
+         * @param to The batch after the last.
+         * @param segmentBytes The size that a range is not split below.
+         */
+        Fold(ByteBuffer file, Batches batches, int from, int to, int segmentBytes) {
+            this.file = file;
+            this.batches = batches;
+            this.from = from;
+            this.to = to;
+            this.segmentBytes = segmentBytes;
+        }
+
+        @Override
+        protected List<Segment> compute() {
+            if (to - from > 1 && batches.bytes(from, to) > segmentBytes) {
+                int middle = (from + to) >>> 1;
+                Fold left = new Fold(file, batches, from, middle, segmentBytes);
+                left.fork();
+                List<Segment> right = new Fold(file, batches, middle, to, segmentBytes).compute();
+                List<Segment> segments = left.join();
+                segments.addAll(right);
+                return segments;
+            }
+
+            List<Segment> segments = new ArrayList<>();
+            try {
+                segments.add(new Segment(batches, from, to));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return segments;
+        }
+    }
+
+    /**
+     * A {@link Segment} is a range of batches folded into the successes and attempts of each reading id of each session.
+     */
+    private static final class Segment {
+        private final int first;
+        private final int to;
+        private final List<SessionScores> sessions = new ArrayList<>();
+        private final List<Definition> definitions = new ArrayList<>();
+
+        /**
+         * The batch after the last one folded, which is the first that fails its checksum if any does.
+         */
+        private int end;
+
+        /**
+         * Folds a range of batches.
+         * @param batches The {@link Batches} of the journal.
+         * @param from The first batch.
+         * @param to The batch after the last.
+         * @throws IOException Thrown if a record is not valid.
+         */
+        Segment(Batches batches, int from, int to) throws IOException {
+            first = from;
+            this.to = to;
+            CRC32 crc = new CRC32();
+            SessionScores scores = null;
+            for (end = from; end < to; end++) {
+                if (!batches.isComplete(end, crc)) { break; }
+                if (scores == null || scores.session != batches.sessions[end]) {
+                    scores = new SessionScores(batches.sessions[end]);
+                    sessions.add(scores);
+                }
+                fold(batches.records(end), scores);
+            }
+        }
+
+        /**
+         * Folds the records of a complete batch.
+         * @param batch The records.
+         * @param scores The {@link SessionScores} of the batch's session.
+         * @throws IOException Thrown if a record is not valid.
+         */
+        private void fold(ByteBuffer batch, SessionScores scores) throws IOException {
+            try {
+                if (batch.remaining() >= 4 && batch.getInt(batch.position()) == SESSION) {
+                    batch.getInt();
+                    batch.getLong();
+                }
+                while (batch.hasRemaining()) {
+                    int header = batch.getInt();
+                    if (header >= 0) {
+                        batch.getLong();
+                        scores.attempt(header >>> 1, (header & 1) == 1);
+                    } else if (header == READING) {
+                        int id = batch.getInt();
+                        char kanji = batch.getChar();
+                        char[] furigana = new char[batch.getShort() & 0xFFFF];
+                        for (int i = 0; i < furigana.length; i++) {
+                            furigana[i] = batch.getChar();
+                        }
+                        if (id < 0 || id >= MAX_READINGS) {
+                            throw new IOException(String.format("The attempt journal defines reading %d, which is not a valid id.", id));
+                        }
+                        definitions.add(new Definition(key(scores.session, id), kanji, new String(furigana)));
+                    } else if (header == SESSION) {
+                        throw new IOException("The attempt journal has a session record inside a batch.");
+                    } else {
+                        throw new IOException(String.format("The attempt journal has a record of unknown type %d.", header));
+                    }
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IOException("The attempt journal has a record that is cut short inside a complete batch.", e);
+            }
+        }
+    }
+
+    /**
+     * The {@link SessionScores} of a session in a {@link Segment} are the successes and attempts of each reading id.
+     */
+    private static final class SessionScores {
+        private final int session;
+        private long[] successes = new long[16];
+        private long[] attempts = new long[16];
+        private int size;
+
+        /**
+         * Creates a new {@link SessionScores}.
+         * @param session The index of the session in the journal.
+         */
+        SessionScores(int session) {
+            this.session = session;
+        }
+
+        /**
+         * Adds an attempt.
+         * @param id The reading id.
+         * @param succeeded If the attempt was successful.
+         */
+        void attempt(int id, boolean succeeded) {
+            if (id >= attempts.length) {
+                int length = Math.max(id + 1, attempts.length * 2);
+                successes = Arrays.copyOf(successes, length);
+                attempts = Arrays.copyOf(attempts, length);
+            }
+            if (succeeded) { successes[id]++; }
+            attempts[id]++;
+            size = Math.max(size, id + 1);
+        }
+    }
+
+    /**
+     * A {@link Definition} is a reading record: the reading a session gives an id.
+     */
+    private static final class Definition {
+        private final long key;
+        private final char kanji;
+        private final String furigana;
+
+        /**
+         * Creates a new {@link Definition}.
+         * @param key The session and id, as made by {@link AttemptJournal#key(int, int)}.
+         * @param kanji The kanji.
+         * @param furigana The furigana.
+         */
+        Definition(long key, char kanji, String furigana) {
+            this.key = key;
+            this.kanji = kanji;
+            this.furigana = furigana;
+        }
+    }
+
+    /**
+     * A {@link Result} counts the attempts of a replay.
+     */
+    public static final class Result {
+        private final long replayed;
+        private final long skipped;
+
+        /**
+         * Creates a new {@link Result}.
+         * @param replayed The number of attempts added to the dictionary.
+         * @param skipped The number of attempts of readings that are not in the dictionary.
+         */
+        Result(long replayed, long skipped) {
+            this.replayed = replayed;
+            this.skipped = skipped;
+        }
+
+        /**
+         * Gets the number of attempts added to the dictionary.
+         * @return The number of attempts.
+         */
+        public long getReplayed() {
+            return replayed;
+        }
+
+        /**
+         * Gets the number of attempts of readings that are not in the dictionary, or no longer have any words.
+         * @return The number of attempts.
+         */
+        public long getSkipped() {
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.potrt.flashcards.japanese;
+
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+
+/**
+ * An {@link AttemptListener} is told about every attempt of a kanji reading in a {@link JapaneseKanjiDictionary}.
+ * @see JapaneseKanjiDictionary#setAttemptListener(AttemptListener)
+ */
+@FunctionalInterface
+public interface AttemptListener {
+    /**
+     * Called after an attempt has been added to the score of a reading.
+     * @param reading The {@link JapaneseKanjiWithReading} that was attempted.
+     * @param succeeded If the attempt was successful.
+     * @apiNote This is called on the thread that made the attempt, so it should return quickly.
+     */
+    void attempted(JapaneseKanjiWithReading reading, boolean succeeded);
+
+    /**
+     * Called before an attempt is added to any score, so a listener that could not record it can stop it.
+     * An attempt of a {@link JapaneseWord} calls this once, before any of its readings are attempted.
+     * @throws IllegalStateException Thrown if the listener cannot record the attempt.  No score is then changed.
+     */
+    default void beforeAttempt() {}
+
+    /**
+     * Combines this listener with another, so a dictionary can tell both about each attempt.
+     * @param after The {@link AttemptListener} told after this one.
+     * @return The combined {@link AttemptListener}.
+     */
+    default AttemptListener andThen(AttemptListener after) {
+        AttemptListener before = this;
+        return new AttemptListener() {
+            @Override
+            public void attempted(JapaneseKanjiWithReading reading, boolean succeeded) {
+                before.attempted(reading, succeeded);
+                after.attempted(reading, succeeded);
+            }
+
+            @Override
+            public void beforeAttempt() {
+                before.beforeAttempt();
+                after.beforeAttempt();
+            }
+        };
+    }
+}
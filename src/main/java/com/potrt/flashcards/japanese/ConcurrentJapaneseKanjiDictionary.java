@@ -0,0 +1,23 @@
+package com.potrt.flashcards.japanese;
+
+/**
+ * A {@link ConcurrentJapaneseKanjiDictionary} is a {@link JapaneseKanjiDictionary} that can be shared between threads.
+ * <p>
+ * Kanji are added to the {@link KanjiMap} under its lock and looked up without one,
+ * so creating the same kanji from several threads always results in one {@link JapaneseKanji}.
+ * The kanji it creates can be read while words are attached to them, and should be used with a {@link ConcurrentJapaneseWordDictionary}.
+ */
+public class ConcurrentJapaneseKanjiDictionary extends JapaneseKanjiDictionary {
+
+    /**
+     * Creates an empty dictionary.
+     */
+    public ConcurrentJapaneseKanjiDictionary() {
+        super();
+    }
+
+    @Override
+    protected JapaneseKanji newKanji(Character kanji, String meaning, int id) {
+        return new JapaneseKanji(kanji, meaning, true, this, id);
+    }
+}
@@ -0,0 +1,227 @@
+package com.potrt.flashcards.japanese;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjIntConsumer;
+
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+import com.potrt.flashcards.japanese.verb.JapaneseVerbConjugationCache;
+
+/**
+ * A {@link ConcurrentJapaneseWordDictionary} is a {@link JapaneseWordDictionary} that can be shared between threads.
+ * <p>
+ * Words are held in {@link ConcurrentHashMap}s, so {@link #get(String)}, {@link #contains(String)}, and {@link #getWordsByFurigana(String)} never block.
+ * {@link #prefixSearch(String, int)} briefly locks the prefix index, which is shared with writers.
+ * {@link #put(JapaneseWord)} and {@link #replace(JapaneseWord)} lock a stripe chosen by the word's kanji,
+ * so two writes of the same word are serialized, while the word only becomes visible to {@link #get(String)} once it is attached.
+ * Attaching and detaching words also lock a stripe per {@link JapaneseKanji} the word is made of, always in ascending stripe order,
+ * so the words and readings of each kanji are only changed by one thread at a time.
+ * Like {@link JapaneseWordDictionary#replace(JapaneseWord)}, replacing updates the word inside the dictionary in place,
+ * so a thread reading that word's values while it is replaced may see some of the old values and some of the new ones.
+ * <p>
+ * The associated kanji dictionary should be a {@link ConcurrentJapaneseKanjiDictionary}, so its kanji can be read while they change.
+ */
+public class ConcurrentJapaneseWordDictionary extends JapaneseWordDictionary {
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] wordLocks = newLocks();
+    private final ReentrantLock[] kanjiLocks = newLocks();
+
+    /**
+     * Creates a thread-safe dictionary for Japanese words with a reference to a {@link ConcurrentJapaneseKanjiDictionary}.
+     * @param kanjiDictionary The {@link ConcurrentJapaneseKanjiDictionary} to associate.
+     */
+    public ConcurrentJapaneseWordDictionary(ConcurrentJapaneseKanjiDictionary kanjiDictionary) {
+        super(kanjiDictionary, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), null);
+    }
+
+    /**
+     * Creates a thread-safe dictionary for Japanese words with a reference to a {@link ConcurrentJapaneseKanjiDictionary}, that caches verb conjugations.
+     * @param kanjiDictionary The {@link ConcurrentJapaneseKanjiDictionary} to associate.
+     * @param conjugationCacheSize The maximum number of conjugations to cache.
+     */
+    public ConcurrentJapaneseWordDictionary(ConcurrentJapaneseKanjiDictionary kanjiDictionary, int conjugationCacheSize) {
+        super(kanjiDictionary, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new JapaneseVerbConjugationCache(conjugationCacheSize));
+    }
+
+    @Override
+    public JapaneseWord put(JapaneseWord word) {
+        ReentrantLock lock = wordLocks[stripe(word.getKanji().hashCode())];
+        lock.lock();
+        try {
+            return super.put(word);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public JapaneseWord replace(JapaneseWord word) {
+        ReentrantLock lock = wordLocks[stripe(word.getKanji().hashCode())];
+        lock.lock();
+        try {
+            return super.replace(word);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The whole batch is added while holding every word stripe, and is attached while holding every kanji stripe,
+     * so other writers wait for the batch but each lock is only taken once.
+     */
+    @Override
+    public int putAll(List<? extends JapaneseWord> words, ObjIntConsumer<RuntimeException> onError) {
+        lockAll(wordLocks);
+        try {
+            return super.putAll(words, onError);
+        } finally {
+            unlockAll(wordLocks);
+        }
+    }
+
+    @Override
+    protected void attachAll(List<JapaneseWord> words) {
+        lockAll(kanjiLocks);
+        try {
+            super.attachAll(words);
+        } finally {
+            unlockAll(kanjiLocks);
+        }
+    }
+
+    @Override
+    protected Map<String, JapaneseWord> newFuriganaEntry() {
+        return new ConcurrentHashMap<>();
+    }
+
+    @Override
+    protected void attach(JapaneseWord word) {
+        int[] stripes = kanjiStripes(word, null);
+        lockKanji(stripes);
+        try {
+            super.attach(word);
+        } finally {
+            unlockKanji(stripes);
+        }
+    }
+
+    @Override
+    protected void reattach(JapaneseWord current, JapaneseWord word) {
+        int[] stripes = kanjiStripes(current, word);
+        lockKanji(stripes);
+        try {
+            super.reattach(current, word);
+        } finally {
+            unlockKanji(stripes);
+        }
+    }
+
+    /**
+     * Gets the distinct kanji stripes of one or two words, in ascending order.
+     * @param word The first word.
+     * @param other The second word, or null.
+     * @return The stripes.
+     */
+    private int[] kanjiStripes(JapaneseWord word, JapaneseWord other) {
+        JapaneseWordSegments segments = word.getSegments();
+        JapaneseWordSegments otherSegments = other == null ? null : other.getSegments();
+        int[] stripes = new int[segments.size() + (otherSegments == null ? 0 : otherSegments.size())];
+        int i = addKanjiStripes(segments, stripes, 0);
+        if (otherSegments != null) {
+            i = addKanjiStripes(otherSegments, stripes, i);
+        }
+        Arrays.sort(stripes, 0, i);
+
+        int distinct = 0;
+        for (int j = 0; j < i; j++) {
+            if (j == 0 || stripes[j] != stripes[j - 1]) {
+                stripes[distinct++] = stripes[j];
+            }
+        }
+        return Arrays.copyOf(stripes, distinct);
+    }
+
+    /**
+     * Adds the stripe of each kanji of a word.
+     * @param segments The {@link JapaneseWordSegments} of the word.
+     * @param stripes The stripes to add to.
+     * @param i The index of the next stripe.
+     * @return The index of the next stripe after those added.
+     */
+    private static int addKanjiStripes(JapaneseWordSegments segments, int[] stripes, int i) {
+        for (int segment = 0; segment < segments.size(); segment++) {
+            JapaneseKanjiWithReading reading = segments.getKanji(segment);
+            if (reading != null) {
+                stripes[i++] = stripe(reading.getKanji().hashCode());
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Locks the kanji stripes.
+     * @param stripes The stripes, in ascending order.
+     */
+    private void lockKanji(int[] stripes) {
+        for (int stripe : stripes) {
+            kanjiLocks[stripe].lock();
+        }
+    }
+
+    /**
+     * Unlocks the kanji stripes.
+     * @param stripes The stripes, in ascending order.
+     */
+    private void unlockKanji(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            kanjiLocks[stripes[i]].unlock();
+        }
+    }
+
+    /**
+     * Locks every stripe.
+     * @param locks The locks.
+     */
+    private static void lockAll(ReentrantLock[] locks) {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    /**
+     * Unlocks every stripe.
+     * @param locks The locks.
+     */
+    private static void unlockAll(ReentrantLock[] locks) {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    /**
+     * Gets the stripe for a hash.
+     * @param hash The hash.
+     * @return The stripe, from 0 to {@value #STRIPES} - 1.
+     */
+    private static int stripe(int hash) {
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * Creates a lock for every stripe.
+     * @return The locks.
+     */
+    private static ReentrantLock[] newLocks() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+}
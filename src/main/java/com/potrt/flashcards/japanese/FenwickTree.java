@@ -0,0 +1,101 @@
+package com.potrt.flashcards.japanese;
+
+import java.util.Arrays;
+
+/**
+ * A {@link FenwickTree} holds a growable array of non-negative weights, and can change a weight,
+ * or find the index that a point in the running total of the weights falls in, in O(log n).
+ * <p>
+ * It is a binary indexed tree: entry {@code i} of the tree (counting from 1) holds the sum of the weights
+ * from {@code i - (i & -i)} up to {@code i - 1}.
+ */
+class FenwickTree {
+    private long[] weights;
+    private long[] tree;
+    private long total;
+
+    /**
+     * Creates a new {@link FenwickTree} with every weight 0.
+     * @param capacity The number of weights to make room for.  More can be set.
+     */
+    FenwickTree(int capacity) {
+        weights = new long[Math.max(1, capacity)];
+        tree = new long[weights.length + 1];
+    }
+
+    /**
+     * Gets a weight.
+     * @param index The index of the weight.
+     * @return The weight, which is 0 if it was never set.
+     */
+    long get(int index) {
+        return index < weights.length ? weights[index] : 0;
+    }
+
+    /**
+     * Sets a weight.
+     * @param index The index of the weight.
+     * @param weight The weight.
+     * @throws IllegalArgumentException Thrown if the index or weight is negative.
+     */
+    void set(int index, long weight) {
+        if (index < 0 || weight < 0) { throw new IllegalArgumentException("The index and weight of a Fenwick tree cannot be negative."); }
+        if (index >= weights.length) {
+            grow(index + 1);
+        }
+
+        long delta = weight - weights[index];
+        weights[index] = weight;
+        total += delta;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Makes room for more weights, and rebuilds the tree in O(n).
+     * @param capacity The number of weights needed.
+     */
+    private void grow(int capacity) {
+        weights = Arrays.copyOf(weights, Math.max(capacity, weights.length * 2));
+        tree = new long[weights.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] += weights[i - 1];
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * Gets the sum of every weight.
+     * @return The sum.
+     */
+    long total() {
+        return total;
+    }
+
+    /**
+     * Finds the index whose weight covers a point in the running total of the weights,
+     * so that each index is found for as many points as its weight.
+     * @param point The point, from 0 up to but not including {@link #total()}.
+     * @return The index.
+     * @throws IllegalArgumentException Thrown if the point is not within the total.
+     */
+    int find(long point) {
+        if (point < 0 || point >= total) {
+            throw new IllegalArgumentException(String.format("The point %d is not within the total weight %d.", point, total));
+        }
+
+        int index = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>>= 1) {
+            int next = index + step;
+            if (next < tree.length && tree[next] <= point) {
+                index = next;
+                point -= tree[next];
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,369 @@
+package com.potrt.flashcards.japanese;
+
+import java.util.Arrays;
+
+/**
+ * A {@link FuriganaAligner} splits the reading of a whole word across its kanji, e.g. {@code 食べ物} read {@code たべもの}
+ * into {@code 食(た) べ 物(もの)}, so words from dictionaries that only give the whole reading can be built.
+ * <p>
+ * The kana of the word must appear in the reading as they are written, so they pin down where each run of kanji is read.
+ * Each run of kanji is then split by the readings its kanji are already known by (see {@link JapaneseKanji#getReadings()}),
+ * or by a variant of one:
+ * <ul>
+ * <li>Rendaku, where the first kana of a kanji after the start of the word is voiced, e.g. {@code 本棚} with {@code たな} read {@code だな}.</li>
+ * <li>Small tsu, where the last {@code つ}, {@code ち}, {@code く}, or {@code き} of a kanji before the end of the word doubles the next sound,
+ *     e.g. {@code 学校} with {@code がく} read {@code がっ}.</li>
+ * </ul>
+ * A kanji with no reading that fits can take any reading, but only one in each run of kanji, as more could be split many ways.
+ * The alignment with the fewest variants and unknown readings is chosen, and the variant is what the kanji is read as in the word.
+ * <p>
+ * It is a dynamic program over the runs of the word and the positions of the reading, memoized for each run and the position it starts at,
+ * so each run is split at most once for each place it could start.
+ * An aligner reuses its tables from word to word, so it must not be shared between threads.
+ */
+public class FuriganaAligner {
+    /**
+     * The cost of a kanji read as one of its known readings.
+     */
+    private static final int KNOWN = 0;
+
+    /**
+     * The cost of each rendaku or small tsu in the reading of a kanji.
+     */
+    private static final int VARIANT = 1;
+
+    /**
+     * The cost of a kanji read by a reading it is not known by.
+     */
+    private static final int UNKNOWN = 4;
+
+    private static final int UNSOLVED = -1;
+    private static final int IMPOSSIBLE = Integer.MAX_VALUE;
+
+    private final JapaneseKanjiDictionary dictionary;
+
+    private String word;
+    private String reading;
+
+    /**
+     * The runs of the word, each the kanji or kana between {@code runStarts[i]} and {@code runStarts[i + 1]}.
+     */
+    private int[] runStarts = new int[8];
+    private int runs;
+    private JapaneseKanji[] kanji = new JapaneseKanji[8];
+
+    /**
+     * The lowest cost of reading every run from a run on, starting at a position of the reading, indexed by {@code run * (length + 1) + position},
+     * and the position the first of those runs ends at.
+     */
+    private int[] memoCost = new int[64];
+    private int[] memoEnd = new int[64];
+
+    /**
+     * Creates an aligner for words made of the kanji of a dictionary.
+     * @param dictionary The {@link JapaneseKanjiDictionary}.
+     */
+    public FuriganaAligner(JapaneseKanjiDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Splits the reading of a word across its kanji.
+     * @param word The word as written, e.g. {@code 食べ物}.  Every kanji must already be in the dictionary.
+     * @param reading The reading of the whole word, e.g. {@code たべもの}.
+     * @return A {@link JapaneseWordBuilder} with the kanji and kana of the word added.
+     * @throws IllegalArgumentException Thrown if a kanji is not in the dictionary, or the reading cannot be split across the word.
+     */
+    public JapaneseWordBuilder align(String word, String reading) {
+        this.word = word;
+        this.reading = reading;
+        try {
+            split();
+            int size = runs * (reading.length() + 1);
+            if (memoCost.length < size) {
+                memoCost = new int[Math.max(size, 2 * memoCost.length)];
+                memoEnd = new int[memoCost.length];
+            }
+            Arrays.fill(memoCost, 0, size, UNSOLVED);
+
+            if (solve(0, 0) == IMPOSSIBLE) {
+                throw new IllegalArgumentException(String.format("The reading '%s' cannot be aligned with the word '%s'.", reading, word));
+            }
+            return build();
+        } finally {
+            Arrays.fill(kanji, 0, Math.min(word.length(), kanji.length), null);
+            this.word = null;
+            this.reading = null;
+        }
+    }
+
+    /**
+     * Splits the word into runs of kanji and kana, and finds each kanji in the dictionary.
+     * @throws IllegalArgumentException Thrown if a kanji is not in the dictionary, or a character is outside the Basic Multilingual Plane.
+     */
+    private void split() {
+        if (kanji.length < word.length()) {
+            kanji = new JapaneseKanji[Math.max(word.length(), 2 * kanji.length)];
+        }
+        runs = 0;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (Character.isSurrogate(c)) {
+                throw new IllegalArgumentException(String.format("The word '%s' has a character outside the Basic Multilingual Plane.", word));
+            }
+            if (Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN) {
+                kanji[i] = dictionary.find(c);
+                if (kanji[i] == null) {
+                    throw new IllegalArgumentException(String.format("The kanji '%c' of the word '%s' is not in the kanji dictionary.", c, word));
+                }
+            }
+            if (i == 0 || (kanji[i] == null) != (kanji[i - 1] == null)) {
+                if (runs + 1 >= runStarts.length) {
+                    runStarts = Arrays.copyOf(runStarts, 2 * runStarts.length);
+                }
+                runStarts[runs++] = i;
+            }
+        }
+        runStarts[runs] = word.length();
+    }
+
+    /**
+     * Finds the lowest cost of reading the runs from one on.
+     * @param run The first run.
+     * @param position Where the run starts in the reading.
+     * @return The cost, or {@value #IMPOSSIBLE} if the rest of the reading cannot be split across the runs.
+     */
+    private int solve(int run, int position) {
+        if (run == runs) { return position == reading.length() ? 0 : IMPOSSIBLE; }
+        int memo = run * (reading.length() + 1) + position;
+        if (memoCost[memo] != UNSOLVED) { return memoCost[memo]; }
+
+        int start = runStarts[run];
+        int end = runStarts[run + 1];
+        int best = IMPOSSIBLE;
+        int bestEnd = position;
+        if (kanji[start] == null) {
+            // Kana are read as they are written.
+            int length = end - start;
+            if (reading.regionMatches(position, word, start, length)) {
+                int rest = solve(run + 1, position + length);
+                if (rest != IMPOSSIBLE) {
+                    best = rest;
+                    bestEnd = position + length;
+                }
+            }
+        } else {
+            int[] costs = splitRun(start, end, position, null);
+            for (int q = position + 1; q < costs.length; q++) {
+                if (costs[q] == IMPOSSIBLE) { continue; }
+                int rest = solve(run + 1, q);
+                if (rest != IMPOSSIBLE && costs[q] + rest < best) {
+                    best = costs[q] + rest;
+                    bestEnd = q;
+                }
+            }
+        }
+        memoCost[memo] = best;
+        memoEnd[memo] = bestEnd;
+        return best;
+    }
+
+    /**
+     * Finds the lowest cost of reading a run of kanji up to every position of the reading.
+     * @param start The first kanji of the run in the word.
+     * @param end The end of the run in the word.
+     * @param position Where the run starts in the reading.
+     * @param table If not null, filled with the cost of reading the first {@code k} kanji up to each position with {@code u} unknown readings,
+     *              at {@code (k * (length + 1) + position) * 2 + u}.
+     * @return The cost of reading the whole run up to each position, or {@value #IMPOSSIBLE}.
+     */
+    private int[] splitRun(int start, int end, int position, int[] table) {
+        int length = reading.length();
+        int[] current = new int[2 * (length + 1)];
+        int[] next = new int[current.length];
+        Arrays.fill(current, IMPOSSIBLE);
+        current[2 * position] = 0;
+        if (table != null) {
+            System.arraycopy(current, 0, table, 0, current.length);
+        }
+
+        for (int k = start; k < end; k++) {
+            Arrays.fill(next, IMPOSSIBLE);
+            for (int p = position; p < length; p++) {
+                for (int unknown = 0; unknown < 2; unknown++) {
+                    int cost = current[2 * p + unknown];
+                    if (cost == IMPOSSIBLE) { continue; }
+                    for (String known : kanji[k].knownReadings()) {
+                        int q = p + known.length();
+                        int variants = variants(known, k, p, q);
+                        if (variants >= 0) {
+                            relax(next, 2 * q + unknown, cost + KNOWN + VARIANT * variants);
+                        }
+                    }
+                    if (unknown == 0) {
+                        for (int q = p + 1; q <= length; q++) {
+                            relax(next, 2 * q + 1, cost + UNKNOWN);
+                        }
+                    }
+                }
+            }
+            int[] swap = current;
+            current = next;
+            next = swap;
+            if (table != null) {
+                System.arraycopy(current, 0, table, (k - start + 1) * current.length, current.length);
+            }
+        }
+
+        int[] costs = new int[length + 1];
+        for (int q = 0; q <= length; q++) {
+            costs[q] = Math.min(current[2 * q], current[2 * q + 1]);
+        }
+        return costs;
+    }
+
+    /**
+     * Lowers a cost in a table if a new way is cheaper.
+     * @param table The table.
+     * @param index The index of the cost.
+     * @param cost The cost of the new way.
+     */
+    private static void relax(int[] table, int index, int cost) {
+        if (cost < table[index]) {
+            table[index] = cost;
+        }
+    }
+
+    /**
+     * Checks whether a kanji can be read as a part of the reading by one of its known readings.
+     * @param known The known reading.
+     * @param k The index of the kanji in the word.
+     * @param p The start of the part of the reading.
+     * @param q The end of the part of the reading.
+     * @return The number of rendaku and small tsu needed to read it, or -1 if it cannot be.
+     */
+    private int variants(String known, int k, int p, int q) {
+        int length = known.length();
+        if (q > reading.length() || q - p != length) { return -1; }
+
+        int variants = 0;
+        for (int i = 0; i < length; i++) {
+            char expected = known.charAt(i);
+            char actual = reading.charAt(p + i);
+            if (expected == actual) { continue; }
+            if (i == 0 && k > 0 && isVoiced(expected, actual)) {
+                variants++;
+            } else if (i == length - 1 && i > 0 && q < reading.length() && actual == 'っ' && isDoubled(expected)) {
+                variants++;
+            } else {
+                return -1;
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Checks whether a kana is the voiced (e.g. {@code か} to {@code が}) or half voiced (e.g. {@code は} to {@code ぱ}) form of another.
+     * @param plain The plain kana.
+     * @param voiced The kana that may be voiced.
+     * @return Whether it is.
+     */
+    private static boolean isVoiced(char plain, char voiced) {
+        if (plain >= 'か' && plain <= 'ち' && (plain - 'か') % 2 == 0) { return voiced == plain + 1; }
+        if (plain >= 'つ' && plain <= 'と' && (plain - 'つ') % 2 == 0) { return voiced == plain + 1; }
+        if (plain >= 'は' && plain <= 'ほ' && (plain - 'は') % 3 == 0) { return voiced == plain + 1 || voiced == plain + 2; }
+        return false;
+    }
+
+    /**
+     * Checks whether a kana at the end of a reading can become a small tsu.
+     * @param kana The kana.
+     * @return Whether it can.
+     */
+    private static boolean isDoubled(char kana) {
+        return kana == 'つ' || kana == 'ち' || kana == 'く' || kana == 'き';
+    }
+
+    /**
+     * Builds the word from the solved alignment.
+     * @return The {@link JapaneseWordBuilder}.
+     */
+    private JapaneseWordBuilder build() {
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        int stride = reading.length() + 1;
+        int position = 0;
+        for (int run = 0; run < runs; run++) {
+            int start = runStarts[run];
+            int end = runStarts[run + 1];
+            int runEnd = memoEnd[run * stride + position];
+            if (kanji[start] == null) {
+                builder.add(word.substring(start, end));
+            } else {
+                addRun(builder, start, end, position, runEnd);
+            }
+            position = runEnd;
+        }
+        return builder;
+    }
+
+    /**
+     * Adds the kanji of a run, tracing the cheapest way to read them back from the end of the run.
+     * @param builder The {@link JapaneseWordBuilder}.
+     * @param start The first kanji of the run in the word.
+     * @param end The end of the run in the word.
+     * @param position Where the run starts in the reading.
+     * @param runEnd Where the run ends in the reading.
+     */
+    private void addRun(JapaneseWordBuilder builder, int start, int end, int position, int runEnd) {
+        int width = 2 * (reading.length() + 1);
+        int[] table = new int[(end - start + 1) * width];
+        splitRun(start, end, position, table);
+
+        int[] ends = new int[end - start + 1];
+        int q = runEnd;
+        int unknown = table[(end - start) * width + 2 * q] <= table[(end - start) * width + 2 * q + 1] ? 0 : 1;
+        for (int k = end - 1; k >= start; k--) {
+            ends[k - start + 1] = q;
+            int cost = table[(k - start + 1) * width + 2 * q + unknown];
+            int[] previous = previous(table, width, k, start, position, q, unknown, cost);
+            q = previous[0];
+            unknown = previous[1];
+        }
+        ends[0] = position;
+
+        for (int k = start; k < end; k++) {
+            builder.add(kanji[k].withReading(reading.substring(ends[k - start], ends[k - start + 1])));
+        }
+    }
+
+    /**
+     * Finds how the reading of a kanji in a run started, given where it ends and what it cost.
+     * @param table The table filled by {@link #splitRun(int, int, int, int[])}.
+     * @param width The size of each row of the table.
+     * @param k The index of the kanji in the word.
+     * @param start The first kanji of the run in the word.
+     * @param position Where the run starts in the reading.
+     * @param q Where the kanji's reading ends.
+     * @param unknown The number of unknown readings up to and including the kanji.
+     * @param cost The cost of reading the run up to and including the kanji.
+     * @return Where the kanji's reading starts, and the number of unknown readings before it.
+     */
+    private int[] previous(int[] table, int width, int k, int start, int position, int q, int unknown, int cost) {
+        int row = (k - start) * width;
+        for (int p = position; p < q; p++) {
+            int before = table[row + 2 * p + unknown];
+            if (before != IMPOSSIBLE) {
+                for (String known : kanji[k].knownReadings()) {
+                    int variants = variants(known, k, p, q);
+                    if (variants >= 0 && before + KNOWN + VARIANT * variants == cost) {
+                        return new int[] {p, unknown};
+                    }
+                }
+            }
+            if (unknown == 1 && table[row + 2 * p] != IMPOSSIBLE && table[row + 2 * p] + UNKNOWN == cost) {
+                return new int[] {p, 0};
+            }
+        }
+        throw new IllegalStateException(String.format("The alignment of '%s' with '%s' could not be traced.", word, reading));
+    }
+}
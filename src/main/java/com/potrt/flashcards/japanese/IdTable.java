@@ -0,0 +1,81 @@
+package com.potrt.flashcards.japanese;
+
+import java.util.Arrays;
+
+/**
+ * An {@link IdTable} gives objects dense {@code int} ids, counting from 0, and looks them up by id.
+ * <p>
+ * Objects are never removed, so an id stays the same for as long as the table lives, and arrays indexed by id never have holes,
+ * except where ids restored from a snapshot have not all been filled in yet.
+ * Ids are given out under the table's lock, while {@link #get(int)} and {@link #size()} read without one:
+ * each object is stored before the size that covers it is published, so a reader that sees an id also sees its object.
+ * @param <T> The type of the objects.
+ */
+final class IdTable<T> {
+    private final String kind;
+    private volatile Object[] objects = new Object[64];
+    private volatile int size;
+
+    /**
+     * Creates an empty table.
+     * @param kind What the objects are, for error messages (e.g. "reading").
+     */
+    IdTable(String kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Gives an object the next id.
+     * @param object The object.
+     * @return The id.
+     */
+    synchronized int add(T object) {
+        int id = size;
+        put(id, object);
+        return id;
+    }
+
+    /**
+     * Gives an object a particular id, such as the id it had when a snapshot was written.
+     * @param id The id.
+     * @param object The object.
+     * @throws IllegalArgumentException Thrown if the id is negative.
+     * @throws IllegalStateException Thrown if another object already has the id.
+     */
+    synchronized void put(int id, T object) {
+        if (id < 0) { throw new IllegalArgumentException(String.format("A %s cannot have the id %d.", kind, id)); }
+        Object[] objects = this.objects;
+        if (id >= objects.length) {
+            objects = Arrays.copyOf(objects, Math.max(id + 1, objects.length * 2));
+            this.objects = objects;
+        }
+        if (objects[id] != null) {
+            throw new IllegalStateException(String.format("The %s with id %d already exists.", kind, id));
+        }
+        objects[id] = object;
+        size = Math.max(size, id + 1);
+    }
+
+    /**
+     * Gets an object by its id.
+     * @param id The id.
+     * @return The object.
+     * @throws IllegalArgumentException Thrown if no object has the id.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int id) {
+        int size = this.size;
+        Object[] objects = this.objects;
+        Object object = id >= 0 && id < size ? objects[id] : null;
+        if (object == null) { throw new IllegalArgumentException(String.format("There is no %s with id %d.", kind, id)); }
+        return (T) object;
+    }
+
+    /**
+     * Gets the number of ids given out, which is one more than the highest id.
+     * @return The number of ids.
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,500 @@
+package com.potrt.flashcards.japanese;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+import com.potrt.flashcards.Score;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+import com.potrt.flashcards.japanese.JapaneseTextScanner.MatchListener;
+
+/**
+ * A {@link JapaneseCorpusCoverage} counts how often each {@link JapaneseWord}, and each reading of a kanji, occurs in a corpus of Japanese text,
+ * and how much of the corpus a learner can read given their {@link Score}s.
+ * <p>
+ * The corpus is a UTF-8 text file, which can be many gigabytes.  It is cut into segments that end on line boundaries,
+ * and each segment is memory-mapped, decoded a chunk at a time, and scanned with a {@link JapaneseTextScanner} on a {@link ForkJoinPool}.
+ * Each thread counts into its own {@code long[]}s indexed by word and reading id, which are added up once every segment is scanned.
+ * Words are only found within a line.
+ * <p>
+ * A word found written in kanji counts as an occurrence of the word and of each of its kanji readings.
+ * A word found written in its furigana, when the furigana is scanned for, only counts as an occurrence of the word.
+ */
+public final class JapaneseCorpusCoverage {
+    /**
+     * The number of segments to cut the corpus into for each thread of the pool, so threads that finish early can take more.
+     */
+    private static final int SEGMENTS_PER_THREAD = 4;
+
+    /**
+     * The smallest segment, so small corpora are not split further than is worth it.
+     */
+    private static final int MIN_SEGMENT_BYTES = 1 << 20;
+
+    /**
+     * The largest segment, well within the 2 GB that can be mapped at once.
+     */
+    private static final int MAX_SEGMENT_BYTES = 1 << 28;
+
+    /**
+     * The number of {@code char}s decoded and scanned at a time.
+     */
+    private static final int CHUNK_CHARS = 1 << 16;
+
+    private final JapaneseWordDictionary dictionary;
+    private final long[] wordCounts;
+    private final long[] readingCounts;
+    private final long characters;
+    private final long wordOccurrences;
+    private final long readingOccurrences;
+
+    /**
+     * Creates the coverage from the counts of every thread.
+     * @param dictionary The {@link JapaneseWordDictionary} that was scanned for.
+     * @param counters The {@link Counter} of each thread.
+     * @param numWords The number of word ids when the corpus was scanned.
+     * @param numReadings The number of reading ids when the corpus was scanned.
+     */
+    private JapaneseCorpusCoverage(JapaneseWordDictionary dictionary, Iterable<Counter> counters, int numWords, int numReadings) {
+        this.dictionary = dictionary;
+        this.wordCounts = new long[numWords];
+        this.readingCounts = new long[numReadings];
+        long characters = 0;
+        for (Counter counter : counters) {
+            characters += counter.characters;
+            for (int i = 0; i < numWords; i++) {
+                wordCounts[i] += counter.wordCounts[i];
+            }
+            for (int i = 0; i < numReadings; i++) {
+                readingCounts[i] += counter.readingCounts[i];
+            }
+        }
+        this.characters = characters;
+        this.wordOccurrences = sum(wordCounts);
+        this.readingOccurrences = sum(readingCounts);
+    }
+
+    /**
+     * Counts the words of a dictionary written in kanji in a corpus, scanning it on the common pool.
+     * @param corpus The path of the UTF-8 text file.
+     * @param dictionary The {@link JapaneseWordDictionary}.
+     * @return The {@link JapaneseCorpusCoverage}.
+     * @throws IOException Thrown when the file cannot be read.
+     * @see #analyze(Path, JapaneseWordDictionary, boolean, ForkJoinPool)
+     */
+    public static JapaneseCorpusCoverage analyze(Path corpus, JapaneseWordDictionary dictionary) throws IOException {
+        return analyze(corpus, dictionary, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Counts the words of a dictionary in a corpus.
+     * @param corpus The path of the UTF-8 text file.  Bytes that are not valid UTF-8 are read as U+FFFD.
+     * @param dictionary The {@link JapaneseWordDictionary}.  Words added to it while the corpus is scanned are not counted.
+     * @param withFurigana Whether to also count words written in their furigana.
+     * @param pool The {@link ForkJoinPool} that scans the segments of the corpus.
+     * @return The {@link JapaneseCorpusCoverage}.
+     * @throws IOException Thrown when the file cannot be read, or has a line too long to map.
+     */
+    public static JapaneseCorpusCoverage analyze(Path corpus, JapaneseWordDictionary dictionary, boolean withFurigana, ForkJoinPool pool) throws IOException {
+        JapaneseTextScanner scanner = dictionary.getTextScanner(withFurigana);
+        Index index = new Index(dictionary, withFurigana);
+        Map<Thread, Counter> counters = new ConcurrentHashMap<>();
+
+        try (FileChannel channel = FileChannel.open(corpus, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long target = size / ((long) pool.getParallelism() * SEGMENTS_PER_THREAD);
+            long[] starts = lineStarts(channel, size, Math.max(MIN_SEGMENT_BYTES, Math.min(MAX_SEGMENT_BYTES, target)));
+            if (starts.length > 1) {
+                pool.invoke(new Scan(channel, starts, 0, starts.length - 1, scanner, index, counters));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new JapaneseCorpusCoverage(dictionary, counters.values(), index.numWords, index.numReadings);
+    }
+
+    /**
+     * Finds where the segments of a file start, each the start of the first line at or after a multiple of the segment size.
+     * @param channel The file.
+     * @param size The size of the file.
+     * @param segmentBytes The size of a segment.
+     * @return The start of each segment, followed by the size of the file.
+     * @throws IOException Thrown when the file cannot be read, or a segment is too long to map.
+     */
+    private static long[] lineStarts(FileChannel channel, long size, long segmentBytes) throws IOException {
+        long[] starts = new long[(int) ((size + segmentBytes - 1) / segmentBytes) + 1];
+        int count = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+        long position = 0;
+        while (position < size) {
+            starts[count++] = position;
+            position = nextLine(channel, size, Math.max(position + 1, (count) * segmentBytes), buffer);
+            if (position - starts[count - 1] > Integer.MAX_VALUE) {
+                throw new IOException(String.format("The corpus has a line from byte %d that is too long to map.", starts[count - 1]));
+            }
+        }
+        starts[count++] = size;
+        return Arrays.copyOf(starts, count);
+    }
+
+    /**
+     * Finds the start of the first line at or after a position.
+     * @param channel The file.
+     * @param size The size of the file.
+     * @param position The position.
+     * @param buffer The buffer to read into.
+     * @return The start of the line, or the size of the file if there is none.
+     * @throws IOException Thrown when the file cannot be read.
+     */
+    private static long nextLine(FileChannel channel, long size, long position, ByteBuffer buffer) throws IOException {
+        // A line starts after a newline, so the search starts at the byte before the position.
+        long read = position - 1;
+        while (read < size) {
+            buffer.clear();
+            int n = channel.read(buffer, read);
+            if (n <= 0) { break; }
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == '\n') {
+                    return read + i + 1;
+                }
+            }
+            read += n;
+        }
+        return size;
+    }
+
+    /**
+     * Adds up counts.
+     * @param counts The counts.
+     * @return The sum.
+     */
+    private static long sum(long[] counts) {
+        long sum = 0;
+        for (long count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    /**
+     * Gets the number of times a word occurs in the corpus.
+     * @param word The {@link JapaneseWord}.
+     * @return The number of occurrences, which is 0 if the word was not in the dictionary when the corpus was scanned.
+     */
+    public long getCount(JapaneseWord word) {
+        int id = word.getId();
+        return id >= 0 && id < wordCounts.length && dictionary.getWord(id) == word ? wordCounts[id] : 0;
+    }
+
+    /**
+     * Gets the number of times a reading of a kanji occurs in the corpus, as part of a word written in kanji.
+     * @param reading The {@link JapaneseKanjiWithReading}.
+     * @return The number of occurrences, which is 0 if the reading had no words when the corpus was scanned.
+     */
+    public long getCount(JapaneseKanjiWithReading reading) {
+        int id = reading.getId();
+        return id >= 0 && id < readingCounts.length && reading.getJapaneseKanji().getDictionary() == dictionary.getKanjiDictionary() ? readingCounts[id] : 0;
+    }
+
+    /**
+     * Gets the number of {@code char}s decoded from the corpus.
+     * @return The number of {@code char}s.
+     */
+    public long getCharacters() {
+        return characters;
+    }
+
+    /**
+     * Gets the number of occurrences of every word.
+     * @return The number of occurrences.
+     */
+    public long getWordOccurrences() {
+        return wordOccurrences;
+    }
+
+    /**
+     * Gets the number of occurrences of every reading.
+     * @return The number of occurrences.
+     */
+    public long getReadingOccurrences() {
+        return readingOccurrences;
+    }
+
+    /**
+     * Gets how much of the corpus's kanji a learner can read: the success rate of each reading, weighted by its occurrences.
+     * @param scores Gets the learner's {@link Score} for a reading, such as {@link JapaneseKanjiWithReading#getScore()},
+     *               or {@link JapaneseUserScores#getScore(JapaneseKanjiWithReading)}.  A reading never attempted is not known.
+     * @return The coverage, from 0 to 1, or 0 if no readings occur.
+     */
+    public double getReadingCoverage(Function<JapaneseKanjiWithReading, Score> scores) {
+        if (readingOccurrences == 0) { return 0; }
+        JapaneseKanjiDictionary kanjiDictionary = dictionary.getKanjiDictionary();
+        double known = 0;
+        for (int id = 0; id < readingCounts.length; id++) {
+            if (readingCounts[id] != 0) {
+                known += readingCounts[id] * known(scores.apply(kanjiDictionary.getReading(id)));
+            }
+        }
+        return known / readingOccurrences;
+    }
+
+    /**
+     * Gets how much of the corpus's words a learner can read: for each word, the product of the success rates of its kanji readings,
+     * weighted by its occurrences.  A word without kanji is always known.
+     * @param scores Gets the learner's {@link Score} for a reading.  A reading never attempted is not known.
+     * @return The coverage, from 0 to 1, or 0 if no words occur.
+     */
+    public double getWordCoverage(Function<JapaneseKanjiWithReading, Score> scores) {
+        if (wordOccurrences == 0) { return 0; }
+        double known = 0;
+        for (int id = 0; id < wordCounts.length; id++) {
+            if (wordCounts[id] == 0) { continue; }
+            JapaneseWordSegments segments = dictionary.getWord(id).getSegments();
+            double wordKnown = 1;
+            for (int i = 0; i < segments.size(); i++) {
+                if (segments.isKanji(i)) {
+                    wordKnown *= known(scores.apply(segments.getKanji(i)));
+                }
+            }
+            known += wordCounts[id] * wordKnown;
+        }
+        return known / wordOccurrences;
+    }
+
+    /**
+     * Gets how well a reading is known.
+     * @param score The {@link Score} of the reading.
+     * @return The success rate, or 0 if it was never attempted.
+     */
+    private static double known(Score score) {
+        return score.getAttempts() == 0 ? 0 : score.getSuccessRate();
+    }
+
+    /**
+     * An {@link Index} holds the reading ids of every word when the corpus is scanned, so counting a match only reads arrays,
+     * rather than following each word to its segments and readings.
+     */
+    private static final class Index {
+        private final int numWords;
+        private final int numReadings;
+        private final boolean withFurigana;
+
+        /**
+         * The index in {@link #readingIds} of the first kanji reading of each word, and one more entry for the end of the last word's.
+         */
+        private final int[] firstReading;
+        private final int[] readingIds;
+
+        /**
+         * Creates the index of the words of a dictionary.
+         * @param dictionary The {@link JapaneseWordDictionary}.
+         * @param withFurigana Whether words written in their furigana are scanned for.
+         */
+        Index(JapaneseWordDictionary dictionary, boolean withFurigana) {
+            this.numWords = dictionary.numIds();
+            this.numReadings = dictionary.getKanjiDictionary().numReadings();
+            this.withFurigana = withFurigana;
+            this.firstReading = new int[numWords + 1];
+            int[] readingIds = new int[Math.max(16, numWords)];
+            int count = 0;
+            for (int id = 0; id < numWords; id++) {
+                firstReading[id] = count;
+                JapaneseWordSegments segments = dictionary.getWord(id).getSegments();
+                for (int i = 0; i < segments.size(); i++) {
+                    if (segments.isKanji(i)) {
+                        if (count == readingIds.length) {
+                            readingIds = Arrays.copyOf(readingIds, 2 * count);
+                        }
+                        readingIds[count++] = segments.getKanji(i).getId();
+                    }
+                }
+            }
+            firstReading[numWords] = count;
+            this.readingIds = Arrays.copyOf(readingIds, count);
+        }
+    }
+
+    /**
+     * A {@link Counter} holds the counts of one thread, and the buffers it decodes with.
+     */
+    private static final class Counter implements MatchListener {
+        private final Index index;
+        private final long[] wordCounts;
+        private final long[] readingCounts;
+        private long characters;
+
+        /**
+         * Matches starting at or after this position in {@link #chars} are not counted, as they are scanned again with the next chunk.
+         */
+        private int countBefore = Integer.MAX_VALUE;
+
+        /**
+         * The end of the last match that was counted in the current chunk.
+         */
+        private int countedEnd;
+
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.allocate(CHUNK_CHARS);
+
+        /**
+         * Creates a new {@link Counter}.
+         * @param index The {@link Index} of the words scanned for.
+         */
+        Counter(Index index) {
+            this.index = index;
+            this.wordCounts = new long[index.numWords];
+            this.readingCounts = new long[index.numReadings];
+        }
+
+        /**
+         * Decodes and scans a segment of the corpus.
+         * @param segment The segment, which ends at the end of a line.
+         * @param scanner The {@link JapaneseTextScanner}.
+         */
+        void scan(ByteBuffer segment, JapaneseTextScanner scanner) {
+            decoder.reset();
+            chars.clear();
+            boolean done = false;
+            while (!done) {
+                CoderResult result = decoder.decode(segment, chars, true);
+                if (result.isUnderflow()) {
+                    decoder.flush(chars);
+                    done = true;
+                }
+                chars.flip();
+
+                // Scan up to the last whole line in the chunk.
+                int end = chars.limit();
+                int limit = end;
+                if (!done) {
+                    int newline = end - 1;
+                    while (newline >= 0 && chars.get(newline) != '\n') {
+                        newline--;
+                    }
+                    if (newline >= 0) {
+                        end = newline + 1;
+                    } else if (end > scanner.maxWordLength()) {
+                        // The chunk is all one line.  Every word starting before the last longest word's worth of it is whole,
+                        // so only those are counted, and the rest is carried into the next chunk from the end of the last one counted.
+                        countBefore = end - scanner.maxWordLength();
+                    }
+                }
+                chars.limit(end);
+                countedEnd = 0;
+                scanner.scan(chars, this);
+                if (countBefore != Integer.MAX_VALUE) {
+                    end = Math.max(countBefore, countedEnd);
+                    countBefore = Integer.MAX_VALUE;
+                }
+                characters += end;
+                chars.limit(limit);
+                chars.position(end);
+                chars.compact();
+            }
+        }
+
+        @Override
+        public void matched(int start, int end, JapaneseWord word) {
+            if (start >= countBefore) { return; }
+            countedEnd = end;
+            int id = word.getId();
+            if (id < 0 || id >= wordCounts.length) { return; }
+            wordCounts[id]++;
+
+            // Without furigana, every match is the kanji of its word.
+            if (index.withFurigana && !spelledInKanji(start, end, word.getKanji())) { return; }
+            for (int i = index.firstReading[id]; i < index.firstReading[id + 1]; i++) {
+                int reading = index.readingIds[i];
+                if (reading >= 0 && reading < readingCounts.length) {
+                    readingCounts[reading]++;
+                }
+            }
+        }
+
+        /**
+         * Checks whether a match is the kanji of its word, rather than its furigana.
+         * @param start The start of the match in {@link #chars}.
+         * @param end The end of the match.
+         * @param kanji The kanji of the word.
+         * @return Whether it is.
+         */
+        private boolean spelledInKanji(int start, int end, String kanji) {
+            if (end - start != kanji.length()) { return false; }
+            for (int i = 0; i < kanji.length(); i++) {
+                if (chars.get(start + i) != kanji.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A {@link Scan} scans a range of segments of the corpus, splitting it until it is one segment.
+     */
+    private static final class Scan extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] starts;
+        private final int from;
+        private final int to;
+        private final JapaneseTextScanner scanner;
+        private final Index index;
+        private final Map<Thread, Counter> counters;
+
+        /**
+         * Creates a new {@link Scan}.
+         * @param channel The corpus.
+         * @param starts The start of each segment, followed by the size of the corpus.
+         * @param from The first segment.
+         * @param to The segment after the last.
+         * @param scanner The {@link JapaneseTextScanner}.
+         * @param index The {@link Index} of the words scanned for.
+         * @param counters The {@link Counter} of each thread.
+         */
+        Scan(FileChannel channel, long[] starts, int from, int to, JapaneseTextScanner scanner, Index index, Map<Thread, Counter> counters) {
+            this.channel = channel;
+            this.starts = starts;
+            this.from = from;
+            this.to = to;
+            this.scanner = scanner;
+            this.index = index;
+            this.counters = counters;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Scan(channel, starts, from, middle, scanner, index, counters),
+                    new Scan(channel, starts, middle, to, scanner, index, counters));
+                return;
+            }
+
+            ByteBuffer segment;
+            try {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, starts[from], starts[to] - starts[from]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            counters.computeIfAbsent(Thread.currentThread(), thread -> new Counter(index)).scan(segment, scanner);
+        }
+    }
+}
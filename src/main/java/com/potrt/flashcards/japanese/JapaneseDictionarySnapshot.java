@@ -0,0 +1,431 @@
+package com.potrt.flashcards.japanese;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.potrt.flashcards.ReadOnlyScore;
+import com.potrt.flashcards.Score;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+
+/**
+ * A {@link JapaneseDictionarySnapshot} writes a {@link JapaneseWordDictionary} and its {@link JapaneseKanjiDictionary} to a binary file,
+ * and reads them back much faster than they can be rebuilt from their source.
+ * <p>
+ * A snapshot holds every kanji with its meaning, every reading with its {@link Score}, and every word with its segments,
+ * definition, and verb type.  It is read in a single pass over a memory-mapped file:
+ * readings are restored with their scores into maps sized for their words, and words are restored directly onto them,
+ * without the validation, locking, and reordering of {@link JapaneseWordDictionary#put(JapaneseWord)}.
+ * <p>
+ * The file is big-endian, and strings are written as their length in {@code char}s followed by their UTF-16 {@code char}s,
+ * or a length of -1 for null.
+ * <pre>
+ * header:   int magic, int version, long journal generation
+ * KANJI:    int tag, int count, then for each kanji:   char kanji, string meaning, int number of readings
+ * READINGS: int tag, int count, then for each reading: int id, string furigana, long successes, long attempts, int number of words
+ * WORDS:    int tag, int count, then for each word:    string kanji, string furigana, string definition, byte verb type (-1 if not a verb),
+ *           short number of segments, then for each segment: short surface end, short reading end, int reading (-1 for kana)
+ * </pre>
+ * The readings of each kanji follow each other in the order of the kanji, and a word refers to a reading by its index in the READINGS section.
+ * Each reading keeps its id in the {@link JapaneseKanjiDictionary}, so stores indexed by reading id, like {@link JapaneseUserScores}, still line up once read.
+ * The kanji and words are written in the order of their ids, so read into empty dictionaries they are given the same ids again.
+ * The kanji aggregate scores are not written, as they are the sum of their readings' scores.
+ * <p>
+ * The journal generation is the generation of the {@link AttemptJournal} whose attempts the scores already include, or 0 if none,
+ * so {@link AttemptJournal#compact(JapaneseWordDictionary, Path, Path)} can never count a journal twice.
+ */
+public final class JapaneseDictionarySnapshot {
+    /**
+     * The version of the snapshot format, which is the only one that can be read.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x4A504453;
+    private static final int KANJI = 0x4B414E4A;
+    private static final int READINGS = 0x52454144;
+    private static final int WORDS = 0x574F5244;
+    private static final int NO_READING = -1;
+    private static final byte NOT_A_VERB = -1;
+    private static final JapaneseVerbType[] VERB_TYPES = JapaneseVerbType.values();
+
+    private JapaneseDictionarySnapshot() {}
+
+    /**
+     * Writes a dictionary and its kanji dictionary to a snapshot file, replacing it if it exists.
+     * @param dictionary The {@link JapaneseWordDictionary}.
+     * @param path The path of the snapshot file.  It is written to a temporary file beside it and forced to disk first,
+     *             so a reader never sees a partly written snapshot, even after a crash.
+     * @throws IOException Thrown when the file cannot be written.
+     * @throws IllegalStateException Thrown if a word was added with a new reading while the snapshot was being written.
+     * @apiNote The dictionaries should not be changed while they are written.  Attempts made meanwhile may or may not be in the snapshot.
+     */
+    public static void write(JapaneseWordDictionary dictionary, Path path) throws IOException {
+        write(dictionary, path, 0);
+    }
+
+    /**
+     * Writes a dictionary and its kanji dictionary to a snapshot file, replacing it if it exists.
+     * @param dictionary The {@link JapaneseWordDictionary}.
+     * @param path The path of the snapshot file.
+     * @param journalGeneration The generation of the {@link AttemptJournal} whose attempts the scores include, or 0 if none.
+     * @throws IOException Thrown when the file cannot be written.
+     * @throws IllegalStateException Thrown if a word was added with a new reading while the snapshot was being written.
+     */
+    static void write(JapaneseWordDictionary dictionary, Path path, long journalGeneration) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                write(dictionary, journalGeneration, out);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(path);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Forces the directory of a file to disk, so a file just moved into it is still there after a crash.
+     * @param path The path of the file.
+     * @throws IOException Thrown when the directory cannot be forced.
+     * @implNote Some platforms, like Windows, cannot open a directory.  The move is then left to the file system to make durable.
+     */
+    static void forceDirectory(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the sections of a snapshot.
+     * @param dictionary The {@link JapaneseWordDictionary}.
+     * @param journalGeneration The generation of the {@link AttemptJournal} whose attempts the scores include.
+     * @param out The output.
+     * @throws IOException Thrown when the output cannot be written.
+     */
+    private static void write(JapaneseWordDictionary dictionary, long journalGeneration, DataOutputStream out) throws IOException {
+        List<JapaneseKanji> kanji = new ArrayList<>();
+        dictionary.getKanjiDictionary().forEach(kanji::add);
+        kanji.sort(Comparator.comparingInt(JapaneseKanji::getId));
+        List<List<String>> readings = new ArrayList<>(kanji.size());
+        int readingCount = 0;
+        for (JapaneseKanji japaneseKanji : kanji) {
+            List<String> kanjiReadings = japaneseKanji.getReadings();
+            readings.add(kanjiReadings);
+            readingCount += kanjiReadings.size();
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(journalGeneration);
+
+        out.writeInt(KANJI);
+        out.writeInt(kanji.size());
+        for (int i = 0; i < kanji.size(); i++) {
+            out.writeChar(kanji.get(i).getKanji());
+            writeString(out, kanji.get(i).getMeaning());
+            out.writeInt(readings.get(i).size());
+        }
+
+        Map<JapaneseKanjiWithReading, Integer> ids = new IdentityHashMap<>(readingCount);
+        out.writeInt(READINGS);
+        out.writeInt(readingCount);
+        for (int i = 0; i < kanji.size(); i++) {
+            JapaneseKanji japaneseKanji = kanji.get(i);
+            for (String furigana : readings.get(i)) {
+                Score score = japaneseKanji.getScore(furigana);
+                if (score instanceof ReadOnlyScore) {
+                    score = ((ReadOnlyScore) score).snapshot();
+                }
+                out.writeInt(japaneseKanji.withReading(furigana).getId());
+                writeString(out, furigana);
+                out.writeLong(score.getSuccesses());
+                out.writeLong(score.getAttempts());
+                out.writeInt(japaneseKanji.numWords(furigana));
+                ids.put(japaneseKanji.withReading(furigana), ids.size());
+            }
+        }
+
+        int wordIds = dictionary.numIds();
+        List<JapaneseWord> words = new ArrayList<>(wordIds);
+        for (int id = 0; id < wordIds; id++) {
+            words.add(dictionary.getWord(id));
+        }
+        out.writeInt(WORDS);
+        out.writeInt(words.size());
+        for (JapaneseWord word : words) {
+            JapaneseWordSegments segments = word.getSegments();
+            writeString(out, segments.getSurface());
+            writeString(out, segments.getReading());
+            writeString(out, word.getDefinition());
+            out.writeByte(word instanceof JapaneseVerb ? ((JapaneseVerb) word).getVerbType().ordinal() : NOT_A_VERB);
+            out.writeShort(segments.size());
+            for (int i = 0; i < segments.size(); i++) {
+                out.writeShort(segments.surfaceEnd(i));
+                out.writeShort(segments.readingEnd(i));
+                out.writeInt(segments.isKanji(i) ? readingId(ids, segments.getKanji(i), word) : NO_READING);
+            }
+        }
+    }
+
+    /**
+     * Gets the index of a reading in the READINGS section.
+     * @param ids The index of every reading written.
+     * @param reading The {@link JapaneseKanjiWithReading}.
+     * @param word The {@link JapaneseWord} that uses the reading.
+     * @return The index.
+     * @throws IllegalStateException Thrown if the reading was not written.
+     */
+    private static int readingId(Map<JapaneseKanjiWithReading, Integer> ids, JapaneseKanjiWithReading reading, JapaneseWord word) {
+        Integer id = ids.get(reading);
+        if (id == null) {
+            throw new IllegalStateException(String.format("The word '%s' was added with the new reading '%s' of kanji '%c' while the snapshot was being written.",
+                word.getKanji(), reading.getFurigana(), reading.getKanji()));
+        }
+        return id;
+    }
+
+    /**
+     * Writes a string as its length and its {@code char}s.
+     * @param out The output.
+     * @param string The string, or null.
+     * @throws IOException Thrown when the output cannot be written.
+     */
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(string.length());
+        out.writeChars(string);
+    }
+
+    /**
+     * Reads a snapshot file into an empty dictionary and its empty kanji dictionary.
+     * @param path The path of the snapshot file.
+     * @param dictionary The {@link JapaneseWordDictionary} to read into.  Its type decides the type of the kanji and scores created,
+     *                   e.g. a {@link ConcurrentJapaneseWordDictionary} with a {@link ConcurrentJapaneseKanjiDictionary}.
+     * @return The generation of the {@link AttemptJournal} whose attempts the scores already include, or 0 if none.
+     *         Pass it to {@link AttemptJournal#replay(Path, JapaneseKanjiDictionary, long, java.util.concurrent.ForkJoinPool)}.
+     * @throws IOException Thrown when the file cannot be read, or is not a valid snapshot of a version that can be read.
+     *                     The dictionaries should then be discarded, as they may hold part of the snapshot.
+     * @throws IllegalStateException Thrown if either dictionary is not empty.
+     * @apiNote The dictionaries must not be used by other threads until this returns.
+     */
+    public static long read(Path path, JapaneseWordDictionary dictionary) throws IOException {
+        if (dictionary.size() != 0 || dictionary.getKanjiDictionary().size() != 0) {
+            throw new IllegalStateException("A snapshot can only be read into an empty dictionary with an empty kanji dictionary.");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(String.format("The snapshot is %d bytes, but at most %d bytes can be mapped.", size, Integer.MAX_VALUE));
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), dictionary);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("The snapshot is truncated.", e);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new IOException("The snapshot is corrupt: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the sections of a snapshot.
+     * @param buffer The snapshot.
+     * @param dictionary The {@link JapaneseWordDictionary} to read into.
+     * @return The journal generation.
+     * @throws IOException Thrown if the snapshot is not valid.
+     */
+    private static long read(ByteBuffer buffer, JapaneseWordDictionary dictionary) throws IOException {
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("The file is not a dictionary snapshot.");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException(String.format("The snapshot is version %d, but only version %d can be read.", version, VERSION));
+        }
+        long journalGeneration = buffer.getLong();
+
+        JapaneseKanjiDictionary kanjiDictionary = dictionary.getKanjiDictionary();
+        int kanjiCount = readSection(buffer, KANJI, "KANJI");
+        JapaneseKanji[] kanji = new JapaneseKanji[kanjiCount];
+        int[] readingCounts = new int[kanjiCount];
+        long readingCount = 0;
+        for (int i = 0; i < kanjiCount; i++) {
+            char c = buffer.getChar();
+            String meaning = readString(buffer);
+            if (kanjiDictionary.find(c) != null) {
+                throw new IOException(String.format("The snapshot has kanji '%c' more than once.", c));
+            }
+            kanji[i] = kanjiDictionary.create(c, meaning);
+            readingCounts[i] = readCount(buffer);
+            readingCount += readingCounts[i];
+        }
+
+        if (readSection(buffer, READINGS, "READINGS") != readingCount) {
+            throw new IOException(String.format("The snapshot's kanji have %d readings, but its READINGS section does not.", readingCount));
+        }
+        JapaneseKanjiWithReading[] readings = new JapaneseKanjiWithReading[(int) readingCount];
+        int id = 0;
+        for (int i = 0; i < kanjiCount; i++) {
+            for (int r = 0; r < readingCounts[i]; r++) {
+                int readingId = buffer.getInt();
+                if (readingId < 0 || readingId >= readings.length) {
+                    throw new IOException(String.format("The snapshot has a reading with id %d, but only %d readings.", readingId, readings.length));
+                }
+                String furigana = readString(buffer);
+                long successes = buffer.getLong();
+                long attempts = buffer.getLong();
+                // A corrupt count must not size a huge map, and no more words can follow than there are bytes left.
+                int expectedWords = Math.min(readCount(buffer), buffer.remaining());
+                readings[id++] = kanji[i].restoreReading(furigana, readingId, successes, attempts, expectedWords);
+            }
+        }
+
+        int wordCount = readSection(buffer, WORDS, "WORDS");
+        for (int i = 0; i < wordCount; i++) {
+            String surface = readString(buffer);
+            String reading = readString(buffer);
+            String definition = readString(buffer);
+            byte verbType = buffer.get();
+            int segmentCount = buffer.getShort();
+            if (surface == null || reading == null || segmentCount < 0 || verbType < NOT_A_VERB || verbType >= VERB_TYPES.length) {
+                throw new IOException(String.format("Word %d of the snapshot is corrupt.", i));
+            }
+
+            short[] ends = new short[2 * segmentCount];
+            JapaneseKanjiWithReading[] segmentKanji = new JapaneseKanjiWithReading[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                ends[2 * s] = buffer.getShort();
+                ends[2 * s + 1] = buffer.getShort();
+                int readingId = buffer.getInt();
+                if (readingId != NO_READING) {
+                    if (readingId < 0 || readingId >= readings.length) {
+                        throw new IOException(String.format("The word '%s' refers to reading %d, which is not in the snapshot.", surface, readingId));
+                    }
+                    segmentKanji[s] = readings[readingId];
+                }
+            }
+            JapaneseWordSegments segments = new JapaneseWordSegments(surface, reading, ends, segmentKanji);
+            checkSegments(segments);
+            if (dictionary.contains(surface)) {
+                throw new IOException(String.format("The snapshot has the word '%s' more than once.", surface));
+            }
+
+            JapaneseWord word = verbType == NOT_A_VERB
+                ? new JapaneseWord(segments, definition)
+                : new JapaneseVerb(segments, definition, VERB_TYPES[verbType]);
+            dictionary.restore(word);
+        }
+
+        if (buffer.hasRemaining()) {
+            throw new IOException(String.format("The snapshot has %d bytes after its last section.", buffer.remaining()));
+        }
+        for (JapaneseKanji japaneseKanji : kanji) {
+            japaneseKanji.sortReadings();
+        }
+        return journalGeneration;
+    }
+
+    /**
+     * Checks that segments read from a snapshot describe the whole surface and reading, and that each kanji segment is its kanji.
+     * @param segments The {@link JapaneseWordSegments}.
+     * @throws IOException Thrown if they do not.
+     */
+    private static void checkSegments(JapaneseWordSegments segments) throws IOException {
+        String surface = segments.getSurface();
+        int surfaceEnd = 0;
+        int readingEnd = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            boolean valid = segments.surfaceEnd(i) > surfaceEnd && segments.readingEnd(i) > readingEnd;
+            if (valid && segments.isKanji(i)) {
+                valid = segments.surfaceEnd(i) == surfaceEnd + 1 && surface.charAt(surfaceEnd) == segments.getKanji(i).getKanji();
+            }
+            if (!valid) {
+                throw new IOException(String.format("Segment %d of the word '%s' is corrupt.", i, surface));
+            }
+            surfaceEnd = segments.surfaceEnd(i);
+            readingEnd = segments.readingEnd(i);
+        }
+        if (surfaceEnd != surface.length() || readingEnd != segments.getReading().length()) {
+            throw new IOException(String.format("The segments of the word '%s' do not cover the whole word.", surface));
+        }
+    }
+
+    /**
+     * Reads the tag and number of entries of a section.
+     * @param buffer The snapshot.
+     * @param tag The tag of the section.
+     * @param name The name of the section.
+     * @return The number of entries.
+     * @throws IOException Thrown if the next section is not the expected one.
+     */
+    private static int readSection(ByteBuffer buffer, int tag, String name) throws IOException {
+        if (buffer.getInt() != tag) {
+            throw new IOException(String.format("The snapshot does not have its %s section where expected.", name));
+        }
+        return readCount(buffer);
+    }
+
+    /**
+     * Reads a number of entries.
+     * @param buffer The snapshot.
+     * @return The number of entries.
+     * @throws IOException Thrown if the number is negative.
+     */
+    private static int readCount(ByteBuffer buffer) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0) {
+            throw new IOException(String.format("The snapshot has a negative count of %d.", count));
+        }
+        return count;
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     * @param buffer The snapshot.
+     * @return The string, or null.
+     * @throws IOException Thrown if the length is not valid.
+     */
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length == -1) { return null; }
+        if (length < 0 || length > buffer.remaining() / 2) {
+            throw new IOException(String.format("The snapshot has a string of length %d, which is not valid here.", length));
+        }
+
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar();
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,314 @@
+package com.potrt.flashcards.japanese;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link JapaneseFlashcardScheduler} decides when each {@link JapaneseFlashcard} should be reviewed again, with the SM-2 spaced repetition algorithm.
+ * <p>
+ * Each card added is given the next card id, starting from 0.  A new card is due at once.  After each review it is graded from
+ * {@value #MIN_GRADE} (no recall) to {@value #MAX_GRADE} (perfect recall), and:
+ * <ul>
+ * <li>a grade below {@value #PASSING_GRADE} starts its repetitions again, due in 1 day;</li>
+ * <li>otherwise it is due in 1 day after the first passing review, 6 days after the second,
+ *     and after that its previous interval times its ease;</li>
+ * <li>its ease, starting at 2.5, goes up for easy reviews and down for hard ones, but never below 1.3.</li>
+ * </ul>
+ * <p>
+ * The state of each card is kept in primitive arrays indexed by card id, and the cards are kept in a binary min-heap on their due time,
+ * which knows where each card is so a review can move it.  {@link #nextDue()} is O(1), and {@link #add(JapaneseFlashcard)} and
+ * {@link #review(int, int)} are O(log n), at about 36 bytes per card besides the cards themselves.
+ * <p>
+ * A {@link JapaneseFlashcardScheduler} is not thread-safe.  The scores of the words are not changed by reviews.
+ */
+public class JapaneseFlashcardScheduler {
+    /**
+     * The lowest grade of a review, when the card was not recalled at all.
+     */
+    public static final int MIN_GRADE = 0;
+
+    /**
+     * The lowest grade of a review that counts as recalled.
+     */
+    public static final int PASSING_GRADE = 3;
+
+    /**
+     * The highest grade of a review, when the card was recalled perfectly.
+     */
+    public static final int MAX_GRADE = 5;
+
+    /**
+     * The ease of a new card, in hundredths.
+     */
+    public static final int INITIAL_EASE = 250;
+
+    /**
+     * The lowest ease a card can have, in hundredths.
+     */
+    public static final int MIN_EASE = 130;
+
+    /**
+     * The length of a day, which intervals are counted in.
+     */
+    public static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final LongSupplier clock;
+
+    private JapaneseFlashcard[] cards;
+    private long[] due;
+    private int[] intervals;
+    private int[] eases;
+    private int[] repetitions;
+    private int size;
+
+    /**
+     * The card ids ordered as a binary min-heap on their due time, and the index of each card id in {@link #heap}.
+     */
+    private int[] heap;
+    private int[] heapIndex;
+
+    /**
+     * Creates a new {@link JapaneseFlashcardScheduler} that uses the system clock.
+     */
+    public JapaneseFlashcardScheduler() {
+        this(System::currentTimeMillis, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new {@link JapaneseFlashcardScheduler}.
+     * @param clock Gets the current time in milliseconds.
+     * @param capacity The number of cards to make room for.  More can be added.
+     * @throws IllegalArgumentException Thrown if the capacity is negative.
+     */
+    public JapaneseFlashcardScheduler(LongSupplier clock, int capacity) {
+        if (capacity < 0) { throw new IllegalArgumentException("The capacity of a scheduler cannot be negative."); }
+        this.clock = clock;
+        cards = new JapaneseFlashcard[capacity];
+        due = new long[capacity];
+        intervals = new int[capacity];
+        eases = new int[capacity];
+        repetitions = new int[capacity];
+        heap = new int[capacity];
+        heapIndex = new int[capacity];
+    }
+
+    /**
+     * Adds a new card, which is due at once.
+     * @param card The {@link JapaneseFlashcard}.
+     * @return The card id.
+     */
+    public int add(JapaneseFlashcard card) {
+        if (size == cards.length) {
+            grow();
+        }
+        int id = size++;
+        cards[id] = card;
+        due[id] = clock.getAsLong();
+        eases[id] = INITIAL_EASE;
+        heap[id] = id;
+        heapIndex[id] = id;
+        siftUp(id);
+        return id;
+    }
+
+    /**
+     * Doubles the room for cards.
+     */
+    private void grow() {
+        int capacity = Math.max(DEFAULT_CAPACITY, cards.length * 2);
+        cards = Arrays.copyOf(cards, capacity);
+        due = Arrays.copyOf(due, capacity);
+        intervals = Arrays.copyOf(intervals, capacity);
+        eases = Arrays.copyOf(eases, capacity);
+        repetitions = Arrays.copyOf(repetitions, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        heapIndex = Arrays.copyOf(heapIndex, capacity);
+    }
+
+    /**
+     * Gets the card that has been due the longest.
+     * @return The card id, or -1 if no card is due yet.
+     */
+    public int nextDue() {
+        if (size == 0 || due[heap[0]] > clock.getAsLong()) { return -1; }
+        return heap[0];
+    }
+
+    /**
+     * Gets the time the next card is due, even if it is not due yet.
+     * @return The time in milliseconds, or {@link Long#MAX_VALUE} if there are no cards.
+     */
+    public long nextDueTime() {
+        if (size == 0) { return Long.MAX_VALUE; }
+        return due[heap[0]];
+    }
+
+    /**
+     * Grades a review of a card, and schedules its next review.
+     * @param card The card id.
+     * @param grade The grade, from {@value #MIN_GRADE} to {@value #MAX_GRADE}.
+     * @throws IllegalArgumentException Thrown if the card id or grade is not valid.
+     */
+    public void review(int card, int grade) {
+        checkCard(card);
+        if (grade < MIN_GRADE || grade > MAX_GRADE) {
+            throw new IllegalArgumentException(String.format("A grade must be from %d to %d, but was %d.", MIN_GRADE, MAX_GRADE, grade));
+        }
+
+        if (grade < PASSING_GRADE) {
+            repetitions[card] = 0;
+            intervals[card] = 1;
+        } else {
+            if (repetitions[card] == 0) {
+                intervals[card] = 1;
+            } else if (repetitions[card] == 1) {
+                intervals[card] = 6;
+            } else {
+                intervals[card] = (int) Math.min(Integer.MAX_VALUE, ((long) intervals[card] * eases[card] + 99) / 100);
+            }
+            repetitions[card]++;
+        }
+
+        // The SM-2 ease change, 0.1 - (5 - q) * (0.08 + (5 - q) * 0.02), in hundredths.
+        int miss = MAX_GRADE - grade;
+        eases[card] = Math.max(MIN_EASE, eases[card] + 10 - miss * (8 + miss * 2));
+
+        long previous = due[card];
+        due[card] = clock.getAsLong() + intervals[card] * DAY_MILLIS;
+        if (due[card] < previous) {
+            siftUp(heapIndex[card]);
+        } else {
+            siftDown(heapIndex[card]);
+        }
+    }
+
+    /**
+     * Gets a card.
+     * @param card The card id.
+     * @return The {@link JapaneseFlashcard}.
+     * @throws IllegalArgumentException Thrown if the card id is not valid.
+     */
+    public JapaneseFlashcard getCard(int card) {
+        checkCard(card);
+        return cards[card];
+    }
+
+    /**
+     * Gets when a card is next due.
+     * @param card The card id.
+     * @return The time in milliseconds.
+     * @throws IllegalArgumentException Thrown if the card id is not valid.
+     */
+    public long getDue(int card) {
+        checkCard(card);
+        return due[card];
+    }
+
+    /**
+     * Gets the interval of a card, which is the time from its last review to its next.
+     * @param card The card id.
+     * @return The interval in days, or 0 if it has not been reviewed.
+     * @throws IllegalArgumentException Thrown if the card id is not valid.
+     */
+    public int getInterval(int card) {
+        checkCard(card);
+        return intervals[card];
+    }
+
+    /**
+     * Gets the ease of a card, which its interval is multiplied by after each passing review.
+     * @param card The card id.
+     * @return The ease in hundredths, e.g. 250 for 2.5.
+     * @throws IllegalArgumentException Thrown if the card id is not valid.
+     */
+    public int getEase(int card) {
+        checkCard(card);
+        return eases[card];
+    }
+
+    /**
+     * Gets the number of passing reviews of a card since its last failing review.
+     * @param card The card id.
+     * @return The number of reviews.
+     * @throws IllegalArgumentException Thrown if the card id is not valid.
+     */
+    public int getRepetitions(int card) {
+        checkCard(card);
+        return repetitions[card];
+    }
+
+    /**
+     * Gets the number of cards.
+     * @return The number of cards.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks that a card id is valid.
+     * @param card The card id.
+     * @throws IllegalArgumentException Thrown if it is not.
+     */
+    private void checkCard(int card) {
+        if (card < 0 || card >= size) {
+            throw new IllegalArgumentException(String.format("There is no card with id %d.", card));
+        }
+    }
+
+    /**
+     * Checks if one card comes before another in the heap: if it is due sooner, or at the same time and was added first.
+     * @param a The first card id.
+     * @param b The second card id.
+     * @return Whether the first card comes first.
+     */
+    private boolean before(int a, int b) {
+        return due[a] < due[b] || (due[a] == due[b] && a < b);
+    }
+
+    /**
+     * Moves a card up the heap until its parent comes before it.
+     * @param index The index of the card in the heap.
+     */
+    private void siftUp(int index) {
+        int card = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(card, heap[parent])) { break; }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(card, index);
+    }
+
+    /**
+     * Moves a card down the heap until it comes before its children.
+     * @param index The index of the card in the heap.
+     */
+    private void siftDown(int index) {
+        int card = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) { break; }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], card)) { break; }
+            place(heap[child], index);
+            index = child;
+        }
+        place(card, index);
+    }
+
+    /**
+     * Puts a card at an index of the heap.
+     * @param card The card id.
+     * @param index The index.
+     */
+    private void place(int card, int index) {
+        heap[index] = card;
+        heapIndex[card] = index;
+    }
+}
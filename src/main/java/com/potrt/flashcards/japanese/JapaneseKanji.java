@@ -1,15 +1,20 @@
 package com.potrt.flashcards.japanese;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
+import com.potrt.flashcards.ConcurrentScore;
+import com.potrt.flashcards.ReadOnlyScore;
 import com.potrt.flashcards.Score;
 
 /**
@@ -17,13 +22,47 @@ import com.potrt.flashcards.Score;
  */
 public class JapaneseKanji {
     private static Logger logger = Logger.getLogger(JapaneseKanji.class.getName());
-    private Character kanji;
-    private String meaning;
+    private final Character kanji;
+    private volatile String meaning;
+    private final boolean concurrent;
     /**
      * A map pairing furigana to {@link Reading}.
      */
-    private Map<String, Reading> readingsMap = new HashMap<>();
-    private Map<String, JapaneseWord> words = new HashMap<>();
+    private final Map<String, Reading> readingsMap;
+    private final Map<String, JapaneseWord> words;
+    private final Collection<JapaneseWord> wordsView;
+
+    /**
+     * A map pairing furigana to the canonical {@link JapaneseKanjiWithReading} for it.
+     */
+    private final Map<String, JapaneseKanjiWithReading> withReadings;
+
+    /**
+     * Every {@link Reading}, ordered by usage, with ties in the order the readings were created.
+     * It is updated as words are attached and detached, and guarded by its own lock.
+     */
+    private final List<Reading> readingOrder = new ArrayList<>();
+
+    /**
+     * An unmodifiable list of the furigana in {@link #readingOrder}, or null if the order changed since it was built.
+     */
+    private volatile List<String> readings;
+
+    /**
+     * The sum of the {@link Score}s of every reading, updated with every attempt.
+     */
+    private final Score score;
+    private final ReadOnlyScore readOnlyScore;
+
+    /**
+     * The dictionary the kanji belongs to, which is told about its attempts, or null if it was created outside of one.
+     */
+    private final JapaneseKanjiDictionary dictionary;
+
+    /**
+     * The id of the kanji in its dictionary, or -1 if it was created outside of one.
+     */
+    private final int id;
 
     /**
      * Creates a new {@link JapaneseKanji} with the kanji character and its meaning.
@@ -31,8 +70,75 @@ public class JapaneseKanji {
      * @param meaing The meaning of the kanji, though it's definition may change depending on the context and {@link JapaneseWord}.
      */
     public JapaneseKanji (Character kanji, String meaning) {
+        this(kanji, meaning, false, null, -1);
+    }
+
+    /**
+     * Creates a new {@link JapaneseKanji} with the kanji character and its meaning.
+     * @param kanji The kanji.
+     * @param meaing The meaning of the kanji, though it's definition may change depending on the context and {@link JapaneseWord}.
+     * @param concurrent Whether the kanji can be read and attempted while other threads attach and detach words.
+     *                   Reading scores are then {@link ConcurrentScore}s.
+     *                   Attaching and detaching must still be serialized per kanji, which {@link ConcurrentJapaneseWordDictionary} does.
+     * @param dictionary The {@link JapaneseKanjiDictionary} the kanji belongs to.
+     * @param id The id of the kanji in the dictionary.
+     * @implNote The dictionary and id are final, so the kanji can be handed to other threads without a lock once it is created.
+     */
+    JapaneseKanji (Character kanji, String meaning, boolean concurrent, JapaneseKanjiDictionary dictionary, int id) {
         this.kanji = kanji;
         this.meaning = meaning;
+        this.concurrent = concurrent;
+        this.dictionary = dictionary;
+        this.id = id;
+        this.readingsMap = newMap();
+        this.words = newMap();
+        this.wordsView = Collections.unmodifiableCollection(words.values());
+        this.withReadings = newMap();
+        this.score = newScore();
+        this.readOnlyScore = new ReadOnlyScore(score);
+    }
+
+    /**
+     * Creates a map for the kanji's internal state.
+     * @return A {@link ConcurrentHashMap} if the kanji is concurrent, or else a {@link HashMap}.
+     */
+    private <V> Map<String, V> newMap() {
+        return concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+    }
+
+    /**
+     * Creates a map for the kanji's internal state, large enough to hold a number of entries without growing.
+     * @param expectedSize The number of entries.
+     * @return A {@link ConcurrentHashMap} if the kanji is concurrent, or else a {@link HashMap}.
+     */
+    private <V> Map<String, V> newMap(int expectedSize) {
+        int capacity = (int) (expectedSize / 0.75f) + 1;
+        return concurrent ? new ConcurrentHashMap<>(capacity) : new HashMap<>(capacity);
+    }
+
+    /**
+     * Creates a score for the kanji or one of its readings.
+     * @return A {@link ConcurrentScore} if the kanji is concurrent, or else a {@link Score}.
+     */
+    private Score newScore() {
+        return concurrent ? new ConcurrentScore() : new Score();
+    }
+
+    /**
+     * Gets the id of the kanji in its {@link JapaneseKanjiDictionary}, which is dense and never changes.
+     * @return The id, or -1 if the kanji was created outside of a dictionary.
+     * @see JapaneseKanjiDictionary#getKanji(int)
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the dictionary the kanji belongs to.
+     * @return The {@link JapaneseKanjiDictionary}, or null if it was created outside of one.
+     */
+    JapaneseKanjiDictionary getDictionary() {
+        return dictionary;
     }
 
     /**
@@ -77,15 +183,22 @@ public class JapaneseKanji {
      * @return The number of words.
      */
     public int numWords(String reading) {
-        if (!readingsMap.containsKey(reading)) {
-            return 0;
-        }
-        return readingsMap.get(reading).numWords();
+        Reading found = readingsMap.get(reading);
+        return found == null ? 0 : found.numWords();
+    }
+
+    /**
+     * Gets the number of readings that words have used this kanji with.
+     * @return The number of readings.
+     */
+    public int numReadings() {
+        return readingsMap.size();
     }
 
     /**
      * Gets the set of {@link JapaneseWord}s that use this kanji.
-     * @return The set of {@link JapaneseWord}s.
+     * @return A copy of the set of {@link JapaneseWord}s.
+     * @see #getWordsView()
      */
     public Set<JapaneseWord> getWords() {
         return new HashSet<>(words.values());
@@ -94,60 +207,256 @@ public class JapaneseKanji {
     /**
      * Gets the set of {@link JapaneseWord}s that use this kanji with a specfic reading.
      * @param reading The kanji's reading.
-     * @return The set of {@link JapaneseWord}s.
+     * @return A copy of the set of {@link JapaneseWord}s.
+     * @see #getWordsView(String)
      */
     public Set<JapaneseWord> getWords(String reading) {
-        if (!readingsMap.containsKey(reading)) {
-            return new HashSet<>();
+        Reading found = readingsMap.get(reading);
+        return found == null ? new HashSet<>() : found.getWords();
+    }
+
+    /**
+     * Gets the {@link JapaneseWord}s that use this kanji, without copying them.
+     * @return An unmodifiable, live view of the {@link JapaneseWord}s, in no particular order.
+     * @apiNote Unless the kanji is concurrent, the view must not be iterated while words are attached or detached.
+     *          Use {@link #getWords()} for a copy that does not change.
+     */
+    public Collection<JapaneseWord> getWordsView() {
+        return wordsView;
+    }
+
+    /**
+     * Gets the {@link JapaneseWord}s that use this kanji with a specific reading, without copying them.
+     * @param reading The kanji's reading.
+     * @return An unmodifiable, live view of the {@link JapaneseWord}s, in no particular order.
+     * @apiNote If no word has used the reading yet, an empty collection is returned, which will NOT see words attached later.
+     *          Unless the kanji is concurrent, the view must not be iterated while words are attached or detached.
+     */
+    public Collection<JapaneseWord> getWordsView(String reading) {
+        Reading found = readingsMap.get(reading);
+        return found == null ? Collections.emptyList() : found.wordsView;
+    }
+
+    /**
+     * Calls an action with each {@link JapaneseWord} that uses this kanji, without copying them.
+     * @param action The action.
+     * @apiNote Unless the kanji is concurrent, the action must not attach or detach words.
+     */
+    public void forEachWord(Consumer<? super JapaneseWord> action) {
+        words.values().forEach(action);
+    }
+
+    /**
+     * Calls an action with each {@link JapaneseWord} that uses this kanji with a specific reading, without copying them.
+     * @param reading The kanji's reading.
+     * @param action The action.
+     * @apiNote Unless the kanji is concurrent, the action must not attach or detach words.
+     */
+    public void forEachWord(String reading, Consumer<? super JapaneseWord> action) {
+        Reading found = readingsMap.get(reading);
+        if (found != null) {
+            found.words.values().forEach(action);
         }
-        return readingsMap.get(reading).getWords();
+    }
+
+    /**
+     * Gets the furigana of every reading a word has been created with, in no order, without building the list {@link #getReadings()} caches.
+     * @return A live view of the furigana, which must not be changed.
+     */
+    Set<String> knownReadings() {
+        return readingsMap.keySet();
     }
 
     /**
      * Gets a list of readings, ordered by usage.
-     * @return The list of furigana readings.
+     * @return An unmodifiable list of the furigana readings.
+     * @apiNote The list is cached until the order of the readings changes, so it should not be relied on to stay current.
      */
     public List<String> getReadings() {
-        return readingsMap.values().stream().sorted(Comparator.comparingInt(Reading::numWords).reversed()).map(Reading::getFurigana).collect(Collectors.toList());
+        List<String> out = readings;
+        if (out != null) { return out; }
+
+        synchronized (readingOrder) {
+            if (readings == null) {
+                List<String> furigana = new ArrayList<>(readingOrder.size());
+                for (Reading reading : readingOrder) {
+                    furigana.add(reading.getFurigana());
+                }
+                readings = Collections.unmodifiableList(furigana);
+            }
+            return readings;
+        }
+    }
+
+    /**
+     * Creates a new {@link Reading}, gives it an id if the kanji is in a dictionary, and adds it to the end of the reading order.
+     * @param furigana The furigana reading.
+     * @return The {@link Reading}.
+     */
+    private Reading newReading(String furigana) {
+        int id = dictionary == null ? -1 : dictionary.register(withReading(furigana));
+        return append(new Reading(furigana, id, newScore(), newMap()));
+    }
+
+    /**
+     * Adds a {@link Reading} to the end of the reading order.
+     * @param reading The {@link Reading}.
+     * @return The {@link Reading}.
+     */
+    private Reading append(Reading reading) {
+        synchronized (readingOrder) {
+            // Readings are never removed, so the size is also the order the reading was created in.
+            reading.position = readingOrder.size();
+            reading.created = readingOrder.size();
+            readingOrder.add(reading);
+            readings = null;
+        }
+        return reading;
+    }
+
+    /**
+     * Restores a reading and its score, at the end of the reading order.
+     * Its words are then restored with {@link JapaneseKanjiWithReading#restoreWord(JapaneseWord)}, and the readings put back in order with {@link #sortReadings()}.
+     * @param furigana The furigana reading.
+     * @param id The id the reading had in its dictionary.
+     * @param successes The number of successes of the reading.
+     * @param attempts The number of attempts of the reading.
+     * @param expectedWords The number of words that will be restored to the reading.
+     * @return The {@link JapaneseKanjiWithReading} for the reading.
+     * @throws IllegalArgumentException Thrown if the score or id is not valid.
+     * @throws IllegalStateException Thrown if the kanji already has the reading, the dictionary already has the id,
+     *                               or the kanji is not in a dictionary.
+     */
+    JapaneseKanjiWithReading restoreReading(String furigana, int id, long successes, long attempts, int expectedWords) {
+        if (dictionary == null) { throw new IllegalStateException(String.format("Kanji '%c' is not in a dictionary.", kanji)); }
+        Score readingScore = concurrent ? new ConcurrentScore(successes, attempts) : new Score(successes, attempts);
+        Reading reading = new Reading(furigana, id, readingScore, newMap(expectedWords));
+        if (readingsMap.putIfAbsent(furigana, reading) != null) {
+            throw new IllegalStateException(String.format("Kanji '%c' already has the reading '%s'.", kanji, furigana));
+        }
+        JapaneseKanjiWithReading withReading = withReading(furigana);
+        dictionary.restoreId(withReading, id);
+        append(reading);
+        score.add(readingScore);
+
+        withReading.reading = reading;
+        return withReading;
+    }
+
+    /**
+     * Sorts the readings by usage once their words have been restored, keeping the restored order for ties.
+     */
+    void sortReadings() {
+        synchronized (readingOrder) {
+            readingOrder.sort((first, second) -> precedes(first, second) ? -1 : precedes(second, first) ? 1 : 0);
+            for (int i = 0; i < readingOrder.size(); i++) {
+                readingOrder.get(i).position = i;
+            }
+            readings = null;
+        }
+    }
+
+    /**
+     * Moves a {@link Reading} whose number of words changed to its new place in the reading order.
+     * @param reading The {@link Reading}.
+     * @apiNote As the number of words only changes by one at a time, the reading only needs to step past its neighbours.
+     */
+    private void reorder(Reading reading) {
+        synchronized (readingOrder) {
+            int position = reading.position;
+            boolean moved = false;
+            while (position > 0 && precedes(reading, readingOrder.get(position - 1))) {
+                swap(position, position - 1);
+                position--;
+                moved = true;
+            }
+            while (position < readingOrder.size() - 1 && precedes(readingOrder.get(position + 1), reading)) {
+                swap(position, position + 1);
+                position++;
+                moved = true;
+            }
+            if (moved) {
+                readings = null;
+            }
+        }
+    }
+
+    /**
+     * Checks whether one {@link Reading} comes before another in the reading order:
+     * it has more words, or as many and was created first.
+     * @param first The first {@link Reading}.
+     * @param second The second {@link Reading}.
+     * @return Whether the first comes before the second.
+     */
+    private static boolean precedes(Reading first, Reading second) {
+        int firstCount = first.numWords();
+        int secondCount = second.numWords();
+        return firstCount > secondCount || (firstCount == secondCount && first.created < second.created);
+    }
+
+    /**
+     * Swaps two {@link Reading}s in the reading order.
+     * @param i The position of the first {@link Reading}.
+     * @param j The position of the second {@link Reading}.
+     */
+    private void swap(int i, int j) {
+        Reading first = readingOrder.get(i);
+        Reading second = readingOrder.get(j);
+        readingOrder.set(i, second);
+        readingOrder.set(j, first);
+        first.position = j;
+        second.position = i;
     }
 
     /**
      * Gets a {@link JapaneseKanjiWithReading} that represent a kanji and a specific reading.
      * @param reading The furigana reading.
      * @return The {@link JapaneseKanjiWithReading}.
+     * @apiNote The same instance is returned for every call with the same reading, so they can be compared by identity.
      */
     public JapaneseKanjiWithReading withReading(String reading) {
-        return new JapaneseKanjiWithReading(reading);
+        JapaneseKanjiWithReading withReading = withReadings.get(reading);
+        if (withReading != null) {
+            return withReading;
+        }
+        return withReadings.computeIfAbsent(reading, JapaneseKanjiWithReading::new);
     }
 
     /**
      * Gets the aggregated {@link Score} for the kanji.
-     * @return The aggregated {@link Score}.
-     * @apiNote This {@link Score} should only be used for getting information.  Any edits will not impact this kanji's score.
+     * @return A live, read-only view of the aggregated {@link Score}.
+     * @apiNote The aggregate is kept up to date with every attempt, so this does not need to add up the readings.
+     *          The returned {@link ReadOnlyScore} cannot be attempted.
      */
     public Score getScore() {
-        return new Score(readingsMap.values().stream().map(Reading::getScore).collect(Collectors.toList()));
+        return readOnlyScore;
     }
 
     /**
      * Gets the {@link Score} for a reading of this kanji.
      * @param reading The furigana reading.
-     * @return The {@link Score} for this reading.
+     * @return A live, read-only view of the {@link Score} for this reading.
      * @apiNote If the score does not exist, an empty {@link Score} will be returned, but it will NOT be connected to this {@link JapaneseKanji}.
+     *          The reading is attempted with {@link JapaneseKanjiWithReading#attempt(boolean)}, which also updates the kanji's aggregate score.
      */
     public Score getScore(String reading) {
-        if (!readingsMap.containsKey(reading)) {
-            return new Score();
-        }
-        return readingsMap.get(reading).getScore();
+        Reading found = readingsMap.get(reading);
+        return found == null ? new Score() : found.getScore();
     }
 
     /**
      * A {@link JapaneseKanjiWithReading} represent a specfic reading of a kanji.
+     * There is only one for each kanji and reading, which every {@link JapaneseWord} using them shares.
      * @apiNote When creating a new {@link JapaneseWord}, the function {@code updateWithWord()} should be used.
      */
     public class JapaneseKanjiWithReading {
-        private String furigana;
+        private final String furigana;
+
+        /**
+         * The {@link Reading}, or null if no word has been attached with this reading yet.
+         * @implNote Readings are never removed from the kanji, so it can be kept once found.
+         */
+        private volatile Reading reading;
 
         /**
          * Creates a new {@link JapaneseKanjiWithReading} from the reading.
@@ -173,9 +482,51 @@ public class JapaneseKanji {
             return furigana;
         }
 
+        /**
+         * Gets the id of the reading in its kanji's dictionary.
+         * @return The id, or -1 if no word has been created with this reading, or the kanji is not in a dictionary.
+         * @see JapaneseKanjiDictionary#getReading(int)
+         */
+        public int getId() {
+            Reading reading = this.reading;
+            return reading == null ? -1 : reading.id;
+        }
+
+        /**
+         * Gets the number of words that use the kanji with this reading.
+         * @return The number of words.
+         */
+        public int numWords() {
+            Reading reading = this.reading;
+            return reading == null ? 0 : reading.numWords();
+        }
+
+        /**
+         * Gets the {@link JapaneseWord}s that use the kanji with this reading, without looking the reading up or copying the words.
+         * @return An unmodifiable, live view of the {@link JapaneseWord}s, in no particular order.
+         * @apiNote If no word has been created with this reading, an empty collection is returned, which will NOT see words attached later.
+         *          Unless the kanji is concurrent, the view must not be iterated while words are attached or detached.
+         */
+        public Collection<JapaneseWord> getWordsView() {
+            Reading reading = this.reading;
+            return reading == null ? Collections.emptyList() : reading.wordsView;
+        }
+
+        /**
+         * Calls an action with each {@link JapaneseWord} that uses the kanji with this reading, without copying them.
+         * @param action The action.
+         * @apiNote Unless the kanji is concurrent, the action must not attach or detach words.
+         */
+        public void forEachWord(Consumer<? super JapaneseWord> action) {
+            Reading reading = this.reading;
+            if (reading != null) {
+                reading.words.values().forEach(action);
+            }
+        }
+
         /**
          * Gets the {@link Score} for the reading.
-         * @return The reading's {@link Score}.
+         * @return A live, read-only view of the reading's {@link Score}.
          * @apiNote If no word has been created with this reading, an empty {@link Score} will be returned. 
          * But it will NOT be connected to this {@link JapaneseKanjiWithReading}.
          */
@@ -186,12 +537,44 @@ public class JapaneseKanji {
         /**
          * Adds a new successful or failed attempt.
          * @param succeeded If the attempt was successful.
+         * @throws IllegalStateException Thrown if the dictionary's {@link AttemptListener} cannot record the attempt.  The score is then not changed.
          * @apiNote If no word has been created with this reading, nothing will happen.
          */
         public void attempt(boolean succeeded) {
-            Reading reading = readingsMap.get(furigana);
+            if (this.reading == null) { return; }
+            JapaneseKanjiDictionary dictionary = JapaneseKanji.this.dictionary;
+            if (dictionary != null) {
+                dictionary.beforeAttempt();
+            }
+            record(succeeded);
+        }
+
+        /**
+         * Adds a new successful or failed attempt that the dictionary's {@link AttemptListener} has already been asked about,
+         * and tells the listener about it.
+         * @param succeeded If the attempt was successful.
+         */
+        void record(boolean succeeded) {
+            Reading reading = this.reading;
             if (reading == null) { return; }
             reading.attempt(succeeded);
+
+            JapaneseKanjiDictionary dictionary = JapaneseKanji.this.dictionary;
+            if (dictionary != null) {
+                dictionary.attempted(this, succeeded);
+            }
+        }
+
+        /**
+         * Adds the attempts of a score that is being replayed, without telling the dictionary's {@link AttemptListener}.
+         * @param attempts The {@link Score} of the replayed attempts.
+         * @return Whether they were added, which they are not if no word has been created with this reading.
+         */
+        boolean replay(Score attempts) {
+            Reading reading = this.reading;
+            if (reading == null) { return false; }
+            reading.add(attempts);
+            return true;
         }
 
         /**
@@ -207,7 +590,8 @@ public class JapaneseKanji {
          * @param japaneseWord
          */
         void attachWord(JapaneseWord word) {
-            Reading reading = readingsMap.computeIfAbsent(furigana, Reading::new);
+            Reading reading = readingsMap.computeIfAbsent(furigana, JapaneseKanji.this::newReading);
+            this.reading = reading;
             reading.attachWord(word);
         }
 
@@ -216,10 +600,33 @@ public class JapaneseKanji {
          * @param japaneseWord
          */
         void detachWord(JapaneseWord word) {
-            Reading reading = readingsMap.get(furigana);
+            detachWord(word, false);
+        }
+
+        /**
+         * Detach a {@link JapaneseWord} from the reading, and from the kanji unless the word still uses it with another reading.
+         * @param word The {@link JapaneseWord}.
+         * @param keepKanji Whether the word still uses the kanji with another reading.
+         */
+        void detachWord(JapaneseWord word, boolean keepKanji) {
+            Reading reading = this.reading;
             if (reading == null) { return; }
             
-            reading.detachWord(word);
+            reading.detachWord(word, keepKanji);
+        }
+
+        /**
+         * Restores a {@link JapaneseWord} to the kanji and reading, without changing the reading order.
+         * @param word The {@link JapaneseWord}.
+         * @throws IllegalStateException Thrown if the reading has not been restored with {@link JapaneseKanji#restoreReading(String, int, long, long, int)}.
+         */
+        void restoreWord(JapaneseWord word) {
+            Reading reading = this.reading;
+            if (reading == null) {
+                throw new IllegalStateException(String.format("The reading '%s' of kanji '%c' has not been restored.", furigana, kanji));
+            }
+            JapaneseKanji.this.words.put(word.getKanji(), word);
+            reading.words.put(word.getKanji(), word);
         }
     }
 
@@ -227,16 +634,37 @@ public class JapaneseKanji {
      * A {@link Reading} holds information about a specific reading for a kanji.
      */
     private class Reading {
-        private String furigana;
-        private Map<String, JapaneseWord> words = new HashMap<>();
-        private Score score = new Score();
+        private final String furigana;
+        private final int id;
+        private final Map<String, JapaneseWord> words;
+        private final Collection<JapaneseWord> wordsView;
+        private final Score score;
+        private final ReadOnlyScore readOnlyScore;
+
+        /**
+         * The index of this reading in {@link JapaneseKanji#readingOrder}.
+         */
+        private int position;
+
+        /**
+         * The order this reading was created in, which breaks ties in {@link JapaneseKanji#readingOrder}.
+         */
+        private int created;
 
         /**
          * Creates a new reading from the furigana reading.
          * @param reading The furigana reading.
+         * @param id The id of the reading in its kanji's dictionary, or -1.
+         * @param score The {@link Score} of the reading.
+         * @param words The empty map to hold the words that use the reading.
          */
-        Reading(String reading) {
+        Reading(String reading, int id, Score score, Map<String, JapaneseWord> words) {
             this.furigana = reading;
+            this.id = id;
+            this.score = score;
+            this.readOnlyScore = new ReadOnlyScore(score);
+            this.words = words;
+            this.wordsView = Collections.unmodifiableCollection(words.values());
         }
 
         /**
@@ -269,32 +697,54 @@ public class JapaneseKanji {
          */
         void attachWord(JapaneseWord word) {
             JapaneseKanji.this.words.put(word.getKanji(), word);
-            words.put(word.getKanji(), word);
+            if (words.put(word.getKanji(), word) == null) {
+                reorder(this);
+            }
         }
 
         /**
          * Detaches a word to this reading.
          * @param word The new word.
+         * @param keepKanji Whether to leave the word attached to the kanji.
          */
-        void detachWord(JapaneseWord word) {
-            JapaneseKanji.this.words.remove(word.getKanji());
-            words.remove(word.getKanji());
+        void detachWord(JapaneseWord word, boolean keepKanji) {
+            if (!keepKanji) {
+                JapaneseKanji.this.words.remove(word.getKanji());
+            }
+            if (words.remove(word.getKanji()) != null) {
+                reorder(this);
+            }
         }
 
         /**
          * Adds a new successful or failed attempt.
          * @param succeeded If the attempt was successful.
+         * @throws IllegalStateException Thrown if the kanji's aggregate {@link ConcurrentScore} is full.  Neither score is then changed.
+         * @implNote The aggregate is attempted first, as it is the one that fills up first:
+         *           it always holds at least as many attempts as each of its readings, so once it has room, so does the reading.
          */
         void attempt(boolean succeeded) {
+            JapaneseKanji.this.score.attempt(succeeded);
             score.attempt(succeeded);
         }
 
+        /**
+         * Adds the successes and attempts of another score.
+         * @param attempts The score to add.
+         * @throws IllegalStateException Thrown if the kanji's aggregate {@link ConcurrentScore} would be over full.  Neither score is then changed.
+         * @implNote The aggregate is added to first, for the same reason as in {@link #attempt(boolean)}.
+         */
+        void add(Score attempts) {
+            JapaneseKanji.this.score.add(attempts);
+            score.add(attempts);
+        }
+
         /**
          * Gets the {@link Score} for the reading.
-         * @return The score.
+         * @return A live, read-only view of the score, so it is only changed by {@link #attempt(boolean)} along with the kanji's aggregate.
          */
         Score getScore() {
-            return score;
+            return readOnlyScore;
         }
     }
 }
@@ -1,16 +1,30 @@
 package com.potrt.flashcards.japanese;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+
 /**
  * A {@link JapaneseKanjiDictionary} represents a dictionary of {@link JapaneseKanji}. 
+ * <p>
+ * The kanji are held in a {@link KanjiMap} keyed by the primitive {@code char}, so lookups do not box the kanji.
+ * <p>
+ * Each kanji is given a dense id, counting from 0, when it is added, and each reading of a kanji when its first word is attached.
+ * As kanji and readings are never removed, the ids are stable, and stores such as {@link JapaneseUserScores} can index arrays by them.
  */
 public class JapaneseKanjiDictionary  {
     private static Logger logger = Logger.getLogger(JapaneseKanjiDictionary.class.getName());
-    private Map<Character, JapaneseKanji> kanjiMap = new HashMap<>();
+    private final KanjiMap kanjiMap = new KanjiMap();
+
+    /**
+     * @implNote Null if no one is listening.
+     */
+    private volatile AttemptListener attemptListener;
+
+    private final IdTable<JapaneseKanji> kanjiIds = new IdTable<>("kanji");
+    private final IdTable<JapaneseKanjiWithReading> readingIds = new IdTable<>("reading");
 
     /**
      * Creates and adds a new kanji to the dictionary.
@@ -21,20 +35,33 @@ public class JapaneseKanjiDictionary  {
      *          In theory this should not happen, so a warning will be sent as well.
      */
     public JapaneseKanji create(Character kanji, String meaning) {
-        if (kanjiMap.containsKey(kanji)) {
-            JapaneseKanji original = kanjiMap.get(kanji);
-            if (logger.isLoggable(Level.WARNING)) {
-                logger.warning(String.format("Kanji '%c' has already been created.", kanji));
+        JapaneseKanji original = kanjiMap.get(kanji);
+        if (original == null) {
+            JapaneseKanji japaneseKanji = add(kanji, meaning);
+            if (japaneseKanji != null) {
+                return japaneseKanji;
             }
-            if (!original.getMeaning().equals(meaning)) {
-                original.setMeaning(meaning);
-            }
-            return original;
+            original = kanjiMap.get(kanji);
+        }
+
+        if (logger.isLoggable(Level.WARNING)) {
+            logger.warning(String.format("Kanji '%c' has already been created.", kanji));
         }
+        if (!original.getMeaning().equals(meaning)) {
+            original.setMeaning(meaning);
+        }
+        return original;
+    }
 
-        JapaneseKanji japaneseKanji = new JapaneseKanji(kanji, meaning);
-        kanjiMap.put(kanji, japaneseKanji);
-        return japaneseKanji;
+    /**
+     * Creates a new {@link JapaneseKanji} that belongs to the dictionary, but has not been added to it yet.
+     * @param kanji The kanji.
+     * @param meaning The meaning.
+     * @param id The id of the kanji in the dictionary.
+     * @return The new {@link JapaneseKanji}.
+     */
+    protected JapaneseKanji newKanji(Character kanji, String meaning, int id) {
+        return new JapaneseKanji(kanji, meaning, false, this, id);
     }
 
     /**
@@ -44,13 +71,60 @@ public class JapaneseKanjiDictionary  {
      * @apiNote If the reading doesn't exist, a new kanji with a meaning of '?' is created and a warning is sent.
      */
     public JapaneseKanji get(Character kanji) {
-        if (!kanjiMap.containsKey(kanji)) {
-            if (logger.isLoggable(Level.WARNING)) {
-                logger.warning(String.format("Kanji '%c' does not yet exist, so its default meaning is set to '?'.", kanji));
-            }
-            create(kanji, "?");
+        return get(kanji.charValue());
+    }
+
+    /**
+     * Returns the {@link JapaneseKanji} for the given kanji code point, without boxing it.
+     * @param codePoint The code point of the kanji.
+     * @return The associated {@link JapaneseKanji}.
+     * @throws IllegalArgumentException Thrown if the code point is outside the Basic Multilingual Plane (e.g. CJK Extension B),
+     *                                  as a {@link JapaneseKanji} is a single {@code char}.
+     * @apiNote If the reading doesn't exist, a new kanji with a meaning of '?' is created and a warning is sent.
+     */
+    public JapaneseKanji get(int codePoint) {
+        if (!Character.isBmpCodePoint(codePoint)) {
+            throw new IllegalArgumentException(String.format("Kanji U+%X is outside the Basic Multilingual Plane, so it cannot be a JapaneseKanji.", codePoint));
+        }
+
+        char kanji = (char) codePoint;
+        JapaneseKanji japaneseKanji = kanjiMap.get(kanji);
+        if (japaneseKanji != null) {
+            return japaneseKanji;
+        }
+
+        if (logger.isLoggable(Level.WARNING)) {
+            logger.warning(String.format("Kanji '%c' does not yet exist, so its default meaning is set to '?'.", kanji));
         }
+        japaneseKanji = add(kanji, "?");
+        return japaneseKanji == null ? kanjiMap.get(kanji) : japaneseKanji;
+    }
 
+    /**
+     * Creates a new kanji and adds it to the dictionary with the next id, unless the dictionary already has the kanji.
+     * @param kanji The kanji.
+     * @param meaning The meaning.
+     * @return The new {@link JapaneseKanji}, or null if the dictionary already has the kanji.
+     * @implNote The kanji is created under the lock of the id table, with its dictionary and id as final fields,
+     *           so two threads creating the same kanji never leave a hole in the ids,
+     *           and a thread that finds the kanji with {@link KanjiMap#get(char)}, which does not lock, sees them set.
+     */
+    private JapaneseKanji add(Character kanji, String meaning) {
+        synchronized (kanjiIds) {
+            if (kanjiMap.get(kanji) != null) { return null; }
+            JapaneseKanji japaneseKanji = newKanji(kanji, meaning, kanjiIds.size());
+            kanjiMap.putIfAbsent(japaneseKanji);
+            kanjiIds.add(japaneseKanji);
+            return japaneseKanji;
+        }
+    }
+
+    /**
+     * Finds the {@link JapaneseKanji} for the given kanji character, without creating it.
+     * @param kanji The kanji.
+     * @return The associated {@link JapaneseKanji}, or null if it is not in the dictionary.
+     */
+    JapaneseKanji find(char kanji) {
         return kanjiMap.get(kanji);
     }
 
@@ -62,4 +136,100 @@ public class JapaneseKanjiDictionary  {
     public boolean contains(JapaneseKanji japaneseKanji) {
         return japaneseKanji == kanjiMap.get(japaneseKanji.getKanji());
     }
+
+    /**
+     * Visits every {@link JapaneseKanji} in the dictionary, in no particular order.
+     * @param action Called with each {@link JapaneseKanji}.
+     */
+    void forEach(Consumer<JapaneseKanji> action) {
+        kanjiMap.forEach(action);
+    }
+
+    /**
+     * Sets the listener that is told about every attempt of a reading of a kanji in this dictionary.
+     * @param listener The {@link AttemptListener}, or null to stop listening.
+     */
+    public void setAttemptListener(AttemptListener listener) {
+        this.attemptListener = listener;
+    }
+
+    /**
+     * Asks the {@link AttemptListener}, if there is one, whether it can record an attempt, before any score is changed.
+     * @throws IllegalStateException Thrown if the listener cannot record the attempt.
+     */
+    void beforeAttempt() {
+        AttemptListener listener = attemptListener;
+        if (listener != null) {
+            listener.beforeAttempt();
+        }
+    }
+
+    /**
+     * Tells the {@link AttemptListener}, if there is one, about an attempt.
+     * @param reading The {@link JapaneseKanjiWithReading} that was attempted.
+     * @param succeeded If the attempt was successful.
+     */
+    void attempted(JapaneseKanjiWithReading reading, boolean succeeded) {
+        AttemptListener listener = attemptListener;
+        if (listener != null) {
+            listener.attempted(reading, succeeded);
+        }
+    }
+
+    /**
+     * Gives a reading of a kanji in the dictionary the next id.
+     * @param reading The {@link JapaneseKanjiWithReading}.
+     * @return The id.
+     */
+    int register(JapaneseKanjiWithReading reading) {
+        return readingIds.add(reading);
+    }
+
+    /**
+     * Gives a reading restored from a snapshot the id it had when the snapshot was written.
+     * @param reading The {@link JapaneseKanjiWithReading}.
+     * @param id The id.
+     * @throws IllegalArgumentException Thrown if the id is negative.
+     * @throws IllegalStateException Thrown if another reading already has the id.
+     */
+    void restoreId(JapaneseKanjiWithReading reading, int id) {
+        readingIds.put(id, reading);
+    }
+
+    /**
+     * Gets a reading by its id.
+     * @param id The id.
+     * @return The {@link JapaneseKanjiWithReading}.
+     * @throws IllegalArgumentException Thrown if no reading has the id.
+     */
+    public JapaneseKanjiWithReading getReading(int id) {
+        return readingIds.get(id);
+    }
+
+    /**
+     * Gets the number of readings that have been given ids, which is one more than the highest id.
+     * @return The number of readings.
+     */
+    public int numReadings() {
+        return readingIds.size();
+    }
+
+    /**
+     * Gets a kanji by its id.
+     * @param id The id, from 0 up to but not including {@link #size()}.
+     * @return The {@link JapaneseKanji}.
+     * @throws IllegalArgumentException Thrown if no kanji has the id.
+     * @see JapaneseKanji#getId()
+     */
+    public JapaneseKanji getKanji(int id) {
+        return kanjiIds.get(id);
+    }
+
+    /**
+     * Gets the number of kanji in the dictionary.
+     * @return The number of kanji.
+     */
+    public int size() {
+        return kanjiMap.size();
+    }
 }
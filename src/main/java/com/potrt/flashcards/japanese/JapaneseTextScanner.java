@@ -0,0 +1,341 @@
+package com.potrt.flashcards.japanese;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link JapaneseTextScanner} finds the {@link JapaneseWord}s of a dictionary in Japanese text, such as an article.
+ * <p>
+ * It is an Aho-Corasick automaton over the kanji of every word, and optionally their furigana, so text is scanned in one pass
+ * rather than by looking up every substring.  Matches are found leftmost-longest: at each place in the text the longest word
+ * that starts earliest is chosen, and scanning carries on after it, so matches never overlap.  Once a match is chosen,
+ * the characters between its end and the furthest character read are read once more, which is never more than the longest word.
+ * <p>
+ * The automaton is held in flat arrays.  States are numbered breadth first from the root, 0, and the children of each state
+ * are numbered consecutively in the order of their characters, so state {@code s > 0} is reached by the edge {@code s - 1},
+ * and a state's edges are found by a binary search of its slice of {@link #edgeChars}.  The root, which most failed lookups
+ * fall back to, instead has a table of every {@code char}.
+ * <p>
+ * A scanner does not change once built: get a new one from {@link JapaneseWordDictionary#getTextScanner(boolean)}
+ * after words are added.  It can be shared between threads.
+ */
+public final class JapaneseTextScanner {
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    /**
+     * The state reached from the root by each {@code char}, or the root if no word starts with it.
+     */
+    private final int[] rootNext = new int[Character.MAX_VALUE + 1];
+
+    /**
+     * The index in {@link #edgeChars} of the first edge of each state, and one more entry for the end of the last state's edges.
+     */
+    private final int[] firstEdge;
+    private final char[] edgeChars;
+
+    private final int[] depth;
+    private final int[] fail;
+
+    /**
+     * The deepest state on each state's failure chain that ends a word, or {@value #NONE}.
+     */
+    private final int[] output;
+
+    /**
+     * The index in {@link #words} of the first word spelled by each state, and one more entry for the end of the last state's words.
+     */
+    private final int[] firstWord;
+    private final JapaneseWord[] words;
+
+    /**
+     * Listens for the words found by {@link JapaneseTextScanner#scan(CharSequence, MatchListener)}.
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+        /**
+         * Called with each word spelled by a match, in the order the matches are found.
+         * @param start The index of the first character of the match in the text.
+         * @param end The index after the last character of the match.
+         * @param word The {@link JapaneseWord}.
+         */
+        void matched(int start, int end, JapaneseWord word);
+    }
+
+    /**
+     * A word found in text.
+     */
+    public static final class Match {
+        private final int start;
+        private final int end;
+        private final JapaneseWord word;
+
+        /**
+         * Creates a new {@link Match}.
+         * @param start The index of the first character of the match.
+         * @param end The index after the last character of the match.
+         * @param word The {@link JapaneseWord}.
+         */
+        Match(int start, int end, JapaneseWord word) {
+            this.start = start;
+            this.end = end;
+            this.word = word;
+        }
+
+        /**
+         * Gets the index of the first character of the match.
+         * @return The index.
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * Gets the index after the last character of the match.
+         * @return The index.
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        /**
+         * Gets the word found.
+         * @return The {@link JapaneseWord}.
+         */
+        public JapaneseWord getWord() {
+            return word;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%d, %d) %s", start, end, word.getKanji());
+        }
+    }
+
+    /**
+     * A string to find, and the word it spells.
+     */
+    private static final class Key implements Comparable<Key> {
+        private final String text;
+        private final int rank;
+        private final JapaneseWord word;
+
+        /**
+         * Creates a new {@link Key}.
+         * @param text The string.
+         * @param rank 0 if the string is the word's kanji, or 1 if it is only its furigana, so kanji come first.
+         * @param word The {@link JapaneseWord}.
+         */
+        Key(String text, int rank, JapaneseWord word) {
+            this.text = text;
+            this.rank = rank;
+            this.word = word;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int compare = text.compareTo(other.text);
+            if (compare != 0) { return compare; }
+            if (rank != other.rank) { return Integer.compare(rank, other.rank); }
+            return Integer.compare(word.getId(), other.word.getId());
+        }
+    }
+
+    /**
+     * Builds a scanner for words.
+     * @param words The {@link JapaneseWord}s to find.
+     * @param withFurigana Whether to also find words written in their furigana.
+     */
+    JapaneseTextScanner(Collection<JapaneseWord> words, boolean withFurigana) {
+        List<Key> keys = new ArrayList<>(withFurigana ? 2 * words.size() : words.size());
+        int chars = 0;
+        for (JapaneseWord word : words) {
+            String kanji = word.getKanji();
+            if (!kanji.isEmpty()) {
+                keys.add(new Key(kanji, 0, word));
+                chars += kanji.length();
+            }
+            String furigana = word.getFurigana();
+            if (withFurigana && !furigana.isEmpty() && !furigana.equals(kanji)) {
+                keys.add(new Key(furigana, 1, word));
+                chars += furigana.length();
+            }
+        }
+        Key[] sorted = keys.toArray(new Key[0]);
+        Arrays.sort(sorted);
+
+        // Every state but the root is the last character of a prefix of some key.
+        int capacity = chars + 1;
+        int[] firstEdge = new int[capacity + 1];
+        char[] edgeChars = new char[capacity];
+        int[] depth = new int[capacity];
+        int[] firstKey = new int[capacity];
+        int[] endKey = new int[capacity];
+        int[] firstWord = new int[capacity + 1];
+        JapaneseWord[] matched = new JapaneseWord[sorted.length];
+
+        // The keys of each state are a range of the sorted keys, which its children split up by their next character.
+        int states = 1;
+        int edges = 0;
+        int wordCount = 0;
+        endKey[ROOT] = sorted.length;
+        for (int state = 0; state < states; state++) {
+            int key = firstKey[state];
+            int end = endKey[state];
+            int d = depth[state];
+            firstWord[state] = wordCount;
+            while (key < end && sorted[key].text.length() == d) {
+                matched[wordCount++] = sorted[key++].word;
+            }
+
+            firstEdge[state] = edges;
+            while (key < end) {
+                char c = sorted[key].text.charAt(d);
+                int child = states++;
+                edgeChars[edges++] = c;
+                depth[child] = d + 1;
+                firstKey[child] = key;
+                while (key < end && sorted[key].text.charAt(d) == c) {
+                    key++;
+                }
+                endKey[child] = key;
+            }
+        }
+        firstEdge[states] = edges;
+        firstWord[states] = wordCount;
+
+        this.firstEdge = Arrays.copyOf(firstEdge, states + 1);
+        this.edgeChars = Arrays.copyOf(edgeChars, edges);
+        this.depth = Arrays.copyOf(depth, states);
+        this.firstWord = Arrays.copyOf(firstWord, states + 1);
+        this.words = Arrays.copyOf(matched, wordCount);
+        this.fail = new int[states];
+        this.output = new int[states];
+        linkStates(states);
+    }
+
+    /**
+     * Fills in the root table, and the failure and output links of every state, in breadth first order.
+     * @param states The number of states.
+     */
+    private void linkStates(int states) {
+        for (int edge = firstEdge[ROOT]; edge < firstEdge[ROOT + 1]; edge++) {
+            rootNext[edgeChars[edge]] = edge + 1;
+        }
+
+        output[ROOT] = NONE;
+        for (int state = 0; state < states; state++) {
+            for (int edge = firstEdge[state]; edge < firstEdge[state + 1]; edge++) {
+                int child = edge + 1;
+                int link = state == ROOT ? ROOT : next(fail[state], edgeChars[edge]);
+                fail[child] = link;
+                output[child] = endsWord(link) ? link : output[link];
+            }
+        }
+    }
+
+    /**
+     * Checks whether a state spells a word.
+     * @param state The state.
+     * @return Whether it does.
+     */
+    private boolean endsWord(int state) {
+        return firstWord[state] < firstWord[state + 1];
+    }
+
+    /**
+     * Follows the edge for a character from a state, falling back along the failure links until a state has one.
+     * @param state The state.
+     * @param c The character.
+     * @return The next state, which is the root if no word continues with the character.
+     */
+    private int next(int state, char c) {
+        while (state != ROOT) {
+            int low = firstEdge[state];
+            int high = firstEdge[state + 1] - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char edge = edgeChars[middle];
+                if (edge < c) {
+                    low = middle + 1;
+                } else if (edge > c) {
+                    high = middle - 1;
+                } else {
+                    return middle + 1;
+                }
+            }
+            state = fail[state];
+        }
+        return rootNext[c];
+    }
+
+    /**
+     * Finds the words in text, leftmost-longest, without allocating.
+     * @param text The text.
+     * @param listener Called with each word found.  Every word spelled by a match is passed, kanji spellings first.
+     * @return The number of matches, where a match spelling several words counts once.
+     */
+    public int scan(CharSequence text, MatchListener listener) {
+        int length = text.length();
+        int matches = 0;
+        int state = ROOT;
+        int bestStart = NONE;
+        int bestEnd = NONE;
+        int bestState = NONE;
+        int i = 0;
+        while (i < length) {
+            state = next(state, text.charAt(i++));
+            int found = endsWord(state) ? state : output[state];
+            if (found != NONE) {
+                int start = i - depth[found];
+                if (bestStart == NONE || start <= bestStart) {
+                    bestStart = start;
+                    bestEnd = i;
+                    bestState = found;
+                }
+            }
+
+            // No word found later can start at or before the best one once the current state no longer reaches back to it.
+            if (bestStart != NONE && (i - depth[state] > bestStart || i == length)) {
+                for (int w = firstWord[bestState]; w < firstWord[bestState + 1]; w++) {
+                    listener.matched(bestStart, bestEnd, words[w]);
+                }
+                matches++;
+                i = bestEnd;
+                state = ROOT;
+                bestStart = NONE;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the words in text, leftmost-longest.
+     * @param text The text.
+     * @return The {@link Match}es, in the order of the text.  A match spelling several words is listed once for each, kanji spellings first.
+     */
+    public List<Match> scan(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        scan(text, (start, end, word) -> matches.add(new Match(start, end, word)));
+        return matches;
+    }
+
+    /**
+     * Gets the length of the longest word, or furigana, that is scanned for.
+     * @return The length, which is 0 if there are no words.
+     */
+    public int maxWordLength() {
+        // States are numbered breadth first, so the last one is the deepest.
+        return depth[depth.length - 1];
+    }
+
+    /**
+     * Gets the number of states of the automaton, which is one more than the number of distinct prefixes of the words.
+     * @return The number of states.
+     */
+    public int numStates() {
+        return depth.length;
+    }
+}
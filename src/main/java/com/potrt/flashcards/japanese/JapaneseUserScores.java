@@ -0,0 +1,293 @@
+package com.potrt.flashcards.japanese;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.potrt.flashcards.ConcurrentScore;
+import com.potrt.flashcards.Score;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+
+/**
+ * A {@link JapaneseUserScores} holds one user's scores for the readings of a shared {@link JapaneseKanjiDictionary},
+ * so many users can study the same dictionary without each needing a copy of it.
+ * <p>
+ * The scores are held in a single {@code long[]} column indexed by reading id (see {@link JapaneseKanjiWithReading#getId()}),
+ * with the successes in the upper 32 bits and the attempts in the lower 32 bits, as in a {@link ConcurrentScore}.
+ * The column only grows as far as the highest reading id the user has attempted, so a user costs 8 bytes per reading
+ * rather than a copy of every kanji, reading, word, and score.  A reading can hold at most {@value #MAX_ATTEMPTS} attempts.
+ * <p>
+ * Attempts are only added to this store: the dictionary's own scores are not changed, and its {@link AttemptListener} is not told.
+ * The dictionary still keeps those scores, on its readings and kanji, and {@link JapaneseWord#attempt(boolean)} still changes them,
+ * so a dictionary shared between users should only be attempted through their stores.
+ * All methods are synchronized, so a store can be shared between the threads serving its user.
+ * <p>
+ * A store is kept across restarts with {@link #save(Path)} and {@link #load(Path, JapaneseKanjiDictionary)}.
+ * Its attempts are not journaled, so attempts made since the last save are lost in a crash.
+ * The file is big-endian: {@code int} magic, {@code int} version, {@code int} number of readings, then the {@code long} score of each reading.
+ * As the scores are indexed by reading id, they must be loaded with a dictionary whose readings have the same ids,
+ * such as one read from a {@link JapaneseDictionarySnapshot}.
+ */
+public class JapaneseUserScores {
+    /**
+     * The maximum number of attempts of a reading.
+     */
+    public static final long MAX_ATTEMPTS = ConcurrentScore.MAX_ATTEMPTS;
+
+    /**
+     * The version of the file format, which is the only one that can be loaded.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x4A555352;
+    private static final int HEADER_BYTES = 12;
+    private static final long ATTEMPT = 1L;
+    private static final long SUCCESS = 1L << 32;
+    private static final long[] EMPTY = new long[0];
+
+    private final JapaneseKanjiDictionary dictionary;
+    private long[] scores = EMPTY;
+
+    /**
+     * Creates an empty store of a user's scores.
+     * @param dictionary The shared {@link JapaneseKanjiDictionary} whose readings the user attempts.
+     */
+    public JapaneseUserScores(JapaneseKanjiDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Gets the dictionary whose readings the user attempts.
+     * @return The {@link JapaneseKanjiDictionary}.
+     */
+    public JapaneseKanjiDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Adds a new successful or failed attempt of each kanji of a word.
+     * @param word The {@link JapaneseWord}.
+     * @param succeeded If the attempt was successful.
+     * @throws IllegalArgumentException Thrown if a kanji of the word is not in the dictionary.
+     * @throws IllegalStateException Thrown if a reading cannot hold another attempt.  No reading of the word is then attempted.
+     */
+    public synchronized void attempt(JapaneseWord word, boolean succeeded) {
+        JapaneseWordSegments segments = word.getSegments();
+        int[] ids = new int[segments.size()];
+        int count = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.isKanji(i)) {
+                int id = id(segments.getKanji(i));
+                if (id >= 0) { ids[count++] = id; }
+            }
+        }
+
+        // Every reading is checked before any is written, counting a reading the word uses more than once for each use.
+        for (int i = 0; i < count; i++) {
+            int uses = 1;
+            for (int j = 0; j < i; j++) {
+                if (ids[j] == ids[i]) { uses++; }
+            }
+            checkRoom(ids[i], uses);
+        }
+        for (int i = 0; i < count; i++) {
+            add(ids[i], succeeded);
+        }
+    }
+
+    /**
+     * Adds a new successful or failed attempt of a reading.
+     * @param reading The {@link JapaneseKanjiWithReading}.
+     * @param succeeded If the attempt was successful.
+     * @throws IllegalArgumentException Thrown if the kanji is not in the dictionary.
+     * @throws IllegalStateException Thrown if the reading already has {@value #MAX_ATTEMPTS} attempts.
+     * @apiNote If no word has been created with this reading, nothing will happen.
+     */
+    public synchronized void attempt(JapaneseKanjiWithReading reading, boolean succeeded) {
+        int id = id(reading);
+        if (id < 0) { return; }
+        checkRoom(id, 1);
+        add(id, succeeded);
+    }
+
+    /**
+     * Checks that a reading can hold more attempts.
+     * @param id The id of the reading.
+     * @param attempts The number of attempts to add.
+     * @throws IllegalStateException Thrown if the reading cannot hold them.
+     */
+    private void checkRoom(int id, int attempts) {
+        long held = id < scores.length ? scores[id] & MAX_ATTEMPTS : 0;
+        if (held + attempts > MAX_ATTEMPTS) {
+            throw new IllegalStateException(String.format("A reading can hold at most %d attempts.", MAX_ATTEMPTS));
+        }
+    }
+
+    /**
+     * Adds an attempt of a reading that has room for it.
+     * @param id The id of the reading.
+     * @param succeeded If the attempt was successful.
+     */
+    private void add(int id, boolean succeeded) {
+        grow(id);
+        scores[id] += succeeded ? SUCCESS + ATTEMPT : ATTEMPT;
+    }
+
+    /**
+     * Grows the scores so they hold a reading.
+     * @param id The id of the reading.
+     */
+    private void grow(int id) {
+        if (id >= scores.length) {
+            scores = Arrays.copyOf(scores, Math.max(id + 1, Math.min(scores.length * 2, dictionary.numReadings())));
+        }
+    }
+
+    /**
+     * Gets the user's {@link Score} for a reading.
+     * @param reading The {@link JapaneseKanjiWithReading}.
+     * @return A copy of the score, which is empty if the user has not attempted the reading.
+     * @throws IllegalArgumentException Thrown if the kanji is not in the dictionary.
+     */
+    public synchronized Score getScore(JapaneseKanjiWithReading reading) {
+        int id = id(reading);
+        if (id < 0 || id >= scores.length) { return new Score(); }
+        return new Score(scores[id] >>> 32, scores[id] & MAX_ATTEMPTS);
+    }
+
+    /**
+     * Gets the user's {@link Score} for a kanji, which is the sum of the scores of its readings.
+     * @param kanji The {@link JapaneseKanji}.
+     * @return A copy of the score.
+     * @throws IllegalArgumentException Thrown if the kanji is not in the dictionary.
+     */
+    public synchronized Score getScore(JapaneseKanji kanji) {
+        check(kanji);
+        long successes = 0;
+        long attempts = 0;
+        for (String furigana : kanji.getReadings()) {
+            int id = kanji.withReading(furigana).getId();
+            if (id >= 0 && id < scores.length) {
+                successes += scores[id] >>> 32;
+                attempts += scores[id] & MAX_ATTEMPTS;
+            }
+        }
+        return new Score(successes, attempts);
+    }
+
+    /**
+     * Gets the id of a reading, checking that it is in the dictionary.
+     * @param reading The {@link JapaneseKanjiWithReading}.
+     * @return The id, or -1 if no word has been created with the reading.
+     * @throws IllegalArgumentException Thrown if the kanji is not in the dictionary.
+     */
+    private int id(JapaneseKanjiWithReading reading) {
+        check(reading.getJapaneseKanji());
+        return reading.getId();
+    }
+
+    /**
+     * Checks that a kanji is in the dictionary.
+     * @param kanji The {@link JapaneseKanji}.
+     * @throws IllegalArgumentException Thrown if the kanji is not in the dictionary.
+     */
+    private void check(JapaneseKanji kanji) {
+        if (kanji.getDictionary() != dictionary) {
+            throw new IllegalArgumentException(String.format("Kanji '%c' is not in the dictionary of these scores.", kanji.getKanji()));
+        }
+    }
+
+    /**
+     * Saves the user's scores to a file, replacing it if it exists.
+     * @param path The path of the file.  It is written to a temporary file beside it and forced to disk first,
+     *             so a crash never leaves a partly written file.
+     * @throws IOException Thrown when the file cannot be written.
+     */
+    public synchronized void save(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(scores.length);
+                for (long score : scores) {
+                    out.writeLong(score);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            JapaneseDictionarySnapshot.forceDirectory(path);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Loads a user's scores saved with {@link #save(Path)}.
+     * @param path The path of the file.
+     * @param dictionary The shared {@link JapaneseKanjiDictionary}, with the same reading ids as when the scores were saved.
+     * @return The {@link JapaneseUserScores}.
+     * @throws IOException Thrown when the file cannot be read, or is not valid scores for the dictionary.
+     */
+    public static JapaneseUserScores load(Path path, JapaneseKanjiDictionary dictionary) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(String.format("The user scores are %d bytes, but at most %d bytes can be mapped.", size, Integer.MAX_VALUE));
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        try {
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("The file is not user scores.");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException(String.format("The user scores are version %d, but only version %d can be read.", version, VERSION));
+            }
+            int count = buffer.getInt();
+            if (count < 0 || count > dictionary.numReadings()) {
+                throw new IOException(String.format("The user scores have %d readings, but the dictionary has %d.", count, dictionary.numReadings()));
+            }
+            if (buffer.remaining() != 8L * count) {
+                throw new IOException(String.format("The user scores should have %d bytes of scores, but have %d.", 8L * count, buffer.remaining()));
+            }
+
+            long[] scores = new long[count];
+            for (int id = 0; id < count; id++) {
+                long score = buffer.getLong();
+                if ((score >>> 32) > (score & MAX_ATTEMPTS)) {
+                    throw new IOException(String.format("The user score of reading %d has more successes than attempts.", id));
+                }
+                scores[id] = score;
+            }
+
+            JapaneseUserScores userScores = new JapaneseUserScores(dictionary);
+            userScores.scores = scores;
+            return userScores;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("The user scores are truncated.", e);
+        }
+    }
+
+    /**
+     * Gets the number of bytes the scores take, besides the object itself.
+     * @return The number of bytes.
+     */
+    public synchronized long sizeInBytes() {
+        return 8L * scores.length;
+    }
+}
@@ -1,7 +1,5 @@
 package com.potrt.flashcards.japanese;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 
 import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
@@ -12,14 +10,10 @@ import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
  */
 public class JapaneseWord {
     /**
-     * @implNote Used for default kanji getter.
+     * The kanji and kana of the word.
+     * @implNote Used for default kanji and furigana getters.
      */
-    protected String kanji;
-
-    /**
-     * @implNote Used for default furigana getter.
-     */
-    protected String furigana;
+    protected JapaneseWordSegments segments;
 
     /**
      * @implNote Used for default defintion getter.
@@ -27,16 +21,10 @@ public class JapaneseWord {
     protected String definition;
 
     /**
-     * The list of kana.
-     * @implNote Each object in this list is either a {@link JapaneseKanjiWithReading} or a {@link String}.
-     */
-    protected List<Object> kanaList = new ArrayList<>();
-
-    /**
-     * A list of all kanji.
-     * @implNote This is just used as a shortcut for certain methods and it does not need to be in order.
+     * The id of the word in its dictionary, or -1 if it has not been added to one.
+     * @implNote It is set before the word is visible in the dictionary, and is kept when the word's values are replaced.
      */
-    protected List<JapaneseKanjiWithReading> kanjiList = new ArrayList<>();
+    private int id = -1;
 
     /**
      * Creates a {@link JapaneseWord} from a built Japanese word and its definition.
@@ -44,19 +32,42 @@ public class JapaneseWord {
      * @param definition The meaning of the string.
      */
     public JapaneseWord(JapaneseWordBuilder builder, String definition) {
-        this.kanji = builder.getKanji();
-        this.furigana = builder.getFurigana();
+        this(builder.toSegments(), definition);
+    }
+
+    /**
+     * Creates a {@link JapaneseWord} from its packed kanji and kana and its definition.
+     * @param segments The {@link JapaneseWordSegments} of the word.
+     * @param definition The meaning of the string.
+     */
+    protected JapaneseWord(JapaneseWordSegments segments, String definition) {
+        this.segments = segments;
         this.definition = definition;
-        this.kanaList = builder.kanaList;
-        this.kanjiList = builder.kanjiList;
-    } 
+    }
+
+    /**
+     * Gets the id of the word in its {@link JapaneseWordDictionary}, which is dense and never changes.
+     * @return The id, or -1 if the word has not been added to a dictionary.
+     * @see JapaneseWordDictionary#getWord(int)
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the id of the word in its dictionary.
+     * @param id The id.
+     */
+    void setId(int id) {
+        this.id = id;
+    }
 
     /**
      * Gets the kanji of the word.
      * @return The kanji.
      */
     public String getKanji() {
-        return kanji;
+        return segments.getSurface();
     }
 
     /**
@@ -64,7 +75,15 @@ public class JapaneseWord {
      * @return The furigana.
      */
     public String getFurigana() {
-        return furigana;
+        return segments.getReading();
+    }
+
+    /**
+     * Gets the kanji and kana that make up the word.
+     * @return The {@link JapaneseWordSegments}.
+     */
+    public JapaneseWordSegments getSegments() {
+        return segments;
     }
 
     /**
@@ -80,16 +99,31 @@ public class JapaneseWord {
      * @return The associated {@link JapaneseWord.Representation}.
      */
     public Representation getRepresentation() {
-        return new Representation(kanji, furigana, definition);
+        return new Representation(getKanji(), getFurigana(), definition);
     }
 
     /**
      * Adds a new successful or failed attempt for each kanji.
      * @param succeeded If the attempt was successful.
+     * @throws IllegalStateException Thrown if the {@link AttemptListener} of the kanji dictionary cannot record the attempt.
+     *                               No kanji of the word is then attempted.
      */
     public void attempt(boolean succeeded) {
-        for (JapaneseKanjiWithReading k : kanjiList) {
-            k.attempt(succeeded);
+        JapaneseWordSegments segments = this.segments;
+        JapaneseKanjiDictionary checked = null;
+        for (int i = 0; i < segments.size(); i++) {
+            JapaneseKanjiWithReading k = segments.getKanji(i);
+            JapaneseKanjiDictionary dictionary = k == null ? null : k.getJapaneseKanji().getDictionary();
+            if (dictionary != null && dictionary != checked) {
+                dictionary.beforeAttempt();
+                checked = dictionary;
+            }
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            JapaneseKanjiWithReading k = segments.getKanji(i);
+            if (k != null) {
+                k.record(succeeded);
+            }
         }
     }
 
@@ -111,9 +145,11 @@ public class JapaneseWord {
     }
 
     /**
-     * Replaces the original word values with new word values.  Also detaches the word with all prior kanji readings.
+     * Replaces the original word values with new word values.  Also detaches the word from the prior kanji readings that the new values do not use.
      * @param word The {@link JapaneseWord} values to replace with.
      * @apiNote This should be overridden by any sub-children to copy any additional relevant values.  The child can and should make a super call.
+     *          The word is left attached to the readings that both values use, so {@link #attachToKanji(JapaneseWordSegments)}
+     *          only has to attach it to the new ones.
      */
     protected void replace(JapaneseWord word) {
         if (!getKanji().equals(word.getKanji())) {
@@ -123,19 +159,84 @@ public class JapaneseWord {
                     word.getKanji()));
         }
 
-        detachFromKanji();
-        furigana = word.getFurigana();
+        JapaneseWordSegments previous = segments;
+        segments = word.segments;
         definition = word.getDefinition();
-        kanaList = word.kanaList;
-        kanjiList = word.kanjiList;
+        for (int i = 0; i < previous.size(); i++) {
+            JapaneseKanjiWithReading reading = previous.getKanji(i);
+            if (reading != null && !uses(segments, reading)) {
+                reading.detachWord(this, usesKanji(segments, reading.getJapaneseKanji()));
+            }
+        }
+    }
+
+    /**
+     * Checks whether segments use a reading of a kanji.
+     * @param segments The {@link JapaneseWordSegments}.
+     * @param reading The {@link JapaneseKanjiWithReading}, which is compared by reference as there is only one for each kanji and reading.
+     * @return Whether a segment is the reading.
+     */
+    private static boolean uses(JapaneseWordSegments segments, JapaneseKanjiWithReading reading) {
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.getKanji(i) == reading) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether segments use a kanji with any reading.
+     * @param segments The {@link JapaneseWordSegments}.
+     * @param kanji The {@link JapaneseKanji}.
+     * @return Whether a segment is a reading of the kanji.
+     */
+    private static boolean usesKanji(JapaneseWordSegments segments, JapaneseKanji kanji) {
+        for (int i = 0; i < segments.size(); i++) {
+            JapaneseKanjiWithReading reading = segments.getKanji(i);
+            if (reading != null && reading.getJapaneseKanji() == kanji) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
      * Attaches the {@link JapaneseWord} to all of the {@link JapaneseKanji} it is made of.
      */
     void attachToKanji() {
-        for (JapaneseKanjiWithReading reading : kanjiList) {
-            reading.attachWord(this);
+        for (int i = 0; i < segments.size(); i++) {
+            JapaneseKanjiWithReading reading = segments.getKanji(i);
+            if (reading != null) {
+                reading.attachWord(this);
+            }
+        }
+    }
+
+    /**
+     * Attaches the {@link JapaneseWord} to the kanji readings it is made of that its values before {@link #replace(JapaneseWord)} did not use,
+     * so readings that did not change are not touched.
+     * @param previous The {@link JapaneseWordSegments} the word had before it was replaced.
+     */
+    void attachToKanji(JapaneseWordSegments previous) {
+        for (int i = 0; i < segments.size(); i++) {
+            JapaneseKanjiWithReading reading = segments.getKanji(i);
+            if (reading != null && !uses(previous, reading)) {
+                reading.attachWord(this);
+            }
+        }
+    }
+
+    /**
+     * Restores the {@link JapaneseWord} to all of the {@link JapaneseKanji} it is made of, without reordering their readings.
+     * @see JapaneseKanjiWithReading#restoreWord(JapaneseWord)
+     */
+    void restoreToKanji() {
+        for (int i = 0; i < segments.size(); i++) {
+            JapaneseKanjiWithReading reading = segments.getKanji(i);
+            if (reading != null) {
+                reading.restoreWord(this);
+            }
         }
     }
 
@@ -143,8 +244,11 @@ public class JapaneseWord {
      * Detaches the {@link JapaneseWord} from all of the {@link JapaneseKanji} it is made of.
      */
     void detachFromKanji() {
-        for (JapaneseKanjiWithReading reading : kanjiList) {
-            reading.detachWord(this);
+        for (int i = 0; i < segments.size(); i++) {
+            JapaneseKanjiWithReading reading = segments.getKanji(i);
+            if (reading != null) {
+                reading.detachWord(this);
+            }
         }
     }
 
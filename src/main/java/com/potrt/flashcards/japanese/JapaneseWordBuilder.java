@@ -1,75 +1,84 @@
 package com.potrt.flashcards.japanese;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
 
 /**
  * A {@link JapaneseWordBuilder} is used to create a {@link JapaneseWord}.
+ * <p>
+ * The kanji and kana are packed as they are added, and consecutive kana are joined into one segment.
+ * See {@link JapaneseWordSegments}.
  */
 public class JapaneseWordBuilder {
-    /**
-     * The list of kana.
-     * @implNote Each object in this list is either a {@link JapaneseKanjiWithReading} or a {@link String}.
-     */
-    List<Object> kanaList = new ArrayList<>();
-    /**
-     * A list of all kanji.
-     * @implNote This is just used as a shortcut for certain methods.
-     */
-    List<JapaneseKanjiWithReading> kanjiList = new ArrayList<>();
-    
+    private final StringBuilder surface = new StringBuilder();
+    private final StringBuilder reading = new StringBuilder();
+    private short[] ends = new short[8];
+    private JapaneseKanjiWithReading[] kanji = new JapaneseKanjiWithReading[4];
+    private int size;
+
     /**
      * Adds a new kanji to the string.
      * @param kanji A {@link JapaneseKanjiWithReading} so that it is known how the kanji must be read.
+     * @throws IllegalArgumentException Thrown if the word would become longer than {@link JapaneseWordSegments#MAX_LENGTH}.
      */
     public void add(JapaneseKanjiWithReading kanji) {
-        kanaList.add(kanji);
-        this.kanjiList.add(kanji);
+        checkLength(1, kanji.getFurigana().length());
+        surface.append(kanji.getKanji().charValue());
+        reading.append(kanji.getFurigana());
+        addSegment(kanji);
     }
-    
+
     /**
      * Adds furigana to the string.
      * @param furigana The furigana.
+     * @throws IllegalArgumentException Thrown if the word would become longer than {@link JapaneseWordSegments#MAX_LENGTH}.
      */
     public void add(String furigana) {
-        kanaList.add(furigana);
+        if (furigana.isEmpty()) { return; }
+        checkLength(furigana.length(), furigana.length());
+
+        surface.append(furigana);
+        reading.append(furigana);
+        if (size > 0 && kanji[size - 1] == null) {
+            // Extend the previous run of kana.
+            size--;
+        }
+        addSegment(null);
     }
 
     /**
-     * Gets the string of kana made up of kanji and furigana.
-     * @return A string of Japanese characters using both kanji and furigana.
+     * Checks that the word can be packed once a segment is added.
+     * @param surfaceLength The length of the segment's surface.
+     * @param readingLength The length of the segment's reading.
+     * @throws IllegalArgumentException Thrown if the word would be longer than {@link JapaneseWordSegments#MAX_LENGTH}.
      */
-    String getKanji() {
-        StringBuilder out = new StringBuilder();
-        for (Object kana : kanaList) {
-            if (kana instanceof JapaneseKanjiWithReading) {
-                JapaneseKanjiWithReading kanji = (JapaneseKanjiWithReading) kana;
-                out.append(kanji.getKanji());
-            } else {
-                // Here 'characters' must be a string.
-                out.append(kana);
-            }
+    private void checkLength(int surfaceLength, int readingLength) {
+        if (surface.length() + surfaceLength > JapaneseWordSegments.MAX_LENGTH || reading.length() + readingLength > JapaneseWordSegments.MAX_LENGTH) {
+            throw new IllegalArgumentException(String.format("A word cannot be longer than %d characters.", JapaneseWordSegments.MAX_LENGTH));
         }
-        return out.toString();
     }
 
     /**
-     * Gets the string of kana made up of only furigana.
-     * @return A string of Japanese characters using only furigana.
+     * Ends a segment at the current end of the surface and reading.
+     * @param japaneseKanji The {@link JapaneseKanjiWithReading} of the segment, or null for kana.
      */
-    String getFurigana() {
-        StringBuilder out = new StringBuilder();
-        for (Object characters : kanaList) {
-            if (characters instanceof JapaneseKanjiWithReading) {
-                JapaneseKanjiWithReading kanji = (JapaneseKanjiWithReading) characters;
-                out.append(kanji.getFurigana());
-            } else {
-                // Here 'characters' must be a string.
-                out.append(characters);
-            }
+    private void addSegment(JapaneseKanjiWithReading japaneseKanji) {
+        if (size == kanji.length) {
+            kanji = Arrays.copyOf(kanji, size * 2);
+            ends = Arrays.copyOf(ends, size * 4);
         }
-        return out.toString();
+        kanji[size] = japaneseKanji;
+        ends[2 * size] = (short) surface.length();
+        ends[2 * size + 1] = (short) reading.length();
+        size++;
+    }
+
+    /**
+     * Packs the kanji and kana added so far.
+     * @return The {@link JapaneseWordSegments}.
+     */
+    JapaneseWordSegments toSegments() {
+        return new JapaneseWordSegments(surface.toString(), reading.toString(), Arrays.copyOf(ends, 2 * size), Arrays.copyOf(kanji, size));
     }
 }
@@ -1,16 +1,59 @@
 package com.potrt.flashcards.japanese;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjIntConsumer;
 
 import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+import com.potrt.flashcards.japanese.verb.JapaneseVerbConjugationCache;
+import com.potrt.flashcards.japanese.verb.JapaneseVerbForm;
 
 /**
  * A {@link JapaneseWordDictionary} represents a dicitonary of {@link JapaneseWord}s.
+ * <p>
+ * Each word is given a dense id, counting from 0, when it is added.  As words are never removed, and a replaced word keeps its id,
+ * the ids are stable, and indexes and stores can key on them instead of on the word's kanji.
  */
 public class JapaneseWordDictionary {
-    private Map<String, JapaneseWord> wordMap = new HashMap<>();
+    private final Map<String, JapaneseWord> wordMap;
+    private final IdTable<JapaneseWord> wordIds = new IdTable<>("word");
+
+    /**
+     * A map pairing furigana to the words read with it, each keyed by its kanji.
+     * @implNote A furigana is removed once it has no words left.
+     */
+    private final Map<String, Map<String, JapaneseWord>> furiganaIndex;
+
+    /**
+     * A prefix index over the kanji and furigana of every word, or null if it must be rebuilt before it is next used.
+     * @see #prefixIndex()
+     */
+    private volatile PrefixIndex prefixIndex = new PrefixIndex();
+
+    /**
+     * The text scanners over the kanji, and over the kanji and furigana, of every word, or null if they must be rebuilt before they are next used.
+     * @see #getTextScanner(boolean)
+     */
+    private volatile JapaneseTextScanner kanjiScanner;
+    private volatile JapaneseTextScanner furiganaScanner;
+
+    /**
+     * Counts the changes that make the text scanners stale, so a scanner built while words were added is not kept.
+     */
+    private final AtomicLong scannerChanges = new AtomicLong();
     private JapaneseKanjiDictionary kanjiDictionary;
+
+    /**
+     * @implNote Null if conjugations are not cached.
+     */
+    private JapaneseVerbConjugationCache conjugationCache;
     
     /**
      * Creates a dictionary for Japanese words with a reference to a {@link KanjiDictionary}.  
@@ -18,7 +61,33 @@ public class JapaneseWordDictionary {
      * @param kanjiDictionary The {@link KanjiDictionary} to associate.
      */
     public JapaneseWordDictionary(JapaneseKanjiDictionary kanjiDictionary) {
+        this(kanjiDictionary, new HashMap<>(), new HashMap<>(), null);
+    }
+
+    /**
+     * Creates a dictionary for Japanese words with a reference to a {@link KanjiDictionary}, that caches verb conjugations.
+     * @param kanjiDictionary The {@link KanjiDictionary} to associate.
+     * @param conjugationCacheSize The maximum number of conjugations to cache.
+     * @see #conjugate(JapaneseVerb, JapaneseVerbForm)
+     */
+    public JapaneseWordDictionary(JapaneseKanjiDictionary kanjiDictionary, int conjugationCacheSize) {
+        this(kanjiDictionary, new HashMap<>(), new HashMap<>(), new JapaneseVerbConjugationCache(conjugationCacheSize));
+    }
+
+    /**
+     * Creates a dictionary for Japanese words backed by the given maps.
+     * @param kanjiDictionary The {@link KanjiDictionary} to associate.
+     * @param wordMap The empty map to store the words in.
+     * @param furiganaIndex The empty map to index the words by furigana in.
+     * @param conjugationCache The {@link JapaneseVerbConjugationCache}, or null to not cache conjugations.
+     * @see #newFuriganaEntry()
+     */
+    protected JapaneseWordDictionary(JapaneseKanjiDictionary kanjiDictionary, Map<String, JapaneseWord> wordMap, 
+            Map<String, Map<String, JapaneseWord>> furiganaIndex, JapaneseVerbConjugationCache conjugationCache) {
         this.kanjiDictionary = kanjiDictionary;
+        this.wordMap = wordMap;
+        this.furiganaIndex = furiganaIndex;
+        this.conjugationCache = conjugationCache;
     }
 
     /**
@@ -26,25 +95,98 @@ public class JapaneseWordDictionary {
      * @param word The new {@link JapaneseWord}.
      * @returns The {@link JapaneseWord} that is added.
      * @throws IllegalArgumentException Thrown if a word has kanji not found in the associated kanji dictionary.
+     * @throws IllegalStateException Thrown if a word with this kanji already exists, or the word was already added to a dictionary.
      */
     public JapaneseWord put(JapaneseWord word) {
-        for (JapaneseKanjiWithReading reading : word.kanjiList) {
-            if (!kanjiDictionary.contains(reading.getJapaneseKanji())) {
+        validate(word);
+        if (contains(word.getKanji()) || word.getId() >= 0) {
+            throw duplicate(word);
+        }
+
+        attach(word);
+        return register(word);
+    }
+
+    /**
+     * Adds a batch of new {@link JapaneseWord}s to the dictionary, skipping the ones that cannot be added.
+     * <p>
+     * Every word is validated before any is attached, and then they are all attached to their kanji together.
+     * @param words The new {@link JapaneseWord}s.
+     * @param onError Called with the exception and the index of each word that is not added,
+     *                either an {@link IllegalArgumentException} if it has kanji not found in the associated kanji dictionary,
+     *                or an {@link IllegalStateException} if a word with its kanji already exists or comes earlier in the batch,
+     *                or the word was already added to a dictionary.
+     * @return The number of words added.
+     */
+    public int putAll(List<? extends JapaneseWord> words, ObjIntConsumer<RuntimeException> onError) {
+        List<JapaneseWord> accepted = new ArrayList<>(words.size());
+        Set<String> batchKanji = new HashSet<>();
+        for (int i = 0; i < words.size(); i++) {
+            JapaneseWord word = words.get(i);
+            try {
+                validate(word);
+                if (contains(word.getKanji()) || word.getId() >= 0 || !batchKanji.add(word.getKanji())) {
+                    throw duplicate(word);
+                }
+                accepted.add(word);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                onError.accept(e, i);
+            }
+        }
+
+        attachAll(accepted);
+        for (JapaneseWord word : accepted) {
+            register(word);
+        }
+        return accepted.size();
+    }
+
+    /**
+     * Checks that every kanji of a word is in the associated kanji dictionary.
+     * @param word The {@link JapaneseWord}.
+     * @throws IllegalArgumentException Thrown if a word has kanji not found in the associated kanji dictionary.
+     */
+    private void validate(JapaneseWord word) {
+        JapaneseWordSegments segments = word.getSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            JapaneseKanjiWithReading reading = segments.getKanji(i);
+            if (reading != null && !kanjiDictionary.contains(reading.getJapaneseKanji())) {
                 throw new IllegalArgumentException(
                     String.format("Tried to add word '%s' with kanji '%c' that is not found in the associated KanjiDictionary.", 
                         word.getKanji(), 
                         reading.getKanji()));
             }
         }
+    }
 
-        if (contains(word.getKanji())) {
-            throw new IllegalStateException(
-                String.format("Tried to add word '%s' when a word with this kanji already exists in the dictionary.", 
-                    word.getKanji()));
+    /**
+     * Creates the exception for a word that is already in the dictionary.
+     * @param word The {@link JapaneseWord}.
+     * @return The {@link IllegalStateException}.
+     */
+    private static IllegalStateException duplicate(JapaneseWord word) {
+        if (word.getId() >= 0) {
+            return new IllegalStateException(String.format("Tried to add word '%s' that was already added to a dictionary.", word.getKanji()));
         }
+        return new IllegalStateException(
+            String.format("Tried to add word '%s' when a word with this kanji already exists in the dictionary.", 
+                word.getKanji()));
+    }
 
-        word.attachToKanji();
-        return wordMap.put(word.getKanji(), word);
+    /**
+     * Gives an attached word the next id, indexes it, and makes it visible in the dictionary.
+     * @param word The new {@link JapaneseWord}.
+     * @return The {@link JapaneseWord} previously stored with the word's kanji, which is always null.
+     */
+    private JapaneseWord register(JapaneseWord word) {
+        word.setId(wordIds.add(word));
+        index(word.getFurigana(), word);
+        PrefixIndex prefixIndex = prefixIndex();
+        prefixIndex.add(word.getKanji(), word);
+        prefixIndex.add(word.getFurigana(), word);
+        JapaneseWord previous = wordMap.put(word.getKanji(), word);
+        invalidateScanners(true);
+        return previous;
     }
 
     /**
@@ -56,6 +198,17 @@ public class JapaneseWordDictionary {
         return wordMap.get(kanji);
     }
 
+    /**
+     * Gets a word by its id.
+     * @param id The id, from 0 up to but not including {@link #size()}.
+     * @return The {@link JapaneseWord}.
+     * @throws IllegalArgumentException Thrown if no word has the id.
+     * @see JapaneseWord#getId()
+     */
+    public JapaneseWord getWord(int id) {
+        return wordIds.get(id);
+    }
+
     /**
      * Checks whether the dictionary contains a word with the given kanji.
      * @param kanji The kanji to check.
@@ -65,6 +218,39 @@ public class JapaneseWordDictionary {
         return wordMap.containsKey(kanji);
     }
 
+    /**
+     * Gets the number of words in the dictionary.
+     * @return The number of words.
+     */
+    public int size() {
+        return wordMap.size();
+    }
+
+    /**
+     * Gets every {@link JapaneseWord} that is read with the given furigana.
+     * @param furigana The furigana of the whole word (e.g. こうえん).
+     * @return The set of {@link JapaneseWord}s, which is empty if there are none.
+     */
+    public Set<JapaneseWord> getWordsByFurigana(String furigana) {
+        Map<String, JapaneseWord> words = furiganaIndex.get(furigana);
+        if (words == null) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(words.values());
+    }
+
+    /**
+     * Finds the words whose kanji or furigana start with a prefix, for autocompletion.
+     * @param prefix The prefix typed so far, in kanji or in furigana.
+     * @param limit The maximum number of words to find.
+     * @return The distinct {@link JapaneseWord}s found, ordered by the kanji or furigana that matched.
+     * @throws IllegalArgumentException Thrown if the limit is negative.
+     * @implNote This takes time proportional to the length of the prefix and the number of words found, not the size of the dictionary.
+     */
+    public List<JapaneseWord> prefixSearch(String prefix, int limit) {
+        return prefixIndex().search(prefix, limit);
+    }
+
     /**
      * Replaces the current values of a word with the value of the given word.  Does not change original reference.
      * If the dictionary does not already have this word, adds the given word as a new word.
@@ -77,8 +263,214 @@ public class JapaneseWordDictionary {
         }
 
         JapaneseWord current = get(word.getKanji());
-        current.replace(word);
-        current.attachToKanji();
+        String furigana = current.getFurigana();
+        reattach(current, word);
+        if (!furigana.equals(current.getFurigana())) {
+            unindex(furigana, current);
+            index(current.getFurigana(), current);
+            PrefixIndex prefixIndex = prefixIndex();
+            if (!furigana.equals(current.getKanji())) {
+                prefixIndex.remove(furigana, current);
+            }
+            prefixIndex.add(current.getFurigana(), current);
+            invalidateScanners(false);
+        }
+        if (conjugationCache != null && current instanceof JapaneseVerb) {
+            conjugationCache.invalidate((JapaneseVerb) current);
+        }
         return current;
     }
+
+    /**
+     * Attaches a new word to all of the {@link JapaneseKanji} it is made of.
+     * @param word The new {@link JapaneseWord}.
+     */
+    protected void attach(JapaneseWord word) {
+        word.attachToKanji();
+    }
+
+    /**
+     * Attaches a batch of new words to all of the {@link JapaneseKanji} they are made of.
+     * @param words The new {@link JapaneseWord}s.
+     */
+    protected void attachAll(List<JapaneseWord> words) {
+        for (JapaneseWord word : words) {
+            word.attachToKanji();
+        }
+    }
+
+    /**
+     * Restores a word from a snapshot, trusting that its kanji are in the associated kanji dictionary and its kanji is not in the dictionary yet.
+     * <p>
+     * The word is not added to the prefix index, which is instead rebuilt from every word when it is next used.
+     * @param word The {@link JapaneseWord}, whose readings have been restored with {@link JapaneseKanji#restoreReading(String, int, long, long, int)}.
+     * @see JapaneseDictionarySnapshot
+     */
+    void restore(JapaneseWord word) {
+        prefixIndex = null;
+        word.setId(wordIds.add(word));
+        word.restoreToKanji();
+        index(word.getFurigana(), word);
+        wordMap.put(word.getKanji(), word);
+        invalidateScanners(true);
+    }
+
+    /**
+     * Gets the prefix index, rebuilding it first if words were restored since it was last used.
+     * @return The {@link PrefixIndex}.
+     * @implNote Building the prefix index allocates more than anything else a word is indexed by,
+     *           so it is left until the first prefix search or change after a snapshot is read, rather than slowing every cold start.
+     */
+    private PrefixIndex prefixIndex() {
+        PrefixIndex index = prefixIndex;
+        if (index != null) { return index; }
+
+        synchronized (wordMap) {
+            if (prefixIndex == null) {
+                PrefixIndex rebuilt = new PrefixIndex();
+                for (JapaneseWord word : wordMap.values()) {
+                    rebuilt.add(word.getKanji(), word);
+                    rebuilt.add(word.getFurigana(), word);
+                }
+                prefixIndex = rebuilt;
+            }
+            return prefixIndex;
+        }
+    }
+
+    /**
+     * Gets a scanner that finds the words of the dictionary in text.
+     * @param withFurigana Whether to also find words written in their furigana, rather than only in their kanji.
+     * @return The {@link JapaneseTextScanner}.
+     * @implNote The scanners are built when first asked for, and built again after words are added, or their furigana replaced,
+     *           so a batch of changes only costs one rebuild.  A scanner asked for while a word is being added may not find it,
+     *           but every scanner asked for once the add has returned does.
+     */
+    public JapaneseTextScanner getTextScanner(boolean withFurigana) {
+        JapaneseTextScanner scanner = withFurigana ? furiganaScanner : kanjiScanner;
+        if (scanner != null) { return scanner; }
+
+        long changes = scannerChanges.get();
+        scanner = new JapaneseTextScanner(wordMap.values(), withFurigana);
+        synchronized (scannerChanges) {
+            if (scannerChanges.get() == changes) {
+                if (withFurigana) {
+                    furiganaScanner = scanner;
+                } else {
+                    kanjiScanner = scanner;
+                }
+            }
+        }
+        return scanner;
+    }
+
+    /**
+     * Drops the text scanners, so they are rebuilt when next used.
+     * @param kanjiChanged Whether the kanji of the words changed, and not just their furigana.
+     * @implNote It is called once the change is visible in {@link #wordMap}, and always counts the change,
+     *           even when there are no scanners to drop, as one may be being built from the words before the change.
+     */
+    private void invalidateScanners(boolean kanjiChanged) {
+        synchronized (scannerChanges) {
+            scannerChanges.incrementAndGet();
+            furiganaScanner = null;
+            if (kanjiChanged) {
+                kanjiScanner = null;
+            }
+        }
+    }
+
+    /**
+     * Gets the words in the dictionary.
+     * @return A live view of the {@link JapaneseWord}s, in no particular order.
+     */
+    Collection<JapaneseWord> words() {
+        return wordMap.values();
+    }
+
+    /**
+     * Gets the number of ids given to words, which can briefly be more than {@link #size()} while a word is being added.
+     * @return The number of ids.
+     */
+    int numIds() {
+        return wordIds.size();
+    }
+
+    /**
+     * Gets the associated kanji dictionary.
+     * @return The {@link JapaneseKanjiDictionary}.
+     */
+    JapaneseKanjiDictionary getKanjiDictionary() {
+        return kanjiDictionary;
+    }
+
+    /**
+     * Replaces the values of a word inside the dictionary, and moves it to the {@link JapaneseKanji} readings of its new values.
+     * Only the readings that differ between the old and new values are detached or attached, so replacing just the definition
+     * does not touch any kanji.
+     * @param current The {@link JapaneseWord} inside the dictionary.
+     * @param word The {@link JapaneseWord} to replace it with.
+     */
+    protected void reattach(JapaneseWord current, JapaneseWord word) {
+        JapaneseWordSegments previous = current.getSegments();
+        current.replace(word);
+        current.attachToKanji(previous);
+    }
+
+    /**
+     * Adds a word to the furigana index.
+     * @param furigana The furigana to index the word by.
+     * @param word The {@link JapaneseWord}.
+     */
+    private void index(String furigana, JapaneseWord word) {
+        furiganaIndex.compute(furigana, (key, words) -> {
+            if (words == null) {
+                words = newFuriganaEntry();
+            }
+            words.put(word.getKanji(), word);
+            return words;
+        });
+    }
+
+    /**
+     * Removes a word from the furigana index.
+     * @param furigana The furigana the word was indexed by.
+     * @param word The {@link JapaneseWord}.
+     */
+    private void unindex(String furigana, JapaneseWord word) {
+        furiganaIndex.computeIfPresent(furigana, (key, words) -> {
+            words.remove(word.getKanji());
+            return words.isEmpty() ? null : words;
+        });
+    }
+
+    /**
+     * Creates the map that holds the words of one furigana in the furigana index.
+     * @return An empty map.
+     */
+    protected Map<String, JapaneseWord> newFuriganaEntry() {
+        return new HashMap<>();
+    }
+
+    /**
+     * Conjugates a verb of this dictionary, using the conjugation cache if this dictionary has one.
+     * @param verb The {@link JapaneseVerb}.
+     * @param form The {@link JapaneseVerbForm} that the verb is being conjugated to.
+     * @return A {@link JapaneseWord.Representation} of the verb conjugated to the given form.
+     * @apiNote Cached conjugations are only invalidated when the verb is replaced through this dictionary.
+     */
+    public JapaneseWord.Representation conjugate(JapaneseVerb verb, JapaneseVerbForm form) {
+        if (conjugationCache == null) {
+            return verb.conjugate(form);
+        }
+        return conjugationCache.conjugate(verb, form);
+    }
+
+    /**
+     * Gets the conjugation cache, so its size and hit/miss counts can be inspected.
+     * @return The {@link JapaneseVerbConjugationCache}, or null if this dictionary does not cache conjugations.
+     */
+    public JapaneseVerbConjugationCache getConjugationCache() {
+        return conjugationCache;
+    }
 }
@@ -0,0 +1,362 @@
+package com.potrt.flashcards.japanese;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+
+/**
+ * A {@link JapaneseWordImporter} streams {@link JapaneseWord}s from csv or tsv rows into a {@link JapaneseWordDictionary}.
+ * <p>
+ * Each row is {@code kanji, readings, definition[, verb type]}:
+ * <ul>
+ * <li>The kanji is the word as written, e.g. {@code 一人} or {@code 飲む}.  Every kanji must already be in the kanji dictionary,
+ *     and all other characters are read as themselves.</li>
+ * <li>The readings are the furigana of each kanji in order, separated by {@value #READING_SEPARATOR}, e.g. {@code ひと|り} or {@code の}.
+ *     For an importer made by {@link #aligned()}, it is instead the reading of the whole word, e.g. {@code ひとり} or {@code のむ}.</li>
+ * <li>The definition.</li>
+ * <li>The verb type is {@code GODAN}, {@code ICHIDAN}, or {@code IRREGULAR} for verbs, and empty or missing for other words.</li>
+ * </ul>
+ * Empty rows, and rows whose first value starts with {@code #}, are skipped.
+ * <p>
+ * Rows are read one at a time and added in batches with {@link JapaneseWordDictionary#putAll(List, java.util.function.ObjIntConsumer)},
+ * so memory does not grow with the size of the input.
+ * A row that cannot be imported is reported as a {@link RowError} and skipped, without stopping the import.
+ */
+public class JapaneseWordImporter {
+    private static Logger logger = Logger.getLogger(JapaneseWordImporter.class.getName());
+
+    /**
+     * The character that separates the reading of each kanji.
+     */
+    public static final char READING_SEPARATOR = '|';
+
+    /**
+     * The default number of words added to the dictionary at a time.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final JapaneseWordDictionary dictionary;
+    private final char separator;
+    private final int batchSize;
+    private final boolean aligned;
+
+    /**
+     * Creates an importer for comma separated rows.
+     * @param dictionary The {@link JapaneseWordDictionary} to import into.
+     * @return The {@link JapaneseWordImporter}.
+     */
+    public static JapaneseWordImporter csv(JapaneseWordDictionary dictionary) {
+        return new JapaneseWordImporter(dictionary, ',', DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates an importer for tab separated rows.
+     * @param dictionary The {@link JapaneseWordDictionary} to import into.
+     * @return The {@link JapaneseWordImporter}.
+     */
+    public static JapaneseWordImporter tsv(JapaneseWordDictionary dictionary) {
+        return new JapaneseWordImporter(dictionary, '\t', DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates an importer.
+     * @param dictionary The {@link JapaneseWordDictionary} to import into.
+     * @param separator The character that separates the values of a row.
+     * @param batchSize The number of words added to the dictionary at a time.
+     * @throws IllegalArgumentException Thrown if the batch size is not positive.
+     */
+    public JapaneseWordImporter(JapaneseWordDictionary dictionary, char separator, int batchSize) {
+        this(dictionary, separator, batchSize, false);
+    }
+
+    /**
+     * Creates an importer.
+     * @param dictionary The {@link JapaneseWordDictionary} to import into.
+     * @param separator The character that separates the values of a row.
+     * @param batchSize The number of words added to the dictionary at a time.
+     * @param aligned Whether rows give the reading of the whole word.
+     * @throws IllegalArgumentException Thrown if the batch size is not positive.
+     */
+    private JapaneseWordImporter(JapaneseWordDictionary dictionary, char separator, int batchSize, boolean aligned) {
+        if (batchSize <= 0) { throw new IllegalArgumentException("The batch size of an importer must be positive."); }
+        this.dictionary = dictionary;
+        this.separator = separator;
+        this.batchSize = batchSize;
+        this.aligned = aligned;
+    }
+
+    /**
+     * Creates an importer like this one, whose rows give the reading of the whole word rather than of each kanji, e.g. {@code 一人,ひとり}.
+     * The reading is split across the kanji with a {@link FuriganaAligner}, by the readings the kanji already have,
+     * and a row whose reading cannot be split, such as two kanji next to each other with no readings that fit, is reported as a {@link RowError}.
+     * @return The {@link JapaneseWordImporter}.
+     */
+    public JapaneseWordImporter aligned() {
+        return new JapaneseWordImporter(dictionary, separator, batchSize, true);
+    }
+
+    /**
+     * Imports every row of a file, logging a warning for each row that cannot be imported.
+     * @param path The path to the file.  It must be UTF-8 encoded.
+     * @return The {@link Result}.
+     * @throws IOException Thrown when the file cannot be read, or is not a valid csv file.
+     */
+    public Result importFrom(Path path) throws IOException {
+        return importFrom(path, JapaneseWordImporter::logError);
+    }
+
+    /**
+     * Imports every row of a file.
+     * @param path The path to the file.  It must be UTF-8 encoded.
+     * @param onError Called with each row that cannot be imported.
+     * @return The {@link Result}.
+     * @throws IOException Thrown when the file cannot be read, or is not a valid csv file.
+     */
+    public Result importFrom(Path path, Consumer<RowError> onError) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return importFrom(reader, onError);
+        }
+    }
+
+    /**
+     * Imports every row of csv data.
+     * @param input The data.  It is closed once read.
+     * @param onError Called with each row that cannot be imported.
+     * @return The {@link Result}.
+     * @throws IOException Thrown when the data cannot be read, or is not valid csv data.
+     */
+    public Result importFrom(Reader input, Consumer<RowError> onError) throws IOException {
+        JapaneseKanjiDictionary kanjiDictionary = dictionary.getKanjiDictionary();
+        FuriganaAligner aligner = aligned ? new FuriganaAligner(kanjiDictionary) : null;
+        List<JapaneseWord> batch = new ArrayList<>(batchSize);
+        long[] batchLines = new long[batchSize];
+        long imported = 0;
+        long failed = 0;
+
+        try (CSVReader reader = new CSVReaderBuilder(input)
+                .withCSVParser(new CSVParserBuilder().withSeparator(separator).build())
+                .build()) {
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                if (row.length == 0 || (row.length == 1 && row[0].isEmpty()) || row[0].startsWith("#")) { continue; }
+
+                long line = reader.getLinesRead();
+                try {
+                    batch.add(parse(row, kanjiDictionary, aligner));
+                    batchLines[batch.size() - 1] = line;
+                } catch (IllegalArgumentException e) {
+                    failed++;
+                    onError.accept(new RowError(line, e.getMessage()));
+                }
+
+                if (batch.size() == batchSize) {
+                    int added = flush(batch, batchLines, onError);
+                    imported += added;
+                    failed += batchSize - added;
+                }
+            }
+
+            int size = batch.size();
+            int added = flush(batch, batchLines, onError);
+            imported += added;
+            failed += size - added;
+        } catch (CsvValidationException e) {
+            throw new IOException("The input is not valid csv data.", e);
+        }
+        return new Result(imported, failed);
+    }
+
+    /**
+     * Adds a batch of words to the dictionary, and clears it.
+     * @param batch The words.
+     * @param batchLines The line each word was read from.
+     * @param onError Called with each word that cannot be added.
+     * @return The number of words added.
+     */
+    private int flush(List<JapaneseWord> batch, long[] batchLines, Consumer<RowError> onError) {
+        if (batch.isEmpty()) { return 0; }
+        int added = dictionary.putAll(batch, (e, i) -> onError.accept(new RowError(batchLines[i], e.getMessage())));
+        batch.clear();
+        return added;
+    }
+
+    /**
+     * Creates the word for a row.
+     * @param row The values of the row.
+     * @param kanjiDictionary The kanji dictionary to find the kanji in.
+     * @param aligner The {@link FuriganaAligner} that splits the reading of the whole word, or null if the row gives the reading of each kanji.
+     * @return The {@link JapaneseWord}.
+     * @throws IllegalArgumentException Thrown if the row does not describe a valid word.
+     */
+    private static JapaneseWord parse(String[] row, JapaneseKanjiDictionary kanjiDictionary, FuriganaAligner aligner) {
+        if (row.length < 3) {
+            throw new IllegalArgumentException(String.format("Expected at least 3 values, but found %d.", row.length));
+        }
+
+        String kanji = row[0];
+        if (kanji.isEmpty()) {
+            throw new IllegalArgumentException("The word is empty.");
+        }
+        JapaneseWordBuilder builder = aligner == null ? split(kanji, row[1], kanjiDictionary) : aligner.align(kanji, row[1]);
+
+        String verbType = row.length > 3 ? row[3].trim() : "";
+        if (verbType.isEmpty()) {
+            return new JapaneseWord(builder, row[2]);
+        }
+        try {
+            return new JapaneseVerb(builder, row[2], JapaneseVerbType.valueOf(verbType.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("The word '%s' is not a valid %s verb: %s", kanji, verbType, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Builds a word from the reading of each of its kanji.
+     * @param kanji The word as written.
+     * @param readings The readings of each kanji, separated by {@value #READING_SEPARATOR}.
+     * @param kanjiDictionary The kanji dictionary to find the kanji in.
+     * @return The {@link JapaneseWordBuilder}.
+     * @throws IllegalArgumentException Thrown if the readings do not match the kanji.
+     */
+    private static JapaneseWordBuilder split(String kanji, String readings, JapaneseKanjiDictionary kanjiDictionary) {
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        int readingStart = 0;
+        int kanaStart = 0;
+        for (int i = 0; i < kanji.length(); i++) {
+            char c = kanji.charAt(i);
+            if (Character.isSurrogate(c)) {
+                throw new IllegalArgumentException(String.format("The word '%s' has a character outside the Basic Multilingual Plane.", kanji));
+            }
+            if (Character.UnicodeScript.of(c) != Character.UnicodeScript.HAN) { continue; }
+
+            if (kanaStart < i) {
+                builder.add(kanji.substring(kanaStart, i));
+            }
+            kanaStart = i + 1;
+
+            if (readingStart > readings.length()) {
+                throw new IllegalArgumentException(String.format("The word '%s' has more kanji than readings.", kanji));
+            }
+            int readingEnd = readings.indexOf(READING_SEPARATOR, readingStart);
+            if (readingEnd < 0) {
+                readingEnd = readings.length();
+            }
+            if (readingEnd == readingStart) {
+                throw new IllegalArgumentException(String.format("The kanji '%c' of the word '%s' has an empty reading.", c, kanji));
+            }
+
+            JapaneseKanji japaneseKanji = kanjiDictionary.find(c);
+            if (japaneseKanji == null) {
+                throw new IllegalArgumentException(String.format("The kanji '%c' of the word '%s' is not in the kanji dictionary.", c, kanji));
+            }
+            builder.add(japaneseKanji.withReading(readings.substring(readingStart, readingEnd)));
+            readingStart = readingEnd + 1;
+        }
+        if (readingStart <= readings.length() && !(readingStart == 0 && readings.isEmpty())) {
+            throw new IllegalArgumentException(String.format("The word '%s' has more readings than kanji.", kanji));
+        }
+        if (kanaStart < kanji.length()) {
+            builder.add(kanji.substring(kanaStart));
+        }
+        return builder;
+    }
+
+    /**
+     * Logs a row that could not be imported.
+     * @param error The {@link RowError}.
+     */
+    private static void logError(RowError error) {
+        if (logger.isLoggable(Level.WARNING)) {
+            logger.warning(error.toString());
+        }
+    }
+
+    /**
+     * A {@link RowError} describes a row that could not be imported.
+     */
+    public static final class RowError {
+        private final long line;
+        private final String message;
+
+        /**
+         * Creates a new {@link RowError}.
+         * @param line The line the row ends on.
+         * @param message Why the row could not be imported.
+         */
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        /**
+         * Gets the line the row ends on, counting from 1.
+         * @return The line.
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * Gets why the row could not be imported.
+         * @return The message.
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Line %d could not be imported: %s", line, message);
+        }
+    }
+
+    /**
+     * A {@link Result} counts the rows of an import.
+     */
+    public static final class Result {
+        private final long imported;
+        private final long failed;
+
+        /**
+         * Creates a new {@link Result}.
+         * @param imported The number of words imported.
+         * @param failed The number of rows that could not be imported.
+         */
+        Result(long imported, long failed) {
+            this.imported = imported;
+            this.failed = failed;
+        }
+
+        /**
+         * Gets the number of words imported.
+         * @return The number of words.
+         */
+        public long getImported() {
+            return imported;
+        }
+
+        /**
+         * Gets the number of rows that could not be imported.
+         * @return The number of rows.
+         */
+        public long getFailed() {
+            return failed;
+        }
+    }
+}
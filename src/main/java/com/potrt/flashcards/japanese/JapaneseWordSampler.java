@@ -0,0 +1,288 @@
+package com.potrt.flashcards.japanese;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.potrt.flashcards.Score;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+
+/**
+ * A {@link JapaneseWordSampler} picks random {@link JapaneseWord}s to drill, more often the more their kanji readings are failed.
+ * <p>
+ * Each reading weighs its smoothed failure rate, {@code (failures + 1) / (attempts + 2)} of {@value #WEIGHT_SCALE},
+ * so a new reading weighs half as much as one that is always failed.  Each word weighs {@value #BASE_WEIGHT}, so words
+ * with no kanji or only known kanji are still picked now and then, plus the weight of each of its kanji readings.
+ * <p>
+ * The weights are kept per reading rather than per word: a {@link FenwickTree} holds, for each reading, its weight times the number
+ * of words that use it.  A word is sampled by picking a reading from the tree and then one of its words uniformly, which picks each
+ * word with the same chance as sampling on the word weights directly.  An attempt of a reading then changes one entry of the tree,
+ * however many words use the reading, so both {@link #sample()} and {@link #attempted(JapaneseKanjiWithReading, boolean)} are O(log n).
+ * The readings are indexed by their dense ids in the {@link JapaneseKanjiDictionary} (see {@link JapaneseKanjiWithReading#getId()}),
+ * so every word must be in the same dictionary.
+ * <p>
+ * A word is indexed by the readings it has when it is added.  When {@link JapaneseWordDictionary#replace(JapaneseWord)} changes its readings,
+ * pass it to {@link #update(int)}, or it is still sampled, and weighed, by its old readings.
+ * <p>
+ * Set the sampler as the {@link AttemptListener} of the kanji dictionary, e.g. with {@link AttemptListener#andThen(AttemptListener)},
+ * so that {@link JapaneseWord#attempt(boolean)} updates the weights.  Scores changed without telling the listener, such as by a replay,
+ * are only seen by words added afterwards.  All methods are synchronized, so a sampler can be shared between threads.
+ */
+public class JapaneseWordSampler implements AttemptListener {
+    /**
+     * The weight of a reading that is always failed.
+     */
+    public static final long WEIGHT_SCALE = 1L << 20;
+
+    /**
+     * The weight every word has, besides the weights of its readings.
+     */
+    public static final long BASE_WEIGHT = WEIGHT_SCALE / 16;
+
+    private final Random random;
+
+    private JapaneseWord[] words = new JapaneseWord[16];
+
+    /**
+     * The segments each word was indexed by, which are its segments when it was last added or updated.
+     */
+    private JapaneseWordSegments[] indexed = new JapaneseWordSegments[16];
+    private int size;
+
+    /**
+     * The dictionary of the readings, or null until the first word with kanji is added.
+     */
+    private JapaneseKanjiDictionary dictionary;
+
+    /**
+     * The weights of the readings, indexed by reading id.  A reading that no word added uses has no words, and weighs nothing.
+     */
+    private final FenwickTree readingWeights = new FenwickTree(16);
+    private long[] weights = new long[16];
+    private int[][] readingWords = new int[16][];
+    private int[] readingWordCounts = new int[16];
+
+    /**
+     * Creates a new {@link JapaneseWordSampler}.
+     * @param random The {@link Random} to sample with, which can be seeded to repeat the same samples.
+     */
+    public JapaneseWordSampler(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Adds a word that can be sampled.
+     * @param word The {@link JapaneseWord}.
+     * @return The id of the word in the sampler.
+     * @throws IllegalArgumentException Thrown if a kanji of the word is not in the dictionary of the words already added.
+     */
+    public synchronized int add(JapaneseWord word) {
+        JapaneseWordSegments segments = word.getSegments();
+        check(segments, word);
+        if (size == words.length) {
+            words = Arrays.copyOf(words, size * 2);
+            indexed = Arrays.copyOf(indexed, size * 2);
+        }
+        int id = size++;
+        words[id] = word;
+        index(segments, id);
+        return id;
+    }
+
+    /**
+     * Indexes a word again by the readings it has now, after they were changed by {@link JapaneseWordDictionary#replace(JapaneseWord)}.
+     * @param id The id of the word.
+     * @throws IllegalArgumentException Thrown if the id is not valid, or a kanji of the word is not in the dictionary of the other words.
+     */
+    public synchronized void update(int id) {
+        JapaneseWordSegments segments = getWord(id).getSegments();
+        if (segments == indexed[id]) { return; }
+        check(segments, words[id]);
+
+        JapaneseWordSegments old = indexed[id];
+        for (int i = 0; i < old.size(); i++) {
+            if (old.isKanji(i)) {
+                removeWord(old.getKanji(i).getId(), id);
+            }
+        }
+        index(segments, id);
+    }
+
+    /**
+     * Checks that every reading of a word can be indexed, binding the sampler to the dictionary of the first one.
+     * @param segments The {@link JapaneseWordSegments} of the word.
+     * @param word The {@link JapaneseWord}.
+     * @throws IllegalArgumentException Thrown if a kanji of the word is not in the dictionary.
+     */
+    private void check(JapaneseWordSegments segments, JapaneseWord word) {
+        for (int i = 0; i < segments.size(); i++) {
+            if (!segments.isKanji(i)) { continue; }
+            JapaneseKanjiWithReading reading = segments.getKanji(i);
+            JapaneseKanjiDictionary readingDictionary = reading.getJapaneseKanji().getDictionary();
+            if (reading.getId() < 0 || (dictionary != null && readingDictionary != dictionary)) {
+                throw new IllegalArgumentException(String.format("Kanji '%c' of the word '%s' is not in the dictionary of the sampler.",
+                    reading.getKanji(), word.getKanji()));
+            }
+            dictionary = readingDictionary;
+        }
+    }
+
+    /**
+     * Indexes a word by its readings.
+     * @param segments The {@link JapaneseWordSegments} of the word.
+     * @param id The id of the word.
+     */
+    private void index(JapaneseWordSegments segments, int id) {
+        indexed[id] = segments;
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.isKanji(i)) {
+                addWord(reading(segments.getKanji(i)), id);
+            }
+        }
+    }
+
+    /**
+     * Gets the id of a reading, weighing it if no word added used it yet.
+     * @param reading The {@link JapaneseKanjiWithReading}.
+     * @return The id.
+     */
+    private int reading(JapaneseKanjiWithReading reading) {
+        int id = reading.getId();
+        if (id >= weights.length) {
+            int capacity = Math.max(id + 1, weights.length * 2);
+            weights = Arrays.copyOf(weights, capacity);
+            readingWords = Arrays.copyOf(readingWords, capacity);
+            readingWordCounts = Arrays.copyOf(readingWordCounts, capacity);
+        }
+        if (readingWords[id] == null) {
+            weights[id] = weight(reading.getScore());
+            readingWords[id] = new int[2];
+        }
+        return id;
+    }
+
+    /**
+     * Adds a word to the words of a reading.
+     * @param reading The reading id.
+     * @param word The word id.
+     */
+    private void addWord(int reading, int word) {
+        int count = readingWordCounts[reading];
+        if (count == readingWords[reading].length) {
+            readingWords[reading] = Arrays.copyOf(readingWords[reading], count * 2);
+        }
+        readingWords[reading][count] = word;
+        readingWordCounts[reading] = count + 1;
+        readingWeights.set(reading, weights[reading] * (count + 1));
+    }
+
+    /**
+     * Removes a word from the words of a reading, once.
+     * @param reading The reading id.
+     * @param word The word id.
+     */
+    private void removeWord(int reading, int word) {
+        int[] readingWord = readingWords[reading];
+        int count = readingWordCounts[reading];
+        for (int i = 0; i < count; i++) {
+            if (readingWord[i] == word) {
+                readingWord[i] = readingWord[--count];
+                readingWordCounts[reading] = count;
+                readingWeights.set(reading, weights[reading] * count);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the weight of a reading with a score.
+     * @param score The {@link Score} of the reading.
+     * @return The weight, from 0 up to {@value #WEIGHT_SCALE}.
+     */
+    private static long weight(Score score) {
+        long attempts = score.getAttempts();
+        // An attempt on another thread between the two reads can only make the failures too high, so they are capped.
+        long failures = Math.min(score.getFailures(), attempts);
+        return (failures + 1) * WEIGHT_SCALE / (attempts + 2);
+    }
+
+    /**
+     * Updates the weight of a reading after it was attempted.
+     * @param reading The {@link JapaneseKanjiWithReading} that was attempted.
+     * @param succeeded If the attempt was successful.
+     */
+    @Override
+    public synchronized void attempted(JapaneseKanjiWithReading reading, boolean succeeded) {
+        int id = reading.getId();
+        if (id < 0 || id >= readingWords.length || readingWords[id] == null || reading.getJapaneseKanji().getDictionary() != dictionary) { return; }
+        weights[id] = weight(reading.getScore());
+        readingWeights.set(id, weights[id] * readingWordCounts[id]);
+    }
+
+    /**
+     * Picks a random word, with a chance in proportion to its weight.
+     * @return The {@link JapaneseWord}, or null if no word has been added.
+     */
+    public synchronized JapaneseWord sample() {
+        if (size == 0) { return null; }
+
+        long base = BASE_WEIGHT * size;
+        long point = nextLong(base + readingWeights.total());
+        if (point < base) {
+            return words[(int) (point / BASE_WEIGHT)];
+        }
+        int reading = readingWeights.find(point - base);
+        return words[readingWords[reading][random.nextInt(readingWordCounts[reading])]];
+    }
+
+    /**
+     * Gets a random number from 0 up to but not including a bound, with every number equally likely.
+     * @param bound The bound.
+     * @return The number.
+     */
+    private long nextLong(long bound) {
+        long bits;
+        long value;
+        do {
+            bits = random.nextLong() >>> 1;
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+        return value;
+    }
+
+    /**
+     * Gets the weight of a word, which is its chance of being sampled over the total weight.
+     * @param id The id of the word.
+     * @return The weight, by the readings the word was indexed by.
+     * @throws IllegalArgumentException Thrown if the id is not valid.
+     */
+    public synchronized long getWeight(int id) {
+        getWord(id);
+        JapaneseWordSegments segments = indexed[id];
+        long weight = BASE_WEIGHT;
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.isKanji(i)) {
+                weight += weights[segments.getKanji(i).getId()];
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Gets a word.
+     * @param id The id of the word.
+     * @return The {@link JapaneseWord}.
+     * @throws IllegalArgumentException Thrown if the id is not valid.
+     */
+    public synchronized JapaneseWord getWord(int id) {
+        if (id < 0 || id >= size) { throw new IllegalArgumentException(String.format("There is no word with id %d.", id)); }
+        return words[id];
+    }
+
+    /**
+     * Gets the number of words.
+     * @return The number of words.
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,133 @@
+package com.potrt.flashcards.japanese;
+
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+
+/**
+ * A {@link JapaneseWordSegments} is the packed form of the kanji and kana that make up a {@link JapaneseWord}.
+ * <p>
+ * The surface (kanji) and the reading (furigana) are each held once as a whole string.
+ * A segment is either a single kanji with its reading, or a run of kana that reads as itself,
+ * and is described by where it ends in the surface and in the reading, packed into a {@code short[]}.
+ * Kanji segments also hold their canonical {@link JapaneseKanjiWithReading}.
+ * <p>
+ * Segments are visited by index, so iterating them allocates nothing and needs no type checks:
+ * <pre>{@code
+ * for (int i = 0; i < segments.size(); i++) {
+ *     JapaneseKanjiWithReading kanji = segments.getKanji(i);
+ *     ...segments.getSurface().substring(segments.surfaceStart(i), segments.surfaceEnd(i))...
+ * }
+ * }</pre>
+ * <p>
+ * {@link JapaneseWordSegments} are immutable, and are created with a {@link JapaneseWordBuilder}.
+ */
+public final class JapaneseWordSegments {
+    /**
+     * The longest surface or reading that can be packed.
+     */
+    public static final int MAX_LENGTH = Short.MAX_VALUE;
+
+    private final String surface;
+    private final String reading;
+
+    /**
+     * The end of each segment in the surface, followed by its end in the reading.
+     */
+    private final short[] ends;
+
+    /**
+     * The {@link JapaneseKanjiWithReading} of each segment, or null for kana segments.
+     */
+    private final JapaneseKanjiWithReading[] kanji;
+
+    /**
+     * Creates packed segments.
+     * @param surface The surface of every segment.
+     * @param reading The reading of every segment.
+     * @param ends The surface end and reading end of each segment.
+     * @param kanji The {@link JapaneseKanjiWithReading} of each segment, or null for kana segments.
+     */
+    JapaneseWordSegments(String surface, String reading, short[] ends, JapaneseKanjiWithReading[] kanji) {
+        this.surface = surface;
+        this.reading = reading;
+        this.ends = ends;
+        this.kanji = kanji;
+    }
+
+    /**
+     * Gets the surface of the word, in kanji and kana.
+     * @return The surface.
+     */
+    public String getSurface() {
+        return surface;
+    }
+
+    /**
+     * Gets the reading of the word, in kana only.
+     * @return The reading.
+     */
+    public String getReading() {
+        return reading;
+    }
+
+    /**
+     * Gets the number of segments.
+     * @return The number of segments.
+     */
+    public int size() {
+        return kanji.length;
+    }
+
+    /**
+     * Checks whether a segment is a kanji.
+     * @param segment The index of the segment.
+     * @return Whether it is a kanji, or else a run of kana.
+     */
+    public boolean isKanji(int segment) {
+        return kanji[segment] != null;
+    }
+
+    /**
+     * Gets the kanji of a segment.
+     * @param segment The index of the segment.
+     * @return The {@link JapaneseKanjiWithReading}, or null if the segment is a run of kana.
+     */
+    public JapaneseKanjiWithReading getKanji(int segment) {
+        return kanji[segment];
+    }
+
+    /**
+     * Gets where a segment starts in the surface.
+     * @param segment The index of the segment.
+     * @return The index of its first character in {@link #getSurface()}.
+     */
+    public int surfaceStart(int segment) {
+        return segment == 0 ? 0 : ends[2 * segment - 2];
+    }
+
+    /**
+     * Gets where a segment ends in the surface.
+     * @param segment The index of the segment.
+     * @return The index after its last character in {@link #getSurface()}.
+     */
+    public int surfaceEnd(int segment) {
+        return ends[2 * segment];
+    }
+
+    /**
+     * Gets where a segment starts in the reading.
+     * @param segment The index of the segment.
+     * @return The index of its first character in {@link #getReading()}.
+     */
+    public int readingStart(int segment) {
+        return segment == 0 ? 0 : ends[2 * segment - 1];
+    }
+
+    /**
+     * Gets where a segment ends in the reading.
+     * @param segment The index of the segment.
+     * @return The index after its last character in {@link #getReading()}.
+     */
+    public int readingEnd(int segment) {
+        return ends[2 * segment + 1];
+    }
+}
@@ -0,0 +1,153 @@
+package com.potrt.flashcards.japanese;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link KanjiMap} is an open addressing hash map from a {@code char} kanji to its {@link JapaneseKanji}.
+ * <p>
+ * There are no boxed keys or entry objects: the keys are a {@code char[]} probed linearly, next to an array of the values.
+ * A slot is empty while its value is null, and kanji are never removed, so an empty slot always ends a probe.
+ * <p>
+ * Writes are synchronized, while {@link #get(char)} never locks.
+ * A lookup that races with a write may miss the kanji being written, so a miss should be confirmed with {@link #putIfAbsent(JapaneseKanji)}.
+ * A value is stored into its slot without a barrier, so a lookup that does find it relies on {@link JapaneseKanji}
+ * keeping its state in final and volatile fields.
+ */
+final class KanjiMap {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    private int size;
+
+    /**
+     * Gets the {@link JapaneseKanji} for a kanji.
+     * @param kanji The kanji.
+     * @return The {@link JapaneseKanji}, or null if there is none.
+     */
+    JapaneseKanji get(char kanji) {
+        Table current = table;
+        char[] keys = current.keys;
+        int mask = keys.length - 1;
+        for (int i = slot(kanji, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == kanji) {
+                JapaneseKanji japaneseKanji = current.values[i];
+                if (japaneseKanji != null) {
+                    return japaneseKanji;
+                }
+            }
+            if (current.values[i] == null) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Adds a {@link JapaneseKanji}, unless its kanji already has one.
+     * @param japaneseKanji The {@link JapaneseKanji}.
+     * @return The {@link JapaneseKanji} that was already in the map, or null if the given one was added.
+     */
+    synchronized JapaneseKanji putIfAbsent(JapaneseKanji japaneseKanji) {
+        char kanji = japaneseKanji.getKanji();
+        Table current = table;
+        int mask = current.keys.length - 1;
+        int i = slot(kanji, mask);
+        while (current.values[i] != null) {
+            if (current.keys[i] == kanji) {
+                return current.values[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        if ((size + 1) * 2 > current.keys.length) {
+            Table grown = current.grow();
+            grown.insert(kanji, japaneseKanji);
+            table = grown;
+        } else {
+            current.keys[i] = kanji;
+            current.values[i] = japaneseKanji;
+        }
+        size++;
+        return null;
+    }
+
+    /**
+     * Visits every {@link JapaneseKanji} in the map, in no particular order.
+     * @param action Called with each {@link JapaneseKanji}.
+     */
+    void forEach(Consumer<JapaneseKanji> action) {
+        for (JapaneseKanji japaneseKanji : table.values) {
+            if (japaneseKanji != null) {
+                action.accept(japaneseKanji);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of kanji in the map.
+     * @return The number of kanji.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the first slot to probe for a kanji.
+     * @param kanji The kanji.
+     * @param mask The length of the table minus one.
+     * @return The slot.
+     * @implNote Kanji are clustered in a few ranges, so the bits are mixed with a Fibonacci hash.
+     */
+    private static int slot(char kanji, int mask) {
+        int hash = kanji * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * A {@link Table} holds the keys and values of the map, so both are replaced together when it grows.
+     */
+    private static final class Table {
+        /**
+         * The keys, whose length is always a power of two and at least twice the size.
+         */
+        final char[] keys;
+        final JapaneseKanji[] values;
+
+        /**
+         * Creates an empty table.
+         * @param capacity The number of slots, which must be a power of two.
+         */
+        Table(int capacity) {
+            keys = new char[capacity];
+            values = new JapaneseKanji[capacity];
+        }
+
+        /**
+         * Copies the table into a table twice as large.
+         * @return The new table.
+         */
+        Table grow() {
+            Table grown = new Table(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    grown.insert(keys[i], values[i]);
+                }
+            }
+            return grown;
+        }
+
+        /**
+         * Inserts a {@link JapaneseKanji} into the first free slot of its probe.
+         * @param kanji The kanji, which must not already be in the table.
+         * @param japaneseKanji The {@link JapaneseKanji}.
+         */
+        void insert(char kanji, JapaneseKanji japaneseKanji) {
+            int mask = keys.length - 1;
+            int i = slot(kanji, mask);
+            while (values[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = kanji;
+            values[i] = japaneseKanji;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.potrt.flashcards.japanese;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link PrefixIndex} is a radix tree of {@link JapaneseWord}s, so every word whose key starts with a prefix can be found
+ * without looking at any other word.
+ * <p>
+ * Each edge is labelled with a whole run of characters, and every node either holds words or branches,
+ * so a search only visits the nodes along the prefix and the nodes of the words it returns.
+ * A word can be added under several keys (e.g. its kanji and its furigana), and is only returned once.
+ * <p>
+ * All methods are synchronized, so an index can be shared between threads.
+ */
+class PrefixIndex {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node("");
+
+    /**
+     * Adds a word under a key.
+     * @param key The key.
+     * @param word The {@link JapaneseWord}.
+     */
+    synchronized void add(String key, JapaneseWord word) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.indexOf(key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i));
+                node.insertChild(-index - 1, leaf);
+                node = leaf;
+                break;
+            }
+
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.insertChild(0, child);
+                node.children[index] = split;
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+
+        if (node.words == null) {
+            node.words = new HashMap<>(2);
+        }
+        node.words.put(word.getKanji(), word);
+    }
+
+    /**
+     * Removes a word from a key.  Does nothing if the word was not added under the key.
+     * @param key The key.
+     * @param word The {@link JapaneseWord}.
+     */
+    synchronized void remove(String key, JapaneseWord word) {
+        Node parent = null;
+        int parentIndex = -1;
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.indexOf(key.charAt(i));
+            if (index < 0) { return; }
+
+            Node child = node.children[index];
+            if (!key.startsWith(child.label, i)) { return; }
+            parent = node;
+            parentIndex = index;
+            node = child;
+            i += child.label.length();
+        }
+
+        if (node.words == null || node.words.remove(word.getKanji()) == null) { return; }
+        if (!node.words.isEmpty() || node == root) { return; }
+        node.words = null;
+
+        if (node.children.length == 0) {
+            parent.removeChild(parentIndex);
+            if (parent != root && parent.words == null && parent.children.length == 1) {
+                parent.mergeWithChild();
+            }
+        } else if (node.children.length == 1) {
+            node.mergeWithChild();
+        }
+    }
+
+    /**
+     * Finds the words with a key that starts with a prefix, in key order.
+     * @param prefix The prefix.
+     * @param limit The maximum number of words to find.
+     * @return The distinct {@link JapaneseWord}s found.
+     * @throws IllegalArgumentException Thrown if the limit is negative.
+     */
+    synchronized List<JapaneseWord> search(String prefix, int limit) {
+        if (limit < 0) { throw new IllegalArgumentException("The limit of a prefix search cannot be negative."); }
+
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = node.indexOf(prefix.charAt(i));
+            if (index < 0) { return new ArrayList<>(); }
+
+            node = node.children[index];
+            int remaining = prefix.length() - i;
+            if (node.label.length() >= remaining) {
+                if (!node.label.startsWith(prefix.substring(i))) { return new ArrayList<>(); }
+                break;
+            }
+            if (!prefix.startsWith(node.label, i)) { return new ArrayList<>(); }
+            i += node.label.length();
+        }
+
+        Map<String, JapaneseWord> found = new LinkedHashMap<>();
+        collect(node, limit, found);
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Collects the words of a node and its descendants, in key order.
+     * @param node The {@link Node}.
+     * @param limit The maximum number of words to collect.
+     * @param found The words collected so far, keyed by kanji.
+     */
+    private static void collect(Node node, int limit, Map<String, JapaneseWord> found) {
+        if (found.size() >= limit) { return; }
+        if (node.words != null) {
+            for (JapaneseWord word : node.words.values()) {
+                found.putIfAbsent(word.getKanji(), word);
+                if (found.size() >= limit) { return; }
+            }
+        }
+        for (Node child : node.children) {
+            collect(child, limit, found);
+            if (found.size() >= limit) { return; }
+        }
+    }
+
+    /**
+     * Gets the length of the common prefix of a label and the rest of a key.
+     * @param label The label.
+     * @param key The key.
+     * @param start The index the rest of the key starts at.
+     * @return The number of characters in common.
+     */
+    private static int commonPrefix(String label, String key, int start) {
+        int max = Math.min(label.length(), key.length() - start);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(start + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * A {@link Node} of the radix tree.
+     * @implNote The children are sorted by the first character of their label, which is also held in {@code keys}.
+     */
+    private static final class Node {
+        private String label;
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+
+        /**
+         * The words whose key ends at this node, keyed by kanji, or null if there are none.
+         */
+        private Map<String, JapaneseWord> words;
+
+        /**
+         * Creates a new node without children or words.
+         * @param label The characters on the edge to this node.
+         */
+        Node(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Finds the child whose label starts with a character.
+         * @param c The character.
+         * @return The index of the child, or {@code -(insertion point) - 1} if there is none.
+         */
+        int indexOf(char c) {
+            return Arrays.binarySearch(keys, c);
+        }
+
+        /**
+         * Inserts a child.
+         * @param index The index to insert it at, so the children stay sorted.
+         * @param child The child.
+         */
+        void insertChild(int index, Node child) {
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = child.label.charAt(0);
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        /**
+         * Removes a child.
+         * @param index The index of the child.
+         */
+        void removeChild(int index) {
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        /**
+         * Absorbs the only child of a node without words, so no node is left that neither holds words nor branches.
+         */
+        void mergeWithChild() {
+            Node child = children[0];
+            label = label + child.label;
+            keys = child.keys;
+            children = child.children;
+            words = child.words;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.Objects;
 
 import com.potrt.flashcards.japanese.JapaneseWord;
 import com.potrt.flashcards.japanese.JapaneseWordBuilder;
+import com.potrt.flashcards.japanese.JapaneseWordSegments;
 import com.potrt.flashcards.japanese.verb.conjugation.JapaneseVerbConjugator;
 
 /**
@@ -19,6 +20,12 @@ public class JapaneseVerb extends JapaneseWord {
     private JapaneseVerbEnding ending;
     private JapaneseVerbType verbType;
 
+    /**
+     * @implNote The column of {@link JapaneseVerbConjugator}'s conjugation table that holds this verb's conjugations,
+     *           or -1 for an irregular verb not yet in the translation tables, which is looked up again when conjugated.
+     */
+    private int conjugationColumn;
+
     /**
      * Creates a new {@link JapaneseVerb} from a built Japanese dictionary-form verb and its definition and verb type.
      * @param builder The {@link JapaneseWordBuilder} that has all the components of the dictionary-form verb.
@@ -27,10 +34,36 @@ public class JapaneseVerb extends JapaneseWord {
      */
     public JapaneseVerb(JapaneseWordBuilder builder, String definition, JapaneseVerbType verbType) {
         super(builder, definition);
+        update(verbType);
+    }
+
+    /**
+     * Creates a new {@link JapaneseVerb} from the packed kanji and kana of a dictionary-form verb and its definition and verb type.
+     * @param segments The {@link JapaneseWordSegments} of the dictionary-form verb.
+     * @param definition The meaning of the string.
+     * @param verbType The verb's type: godan, ichidan, or irregular.
+     */
+    public JapaneseVerb(JapaneseWordSegments segments, String definition, JapaneseVerbType verbType) {
+        super(segments, definition);
+        update(verbType);
+    }
+
+    /**
+     * Splits the kanji and furigana into their base and ending, and looks up the conjugations.
+     * @param verbType The verb's type: godan, ichidan, or irregular.
+     * @throws IllegalArgumentException Thrown if the verb is too short to have an ending.
+     */
+    private void update(JapaneseVerbType verbType) {
+        String kanji = getKanji();
+        String furigana = getFurigana();
+        if (kanji.isEmpty() || furigana.isEmpty()) {
+            throw new IllegalArgumentException("A verb must have at least an ending.");
+        }
         this.kanjiBase = kanji.substring(0, kanji.length()-1);
         this.furiganaBase = furigana.substring(0, furigana.length()-1);
         this.ending = JapaneseVerbEnding.from(kanji.substring(kanji.length()-1));
         this.verbType = verbType;
+        this.conjugationColumn = conjugationColumn();
     }
 
     /**
@@ -39,20 +72,33 @@ public class JapaneseVerb extends JapaneseWord {
      * @return A {@link JapaneseWord} representing this verb conjugated to the given form.
      */
     public JapaneseWord.Representation conjugate(JapaneseVerbForm form) {
-        String conjugatedEnding;
+        int column = conjugationColumn;
+        if (column < 0) {
+            // The verb's kana may have been added by JapaneseVerbConjugator.addTranslationTables since it was created.
+            column = conjugationColumn();
+            conjugationColumn = column;
+        }
+        String conjugated = JapaneseVerbConjugator.conjugate(form, column);
+        if (verbType == JapaneseVerbType.IRREGULAR) {
+            return new Representation(conjugated, conjugated, getDefinition() + " (" + form.toString() + ")");
+        }
+        return new Representation(kanjiBase + conjugated, furiganaBase + conjugated, getDefinition() + " (" + form.toString() + ")");
+    }
+
+    /**
+     * Looks up the column of {@link JapaneseVerbConjugator}'s conjugation table for this verb.
+     * @return The column.
+     */
+    private int conjugationColumn() {
         switch (verbType) {
             case GODAN:
-                conjugatedEnding = JapaneseVerbConjugator.conjugateGodanVerb(form, ending);
-                break;
+                return JapaneseVerbConjugator.godanColumn(ending);
             case ICHIDAN:
-                conjugatedEnding = JapaneseVerbConjugator.conjugateIchidanVerb(form);
-                break;
+                return JapaneseVerbConjugator.ichidanColumn();
             case IRREGULAR:
             default:
-                String conjugatedKana = JapaneseVerbConjugator.conjugateIrregularVerb(form, getKanji());
-                return new Representation(conjugatedKana, conjugatedKana, getDefinition() + " (" + form.toString() + ")");
+                return JapaneseVerbConjugator.irregularColumn(getKanji());
         }
-        return new Representation(kanjiBase + conjugatedEnding, furiganaBase + conjugatedEnding, getDefinition() + " (" + form.toString() + ")");
     }
 
     /**
@@ -95,11 +141,7 @@ public class JapaneseVerb extends JapaneseWord {
             return;
         }
 
-        JapaneseVerb verb = (JapaneseVerb) word;
-        kanjiBase = kanji.substring(0, kanji.length()-1);
-        furiganaBase = furigana.substring(0, furigana.length()-1);
-        ending = JapaneseVerbEnding.from(kanji.substring(kanji.length()-1));
-        verbType = verb.verbType;
+        update(((JapaneseVerb) word).verbType);
     }
 
     @Override
@@ -0,0 +1,135 @@
+package com.potrt.flashcards.japanese.verb;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.potrt.flashcards.japanese.JapaneseWord;
+
+/**
+ * A {@link JapaneseVerbConjugationCache} is a bounded cache of {@link JapaneseVerb#conjugate(JapaneseVerbForm)} results,
+ * keyed by the verb (by reference) and the {@link JapaneseVerbForm}.
+ * <p>
+ * When the cache is full, the least recently used conjugation is evicted.
+ * Cached conjugations are not updated when a verb changes, so {@link #invalidate(JapaneseVerb)} must be called whenever it does.
+ * {@link com.potrt.flashcards.japanese.JapaneseWordDictionary} does this for the verbs it replaces.
+ * <p>
+ * All methods are synchronized, so a cache can be shared between threads.
+ */
+public class JapaneseVerbConjugationCache {
+    private final int maximumSize;
+    private final Map<Key, JapaneseWord.Representation> cache;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a new, empty {@link JapaneseVerbConjugationCache}.
+     * @param maximumSize The maximum number of conjugations to hold.
+     * @throws IllegalArgumentException Thrown if the maximum size is not positive.
+     */
+    public JapaneseVerbConjugationCache(int maximumSize) {
+        if (maximumSize <= 0) { throw new IllegalArgumentException("The maximum size of a conjugation cache must be positive."); }
+        this.maximumSize = maximumSize;
+        this.cache = new LinkedHashMap<Key, JapaneseWord.Representation>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, JapaneseWord.Representation> eldest) {
+                return size() > JapaneseVerbConjugationCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the conjugated verb, conjugating it only if it is not already cached.
+     * @param verb The verb.
+     * @param form The {@link JapaneseVerbForm} that the verb is being conjugated to.
+     * @return A {@link JapaneseWord.Representation} of the verb conjugated to the given form.
+     */
+    public synchronized JapaneseWord.Representation conjugate(JapaneseVerb verb, JapaneseVerbForm form) {
+        Key key = new Key(verb, form.getOrdinal());
+        JapaneseWord.Representation representation = cache.get(key);
+        if (representation != null) {
+            hits++;
+            return representation;
+        }
+
+        misses++;
+        representation = verb.conjugate(form);
+        cache.put(key, representation);
+        return representation;
+    }
+
+    /**
+     * Removes every cached conjugation of a verb.
+     * @param verb The verb.
+     */
+    public synchronized void invalidate(JapaneseVerb verb) {
+        for (int ordinal = 0; ordinal < JapaneseVerbForm.COUNT; ordinal++) {
+            cache.remove(new Key(verb, ordinal));
+        }
+    }
+
+    /**
+     * Removes every cached conjugation.
+     */
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Gets the number of cached conjugations.
+     * @return The number of cached conjugations.
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the maximum number of cached conjugations.
+     * @return The maximum size.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Gets the number of times a conjugation was found in the cache.
+     * @return The number of hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of times a conjugation was not found in the cache.
+     * @return The number of misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * A {@link Key} identifies a verb, by reference, and a verb form, by ordinal.
+     */
+    private static final class Key {
+        private final JapaneseVerb verb;
+        private final int formOrdinal;
+
+        Key(JapaneseVerb verb, int formOrdinal) {
+            this.verb = verb;
+            this.formOrdinal = formOrdinal;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) { return false; }
+            Key other = (Key) obj;
+            return verb == other.verb && formOrdinal == other.formOrdinal;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(verb) * JapaneseVerbForm.COUNT + formOrdinal;
+        }
+    }
+}
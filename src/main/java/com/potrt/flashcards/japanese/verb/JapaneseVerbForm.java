@@ -4,22 +4,92 @@ import org.apache.commons.text.WordUtils;
 
 /**
  * A {@link JapaneseVerbForm} represents a form/conjugation that a Japanese verb can be.
+ * <p>
+ * Every verb form has a dense ordinal from 0 to {@link #COUNT} - 1, ordered the same way as {@link #compareTo(JapaneseVerbForm)}.
+ * The canonical instances can be gotten with {@link #of(boolean, boolean, String)} and {@link #values()}.
  */
 public final class JapaneseVerbForm implements Comparable<JapaneseVerbForm> {
-    private boolean isPlain;
-    private boolean isPositive;
-    private Form form;
+    /**
+     * The number of distinct verb forms.
+     */
+    public static final int COUNT = Form.values().length * 4;
+
+    private static final JapaneseVerbForm[] VALUES = new JapaneseVerbForm[COUNT];
+    static {
+        for (Form form : Form.values()) {
+            for (int i = 0; i < 4; i++) {
+                JapaneseVerbForm verbForm = new JapaneseVerbForm((i & 2) != 0, (i & 1) != 0, form);
+                VALUES[verbForm.ordinal] = verbForm;
+            }
+        }
+    }
+
+    private final boolean isPlain;
+    private final boolean isPositive;
+    private final Form form;
+    private final int ordinal;
+    private final String display;
 
     /**
      * Creates a new {@link JapaneseVerbForm}.
      * @param isPlain Is the verb plain or polite.
      * @param isPositive Is the verb positive or negative.
      * @param form The form.
+     * @apiNote {@link #of(boolean, boolean, String)} should be preferred, as it returns the canonical instance.
      */
     public JapaneseVerbForm(boolean isPlain, boolean isPositive, String form) {
+        this(isPlain, isPositive, Form.from(form));
+    }
+
+    /**
+     * Creates a new {@link JapaneseVerbForm}.
+     * @param isPlain Is the verb plain or polite.
+     * @param isPositive Is the verb positive or negative.
+     * @param form The form.
+     */
+    private JapaneseVerbForm(boolean isPlain, boolean isPositive, Form form) {
         this.isPlain = isPlain;
         this.isPositive = isPositive;
-        this.form = Form.from(form);
+        this.form = form;
+        this.ordinal = form.ordinal() * 4 + (isPlain ? 2 : 0) + (isPositive ? 1 : 0);
+        this.display = (isPlain ? "" : "Polite ") + (isPositive ? "" : "Negative ") + form.display();
+    }
+
+    /**
+     * Gets the canonical {@link JapaneseVerbForm}.
+     * @param isPlain Is the verb plain or polite.
+     * @param isPositive Is the verb positive or negative.
+     * @param form The form.
+     * @return The canonical {@link JapaneseVerbForm}.
+     * @throws IllegalArgumentException If the form text cannot be converted to a form.
+     */
+    public static JapaneseVerbForm of(boolean isPlain, boolean isPositive, String form) {
+        return VALUES[Form.from(form).ordinal() * 4 + (isPlain ? 2 : 0) + (isPositive ? 1 : 0)];
+    }
+
+    /**
+     * Gets the canonical {@link JapaneseVerbForm} with the given ordinal.
+     * @param ordinal The ordinal, from 0 to {@link #COUNT} - 1.
+     * @return The canonical {@link JapaneseVerbForm}.
+     */
+    public static JapaneseVerbForm fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Gets all of the canonical {@link JapaneseVerbForm}s, ordered by ordinal.
+     * @return An array of every {@link JapaneseVerbForm}.
+     */
+    public static JapaneseVerbForm[] values() {
+        return VALUES.clone();
+    }
+
+    /**
+     * Gets the dense ordinal of the verb form.
+     * @return The ordinal, from 0 to {@link #COUNT} - 1.
+     */
+    public int getOrdinal() {
+        return ordinal;
     }
 
     /**
@@ -53,12 +123,14 @@ public final class JapaneseVerbForm implements Comparable<JapaneseVerbForm> {
         PRESENT_INDICATIVE,
         PAST_INDICATIVE;
 
+        private final String display = WordUtils.capitalizeFully(name().replace("_", " "));
+
         /**
          * Converts the enum to a display {@link String}.
          * @return The text display.
          */
         public String display() {
-            return WordUtils.capitalizeFully(this.toString().replace("_", " "));
+            return display;
         }
 
         /**
@@ -79,35 +151,21 @@ public final class JapaneseVerbForm implements Comparable<JapaneseVerbForm> {
         if (!(obj instanceof JapaneseVerbForm)) { return false; }
 
         JapaneseVerbForm other = (JapaneseVerbForm) obj;
-        return isPlain == other.isPlain && isPositive == other.isPositive && form.equals(other.form);
+        return ordinal == other.ordinal;
     }
 
     @Override
     public int hashCode(){
-        int hash = form.ordinal();
-        hash += isPlain ? 2 : 0;
-        hash += isPositive ? 1 : 0;
-        return hash;
+        return ordinal;
     }
 
     @Override
     public int compareTo(JapaneseVerbForm other) {
-        if (isPlain == other.isPlain && isPositive == other.isPositive && form.equals(other.form)) {
-            return 0;
-        } else if (form.compareTo(other.form) != 0) {
-            return form.compareTo(other.form);
-        } else if (isPlain != other.isPlain) {
-            return isPlain ? 1 : -1;
-        } else {
-            return isPositive ? 1 : -1;
-        }
+        return Integer.compare(ordinal, other.ordinal);
     }
 
     @Override
     public String toString() {
-        String out = "";
-        if (!isPlain) { out += "Polite "; }
-        if (!isPositive) { out += "Negative "; }
-        return out + form.display();
+        return display;
     }
 }   
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.potrt.flashcards.japanese.verb.conjugation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import com.potrt.flashcards.japanese.verb.JapaneseVerbEnding;
+import com.potrt.flashcards.japanese.verb.JapaneseVerbForm;
+
+/**
+ * A {@link ConjugationTable} is the compiled form of the conjugation csv tables used by {@link JapaneseVerbConjugator}.
+ * <p>
+ * The conjugations are held in a single {@code String[formOrdinal][column]} table.
+ * The first columns are the godan endings (by {@link JapaneseVerbEnding} ordinal), followed by the ichidan ending,
+ * followed by each irregular verb in the order it was first read.
+ * <p>
+ * A table can be written to and read from a compact binary form, so the csv only needs to be parsed at build time.
+ * <p>
+ * A table can be read from any number of threads, but {@link #addCsv(Reader)} must not run at the same time as any other method,
+ * as it updates the conjugations and the map of irregular verbs in place.
+ */
+final class ConjugationTable {
+    /**
+     * The column that holds the ichidan conjugations.
+     */
+    static final int ICHIDAN_COLUMN = JapaneseVerbEnding.values().length;
+
+    private static final int MAGIC = 0x54534643;
+    private static final int VERSION = 1;
+
+    /**
+     * The conjugated endings, indexed by {@link JapaneseVerbForm#getOrdinal()} and then by column.
+     * @implNote Every row always has the same length.
+     */
+    private String[][] rows = new String[JapaneseVerbForm.COUNT][ICHIDAN_COLUMN + 1];
+
+    /**
+     * A map pairing the dictionary form kana of each irregular verb to its column.
+     */
+    private Map<String, Integer> irregularColumns = new HashMap<>();
+
+    /**
+     * Adds verb dictionary ending to conjugated ending translation tables from csv data.
+     * <p>
+     * The first 3 values in a row must be its form (e.g. Present Indicative),
+     * whether it is plain (TRUE) or polite (FALSE),
+     * and whether it positive (TRUE) or negative (FALSE).
+     * <p>
+     * There must be a header row that notes where each ending/irregular verb is denoted with the right furigana, or Ichidan for ichidan verb.
+     * @param csv The csv data.
+     * @throws IOException Thrown when the data cannot be read.
+     * @throws CsvValidationException Thrown when the data cannot be validated as a csv file.
+     */
+    void addCsv(Reader csv) throws IOException, CsvValidationException {
+        try(CSVReader reader = new CSVReader(csv)) {
+            String[] header = reader.readNext();
+            if (header == null) { return; }
+
+            int[] columns = columnsOf(header);
+            for (String[] line : reader) {
+                if (line.length < 3) { continue; }
+
+                boolean plain = line[1].equals("TRUE");
+                boolean positive = line[2].equals("TRUE");
+                String[] row = rows[JapaneseVerbForm.of(plain, positive, line[0]).getOrdinal()];
+
+                for (int i = 3; i < columns.length && i < line.length; i++) {
+                    if (columns[i] >= 0) {
+                        row[columns[i]] = line[i];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps each header value to its column in the table, adding columns for new irregular verbs.
+     * @param header An array that represent the colunm of each value.
+     *               This includes each dictionary ending (godan and ichidan) and each irregular verb.
+     * @return The column for each header index, or -1 if the header index holds no conjugation.
+     * @apiNote The first 3 values of the header are assumed to be verb form information.
+     */
+    private int[] columnsOf(String[] header) {
+        int[] columns = new int[header.length];
+        Arrays.fill(columns, -1);
+        for (int i = 3; i < header.length; i++) {
+            try {
+                columns[i] = JapaneseVerbEnding.from(header[i]).ordinal();
+            } catch (IllegalArgumentException e) {
+                if (header[i].equals("Ichidan")) {
+                    columns[i] = ICHIDAN_COLUMN;
+                } else if (!header[i].isEmpty()) {
+                    columns[i] = irregularColumns.computeIfAbsent(header[i], kana -> addColumn());
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Adds a new column to every row of the table.
+     * @return The index of the new column.
+     * @implNote The rows are copied into a new table that replaces the old one at once, so every row always has the same length.
+     */
+    private int addColumn() {
+        int column = rows[0].length;
+        String[][] grown = new String[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            grown[i] = Arrays.copyOf(rows[i], column + 1);
+        }
+        rows = grown;
+        return column;
+    }
+
+    /**
+     * Gets the column that holds the conjugations of the given irregular verb.
+     * @param kana The dictionary form kana for the verb.
+     * @return The column, or -1 if the irregular verb is not in the table.
+     */
+    int irregularColumn(String kana) {
+        Integer column = irregularColumns.get(kana);
+        return column == null ? -1 : column;
+    }
+
+    /**
+     * Gets the conjugation for a column of the table.
+     * @param form The verb form.
+     * @param column The column.
+     * @return The conjugated ending (or the conjugated kana for irregular verbs), or null if there is none.
+     */
+    String conjugate(JapaneseVerbForm form, int column) {
+        if (column < 0) { return null; }
+        return rows[form.getOrdinal()][column];
+    }
+
+    /**
+     * Writes the table in its binary form.
+     * @param out The output.
+     * @throws IOException Thrown when the output cannot be written to.
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(rows.length);
+        out.writeInt(rows[0].length);
+
+        out.writeInt(irregularColumns.size());
+        for (Map.Entry<String, Integer> entry : irregularColumns.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+
+        for (String[] row : rows) {
+            for (String conjugation : row) {
+                out.writeBoolean(conjugation != null);
+                if (conjugation != null) {
+                    out.writeUTF(conjugation);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a table from its binary form.
+     * @param in The input.
+     * @return The {@link ConjugationTable}.
+     * @throws IOException Thrown when the input cannot be read, or was not written by the same version of {@link #write(DataOutput)}.
+     */
+    static ConjugationTable read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("The data is not a compiled conjugation table of a supported version.");
+        }
+
+        int formCount = in.readInt();
+        int columnCount = in.readInt();
+        if (formCount != JapaneseVerbForm.COUNT) {
+            throw new IOException(String.format("The compiled conjugation table has %d forms, but %d were expected.", formCount, JapaneseVerbForm.COUNT));
+        }
+
+        ConjugationTable table = new ConjugationTable();
+        int irregularCount = in.readInt();
+        for (int i = 0; i < irregularCount; i++) {
+            table.irregularColumns.put(in.readUTF(), in.readInt());
+        }
+
+        table.rows = new String[formCount][columnCount];
+        for (String[] row : table.rows) {
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = in.readBoolean() ? in.readUTF() : null;
+            }
+        }
+        return table;
+    }
+}
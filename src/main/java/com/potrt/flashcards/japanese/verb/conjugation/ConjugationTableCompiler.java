@@ -0,0 +1,42 @@
+package com.potrt.flashcards.japanese.verb.conjugation;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import com.opencsv.exceptions.CsvValidationException;
+
+/**
+ * A {@link ConjugationTableCompiler} compiles the default conjugation csv into its binary form.
+ * This is run by the build, so {@link JapaneseVerbConjugator} does not need to parse the csv at runtime.
+ */
+public final class ConjugationTableCompiler {
+
+    /**
+     * Compiles the default conjugation csv from the classpath.
+     * @param args The path of the binary file to write.
+     * @throws IOException Thrown when the csv cannot be read or the binary file cannot be written.
+     * @throws CsvValidationException Thrown when the csv cannot be validated.
+     */
+    public static void main(String[] args) throws IOException, CsvValidationException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: ConjugationTableCompiler <output file>");
+        }
+
+        ConjugationTable table = JapaneseVerbConjugator.parseDefaultCsv();
+        File output = new File(args[0]);
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)))) {
+            table.write(out);
+        }
+    }
+
+    /**
+     * Private constructor to prevent initilaization.
+     */
+    private ConjugationTableCompiler () {}
+}
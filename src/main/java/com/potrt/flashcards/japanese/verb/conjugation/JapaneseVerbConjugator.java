@@ -1,76 +1,173 @@
 package com.potrt.flashcards.japanese.verb.conjugation;
 
-import java.io.FileReader;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.EnumMap;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 
-import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvValidationException;
 import com.potrt.flashcards.japanese.verb.JapaneseVerbEnding;
 import com.potrt.flashcards.japanese.verb.JapaneseVerbForm;
 
 /**
  * A {@link JapaneseVerbConjugator} provides methods to conjugate Japanese verbs.
+ * <p>
+ * The translation tables are compiled into a single {@code String[formOrdinal][column]} table.
+ * The first columns are the godan endings (by {@link JapaneseVerbEnding} ordinal), followed by the ichidan ending,
+ * followed by each irregular verb in the order it was first read.
+ * A verb can look up its column once with {@link #godanColumn(JapaneseVerbEnding)}, {@link #ichidanColumn()},
+ * or {@link #irregularColumn(String)}, and then every conjugation is just {@link #conjugate(JapaneseVerbForm, int)}.
+ * <p>
+ * The default tables are loaded from the classpath the first time they are needed.
+ * The build compiles them into {@value #DEFAULT_BINARY}, so the csv ({@value #DEFAULT_CSV}) is only parsed if that is missing.
+ * {@link #warmUp()} can be used to load them in the background at startup.
  */
 public final class JapaneseVerbConjugator {
+    /**
+     * The classpath resource, relative to this class, of the default conjugation csv.
+     */
+    static final String DEFAULT_CSV = "conjugation_tables.csv";
 
-    private static Map<JapaneseVerbForm, TranslationTable> translationTables;
+    /**
+     * The classpath resource, relative to this class, of the default conjugation tables compiled by {@link ConjugationTableCompiler}.
+     */
+    static final String DEFAULT_BINARY = "conjugation_tables.bin";
 
-    static {
-        translationTables = new HashMap<>();
-        try {
-            addTranslationTables("src/main/java/com/potrt/flashcards/japanese/verb/conjugation/conjugation_tables.csv");
-        } catch (CsvValidationException | IOException e) {
-            throw new IllegalStateException("The default japanese verb conjugation table could not be processed.");
+    /**
+     * Holds the default {@link ConjugationTable}, so it is only loaded when first used.
+     */
+    private static final class DefaultTable {
+        static final ConjugationTable TABLE = load();
+
+        /**
+         * Loads the compiled tables, or parses the csv if they have not been compiled.
+         * @return The {@link ConjugationTable}.
+         */
+        private static ConjugationTable load() {
+            try (InputStream binary = JapaneseVerbConjugator.class.getResourceAsStream(DEFAULT_BINARY)) {
+                if (binary != null) {
+                    return ConjugationTable.read(new DataInputStream(new BufferedInputStream(binary)));
+                }
+                return parseDefaultCsv();
+            } catch (CsvValidationException | IOException e) {
+                throw new IllegalStateException("The default japanese verb conjugation table could not be processed.", e);
+            }
+        }
+    }
+
+    /**
+     * Parses the default conjugation csv from the classpath.
+     * @return The {@link ConjugationTable}.
+     * @throws IOException Thrown when the csv is missing or cannot be read.
+     * @throws CsvValidationException Thrown when the csv cannot be validated.
+     */
+    static ConjugationTable parseDefaultCsv() throws IOException, CsvValidationException {
+        InputStream csv = JapaneseVerbConjugator.class.getResourceAsStream(DEFAULT_CSV);
+        if (csv == null) {
+            throw new IOException("The default japanese verb conjugation csv is not on the classpath.");
         }
+
+        ConjugationTable table = new ConjugationTable();
+        table.addCsv(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        return table;
+    }
+
+    /**
+     * Starts loading the default tables on a background daemon thread, so the first conjugation does not have to wait for them.
+     * @return The thread loading the tables.
+     */
+    public static Thread warmUp() {
+        Thread thread = new Thread(() -> irregularColumn(""), "japanese-verb-conjugator-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
     }
 
     /**
      * Adds verb dictionary ending to conjugated ending translation tables from a given csv file.
      * <p>
-     * The first 3 values in a row must be its form (e.g. Present Indicative), 
-     * whether it is plain (TRUE) or polite (FALSE), 
+     * The first 3 values in a row must be its form (e.g. Present Indicative),
+     * whether it is plain (TRUE) or polite (FALSE),
      * and whether it positive (TRUE) or negative (FALSE).
      * <p>
      * There must be a header row that notes where each ending/irregular verb is denoted with the right furigana, or Ichidan for ichidan verb.
-     * @param csvPath The path to the file.
+     * @param csvPath The path to the file.  It must be UTF-8 encoded.
      * @throws IOException Thrown when the path is invalid or the file cannot be opened.
      * @throws CsvValidationException Thrown when the file cannot be validated as a csv file.
+     * @apiNote The tables are changed in place, so this must not run at the same time as any other conjugation, e.g. only at startup.
      */
     public static void addTranslationTables(String csvPath) throws IOException, CsvValidationException {
-        try(CSVReader reader = new CSVReader(new FileReader(csvPath))) {
-            String[] header = reader.readNext();
-            for (String[] line : reader) {
-                boolean plain = line[1].equals("TRUE");
-                boolean positive = line[2].equals("TRUE");
-                JapaneseVerbForm verbForm = new JapaneseVerbForm(plain, positive, line[0]);
+        addTranslationTables(new InputStreamReader(new FileInputStream(csvPath), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Adds verb dictionary ending to conjugated ending translation tables from csv data.
+     * See {@link #addTranslationTables(String)} for the format, and for when it may be called.
+     * @param csv The csv data.  It is closed once read.
+     * @throws IOException Thrown when the data cannot be read.
+     * @throws CsvValidationException Thrown when the data cannot be validated as a csv file.
+     */
+    public static void addTranslationTables(Reader csv) throws IOException, CsvValidationException {
+        DefaultTable.TABLE.addCsv(csv);
+    }
 
-                TranslationTable translationTable = new TranslationTable(header, line);
+    /**
+     * Gets the column that holds the conjugations of godan verbs with the given ending.
+     * @param ending The ending.
+     * @return The column.
+     */
+    public static int godanColumn(JapaneseVerbEnding ending) {
+        return ending.ordinal();
+    }
 
-                translationTables.put(verbForm, translationTable);
-            }
-        }
+    /**
+     * Gets the column that holds the conjugations of ichidan verbs.
+     * @return The column.
+     */
+    public static int ichidanColumn() {
+        return ConjugationTable.ICHIDAN_COLUMN;
     }
 
     /**
-     * Conjugates a godan verb based on the given form and ending. 
+     * Gets the column that holds the conjugations of the given irregular verb.
+     * @param kana The dictionary form kana for the verb.
+     * @return The column, or -1 if the irregular verb is not in the translation tables.
+     */
+    public static int irregularColumn(String kana) {
+        return DefaultTable.TABLE.irregularColumn(kana);
+    }
+
+    /**
+     * Gets the conjugation for a column of the conjugation table.
+     * @param form The verb form.
+     * @param column The column, from {@link #godanColumn(JapaneseVerbEnding)}, {@link #ichidanColumn()}, or {@link #irregularColumn(String)}.
+     * @return The conjugated ending (or the conjugated kana for irregular verbs), or null if there is none.
+     */
+    public static String conjugate(JapaneseVerbForm form, int column) {
+        return DefaultTable.TABLE.conjugate(form, column);
+    }
+
+    /**
+     * Conjugates a godan verb based on the given form and ending.
      * @param form The verb form.
      * @param ending The ending.
      * @return The conjugated ending.
      */
     public static String conjugateGodanVerb(JapaneseVerbForm form, JapaneseVerbEnding ending) {
-        return translationTables.get(form).conjugateGodanVerb(ending);
+        return conjugate(form, godanColumn(ending));
     }
 
     /**
-     * Conjugates a ichidan verb based on the given form. 
+     * Conjugates a ichidan verb based on the given form.
      * @param form The verb form.
      * @return The conjugated ending.
      */
     public static String conjugateIchidanVerb(JapaneseVerbForm form) {
-        return translationTables.get(form).conjugateIchidanVerb();
+        return conjugate(form, ichidanColumn());
     }
 
     /**
@@ -80,71 +177,7 @@ public final class JapaneseVerbConjugator {
      * @return The conjugated kana for the verb.
      */
     public static String conjugateIrregularVerb(JapaneseVerbForm form, String kana) {
-        return translationTables.get(form).conjugateIrregularVerb(kana);
-    }
-
-    /**
-     * A {@link TranslationTable} represents a translation table that converts a verb's dictionary ending to a verb form's ending. 
-     * 
-     * @implNote The verb form is not stored in the {@link TranslationTable} as the {@link JapaneseVerbConjugator} will 
-     * map the {@link JapaneseVerbForm}s with their respective {@link TranslationTable}.
-     */
-    private static class TranslationTable {
-        private EnumMap<JapaneseVerbEnding, String> godanTranslationTable;
-        private String ichidanTranslation;
-        private Map<String, String> irregularTranslationTable;
-
-        /**
-         * Generates a new {@link TranslationTable} from a header and its respective translation values.
-         * @param header An array that represent the colunm of each value.  
-         *               This includes each dictionary ending (godan and ichidan) and each irregular verb.
-         * @param values An array mapped from the header that represents each value.  
-         *               Each ending and irregular verb is the after-form-translation version.
-         * @apiNote The first 3 values of each array is assumed to be verb form information.
-         */
-        public TranslationTable(String[] header, String[] values) {
-            godanTranslationTable = new EnumMap<>(JapaneseVerbEnding.class);
-            irregularTranslationTable = new HashMap<>();
-
-            for (int i = 3; i < header.length; i++) {
-                try {
-                    JapaneseVerbEnding ending = JapaneseVerbEnding.from(header[i]);
-                    godanTranslationTable.put(ending, values[i]);
-                } catch (IllegalArgumentException e) { 
-                    if (header[i].equals("Ichidan")) {
-                        ichidanTranslation = values[i];
-                    } else if (!header[i].isEmpty()) {
-                        irregularTranslationTable.put(header[i], values[i]);
-                    }
-                }
-            }
-        }
-
-        /**
-         * Conjugates a godan verb based on the translation table and given ending. 
-         * @param ending The ending.
-         * @return The conjugated ending.
-         */
-        public String conjugateGodanVerb(JapaneseVerbEnding ending) {
-            return godanTranslationTable.get(ending);
-        }
-
-        /**
-         * Conjugates an ichidan verb based on the translation table.
-         * @return The conjugated ending.
-         */
-        public String conjugateIchidanVerb() {
-            return ichidanTranslation;
-        }
-
-        /**
-         * Conjugates an irregular verb based on the translation table and the given kana.
-         * @param kana The kana.
-         * @return The conjugated verb in kana.
-         */
-        public String conjugateIrregularVerb(String kana) {
-            return irregularTranslationTable.get(kana);
-        }
+        return conjugate(form, irregularColumn(kana));
     }
 
     /**
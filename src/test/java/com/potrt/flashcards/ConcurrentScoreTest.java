@@ -0,0 +1,158 @@
+package com.potrt.flashcards;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ConcurrentScoreTest {
+
+    /**
+     * Tests multiple successes and failures.
+     */
+    @Test
+    public void multipleScoreTest() {
+        Score score = new ConcurrentScore();
+        score.attempt(true);
+        score.attempt(false);
+        score.attempt(true);
+        score.attempt(false);
+        score.attempt(true);
+
+        assertThat(score.getAttempts()).isEqualTo(5);
+        assertThat(score.getSuccesses()).isEqualTo(3);
+        assertThat(score.getFailures()).isEqualTo(2);
+        assertThat(score.getSuccessRate()).isEqualTo(0.6);
+        assertThat(score.getDisplaySuccessRate()).isEqualTo("60.00%");
+    }
+
+    /**
+     * Tests the creation of a score with data, and taking a snapshot of it.
+     */
+    @Test
+    public void snapshotTest() {
+        ConcurrentScore score = new ConcurrentScore(7, 10);
+        Score snapshot = score.snapshot();
+        score.attempt(false);
+
+        assertThat(snapshot.getAttempts()).isEqualTo(10);
+        assertThat(snapshot.getSuccesses()).isEqualTo(7);
+        assertThat(score.getAttempts()).isEqualTo(11);
+        assertThat(score.getFailures()).isEqualTo(4);
+    }
+
+    /**
+     * Test invalid score data.
+     */
+    @Test
+    public void scoreWithInvalidDataTest() {
+        assertThatThrownBy(() -> new ConcurrentScore(11, 9)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ConcurrentScore(0, ConcurrentScore.MAX_ATTEMPTS + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Test that a full score rejects attempts without changing.
+     */
+    @Test
+    public void fullScoreTest() {
+        ConcurrentScore score = new ConcurrentScore(ConcurrentScore.MAX_ATTEMPTS, ConcurrentScore.MAX_ATTEMPTS);
+        assertThatThrownBy(() -> score.attempt(false)).isInstanceOf(IllegalStateException.class);
+        assertThat(score.getAttempts()).isEqualTo(ConcurrentScore.MAX_ATTEMPTS);
+        assertThat(score.getSuccesses()).isEqualTo(ConcurrentScore.MAX_ATTEMPTS);
+    }
+
+    /**
+     * Test that no attempts are lost, and successes never exceed attempts, when many threads attempt at once.
+     */
+    @Test
+    public void concurrentAttemptTest() throws InterruptedException {
+        ConcurrentScore score = new ConcurrentScore();
+        int threads = 8;
+        int attemptsPerThread = 100_000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean inconsistent = new AtomicBoolean();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    score.attempt(i % 4 != 0);
+                    Score snapshot = score.snapshot();
+                    if (snapshot.getSuccesses() > snapshot.getAttempts()) {
+                        inconsistent.set(true);
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(inconsistent).isFalse();
+        assertThat(score.getAttempts()).isEqualTo((long) threads * attemptsPerThread);
+        assertThat(score.getSuccesses()).isEqualTo((long) threads * attemptsPerThread * 3 / 4);
+    }
+
+    /**
+     * Test that two threads racing for the last attempt of a score never wrap it, so exactly one attempt is added.
+     */
+    @Test
+    public void concurrentFullScoreTest() throws InterruptedException {
+        for (int trial = 0; trial < 500; trial++) {
+            ConcurrentScore score = new ConcurrentScore(ConcurrentScore.MAX_ATTEMPTS - 1, ConcurrentScore.MAX_ATTEMPTS - 1);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger rejected = new AtomicInteger();
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                Thread worker = new Thread(() -> {
+                    try {
+                        start.await();
+                        score.attempt(true);
+                    } catch (IllegalStateException e) {
+                        rejected.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+
+            assertThat(rejected).hasValue(1);
+            assertThat(score.getAttempts()).isEqualTo(ConcurrentScore.MAX_ATTEMPTS);
+            assertThat(score.getSuccesses()).isEqualTo(ConcurrentScore.MAX_ATTEMPTS);
+        }
+    }
+
+    /**
+     * Tests adding one score to another, and that a full score rejects additions without changing.
+     */
+    @Test
+    public void addTest() {
+        ConcurrentScore score = new ConcurrentScore(1, 2);
+        score.add(new Score(3, 5));
+        assertThat(score.getAttempts()).isEqualTo(7);
+        assertThat(score.getSuccesses()).isEqualTo(4);
+
+        assertThatThrownBy(() -> score.add(new Score(0, ConcurrentScore.MAX_ATTEMPTS))).isInstanceOf(IllegalStateException.class);
+        assertThat(score.getAttempts()).isEqualTo(7);
+    }
+}
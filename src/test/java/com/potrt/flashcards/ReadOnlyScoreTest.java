@@ -0,0 +1,74 @@
+package com.potrt.flashcards;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+
+public class ReadOnlyScoreTest {
+
+    /**
+     * Tests that the view follows the score it views.
+     */
+    @Test
+    public void liveViewTest() {
+        Score score = new Score(1, 2);
+        Score view = new ReadOnlyScore(score);
+        assertThat(view.getSuccessRate()).isEqualTo(0.5);
+
+        score.attempt(true);
+        score.attempt(true);
+        assertThat(view.getAttempts()).isEqualTo(4);
+        assertThat(view.getSuccesses()).isEqualTo(3);
+        assertThat(view.getFailures()).isEqualTo(1);
+        assertThat(view.getDisplaySuccessRate()).isEqualTo("75.00%");
+    }
+
+    /**
+     * Tests that the view cannot be attempted.
+     */
+    @Test
+    public void attemptTest() {
+        Score view = new ReadOnlyScore(new Score());
+        assertThatThrownBy(() -> view.attempt(true)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    /**
+     * Tests that a copy of the view no longer follows the score.
+     */
+    @Test
+    public void copyTest() {
+        Score score = new Score(1, 2);
+        Score copy = new Score(new ReadOnlyScore(score));
+        score.attempt(true);
+        assertThat(copy.getAttempts()).isEqualTo(2);
+    }
+
+    /**
+     * Tests that a snapshot of the view no longer follows the score, for both kinds of score.
+     */
+    @Test
+    public void snapshotTest() {
+        Score score = new Score(1, 2);
+        ReadOnlyScore view = new ReadOnlyScore(score);
+        Score snapshot = view.snapshot();
+        score.attempt(true);
+        assertThat(snapshot.getAttempts()).isEqualTo(2);
+        assertThat(snapshot.getSuccesses()).isEqualTo(1);
+
+        ConcurrentScore concurrent = new ConcurrentScore(1, 2);
+        snapshot = new ReadOnlyScore(concurrent).snapshot();
+        concurrent.attempt(true);
+        assertThat(snapshot.getAttempts()).isEqualTo(2);
+        assertThat(snapshot.getSuccesses()).isEqualTo(1);
+    }
+
+    /**
+     * Tests that the view cannot be added to.
+     */
+    @Test
+    public void addTest() {
+        Score view = new ReadOnlyScore(new Score());
+        assertThatThrownBy(() -> view.add(new Score(1, 1))).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -122,4 +122,15 @@ public class ScoreTest {
         assertThat(score.getFailures()).isEqualTo(12);
         assertThat(score.getSuccessRate()).isEqualTo(0.6);
     }
+
+    /**
+     * Tests adding one score to another.
+     */
+    @Test
+    public void addTest() {
+        Score score = new Score(1, 2);
+        score.add(new Score(3, 5));
+        assertThat(score.getAttempts()).isEqualTo(7);
+        assertThat(score.getSuccesses()).isEqualTo(4);
+    }
 }
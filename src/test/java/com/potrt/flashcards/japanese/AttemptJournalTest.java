@@ -0,0 +1,357 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.potrt.flashcards.TestingConstants;
+import com.potrt.flashcards.japanese.AttemptJournal.Result;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+
+public class AttemptJournalTest implements TestingConstants {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path path;
+
+    @Before
+    public void setup() {
+        path = folder.getRoot().toPath().resolve("attempts.journal");
+    }
+
+    /**
+     * Creates a word dictionary with a few words, the same each time.
+     * @param withDrink Whether to add the kanji for drink and its verb.
+     * @return The {@link JapaneseWordDictionary}.
+     */
+    private static JapaneseWordDictionary newDictionary(boolean withDrink) {
+        JapaneseKanjiDictionary kanjiDictionary = new JapaneseKanjiDictionary();
+        JapaneseKanji one = kanjiDictionary.create(oneKanji, oneMeaning);
+        JapaneseKanji person = kanjiDictionary.create(personKanji, personMeaning);
+        JapaneseWordDictionary wordDictionary = new JapaneseWordDictionary(kanjiDictionary);
+
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(one.withReading(wordOnePersonOneFurigana));
+        builder.add(person.withReading(wordOnePersonPersonFurigana));
+        wordDictionary.put(new JapaneseWord(builder, wordOnePersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(personKanjiReadingPerson));
+        wordDictionary.put(new JapaneseWord(builder, wordPersonDefinition));
+
+        if (withDrink) {
+            JapaneseKanji drink = kanjiDictionary.create(drinkKanji, drinkMeaning);
+            builder = new JapaneseWordBuilder();
+            builder.add(drink.withReading(godanVerbToDrinkFuriganaBase));
+            builder.add(godanVerbToDrinkEnding);
+            wordDictionary.put(new JapaneseVerb(builder, godanVerbToDrinkDefinition, JapaneseVerbType.GODAN));
+        }
+        return wordDictionary;
+    }
+
+    /**
+     * Tests that a word is not attempted at all when the journal cannot record it.
+     */
+    @Test
+    public void closedJournalTest() throws IOException {
+        JapaneseWordDictionary dictionary = newDictionary(false);
+        AttemptJournal journal = AttemptJournal.open(path, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS);
+        List<Boolean> recorded = new ArrayList<>();
+        AttemptListener recorder = (reading, succeeded) -> recorded.add(succeeded);
+        dictionary.getKanjiDictionary().setAttemptListener(recorder.andThen(journal));
+        journal.close();
+
+        JapaneseWord wordOnePerson = dictionary.get(wordOnePersonKanji);
+        assertThatThrownBy(() -> wordOnePerson.attempt(true)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> wordOnePerson.getSegments().getKanji(1).attempt(true)).isInstanceOf(IllegalStateException.class);
+        for (Character kanji : new Character[] {oneKanji, personKanji}) {
+            assertThat(dictionary.getKanjiDictionary().get(kanji).getScore().getAttempts()).isZero();
+        }
+        assertThat(recorded).isEmpty();
+
+        dictionary.getKanjiDictionary().setAttemptListener(null);
+        wordOnePerson.attempt(true);
+        assertThat(dictionary.getKanjiDictionary().get(personKanji).getScore().getAttempts()).isEqualTo(1);
+    }
+
+    /**
+     * Tests that replaying a journal restores the scores of the attempts it recorded.
+     */
+    @Test
+    public void replayTest() throws IOException {
+        JapaneseWordDictionary original = newDictionary(true);
+        try (AttemptJournal journal = AttemptJournal.open(path, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS)) {
+            original.getKanjiDictionary().setAttemptListener(journal);
+            original.get(wordOnePersonKanji).attempt(true);
+            original.get(wordOnePersonKanji).attempt(false);
+            original.get(wordPersonKanji).attempt(true);
+            original.get(godanVerbToDrinkKanjiBase + godanVerbToDrinkEnding).attempt(false);
+            original.getKanjiDictionary().setAttemptListener(null);
+        }
+
+        JapaneseWordDictionary replayed = newDictionary(true);
+        Result result = AttemptJournal.replay(path, replayed.getKanjiDictionary());
+        assertThat(result.getReplayed()).isEqualTo(6);
+        assertThat(result.getSkipped()).isZero();
+
+        for (Character kanji : new Character[] {oneKanji, personKanji, drinkKanji}) {
+            JapaneseKanji expected = original.getKanjiDictionary().get(kanji);
+            JapaneseKanji actual = replayed.getKanjiDictionary().get(kanji);
+            assertThat(actual.getScore().getAttempts()).isEqualTo(expected.getScore().getAttempts());
+            assertThat(actual.getScore().getSuccesses()).isEqualTo(expected.getScore().getSuccesses());
+        }
+        assertThat(replayed.getKanjiDictionary().get(personKanji).getScore(personKanjiReadingPerson).getSuccesses()).isEqualTo(1);
+        assertThat(replayed.getKanjiDictionary().get(personKanji).getScore(wordOnePersonPersonFurigana).getAttempts()).isEqualTo(2);
+    }
+
+    /**
+     * Tests that replaying does not journal the attempts again, and that each session numbers its readings anew.
+     */
+    @Test
+    public void sessionsTest() throws IOException {
+        JapaneseWordDictionary dictionary = newDictionary(false);
+        try (AttemptJournal journal = AttemptJournal.open(path, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS)) {
+            dictionary.getKanjiDictionary().setAttemptListener(journal);
+            dictionary.get(wordOnePersonKanji).attempt(true);
+            dictionary.getKanjiDictionary().setAttemptListener(null);
+        }
+
+        dictionary = newDictionary(false);
+        assertThat(AttemptJournal.replay(path, dictionary.getKanjiDictionary()).getReplayed()).isEqualTo(2);
+        try (AttemptJournal journal = AttemptJournal.open(path, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS)) {
+            dictionary.getKanjiDictionary().setAttemptListener(journal);
+            dictionary.get(wordPersonKanji).attempt(false);
+            dictionary.get(wordOnePersonKanji).attempt(false);
+            dictionary.getKanjiDictionary().setAttemptListener(null);
+        }
+
+        JapaneseWordDictionary replayed = newDictionary(false);
+        assertThat(AttemptJournal.replay(path, replayed.getKanjiDictionary()).getReplayed()).isEqualTo(5);
+        JapaneseKanji person = replayed.getKanjiDictionary().get(personKanji);
+        assertThat(person.getScore(personKanjiReadingPerson).getAttempts()).isEqualTo(1);
+        assertThat(person.getScore(wordOnePersonPersonFurigana).getAttempts()).isEqualTo(2);
+        assertThat(person.getScore(wordOnePersonPersonFurigana).getSuccesses()).isEqualTo(1);
+    }
+
+    /**
+     * Tests that committed attempts can be replayed while the journal is still open.
+     */
+    @Test
+    public void commitTest() throws IOException {
+        JapaneseWordDictionary dictionary = newDictionary(false);
+        try (AttemptJournal journal = AttemptJournal.open(path, 60_000)) {
+            dictionary.getKanjiDictionary().setAttemptListener(journal);
+            dictionary.get(wordPersonKanji).attempt(true);
+            journal.commit();
+            assertThat(AttemptJournal.replay(path, newDictionary(false).getKanjiDictionary()).getReplayed()).isEqualTo(1);
+
+            dictionary.get(wordPersonKanji).attempt(true);
+            journal.commit();
+            assertThat(AttemptJournal.replay(path, newDictionary(false).getKanjiDictionary()).getReplayed()).isEqualTo(2);
+            dictionary.getKanjiDictionary().setAttemptListener(null);
+        }
+    }
+
+    /**
+     * Tests that a batch cut short by a crash is ignored by replay, and cut off when the journal is opened again.
+     */
+    @Test
+    public void incompleteBatchTest() throws IOException {
+        JapaneseWordDictionary dictionary = newDictionary(false);
+        try (AttemptJournal journal = AttemptJournal.open(path, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS)) {
+            dictionary.getKanjiDictionary().setAttemptListener(journal);
+            dictionary.get(wordPersonKanji).attempt(true);
+            dictionary.getKanjiDictionary().setAttemptListener(null);
+        }
+        long size = Files.size(path);
+        Files.write(path, new byte[] {0, 0, 0, 24, 1, 2, 3, 4, 0, 0}, StandardOpenOption.APPEND);
+        assertThat(AttemptJournal.replay(path, newDictionary(false).getKanjiDictionary()).getReplayed()).isEqualTo(1);
+
+        try (AttemptJournal journal = AttemptJournal.open(path, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS)) {
+            assertThat(Files.size(path)).isEqualTo(size);
+            dictionary.getKanjiDictionary().setAttemptListener(journal);
+            dictionary.get(wordPersonKanji).attempt(false);
+            dictionary.getKanjiDictionary().setAttemptListener(null);
+        }
+        assertThat(AttemptJournal.replay(path, newDictionary(false).getKanjiDictionary()).getReplayed()).isEqualTo(2);
+    }
+
+    /**
+     * Tests that a journal split into many segments replays the same scores on any number of threads,
+     * and that a batch failing its checksum ends the journal even when later segments are valid.
+     */
+    @Test
+    public void segmentsTest() throws IOException {
+        JapaneseWordDictionary dictionary = newDictionary(false);
+        List<Long> batchEnds = new ArrayList<>();
+        try (AttemptJournal journal = AttemptJournal.open(path, 60_000)) {
+            dictionary.getKanjiDictionary().setAttemptListener(journal);
+            for (int batch = 0; batch < 100; batch++) {
+                for (int i = 0; i < 200; i++) {
+                    dictionary.get(wordPersonKanji).attempt(i % 3 == 0);
+                }
+                dictionary.get(wordOnePersonKanji).attempt(batch % 2 == 0);
+                journal.commit();
+                batchEnds.add(Files.size(path));
+            }
+            dictionary.getKanjiDictionary().setAttemptListener(null);
+        }
+
+        for (int threads : new int[] {1, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                JapaneseWordDictionary replayed = newDictionary(false);
+                Result result = AttemptJournal.replay(path, replayed.getKanjiDictionary(), 0, pool);
+                assertThat(result.getReplayed()).isEqualTo(100 * 202);
+                for (Character kanji : new Character[] {oneKanji, personKanji}) {
+                    JapaneseKanji expected = dictionary.getKanjiDictionary().get(kanji);
+                    JapaneseKanji actual = replayed.getKanjiDictionary().get(kanji);
+                    assertThat(actual.getScore().getAttempts()).isEqualTo(expected.getScore().getAttempts());
+                    assertThat(actual.getScore().getSuccesses()).isEqualTo(expected.getScore().getSuccesses());
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[batchEnds.get(60).intValue() - 1]++;
+        Files.write(path, bytes);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertThat(AttemptJournal.replay(path, newDictionary(false).getKanjiDictionary(), 0, pool).getReplayed()).isEqualTo(60 * 202);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests that compaction moves the attempts into a snapshot, and that a journal the snapshot includes is not replayed again.
+     */
+    @Test
+    public void compactTest() throws IOException {
+        Path snapshot = folder.getRoot().toPath().resolve("dictionary.snapshot");
+        Path old = folder.getRoot().toPath().resolve("old.journal");
+        JapaneseWordDictionary dictionary = newDictionary(false);
+        try (AttemptJournal journal = AttemptJournal.open(path, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS)) {
+            dictionary.getKanjiDictionary().setAttemptListener(journal);
+            dictionary.get(wordPersonKanji).attempt(true);
+            dictionary.get(wordOnePersonKanji).attempt(false);
+            dictionary.getKanjiDictionary().setAttemptListener(null);
+        }
+        Files.copy(path, old);
+
+        AttemptJournal.compact(dictionary, snapshot, path);
+        assertThat(AttemptJournal.replay(path, newDictionary(false).getKanjiDictionary()).getReplayed()).isZero();
+
+        JapaneseWordDictionary restored = new JapaneseWordDictionary(new JapaneseKanjiDictionary());
+        long generation = JapaneseDictionarySnapshot.read(snapshot, restored);
+        assertThat(generation).isEqualTo(1);
+        assertThat(restored.getKanjiDictionary().get(personKanji).getScore().getAttempts()).isEqualTo(2);
+
+        try (AttemptJournal journal = AttemptJournal.open(path, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS)) {
+            restored.getKanjiDictionary().setAttemptListener(journal);
+            restored.get(wordPersonKanji).attempt(true);
+            restored.getKanjiDictionary().setAttemptListener(null);
+        }
+        JapaneseWordDictionary next = new JapaneseWordDictionary(new JapaneseKanjiDictionary());
+        generation = JapaneseDictionarySnapshot.read(snapshot, next);
+        assertThat(AttemptJournal.replay(path, next.getKanjiDictionary(), generation, ForkJoinPool.commonPool()).getReplayed()).isEqualTo(1);
+        assertThat(next.getKanjiDictionary().get(personKanji).getScore().getAttempts()).isEqualTo(3);
+
+        // A crash after the snapshot was written, but before the journal was replaced, leaves the old journal behind.
+        Files.copy(old, path, StandardCopyOption.REPLACE_EXISTING);
+        JapaneseWordDictionary crashed = new JapaneseWordDictionary(new JapaneseKanjiDictionary());
+        generation = JapaneseDictionarySnapshot.read(snapshot, crashed);
+        assertThat(AttemptJournal.replay(path, crashed.getKanjiDictionary(), generation, ForkJoinPool.commonPool()).getReplayed()).isZero();
+        assertThat(crashed.getKanjiDictionary().get(personKanji).getScore().getAttempts()).isEqualTo(2);
+    }
+
+    /**
+     * Tests that a journal left behind by a crash during compaction is rolled forward when it is opened, so new attempts are replayed.
+     */
+    @Test
+    public void staleJournalTest() throws IOException {
+        Path snapshot = folder.getRoot().toPath().resolve("dictionary.snapshot");
+        JapaneseWordDictionary dictionary = newDictionary(false);
+        try (AttemptJournal journal = AttemptJournal.open(path, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS)) {
+            dictionary.getKanjiDictionary().setAttemptListener(journal);
+            dictionary.get(wordPersonKanji).attempt(true);
+            dictionary.getKanjiDictionary().setAttemptListener(null);
+        }
+
+        // A crash after the snapshot is written, but before the journal is replaced.
+        JapaneseDictionarySnapshot.write(dictionary, snapshot, 1);
+
+        JapaneseWordDictionary restarted = new JapaneseWordDictionary(new JapaneseKanjiDictionary());
+        long generation = JapaneseDictionarySnapshot.read(snapshot, restarted);
+        assertThat(AttemptJournal.replay(path, restarted.getKanjiDictionary(), generation, ForkJoinPool.commonPool()).getReplayed()).isZero();
+        try (AttemptJournal journal = AttemptJournal.open(path, generation, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS)) {
+            restarted.getKanjiDictionary().setAttemptListener(journal);
+            restarted.get(wordPersonKanji).attempt(false);
+            restarted.getKanjiDictionary().setAttemptListener(null);
+        }
+
+        JapaneseWordDictionary next = new JapaneseWordDictionary(new JapaneseKanjiDictionary());
+        generation = JapaneseDictionarySnapshot.read(snapshot, next);
+        assertThat(AttemptJournal.replay(path, next.getKanjiDictionary(), generation, ForkJoinPool.commonPool()).getReplayed()).isEqualTo(1);
+        assertThat(next.getKanjiDictionary().get(personKanji).getScore().getSuccesses()).isEqualTo(1);
+        assertThat(next.getKanjiDictionary().get(personKanji).getScore().getAttempts()).isEqualTo(2);
+
+        AttemptJournal.compact(next, snapshot, path);
+        assertThat(JapaneseDictionarySnapshot.read(snapshot, new JapaneseWordDictionary(new JapaneseKanjiDictionary()))).isEqualTo(2);
+        assertThatThrownBy(() -> AttemptJournal.open(path, -1, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Tests that attempts of kanji no longer in the dictionary are skipped.
+     */
+    @Test
+    public void skippedTest() throws IOException {
+        JapaneseWordDictionary dictionary = newDictionary(true);
+        try (AttemptJournal journal = AttemptJournal.open(path, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS)) {
+            dictionary.getKanjiDictionary().setAttemptListener(journal);
+            dictionary.get(godanVerbToDrinkKanjiBase + godanVerbToDrinkEnding).attempt(true);
+            dictionary.get(wordPersonKanji).attempt(true);
+            dictionary.getKanjiDictionary().setAttemptListener(null);
+        }
+
+        Result result = AttemptJournal.replay(path, newDictionary(false).getKanjiDictionary());
+        assertThat(result.getReplayed()).isEqualTo(1);
+        assertThat(result.getSkipped()).isEqualTo(1);
+    }
+
+    /**
+     * Tests invalid journals and arguments.
+     */
+    @Test
+    public void invalidTest() throws IOException {
+        assertThat(AttemptJournal.replay(path, new JapaneseKanjiDictionary()).getReplayed()).isZero();
+        assertThatThrownBy(() -> AttemptJournal.open(path, 0)).isInstanceOf(IllegalArgumentException.class);
+
+        Path text = folder.newFile().toPath();
+        Files.write(text, "not a journal".getBytes("UTF-8"));
+        assertThatThrownBy(() -> AttemptJournal.replay(text, new JapaneseKanjiDictionary())).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> AttemptJournal.open(text, 1)).isInstanceOf(IOException.class);
+
+        JapaneseWordDictionary dictionary = newDictionary(false);
+        AttemptJournal journal = AttemptJournal.open(path, AttemptJournal.DEFAULT_COMMIT_INTERVAL_MILLIS);
+        journal.close();
+        dictionary.getKanjiDictionary().setAttemptListener(journal);
+        assertThatThrownBy(() -> dictionary.get(wordPersonKanji).attempt(true)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,58 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+
+public class ConcurrentJapaneseKanjiDictionaryTest implements TestingConstants {
+    private static final int THREADS = 8;
+    private static final int KANJI = 500;
+
+    /**
+     * Creates and gets the same kanji from many threads at once.  Every thread must see the same {@link JapaneseKanji}.
+     */
+    @Test
+    public void concurrentCreateTest() throws Exception {
+        ConcurrentJapaneseKanjiDictionary dictionary = new ConcurrentJapaneseKanjiDictionary();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<JapaneseKanji[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                boolean create = t % 2 == 0;
+                futures.add(executor.submit((Callable<JapaneseKanji[]>) () -> {
+                    start.await();
+                    JapaneseKanji[] seen = new JapaneseKanji[KANJI];
+                    for (int i = 0; i < KANJI; i++) {
+                        char c = (char) (0x4E00 + i);
+                        seen[i] = create ? dictionary.create(c, "kanji " + i) : dictionary.get(c);
+                    }
+                    return seen;
+                }));
+            }
+            start.countDown();
+
+            JapaneseKanji[] first = futures.get(0).get(60, TimeUnit.SECONDS);
+            for (Future<JapaneseKanji[]> future : futures) {
+                assertThat(future.get(60, TimeUnit.SECONDS)).containsExactly(first);
+            }
+            for (JapaneseKanji kanji : first) {
+                assertThat(dictionary.contains(kanji)).isTrue();
+                assertThat(kanji.getMeaning()).startsWith("kanji ");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
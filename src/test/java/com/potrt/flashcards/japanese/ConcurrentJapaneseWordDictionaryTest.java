@@ -0,0 +1,289 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+
+public class ConcurrentJapaneseWordDictionaryTest implements TestingConstants {
+    private static final int THREADS = 8;
+    private static final int KANJI = 40;
+    private static final String[] READINGS = {"か", "き", "く"};
+
+    private ConcurrentJapaneseKanjiDictionary kanjiDictionary;
+    private ConcurrentJapaneseWordDictionary wordDictionary;
+    private JapaneseKanji[] kanji;
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        kanjiDictionary = new ConcurrentJapaneseKanjiDictionary();
+        wordDictionary = new ConcurrentJapaneseWordDictionary(kanjiDictionary);
+        kanji = new JapaneseKanji[KANJI];
+        for (int i = 0; i < KANJI; i++) {
+            kanji[i] = kanjiDictionary.create((char) (0x4E00 + i), "kanji " + i);
+        }
+        executor = Executors.newFixedThreadPool(THREADS + 2);
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates a word made of two different kanji.
+     * @param first The index of the first kanji.
+     * @param second The index of the second kanji.
+     * @param reading The index of the reading to use for both kanji.
+     * @param definition The definition.
+     * @return The {@link JapaneseWord}.
+     */
+    private JapaneseWord word(int first, int second, int reading, String definition) {
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(kanji[first].withReading(READINGS[reading]));
+        builder.add(kanji[second].withReading(READINGS[reading]));
+        return new JapaneseWord(builder, definition);
+    }
+
+    /**
+     * Runs a task on every thread at the same time, while another thread keeps reading the kanji.
+     * @param task The task, given the index of its thread.
+     */
+    private void hammer(TaskWithIndex task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        Future<?> reader = executor.submit(() -> {
+            start.await();
+            while (!done.get()) {
+                for (JapaneseKanji k : kanji) {
+                    k.getReadings();
+                    k.getWords();
+                    k.numWords(READINGS[0]);
+                }
+            }
+            return null;
+        });
+
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+                task.run(thread);
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        done.set(true);
+        reader.get(60, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Checks that every kanji reading holds exactly the words of the dictionary that use it.
+     * @param words Every word in the dictionary.
+     */
+    private void assertConsistent(List<JapaneseWord> words) {
+        int[][] expected = new int[KANJI][READINGS.length];
+        for (JapaneseWord word : words) {
+            JapaneseWord inDictionary = wordDictionary.get(word.getKanji());
+            assertThat(inDictionary).isNotNull();
+            for (int i = 0; i < 2; i++) {
+                int k = inDictionary.getKanji().charAt(i) - 0x4E00;
+                int r = READINGS[0].equals(inDictionary.getFurigana().substring(i, i + 1)) ? 0 : READINGS[1].equals(inDictionary.getFurigana().substring(i, i + 1)) ? 1 : 2;
+                expected[k][r]++;
+                assertThat(kanji[k].getWords(READINGS[r])).contains(inDictionary);
+            }
+        }
+
+        for (int k = 0; k < KANJI; k++) {
+            int total = 0;
+            for (int r = 0; r < READINGS.length; r++) {
+                assertThat(kanji[k].numWords(READINGS[r])).isEqualTo(expected[k][r]);
+                total += expected[k][r];
+            }
+            assertThat(kanji[k].numWords()).isEqualTo(total);
+        }
+    }
+
+    /**
+     * Puts distinct words from many threads at once.
+     */
+    @Test
+    public void concurrentPutTest() throws Exception {
+        List<JapaneseWord> words = new ArrayList<>();
+        List<List<JapaneseWord>> perThread = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            perThread.add(new ArrayList<>());
+        }
+        int n = 0;
+        for (int first = 0; first < KANJI; first++) {
+            for (int second = 0; second < KANJI; second++) {
+                if (first == second) { continue; }
+                JapaneseWord word = word(first, second, n % READINGS.length, "word " + n);
+                words.add(word);
+                perThread.get(n++ % THREADS).add(word);
+            }
+        }
+
+        hammer(thread -> {
+            for (JapaneseWord word : perThread.get(thread)) {
+                wordDictionary.put(word);
+            }
+        });
+
+        assertConsistent(words);
+    }
+
+    /**
+     * Puts distinct words from many threads at once, while another thread keeps asking for a text scanner.
+     * A scanner asked for after the words are added must find every one of them.
+     */
+    @Test
+    public void concurrentPutScannerTest() throws Exception {
+        List<JapaneseWord> words = new ArrayList<>();
+        for (int first = 0; first < KANJI; first++) {
+            for (int second = 0; second < KANJI; second++) {
+                if (first != second) {
+                    words.add(word(first, second, (first + second) % READINGS.length, "word"));
+                }
+            }
+        }
+        CountDownLatch scanned = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        Future<?> scanner = executor.submit(() -> {
+            while (!done.get()) {
+                wordDictionary.getTextScanner(false);
+                scanned.countDown();
+            }
+            return null;
+        });
+        scanned.await(60, TimeUnit.SECONDS);
+
+        hammer(thread -> {
+            for (int i = thread; i < words.size(); i += THREADS) {
+                wordDictionary.put(words.get(i));
+            }
+        });
+        done.set(true);
+        scanner.get(60, TimeUnit.SECONDS);
+
+        JapaneseTextScanner textScanner = wordDictionary.getTextScanner(false);
+        for (JapaneseWord word : words) {
+            List<JapaneseTextScanner.Match> matches = textScanner.scan(word.getKanji());
+            assertThat(matches).hasSize(1);
+            assertThat(matches.get(0).getWord()).isSameAs(wordDictionary.get(word.getKanji()));
+        }
+    }
+
+    /**
+     * Puts the same words from many threads at once.  Each word must only be added once.
+     */
+    @Test
+    public void concurrentDuplicatePutTest() throws Exception {
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<JapaneseWord> words = new ArrayList<>();
+        for (int i = 1; i < KANJI; i++) {
+            words.add(word(0, i, 0, "word " + i));
+        }
+
+        hammer(thread -> {
+            for (int i = 1; i < KANJI; i++) {
+                try {
+                    wordDictionary.put(word(0, i, thread % READINGS.length, "word " + i));
+                    added.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(added.get()).isEqualTo(KANJI - 1);
+        assertThat(rejected.get()).isEqualTo((KANJI - 1) * (THREADS - 1));
+        assertConsistent(words);
+    }
+
+    /**
+     * Replaces the same words with different readings from many threads at once.
+     */
+    @Test
+    public void concurrentReplaceTest() throws Exception {
+        List<JapaneseWord> words = new ArrayList<>();
+        for (int i = 1; i < KANJI; i++) {
+            JapaneseWord word = word(i, (i + 1) % KANJI, 0, "word " + i);
+            wordDictionary.put(word);
+            words.add(word);
+        }
+
+        hammer(thread -> {
+            for (int round = 0; round < 50; round++) {
+                for (int i = 1; i < KANJI; i++) {
+                    wordDictionary.replace(word(i, (i + 1) % KANJI, (thread + round) % READINGS.length, "word " + i));
+                }
+            }
+        });
+
+        assertConsistent(words);
+    }
+
+    /**
+     * A task that is given the index of the thread it runs on.
+     */
+    private interface TaskWithIndex {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Puts batches of words from many threads at once, each batch sharing some words with the next thread's.
+     */
+    @Test
+    public void concurrentPutAllTest() throws Exception {
+        List<JapaneseWord> words = new ArrayList<>();
+        for (int first = 0; first < KANJI; first++) {
+            for (int second = 0; second < KANJI; second++) {
+                if (first != second) {
+                    words.add(word(first, second, (first + second) % READINGS.length, "word"));
+                }
+            }
+        }
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        hammer(thread -> {
+            int from = thread * words.size() / THREADS;
+            int to = Math.min(words.size(), (thread + 2) * words.size() / THREADS);
+            for (int i = from; i < to; i += 100) {
+                List<JapaneseWord> batch = new ArrayList<>();
+                for (int j = i; j < Math.min(to, i + 100); j++) {
+                    JapaneseWord word = words.get(j);
+                    batch.add(word(word.getKanji().charAt(0) - 0x4E00, word.getKanji().charAt(1) - 0x4E00,
+                        (word.getKanji().charAt(0) + word.getKanji().charAt(1) - 2 * 0x4E00) % READINGS.length, "word"));
+                }
+                added.addAndGet(wordDictionary.putAll(batch, (e, index) -> rejected.incrementAndGet()));
+            }
+        });
+
+        assertThat(added.get()).isEqualTo(words.size());
+        assertThat(added.get() + rejected.get()).isEqualTo(words.size() + words.size() * (THREADS - 1) / THREADS);
+        assertConsistent(words);
+    }
+}
@@ -0,0 +1,79 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+
+public class FenwickTreeTest implements TestingConstants {
+    /**
+     * Tests that each point of the total is found in the index whose weight covers it.
+     */
+    @Test
+    public void findTest() {
+        FenwickTree tree = new FenwickTree(4);
+        tree.set(0, 2);
+        tree.set(2, 3);
+        tree.set(3, 1);
+        assertThat(tree.total()).isEqualTo(6);
+        assertThat(tree.find(0)).isZero();
+        assertThat(tree.find(1)).isZero();
+        assertThat(tree.find(2)).isEqualTo(2);
+        assertThat(tree.find(4)).isEqualTo(2);
+        assertThat(tree.find(5)).isEqualTo(3);
+
+        tree.set(2, 0);
+        assertThat(tree.total()).isEqualTo(3);
+        assertThat(tree.find(2)).isEqualTo(3);
+        assertThat(tree.get(2)).isZero();
+    }
+
+    /**
+     * Tests that the tree finds the same indexes as a scan of the weights, as it grows and its weights change.
+     */
+    @Test
+    public void growTest() {
+        Random random = new Random(0);
+        FenwickTree tree = new FenwickTree(0);
+        long[] weights = new long[1000];
+        for (int i = 0; i < 5000; i++) {
+            int index = random.nextInt(i < 1000 ? i + 1 : weights.length);
+            weights[index] = random.nextInt(100);
+            tree.set(index, weights[index]);
+        }
+
+        long total = 0;
+        for (long weight : weights) {
+            total += weight;
+        }
+        assertThat(tree.total()).isEqualTo(total);
+        for (int i = 0; i < 1000; i++) {
+            long point = (long) (random.nextDouble() * total);
+            int expected = 0;
+            long sum = weights[0];
+            while (sum <= point) {
+                sum += weights[++expected];
+            }
+            assertThat(tree.find(point)).isEqualTo(expected);
+            assertThat(tree.get(expected)).isEqualTo(weights[expected]);
+        }
+    }
+
+    /**
+     * Tests invalid indexes, weights, and points.
+     */
+    @Test
+    public void invalidTest() {
+        FenwickTree tree = new FenwickTree(2);
+        assertThatThrownBy(() -> tree.find(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tree.set(-1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tree.set(0, -1)).isInstanceOf(IllegalArgumentException.class);
+        tree.set(5, 1);
+        assertThatThrownBy(() -> tree.find(1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(tree.find(0)).isEqualTo(5);
+    }
+}
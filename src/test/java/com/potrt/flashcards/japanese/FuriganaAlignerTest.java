@@ -0,0 +1,117 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+
+public class FuriganaAlignerTest implements TestingConstants {
+    private JapaneseKanjiDictionary kanjiDictionary;
+    private JapaneseWordDictionary dictionary;
+    private JapaneseKanji one;
+    private JapaneseKanji person;
+    private JapaneseKanji see;
+    private FuriganaAligner aligner;
+
+    @Before
+    public void setup() {
+        kanjiDictionary = new JapaneseKanjiDictionary();
+        one = kanjiDictionary.create(oneKanji, oneMeaning);
+        person = kanjiDictionary.create(personKanji, personMeaning);
+        see = kanjiDictionary.create(seeKanji, seeMeaning);
+        kanjiDictionary.create(drinkKanji, drinkMeaning);
+        kanjiDictionary.create(playKanji, playMeaning);
+        dictionary = new JapaneseWordDictionary(kanjiDictionary);
+
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(one.withReading(wordOnePersonOneFurigana));
+        builder.add("つ");
+        dictionary.put(new JapaneseWord(builder, wordOneDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(one.withReading(wordOneAlternateFurigana));
+        dictionary.put(new JapaneseWord(builder, wordOneDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(personKanjiReadingPerson));
+        dictionary.put(new JapaneseWord(builder, wordPersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(see.withReading(ichidanVerbToSeeFuriganaBase));
+        builder.add(ichidanDictionaryEnding);
+        dictionary.put(new JapaneseWord(builder, ichidanVerbToSeeDefinition));
+
+        aligner = new FuriganaAligner(kanjiDictionary);
+    }
+
+    /**
+     * Aligns a word and packs it.
+     * @param word The word as written.
+     * @param reading The reading of the whole word.
+     * @return The {@link JapaneseWordSegments}.
+     */
+    private JapaneseWordSegments align(String word, String reading) {
+        JapaneseWordSegments segments = aligner.align(word, reading).toSegments();
+        assertThat(segments.getSurface()).isEqualTo(word);
+        assertThat(segments.getReading()).isEqualTo(reading);
+        return segments;
+    }
+
+    /**
+     * Tests splitting readings by the known readings of each kanji, and by kana.
+     */
+    @Test
+    public void knownTest() {
+        JapaneseWordSegments segments = align(wordOneKanji, wordOneFurigana);
+        assertThat(segments.size()).isEqualTo(2);
+        assertThat(segments.getKanji(0)).isSameAs(one.withReading(wordOnePersonOneFurigana));
+
+        // The one reading of 人 that is not known is the one left over.
+        segments = align(wordOnePersonKanji, wordOnePersonFurigana);
+        assertThat(segments.getKanji(0)).isSameAs(one.withReading(wordOnePersonOneFurigana));
+        assertThat(segments.getKanji(1)).isSameAs(person.withReading(wordOnePersonPersonFurigana));
+
+        // A kanji with no known readings is read up to the kana after it.
+        segments = align(godanVerbToDrinkKanjiBase + godanVerbToDrinkEnding, godanVerbToDrinkFuriganaBase + godanVerbToDrinkEnding);
+        assertThat(segments.getKanji(0).getFurigana()).isEqualTo(godanVerbToDrinkFuriganaBase);
+
+        segments = align(irregularVerbToDoKana, irregularVerbToDoKana);
+        assertThat(segments.size()).isEqualTo(1);
+        assertThat(segments.isKanji(0)).isFalse();
+    }
+
+    /**
+     * Tests readings changed by rendaku and small tsu.
+     */
+    @Test
+    public void variantTest() {
+        JapaneseWordSegments segments = align(wordPersonKanji + wordPersonKanji, "ひとびと");
+        assertThat(segments.getKanji(0)).isSameAs(person.withReading(personKanjiReadingPerson));
+        assertThat(segments.getKanji(1)).isSameAs(person.withReading("びと"));
+
+        segments = align(String.valueOf(oneKanji) + seeKanji, "いっけん");
+        assertThat(segments.getKanji(0)).isSameAs(one.withReading("いっ"));
+        assertThat(segments.getKanji(1)).isSameAs(see.withReading("けん"));
+    }
+
+    /**
+     * Tests words whose reading cannot be split.
+     */
+    @Test
+    public void invalidTest() {
+        // The kana do not match.
+        assertThatThrownBy(() -> aligner.align(wordOneKanji, "ひとり")).isInstanceOf(IllegalArgumentException.class);
+        // Neither kanji has a reading that fits, so the reading could be split many ways.
+        assertThatThrownBy(() -> aligner.align(godanVerbToDrinkKanjiBase + godanVerbToPlayKanjiBase, "のあそ"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> aligner.align(wordIKanji, wordIFurigana)).isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("not in the kanji dictionary");
+        assertThatThrownBy(() -> aligner.align(wordPersonKanji, "")).isInstanceOf(IllegalArgumentException.class);
+
+        // The aligner can be used again after a word fails.
+        assertThat(align(wordOnePersonKanji, wordOnePersonFurigana).size()).isEqualTo(2);
+    }
+}
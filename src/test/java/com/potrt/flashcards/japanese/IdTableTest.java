@@ -0,0 +1,44 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+
+public class IdTableTest implements TestingConstants {
+    /**
+     * Tests that ids are given out densely and looked up both ways, past the initial capacity.
+     */
+    @Test
+    public void addTest() {
+        IdTable<String> table = new IdTable<>("string");
+        for (int i = 0; i < 1000; i++) {
+            assertThat(table.add("s" + i)).isEqualTo(i);
+        }
+        assertThat(table.size()).isEqualTo(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(table.get(i)).isEqualTo("s" + i);
+        }
+    }
+
+    /**
+     * Tests restoring ids out of order, and that holes are not found until they are filled.
+     */
+    @Test
+    public void putTest() {
+        IdTable<String> table = new IdTable<>("string");
+        table.put(100, "b");
+        table.put(0, "a");
+        assertThat(table.size()).isEqualTo(101);
+        assertThat(table.get(100)).isEqualTo("b");
+        assertThatThrownBy(() -> table.get(50)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(table.add("c")).isEqualTo(101);
+
+        assertThatThrownBy(() -> table.put(0, "d")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> table.put(-1, "d")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> table.get(102)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> table.get(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
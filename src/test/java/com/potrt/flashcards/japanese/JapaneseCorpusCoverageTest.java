@@ -0,0 +1,197 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.potrt.flashcards.TestingConstants;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+
+public class JapaneseCorpusCoverageTest implements TestingConstants {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JapaneseKanjiDictionary kanjiDictionary;
+    private JapaneseWordDictionary dictionary;
+    private JapaneseKanji i;
+    private JapaneseKanji one;
+    private JapaneseKanji person;
+    private JapaneseWord wordI;
+    private JapaneseWord wordOnePerson;
+    private JapaneseWord wordPerson;
+
+    @Before
+    public void setup() {
+        kanjiDictionary = new JapaneseKanjiDictionary();
+        i = kanjiDictionary.create(IKanji, IMeaning);
+        one = kanjiDictionary.create(oneKanji, oneMeaning);
+        person = kanjiDictionary.create(personKanji, personMeaning);
+        dictionary = new JapaneseWordDictionary(kanjiDictionary);
+
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(i.withReading(wordIFurigana));
+        dictionary.put(new JapaneseWord(builder, wordIDefinition));
+        wordI = dictionary.get(wordIKanji);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(one.withReading(wordOnePersonOneFurigana));
+        builder.add(person.withReading(wordOnePersonPersonFurigana));
+        dictionary.put(new JapaneseWord(builder, wordOnePersonDefinition));
+        wordOnePerson = dictionary.get(wordOnePersonKanji);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(personKanjiReadingPerson));
+        dictionary.put(new JapaneseWord(builder, wordPersonDefinition));
+        wordPerson = dictionary.get(wordPersonKanji);
+    }
+
+    /**
+     * Writes a corpus to a new file.
+     * @param text The text of the corpus.
+     * @return The path of the file.
+     * @throws IOException Thrown when the file cannot be written.
+     */
+    private Path corpus(String text) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    /**
+     * Tests counting words and readings, written in kanji and furigana.
+     * @throws IOException Thrown when the corpus cannot be written or read.
+     */
+    @Test
+    public void countTest() throws IOException {
+        Path path = corpus("私は一人です。\n人と人。\nわたしはひとりです。");
+
+        JapaneseCorpusCoverage coverage = JapaneseCorpusCoverage.analyze(path, dictionary);
+        assertThat(coverage.getCount(wordI)).isEqualTo(1);
+        assertThat(coverage.getCount(wordOnePerson)).isEqualTo(1);
+        assertThat(coverage.getCount(wordPerson)).isEqualTo(2);
+        assertThat(coverage.getWordOccurrences()).isEqualTo(4);
+        assertThat(coverage.getCount(i.withReading(wordIFurigana))).isEqualTo(1);
+        assertThat(coverage.getCount(one.withReading(wordOnePersonOneFurigana))).isEqualTo(1);
+        assertThat(coverage.getCount(person.withReading(wordOnePersonPersonFurigana))).isEqualTo(1);
+        assertThat(coverage.getCount(person.withReading(personKanjiReadingPerson))).isEqualTo(2);
+        assertThat(coverage.getReadingOccurrences()).isEqualTo(5);
+        assertThat(coverage.getCharacters()).isEqualTo(23);
+
+        // Words written in furigana count for the word, but not its readings.
+        coverage = JapaneseCorpusCoverage.analyze(path, dictionary, true, ForkJoinPool.commonPool());
+        assertThat(coverage.getCount(wordI)).isEqualTo(2);
+        assertThat(coverage.getCount(wordOnePerson)).isEqualTo(2);
+        assertThat(coverage.getCount(wordPerson)).isEqualTo(2);
+        assertThat(coverage.getCount(i.withReading(wordIFurigana))).isEqualTo(1);
+        assertThat(coverage.getReadingOccurrences()).isEqualTo(5);
+
+        // Words from another dictionary, or added after the scan, were not counted.
+        JapaneseKanjiDictionary otherKanji = new JapaneseKanjiDictionary();
+        JapaneseWordDictionary other = new JapaneseWordDictionary(otherKanji);
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(otherKanji.create(IKanji, IMeaning).withReading(wordIFurigana));
+        other.put(new JapaneseWord(builder, wordIDefinition));
+        JapaneseWord otherI = other.get(wordIKanji);
+        assertThat(coverage.getCount(otherI)).isZero();
+        assertThat(coverage.getCount(otherI.getSegments().getKanji(0))).isZero();
+
+        builder = new JapaneseWordBuilder();
+        builder.add(one.withReading(wordOneAlternateFurigana));
+        dictionary.put(new JapaneseWord(builder, wordOneDefinition));
+        JapaneseWord later = dictionary.get(wordOneAlternateKanji);
+        assertThat(coverage.getCount(later)).isZero();
+        assertThat(coverage.getCount(one.withReading(wordOneAlternateFurigana))).isZero();
+    }
+
+    /**
+     * Tests that a corpus cut into many segments, scanned by several threads, is counted exactly once.
+     * @throws IOException Thrown when the corpus cannot be written or read.
+     */
+    @Test
+    public void segmentTest() throws IOException {
+        int lines = 150_000;
+        Path path = folder.newFile().toPath();
+        byte[] line = "私は一人です。\n".getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = Files.newOutputStream(path)) {
+            for (int n = 0; n < lines; n++) {
+                out.write(line);
+            }
+        }
+        assertThat(Files.size(path)).isGreaterThan(3L << 20);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            JapaneseCorpusCoverage coverage = JapaneseCorpusCoverage.analyze(path, dictionary, false, pool);
+            assertThat(coverage.getCount(wordI)).isEqualTo(lines);
+            assertThat(coverage.getCount(wordOnePerson)).isEqualTo(lines);
+            assertThat(coverage.getCount(wordPerson)).isZero();
+            assertThat(coverage.getCount(person.withReading(wordOnePersonPersonFurigana))).isEqualTo(lines);
+            assertThat(coverage.getCharacters()).isEqualTo(8L * lines);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests that words in a line longer than a chunk are counted, including one cut in two by the end of the first chunk.
+     * @throws IOException Thrown when the corpus cannot be written or read.
+     */
+    @Test
+    public void longLineTest() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int n = 0; n < (1 << 16) - 1; n++) {
+            text.append('x');
+        }
+        text.append(wordOnePersonKanji);
+        for (int n = 0; n < 100_000; n++) {
+            text.append(n % 1000 == 0 ? wordIKanji : "x");
+        }
+        text.append('\n');
+
+        JapaneseCorpusCoverage coverage = JapaneseCorpusCoverage.analyze(corpus(text.toString()), dictionary);
+        assertThat(coverage.getCount(wordOnePerson)).isEqualTo(1);
+        assertThat(coverage.getCount(wordPerson)).isZero();
+        assertThat(coverage.getCount(wordI)).isEqualTo(100);
+        assertThat(coverage.getCharacters()).isEqualTo(text.length());
+    }
+
+    /**
+     * Tests weighting a learner's scores by how often each reading and word occurs.
+     * @throws IOException Thrown when the corpus cannot be written or read.
+     */
+    @Test
+    public void coverageTest() throws IOException {
+        JapaneseCorpusCoverage coverage = JapaneseCorpusCoverage.analyze(corpus("私は一人です。\n人と人。\n"), dictionary);
+
+        JapaneseUserScores scores = new JapaneseUserScores(kanjiDictionary);
+        assertThat(coverage.getReadingCoverage(scores::getScore)).isZero();
+        assertThat(coverage.getWordCoverage(scores::getScore)).isZero();
+
+        scores.attempt(person.withReading(personKanjiReadingPerson), true);
+        scores.attempt(person.withReading(wordOnePersonPersonFurigana), true);
+        scores.attempt(one.withReading(wordOnePersonOneFurigana), true);
+        scores.attempt(one.withReading(wordOnePersonOneFurigana), false);
+
+        // 私 is not known, 一 is half known, and 人 is known in both readings.
+        assertThat(coverage.getReadingCoverage(scores::getScore)).isCloseTo((0 + 0.5 + 1 + 2) / 5.0, within(1e-9));
+        assertThat(coverage.getWordCoverage(scores::getScore)).isCloseTo((0 + 0.5 + 2) / 4.0, within(1e-9));
+
+        // The dictionary's own scores are separate.
+        assertThat(coverage.getReadingCoverage(JapaneseKanjiWithReading::getScore)).isZero();
+
+        JapaneseCorpusCoverage empty = JapaneseCorpusCoverage.analyze(corpus(""), dictionary);
+        assertThat(empty.getWordOccurrences()).isZero();
+        assertThat(empty.getWordCoverage(scores::getScore)).isZero();
+    }
+}
@@ -0,0 +1,191 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.potrt.flashcards.ReadOnlyScore;
+import com.potrt.flashcards.TestingConstants;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+
+public class JapaneseDictionarySnapshotTest implements TestingConstants {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JapaneseKanjiDictionary kanjiDictionary;
+    private JapaneseWordDictionary wordDictionary;
+    private Path path;
+
+    @Before
+    public void setup() throws IOException {
+        kanjiDictionary = new JapaneseKanjiDictionary();
+        JapaneseKanji one = kanjiDictionary.create(oneKanji, oneMeaning);
+        JapaneseKanji person = kanjiDictionary.create(personKanji, personMeaning);
+        JapaneseKanji drink = kanjiDictionary.create(drinkKanji, drinkMeaning);
+        kanjiDictionary.create(playKanji, playMeaning);
+        wordDictionary = new JapaneseWordDictionary(kanjiDictionary);
+
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(one.withReading(wordOnePersonOneFurigana));
+        builder.add(person.withReading(wordOnePersonPersonFurigana));
+        wordDictionary.put(new JapaneseWord(builder, wordOnePersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(personKanjiReadingPerson));
+        wordDictionary.put(new JapaneseWord(builder, wordPersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(personKanjiReadingPerson));
+        builder.add(desu);
+        wordDictionary.put(new JapaneseWord(builder, wordAmPersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(drink.withReading(godanVerbToDrinkFuriganaBase));
+        builder.add(godanVerbToDrinkEnding);
+        wordDictionary.put(new JapaneseVerb(builder, godanVerbToDrinkDefinition, JapaneseVerbType.GODAN));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(irregularVerbToDoKana);
+        wordDictionary.put(new JapaneseVerb(builder, irregularVerbToDoDefinition, JapaneseVerbType.IRREGULAR));
+
+        wordDictionary.get(wordOnePersonKanji).attempt(true);
+        wordDictionary.get(wordOnePersonKanji).attempt(false);
+        wordDictionary.get(wordPersonKanji).attempt(true);
+
+        path = folder.getRoot().toPath().resolve("dictionary.snapshot");
+        JapaneseDictionarySnapshot.write(wordDictionary, path);
+    }
+
+    /**
+     * Tests that every kanji, reading, score, and word is read back with its id.
+     */
+    @Test
+    public void roundTripTest() throws IOException {
+        JapaneseKanjiDictionary readKanji = new JapaneseKanjiDictionary();
+        JapaneseWordDictionary readWords = new JapaneseWordDictionary(readKanji);
+        assertThat(JapaneseDictionarySnapshot.read(path, readWords)).isZero();
+
+        assertThat(readKanji.size()).isEqualTo(4);
+        assertThat(readWords.size()).isEqualTo(5);
+        for (Character kanji : Arrays.asList(oneKanji, personKanji, drinkKanji, playKanji)) {
+            JapaneseKanji original = kanjiDictionary.get(kanji);
+            JapaneseKanji read = readKanji.get(kanji);
+            assertThat(read.getMeaning()).isEqualTo(original.getMeaning());
+            assertThat(read.getId()).isEqualTo(original.getId());
+            assertThat(read.getReadings()).isEqualTo(original.getReadings());
+            assertThat(read.numWords()).isEqualTo(original.numWords());
+            assertThat(read.getScore().getAttempts()).isEqualTo(original.getScore().getAttempts());
+            assertThat(read.getScore().getSuccesses()).isEqualTo(original.getScore().getSuccesses());
+            for (String reading : original.getReadings()) {
+                assertThat(read.numWords(reading)).isEqualTo(original.numWords(reading));
+                assertThat(read.getScore(reading).getAttempts()).isEqualTo(original.getScore(reading).getAttempts());
+                assertThat(read.getScore(reading).getSuccesses()).isEqualTo(original.getScore(reading).getSuccesses());
+                assertThat(read.withReading(reading).getId()).isEqualTo(original.withReading(reading).getId());
+            }
+        }
+
+        for (String kanji : Arrays.asList(wordOnePersonKanji, wordPersonKanji, wordAmPersonKanji, godanVerbToDrinkKanjiBase + godanVerbToDrinkEnding, irregularVerbToDoKana)) {
+            assertThat(readWords.get(kanji)).isEqualTo(wordDictionary.get(kanji));
+            assertThat(readWords.get(kanji).getId()).isEqualTo(wordDictionary.get(kanji).getId());
+        }
+        assertThat(readWords.get(irregularVerbToDoKana)).isInstanceOf(JapaneseVerb.class);
+        assertThat(readWords.get(wordPersonKanji)).isNotInstanceOf(JapaneseVerb.class);
+        assertThat(readWords.getWordsByFurigana(wordOnePersonFurigana)).containsExactly(readWords.get(wordOnePersonKanji));
+        assertThat(readWords.prefixSearch(personKanjiReadingPerson, 10)).hasSize(3);
+    }
+
+    /**
+     * Tests that read words share the readings of their kanji, so attempts and replacements update them.
+     */
+    @Test
+    public void readWordsAreAttachedTest() throws IOException {
+        JapaneseKanjiDictionary readKanji = new JapaneseKanjiDictionary();
+        JapaneseWordDictionary readWords = new JapaneseWordDictionary(readKanji);
+        JapaneseDictionarySnapshot.read(path, readWords);
+
+        JapaneseWord wordOnePerson = readWords.get(wordOnePersonKanji);
+        JapaneseKanji person = readKanji.get(personKanji);
+        assertThat(wordOnePerson.getSegments().getKanji(1)).isSameAs(person.withReading(wordOnePersonPersonFurigana));
+
+        wordOnePerson.attempt(true);
+        assertThat(person.getScore(wordOnePersonPersonFurigana).getAttempts()).isEqualTo(3);
+        assertThat(person.getScore().getAttempts()).isEqualTo(4);
+        assertThat(person.getScore().getSuccesses()).isEqualTo(3);
+
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(personKanjiReadingPerson));
+        readWords.replace(new JapaneseWord(builder, personMeaningAlternate));
+        assertThat(person.getReadings()).containsExactly(personKanjiReadingPerson, wordOnePersonPersonFurigana);
+        assertThat(person.numWords(personKanjiReadingPerson)).isEqualTo(2);
+    }
+
+    /**
+     * Tests reading into concurrent dictionaries.
+     */
+    @Test
+    public void concurrentReadTest() throws IOException {
+        ConcurrentJapaneseKanjiDictionary readKanji = new ConcurrentJapaneseKanjiDictionary();
+        ConcurrentJapaneseWordDictionary readWords = new ConcurrentJapaneseWordDictionary(readKanji);
+        JapaneseDictionarySnapshot.read(path, readWords);
+
+        assertThat(readWords.size()).isEqualTo(5);
+        // Reading scores are only shown through a read-only view.
+        JapaneseKanjiWithReading reading = readKanji.get(personKanji).withReading(personKanjiReadingPerson);
+        assertThat(reading.getScore()).isInstanceOf(ReadOnlyScore.class);
+        assertThat(reading.getScore().getSuccesses()).isEqualTo(1);
+    }
+
+    /**
+     * Tests that a snapshot cannot be read into a dictionary that is not empty.
+     */
+    @Test
+    public void readIntoNonEmptyTest() {
+        assertThatThrownBy(() -> JapaneseDictionarySnapshot.read(path, wordDictionary)).isInstanceOf(IllegalStateException.class);
+
+        JapaneseKanjiDictionary readKanji = new JapaneseKanjiDictionary();
+        readKanji.create(oneKanji, oneMeaning);
+        assertThatThrownBy(() -> JapaneseDictionarySnapshot.read(path, new JapaneseWordDictionary(readKanji))).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * Tests that files that are not valid snapshots are rejected.
+     */
+    @Test
+    public void invalidSnapshotTest() throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+
+        Path truncated = folder.newFile().toPath();
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThatThrownBy(() -> JapaneseDictionarySnapshot.read(truncated, new JapaneseWordDictionary(new JapaneseKanjiDictionary())))
+            .isInstanceOf(IOException.class);
+
+        Path trailing = folder.newFile().toPath();
+        Files.write(trailing, Arrays.copyOf(bytes, bytes.length + 1));
+        assertThatThrownBy(() -> JapaneseDictionarySnapshot.read(trailing, new JapaneseWordDictionary(new JapaneseKanjiDictionary())))
+            .isInstanceOf(IOException.class);
+
+        Path version = folder.newFile().toPath();
+        byte[] otherVersion = bytes.clone();
+        otherVersion[7]++;
+        Files.write(version, otherVersion);
+        assertThatThrownBy(() -> JapaneseDictionarySnapshot.read(version, new JapaneseWordDictionary(new JapaneseKanjiDictionary())))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("version");
+
+        Path text = folder.newFile().toPath();
+        Files.write(text, "kanji,readings,definition".getBytes("UTF-8"));
+        assertThatThrownBy(() -> JapaneseDictionarySnapshot.read(text, new JapaneseWordDictionary(new JapaneseKanjiDictionary())))
+            .isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,158 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+
+public class JapaneseFlashcardSchedulerTest implements TestingConstants {
+    private static final long DAY = JapaneseFlashcardScheduler.DAY_MILLIS;
+
+    private long now;
+    private JapaneseFlashcardScheduler scheduler;
+    private JapaneseFlashcard personCard;
+    private JapaneseFlashcard onePersonCard;
+
+    @Before
+    public void setup() {
+        now = 1_000_000;
+        scheduler = new JapaneseFlashcardScheduler(() -> now, 0);
+
+        JapaneseKanji one = new JapaneseKanji(oneKanji, oneMeaning);
+        JapaneseKanji person = new JapaneseKanji(personKanji, personMeaning);
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(personKanjiReadingPerson));
+        personCard = new JapaneseFlashcard(new JapaneseWord(builder, wordPersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(one.withReading(wordOnePersonOneFurigana));
+        builder.add(person.withReading(wordOnePersonPersonFurigana));
+        onePersonCard = new JapaneseFlashcard(new JapaneseWord(builder, wordOnePersonDefinition));
+    }
+
+    /**
+     * Tests that new cards are due at once, in the order they were added.
+     */
+    @Test
+    public void newCardsTest() {
+        assertThat(scheduler.nextDue()).isEqualTo(-1);
+        assertThat(scheduler.nextDueTime()).isEqualTo(Long.MAX_VALUE);
+
+        int person = scheduler.add(personCard);
+        int onePerson = scheduler.add(onePersonCard);
+        assertThat(person).isZero();
+        assertThat(onePerson).isEqualTo(1);
+        assertThat(scheduler.size()).isEqualTo(2);
+        assertThat(scheduler.getCard(onePerson)).isSameAs(onePersonCard);
+        assertThat(scheduler.getDue(person)).isEqualTo(now);
+        assertThat(scheduler.getEase(person)).isEqualTo(JapaneseFlashcardScheduler.INITIAL_EASE);
+        assertThat(scheduler.nextDue()).isEqualTo(person);
+
+        scheduler.review(person, 4);
+        assertThat(scheduler.nextDue()).isEqualTo(onePerson);
+        scheduler.review(onePerson, 4);
+        assertThat(scheduler.nextDue()).isEqualTo(-1);
+        assertThat(scheduler.nextDueTime()).isEqualTo(now + DAY);
+    }
+
+    /**
+     * Tests the SM-2 intervals and eases of passing reviews.
+     */
+    @Test
+    public void passingReviewsTest() {
+        int card = scheduler.add(personCard);
+        scheduler.review(card, 4);
+        assertThat(scheduler.getInterval(card)).isEqualTo(1);
+        assertThat(scheduler.getRepetitions(card)).isEqualTo(1);
+
+        scheduler.review(card, 4);
+        assertThat(scheduler.getInterval(card)).isEqualTo(6);
+
+        scheduler.review(card, 4);
+        assertThat(scheduler.getInterval(card)).isEqualTo(15);
+        assertThat(scheduler.getEase(card)).isEqualTo(250);
+        assertThat(scheduler.getDue(card)).isEqualTo(now + 15 * DAY);
+
+        scheduler.review(card, 5);
+        assertThat(scheduler.getEase(card)).isEqualTo(260);
+        assertThat(scheduler.getInterval(card)).isEqualTo(38);
+
+        scheduler.review(card, 3);
+        assertThat(scheduler.getEase(card)).isEqualTo(246);
+        assertThat(scheduler.getInterval(card)).isEqualTo(99);
+        assertThat(scheduler.getRepetitions(card)).isEqualTo(5);
+    }
+
+    /**
+     * Tests that a failing review starts the repetitions again, and that the ease never falls below the minimum.
+     */
+    @Test
+    public void failingReviewsTest() {
+        int card = scheduler.add(personCard);
+        scheduler.review(card, 5);
+        scheduler.review(card, 5);
+        scheduler.review(card, 2);
+        assertThat(scheduler.getRepetitions(card)).isZero();
+        assertThat(scheduler.getInterval(card)).isEqualTo(1);
+        assertThat(scheduler.getDue(card)).isEqualTo(now + DAY);
+
+        for (int i = 0; i < 10; i++) {
+            scheduler.review(card, 0);
+        }
+        assertThat(scheduler.getEase(card)).isEqualTo(JapaneseFlashcardScheduler.MIN_EASE);
+
+        scheduler.review(card, 4);
+        scheduler.review(card, 4);
+        scheduler.review(card, 4);
+        assertThat(scheduler.getInterval(card)).isEqualTo(8);
+    }
+
+    /**
+     * Tests that cards come due in the order of their due times as the clock moves on, with many cards.
+     */
+    @Test
+    public void dueOrderTest() {
+        Random random = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            int card = scheduler.add(i % 2 == 0 ? personCard : onePersonCard);
+            scheduler.review(card, random.nextInt(6));
+            now += random.nextInt(1000);
+        }
+        for (int i = 0; i < 1000; i++) {
+            scheduler.review(random.nextInt(1000), random.nextInt(6));
+        }
+
+        now += 10_000 * DAY;
+        long previous = Long.MIN_VALUE;
+        int reviewed = 0;
+        int card;
+        while ((card = scheduler.nextDue()) >= 0 && reviewed < 1000) {
+            assertThat(scheduler.getDue(card)).isGreaterThanOrEqualTo(previous);
+            previous = scheduler.getDue(card);
+            assertThat(scheduler.nextDueTime()).isEqualTo(previous);
+            scheduler.review(card, 5);
+            assertThat(scheduler.getDue(card)).isGreaterThan(now);
+            reviewed++;
+        }
+        assertThat(reviewed).isEqualTo(1000);
+        assertThat(scheduler.nextDue()).isEqualTo(-1);
+    }
+
+    /**
+     * Tests invalid card ids, grades, and capacities.
+     */
+    @Test
+    public void invalidTest() {
+        int card = scheduler.add(personCard);
+        assertThatThrownBy(() -> scheduler.review(card, -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> scheduler.review(card, 6)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> scheduler.review(1, 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> scheduler.getCard(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new JapaneseFlashcardScheduler(() -> now, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
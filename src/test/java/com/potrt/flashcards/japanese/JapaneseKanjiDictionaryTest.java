@@ -1,6 +1,7 @@
 package com.potrt.flashcards.japanese;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -26,6 +27,23 @@ public class JapaneseKanjiDictionaryTest implements TestingConstants {
         assertThat(kanji.getMeaning()).isEqualTo(personMeaning);
     }
 
+    /**
+     * Tests that kanji are given dense ids in the order they are added, and can be looked up by them.
+     */
+    @Test
+    public void idTest() {
+        JapaneseKanji person = kanjiDicitonary.create(personKanji, personMeaning);
+        JapaneseKanji one = kanjiDicitonary.get(oneKanji);
+        assertThat(kanjiDicitonary.create(personKanji, personMeaning)).isSameAs(person);
+
+        assertThat(person.getId()).isEqualTo(0);
+        assertThat(one.getId()).isEqualTo(1);
+        assertThat(kanjiDicitonary.getKanji(0)).isSameAs(person);
+        assertThat(kanjiDicitonary.getKanji(1)).isSameAs(one);
+        assertThat(new JapaneseKanji(oneKanji, oneMeaning).getId()).isEqualTo(-1);
+        assertThatThrownBy(() -> kanjiDicitonary.getKanji(2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
     /**
      * Create multiple kanji for the dictionary.
      */
@@ -69,4 +87,34 @@ public class JapaneseKanjiDictionaryTest implements TestingConstants {
         assertThat(kanji.getKanji()).isEqualTo(personKanji);
         assertThat(kanji.getMeaning()).isEqualTo("?");
     }
+
+    /**
+     * Gets kanji by code point.
+     */
+    @Test
+    public void codePointTest() {
+        JapaneseKanji kanji = kanjiDicitonary.create(personKanji, personMeaning);
+        assertThat(kanjiDicitonary.get((int) personKanji.charValue())).isSameAs(kanji);
+        assertThat(kanjiDicitonary.get(wordPersonKanji.codePointAt(0))).isSameAs(kanji);
+        assertThat(kanjiDicitonary.size()).isEqualTo(1);
+
+        // 𠀋 is a kanji from CJK Extension B, which is outside the Basic Multilingual Plane.
+        assertThatThrownBy(() -> kanjiDicitonary.get("𠀋".codePointAt(0))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Creates every kanji of the CJK Unified Ideographs block.
+     */
+    @Test
+    public void manyKanjiTest() {
+        for (char c = 0x4E00; c <= 0x9FFF; c++) {
+            kanjiDicitonary.create(c, "kanji");
+        }
+        assertThat(kanjiDicitonary.size()).isEqualTo(0x9FFF - 0x4E00 + 1);
+        for (char c = 0x4E00; c <= 0x9FFF; c++) {
+            JapaneseKanji kanji = kanjiDicitonary.get(c);
+            assertThat(kanji.getKanji()).isEqualTo(c);
+            assertThat(kanji.getMeaning()).isEqualTo("kanji");
+        }
+    }
 }
@@ -1,10 +1,16 @@
 package com.potrt.flashcards.japanese;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.potrt.flashcards.ConcurrentScore;
 import com.potrt.flashcards.Score;
 import com.potrt.flashcards.TestingConstants;
 import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
@@ -56,7 +62,55 @@ public class JapaneseKanjiTest implements TestingConstants {
     public void getNonexistantTest() {
         assertThat(kanji.getWords(wordOnePersonPersonFurigana)).isEmpty();
         assertThat(kanji.numWords(wordOnePersonPersonFurigana)).isZero();
+        assertThat(kanji.getWordsView(wordOnePersonPersonFurigana)).isEmpty();
+        assertThat(kanji.withReading(wordOnePersonPersonFurigana).numWords()).isZero();
+        assertThat(kanji.withReading(wordOnePersonPersonFurigana).getWordsView()).isEmpty();
+        assertThat(kanji.numReadings()).isZero();
+    }
+
+    /**
+     * Checks that the views of the words are live, cannot be changed, and visit the same words as the copies.
+     */
+    @Test
+    public void wordsViewTest() {
+        Collection<JapaneseWord> view = kanji.getWordsView();
+        assertThat(view).isEmpty();
 
+        JapaneseKanjiWithReading kanjiWithReading = kanji.withReading(wordOnePersonPersonFurigana);
+        builder.add(kanjiWithReading);
+        builder.add(desu);
+        JapaneseWord word = new JapaneseWord(builder, wordOnePersonDefinition);
+        kanjiWithReading.attachWord(word);
+        Collection<JapaneseWord> readingView = kanjiWithReading.getWordsView();
+
+        JapaneseKanjiWithReading kanjiWithReadingPerson = kanji.withReading(personKanjiReadingPerson);
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiWithReadingPerson);
+        JapaneseWord wordPerson = new JapaneseWord(builder, wordPersonDefinition);
+        kanjiWithReadingPerson.attachWord(wordPerson);
+
+        assertThat(view).containsExactlyInAnyOrder(word, wordPerson);
+        assertThat(readingView).containsExactly(word);
+        assertThat(kanji.getWordsView(personKanjiReadingPerson)).containsExactly(wordPerson);
+        assertThat(kanjiWithReadingPerson.numWords()).isEqualTo(1);
+        assertThat(kanji.numReadings()).isEqualTo(2);
+        assertThatThrownBy(() -> view.clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> readingView.remove(word)).isInstanceOf(UnsupportedOperationException.class);
+
+        List<JapaneseWord> visited = new ArrayList<>();
+        kanji.forEachWord(visited::add);
+        assertThat(visited).containsExactlyInAnyOrderElementsOf(kanji.getWords());
+        visited.clear();
+        kanji.forEachWord(personKanjiReadingPerson, visited::add);
+        kanji.forEachWord(wordOneFurigana, visited::add);
+        assertThat(visited).containsExactly(wordPerson);
+        visited.clear();
+        kanjiWithReading.forEachWord(visited::add);
+        assertThat(visited).containsExactly(word);
+
+        kanjiWithReading.detachWord(word);
+        assertThat(view).containsExactly(wordPerson);
+        assertThat(readingView).isEmpty();
     }
 
     /**
@@ -153,6 +207,26 @@ public class JapaneseKanjiTest implements TestingConstants {
         assertThat(kanji.getWords(personKanjiReadingPerson)).contains(wordPerson).contains(wordAmPerson);
     }
 
+    /**
+     * Checks that readings used by as many words stay in the order they were created.
+     */
+    @Test
+    public void readingOrderTieTest() {
+        String[] readings = { personKanjiReadingPerson, wordOnePersonPersonFurigana, wordOnePersonPersonFurigana, personKanjiReadingPerson };
+        String[] endings = { "", "の", "が", "も" };
+        for (int n = 0; n < readings.length; n++) {
+            JapaneseKanjiWithReading withReading = kanji.withReading(readings[n]);
+            builder = new JapaneseWordBuilder();
+            builder.add(withReading);
+            builder.add(endings[n]);
+            withReading.attachWord(new JapaneseWord(builder, wordPersonDefinition));
+        }
+
+        assertThat(kanji.numWords(personKanjiReadingPerson)).isEqualTo(2);
+        assertThat(kanji.numWords(wordOnePersonPersonFurigana)).isEqualTo(2);
+        assertThat(kanji.getReadings()).containsExactly(personKanjiReadingPerson, wordOnePersonPersonFurigana);
+    }
+
     /**
      * Test different scores and aggregation.
      */
@@ -221,6 +295,23 @@ public class JapaneseKanjiTest implements TestingConstants {
         assertThat(kanji.getScore().getSuccessRate()).isEqualTo(0.5);
     }
 
+    /**
+     * Tests that a reading's score can only be changed by attempting the reading, so the kanji's aggregate score stays the sum of its readings.
+     */
+    @Test
+    public void readOnlyReadingScoreTest() {
+        JapaneseKanjiWithReading withReading = kanji.withReading(personKanjiReadingPerson);
+        builder.add(withReading);
+        withReading.attachWord(new JapaneseWord(builder, wordPersonDefinition));
+
+        assertThatThrownBy(() -> withReading.getScore().attempt(true)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> kanji.getScore(personKanjiReadingPerson).add(new Score(1, 1))).isInstanceOf(UnsupportedOperationException.class);
+
+        withReading.attempt(true);
+        assertThat(withReading.getScore().getAttempts()).isEqualTo(1);
+        assertThat(kanji.getScore().getAttempts()).isEqualTo(1);
+    }
+
     /**
      * Test non-existant score.
      */
@@ -266,4 +357,102 @@ public class JapaneseKanjiTest implements TestingConstants {
 
         assertThat(kanjiOne.numWords()).isZero();
     }
+
+    /**
+     * Test that the aggregated score is a live view that cannot be attempted.
+     */
+    @Test
+    public void aggregateScoreViewTest() {
+        JapaneseKanjiWithReading kanjiWithReadingPerson = kanji.withReading(personKanjiReadingPerson);
+        builder.add(kanjiWithReadingPerson);
+        kanjiWithReadingPerson.attachWord(new JapaneseWord(builder, wordPersonDefinition));
+
+        Score aggregate = kanji.getScore();
+        assertThat(aggregate.getAttempts()).isZero();
+        kanjiWithReadingPerson.attempt(true);
+        kanjiWithReadingPerson.attempt(false);
+
+        assertThat(kanji.getScore()).isSameAs(aggregate);
+        assertThat(aggregate.getAttempts()).isEqualTo(2);
+        assertThat(aggregate.getSuccesses()).isEqualTo(1);
+        assertThatThrownBy(() -> aggregate.attempt(true)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    /**
+     * Test that the reading order is kept as words are attached and detached, and only rebuilt when it changes.
+     */
+    @Test
+    public void readingOrderTest() {
+        JapaneseKanjiWithReading kanjiWithReadingOnePerson = kanji.withReading(wordOnePersonPersonFurigana);
+        JapaneseKanjiWithReading kanjiWithReadingPerson = kanji.withReading(personKanjiReadingPerson);
+
+        builder.add(kanjiWithReadingOnePerson);
+        JapaneseWord wordOnePerson = new JapaneseWord(builder, wordOnePersonDefinition);
+        kanjiWithReadingOnePerson.attachWord(wordOnePerson);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiWithReadingPerson);
+        JapaneseWord wordPerson = new JapaneseWord(builder, wordPersonDefinition);
+        kanjiWithReadingPerson.attachWord(wordPerson);
+
+        // Ties keep the order the readings were created in, and the cached list is reused.
+        List<String> readings = kanji.getReadings();
+        assertThat(readings).containsExactly(wordOnePersonPersonFurigana, personKanjiReadingPerson);
+        assertThat(kanji.getReadings()).isSameAs(readings);
+        assertThatThrownBy(() -> readings.add(personKanjiReadingPerson)).isInstanceOf(UnsupportedOperationException.class);
+
+        // Attaching the same word again does not change the order.
+        kanjiWithReadingPerson.attachWord(wordPerson);
+        assertThat(kanji.getReadings()).isSameAs(readings);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiWithReadingPerson);
+        builder.add(desu);
+        JapaneseWord wordAmPerson = new JapaneseWord(builder, wordAmPersonDefinition);
+        kanjiWithReadingPerson.attachWord(wordAmPerson);
+        assertThat(kanji.getReadings()).containsExactly(personKanjiReadingPerson, wordOnePersonPersonFurigana);
+
+        kanjiWithReadingPerson.detachWord(wordAmPerson);
+        kanjiWithReadingPerson.detachWord(wordPerson);
+        assertThat(kanji.getReadings()).containsExactly(wordOnePersonPersonFurigana, personKanjiReadingPerson);
+        assertThat(kanji.numWords(personKanjiReadingPerson)).isZero();
+    }
+
+    /**
+     * Test that attempting a reading of a kanji whose aggregate score is full changes neither score.
+     */
+    @Test
+    public void fullAggregateTest() {
+        JapaneseKanji concurrentKanji = new ConcurrentJapaneseKanjiDictionary().create(personKanji, personMeaning);
+        concurrentKanji.restoreReading(personKanjiReadingPerson, 0, 0, ConcurrentScore.MAX_ATTEMPTS, 0);
+        JapaneseKanjiWithReading other = concurrentKanji.restoreReading(wordOnePersonPersonFurigana, 1, 0, 0, 0);
+
+        assertThatThrownBy(() -> other.attempt(true)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> other.replay(new Score(1, 1))).isInstanceOf(IllegalStateException.class);
+        assertThat(concurrentKanji.getScore(wordOnePersonPersonFurigana).getAttempts()).isZero();
+        assertThat(concurrentKanji.getScore().getAttempts()).isEqualTo(ConcurrentScore.MAX_ATTEMPTS);
+    }
+
+    /**
+     * Test that there is one {@link JapaneseKanjiWithReading} per kanji and reading, shared by every word.
+     */
+    @Test
+    public void internedReadingTest() {
+        JapaneseKanjiWithReading kanjiWithReading = kanji.withReading(personKanjiReadingPerson);
+        assertThat(kanji.withReading(personKanjiReadingPerson)).isSameAs(kanjiWithReading);
+        assertThat(kanji.withReading(new String(personKanjiReadingPerson))).isSameAs(kanjiWithReading);
+        assertThat(kanji.withReading(wordOnePersonPersonFurigana)).isNotSameAs(kanjiWithReading);
+        assertThat(new JapaneseKanji(personKanji, personMeaning).withReading(personKanjiReadingPerson)).isNotSameAs(kanjiWithReading);
+
+        // Getting a reading does not add it to the kanji until a word uses it.
+        assertThat(kanji.getReadings()).isEmpty();
+        kanjiWithReading.attempt(true);
+        assertThat(kanji.getScore().getAttempts()).isZero();
+
+        builder.add(kanji.withReading(personKanjiReadingPerson));
+        kanji.withReading(personKanjiReadingPerson).attachWord(new JapaneseWord(builder, wordPersonDefinition));
+        kanjiWithReading.attempt(true);
+        assertThat(kanji.getReadings()).containsExactly(personKanjiReadingPerson);
+        assertThat(kanji.getScore(personKanjiReadingPerson).getAttempts()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,161 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+import com.potrt.flashcards.japanese.JapaneseTextScanner.Match;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+
+public class JapaneseTextScannerTest implements TestingConstants {
+    private JapaneseKanjiDictionary kanjiDictionary;
+    private JapaneseWordDictionary dictionary;
+    private JapaneseKanji one;
+    private JapaneseKanji person;
+
+    @Before
+    public void setup() {
+        kanjiDictionary = new JapaneseKanjiDictionary();
+        JapaneseKanji i = kanjiDictionary.create(IKanji, IMeaning);
+        one = kanjiDictionary.create(oneKanji, oneMeaning);
+        person = kanjiDictionary.create(personKanji, personMeaning);
+        dictionary = new JapaneseWordDictionary(kanjiDictionary);
+
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(i.withReading(wordIFurigana));
+        dictionary.put(new JapaneseWord(builder, wordIDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(one.withReading(wordOnePersonOneFurigana));
+        builder.add(person.withReading(wordOnePersonPersonFurigana));
+        dictionary.put(new JapaneseWord(builder, wordOnePersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(personKanjiReadingPerson));
+        dictionary.put(new JapaneseWord(builder, wordPersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(personKanjiReadingPerson));
+        builder.add(desu);
+        dictionary.put(new JapaneseWord(builder, wordAmPersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(irregularVerbToDoKana);
+        dictionary.put(new JapaneseVerb(builder, irregularVerbToDoDefinition, JapaneseVerbType.IRREGULAR));
+    }
+
+    /**
+     * Tests finding words by their kanji, preferring the longest word at each place.
+     */
+    @Test
+    public void kanjiTest() {
+        JapaneseTextScanner scanner = dictionary.getTextScanner(false);
+        assertThat(kanji(scanner.scan("私は一人です。"))).containsExactly(wordIKanji, wordOnePersonKanji);
+        assertThat(kanji(scanner.scan("人です。人。"))).containsExactly(wordAmPersonKanji, wordPersonKanji);
+        assertThat(kanji(scanner.scan("ひとりでする"))).containsExactly(irregularVerbToDoKana);
+        assertThat(scanner.scan("")).isEmpty();
+
+        List<Match> matches = scanner.scan("私は人です");
+        assertThat(matches.get(1).getStart()).isEqualTo(2);
+        assertThat(matches.get(1).getEnd()).isEqualTo(5);
+        assertThat(matches.get(1).getWord()).isSameAs(dictionary.get(wordAmPersonKanji));
+    }
+
+    /**
+     * Tests finding words by their furigana, where one match can spell several words.
+     */
+    @Test
+    public void furiganaTest() {
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(one.withReading(wordOnePersonOneFurigana));
+        dictionary.put(new JapaneseWord(builder, wordOneDefinition));
+
+        JapaneseTextScanner scanner = dictionary.getTextScanner(true);
+        assertThat(kanji(scanner.scan("わたしはひとりです"))).containsExactly(wordIKanji, wordOnePersonKanji);
+        assertThat(kanji(scanner.scan("ひとです"))).containsExactly(wordAmPersonKanji);
+        assertThat(kanji(scanner.scan("ひと、一"))).containsExactly(wordPersonKanji, wordOneAlternateKanji, wordOneAlternateKanji);
+
+        List<Integer> starts = new ArrayList<>();
+        assertThat(scanner.scan("ひと", (start, end, word) -> starts.add(start))).isEqualTo(1);
+        assertThat(starts).containsExactly(0, 0);
+    }
+
+    /**
+     * Tests that a word starting inside a longer prefix that did not match is still found.
+     */
+    @Test
+    public void overlapTest() {
+        for (String kana : new String[] {"あいう", "あ", "いえ"}) {
+            JapaneseWordBuilder builder = new JapaneseWordBuilder();
+            builder.add(kana);
+            dictionary.put(new JapaneseWord(builder, kana));
+        }
+
+        JapaneseTextScanner scanner = dictionary.getTextScanner(false);
+        assertThat(kanji(scanner.scan("あいえ"))).containsExactly("あ", "いえ");
+        assertThat(kanji(scanner.scan("あいうえ"))).containsExactly("あいう");
+        assertThat(kanji(scanner.scan("ああいえあいう"))).containsExactly("あ", "あ", "いえ", "あいう");
+    }
+
+    /**
+     * Tests the length of the longest word scanned for.
+     */
+    @Test
+    public void maxWordLengthTest() {
+        JapaneseWordDictionary empty = new JapaneseWordDictionary(new JapaneseKanjiDictionary());
+        assertThat(empty.getTextScanner(true).maxWordLength()).isZero();
+
+        for (String kana : new String[] {"あ", "あいう", "いえ"}) {
+            JapaneseWordBuilder builder = new JapaneseWordBuilder();
+            builder.add(kana);
+            empty.put(new JapaneseWord(builder, kana));
+        }
+        assertThat(empty.getTextScanner(false).maxWordLength()).isEqualTo(3);
+    }
+
+    /**
+     * Tests that the scanners are rebuilt after words are added, or their furigana replaced, but not when only their definition changes.
+     */
+    @Test
+    public void rebuildTest() {
+        JapaneseTextScanner kanjiScanner = dictionary.getTextScanner(false);
+        JapaneseTextScanner furiganaScanner = dictionary.getTextScanner(true);
+        assertThat(dictionary.getTextScanner(false)).isSameAs(kanjiScanner);
+
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(personKanjiReadingPerson));
+        dictionary.replace(new JapaneseWord(builder, personMeaningAlternate));
+        assertThat(dictionary.getTextScanner(false)).isSameAs(kanjiScanner);
+        assertThat(dictionary.getTextScanner(true)).isSameAs(furiganaScanner);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(wordOnePersonPersonFurigana));
+        dictionary.replace(new JapaneseWord(builder, personMeaningAlternate));
+        assertThat(dictionary.getTextScanner(false)).isSameAs(kanjiScanner);
+        assertThat(kanji(dictionary.getTextScanner(true).scan("り"))).containsExactly(wordPersonKanji);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(one.withReading(wordOneFurigana));
+        dictionary.put(new JapaneseWord(builder, wordOneDefinition));
+        assertThat(kanji(dictionary.getTextScanner(false).scan("一"))).containsExactly(wordOneAlternateKanji);
+    }
+
+    /**
+     * Gets the kanji of the words matched.
+     * @param matches The {@link Match}es.
+     * @return The kanji.
+     */
+    private static List<String> kanji(List<Match> matches) {
+        List<String> kanji = new ArrayList<>();
+        for (Match match : matches) {
+            kanji.add(match.getWord().getKanji());
+        }
+        return kanji;
+    }
+}
@@ -0,0 +1,182 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.potrt.flashcards.Score;
+import com.potrt.flashcards.TestingConstants;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+
+public class JapaneseUserScoresTest implements TestingConstants {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JapaneseKanjiDictionary kanjiDictionary;
+    private JapaneseWordDictionary wordDictionary;
+    private JapaneseKanji one;
+    private JapaneseKanji person;
+
+    @Before
+    public void setup() {
+        kanjiDictionary = new JapaneseKanjiDictionary();
+        one = kanjiDictionary.create(oneKanji, oneMeaning);
+        person = kanjiDictionary.create(personKanji, personMeaning);
+        wordDictionary = new JapaneseWordDictionary(kanjiDictionary);
+
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(one.withReading(wordOnePersonOneFurigana));
+        builder.add(person.withReading(wordOnePersonPersonFurigana));
+        wordDictionary.put(new JapaneseWord(builder, wordOnePersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(person.withReading(personKanjiReadingPerson));
+        wordDictionary.put(new JapaneseWord(builder, wordPersonDefinition));
+    }
+
+    /**
+     * Tests that readings are given dense ids in the order their first words were attached.
+     */
+    @Test
+    public void readingIdTest() {
+        assertThat(kanjiDictionary.numReadings()).isEqualTo(3);
+        assertThat(one.withReading(wordOnePersonOneFurigana).getId()).isEqualTo(0);
+        assertThat(person.withReading(wordOnePersonPersonFurigana).getId()).isEqualTo(1);
+        assertThat(person.withReading(personKanjiReadingPerson).getId()).isEqualTo(2);
+        for (int id = 0; id < kanjiDictionary.numReadings(); id++) {
+            assertThat(kanjiDictionary.getReading(id).getId()).isEqualTo(id);
+        }
+        assertThat(person.withReading(personKanjiReadingPerson)).isSameAs(kanjiDictionary.getReading(2));
+
+        assertThat(one.withReading(wordOnePersonPersonFurigana).getId()).isEqualTo(-1);
+        assertThatThrownBy(() -> kanjiDictionary.getReading(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> kanjiDictionary.getReading(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Tests that each user's scores are kept apart from each other and from the dictionary's scores.
+     */
+    @Test
+    public void separateUsersTest() {
+        JapaneseUserScores alice = new JapaneseUserScores(kanjiDictionary);
+        JapaneseUserScores bob = new JapaneseUserScores(kanjiDictionary);
+
+        alice.attempt(wordDictionary.get(wordOnePersonKanji), true);
+        alice.attempt(wordDictionary.get(wordPersonKanji), false);
+        bob.attempt(wordDictionary.get(wordPersonKanji), true);
+
+        assertScore(alice.getScore(one.withReading(wordOnePersonOneFurigana)), 1, 1);
+        assertScore(alice.getScore(person.withReading(wordOnePersonPersonFurigana)), 1, 1);
+        assertScore(alice.getScore(person), 1, 2);
+        assertScore(bob.getScore(person.withReading(personKanjiReadingPerson)), 1, 1);
+        assertScore(bob.getScore(one), 0, 0);
+        assertScore(person.getScore(), 0, 0);
+        assertThat(alice.sizeInBytes()).isEqualTo(8L * kanjiDictionary.numReadings());
+    }
+
+    /**
+     * Tests readings without ids and kanji from other dictionaries.
+     */
+    @Test
+    public void invalidTest() {
+        JapaneseUserScores scores = new JapaneseUserScores(kanjiDictionary);
+        JapaneseKanjiWithReading unused = one.withReading(wordOnePersonPersonFurigana);
+        scores.attempt(unused, true);
+        assertScore(scores.getScore(unused), 0, 0);
+        assertThat(scores.sizeInBytes()).isZero();
+
+        JapaneseKanji other = new JapaneseKanjiDictionary().create(oneKanji, oneMeaning);
+        assertThatThrownBy(() -> scores.attempt(other.withReading(wordOnePersonOneFurigana), true)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> scores.getScore(other)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Tests that a word is not attempted at all when one of its readings is full.
+     */
+    @Test
+    public void fullReadingTest() throws IOException {
+        JapaneseKanjiWithReading full = person.withReading(wordOnePersonPersonFurigana);
+        JapaneseUserScores scores = loadWithScore(full, 0, JapaneseUserScores.MAX_ATTEMPTS);
+
+        assertThatThrownBy(() -> scores.attempt(wordDictionary.get(wordOnePersonKanji), true)).isInstanceOf(IllegalStateException.class);
+        assertScore(scores.getScore(one.withReading(wordOnePersonOneFurigana)), 0, 0);
+        assertScore(scores.getScore(full), 0, JapaneseUserScores.MAX_ATTEMPTS);
+
+        JapaneseUserScores almostFull = loadWithScore(full, 0, JapaneseUserScores.MAX_ATTEMPTS - 1);
+        almostFull.attempt(wordDictionary.get(wordOnePersonKanji), true);
+        assertScore(almostFull.getScore(one.withReading(wordOnePersonOneFurigana)), 1, 1);
+        assertScore(almostFull.getScore(full), 1, JapaneseUserScores.MAX_ATTEMPTS);
+        assertThatThrownBy(() -> loadWithScore(full, 2, 1)).isInstanceOf(IOException.class);
+    }
+
+    /**
+     * Tests that saved scores load into a new store with the same scores.
+     */
+    @Test
+    public void saveLoadTest() throws IOException {
+        JapaneseUserScores scores = new JapaneseUserScores(kanjiDictionary);
+        scores.attempt(wordDictionary.get(wordOnePersonKanji), true);
+        scores.attempt(wordDictionary.get(wordOnePersonKanji), false);
+        scores.attempt(person.withReading(personKanjiReadingPerson), true);
+
+        Path path = folder.getRoot().toPath().resolve("user.scores");
+        scores.save(path);
+        JapaneseUserScores loaded = JapaneseUserScores.load(path, kanjiDictionary);
+        assertScore(loaded.getScore(one.withReading(wordOnePersonOneFurigana)), 1, 2);
+        assertScore(loaded.getScore(person.withReading(wordOnePersonPersonFurigana)), 1, 2);
+        assertScore(loaded.getScore(person.withReading(personKanjiReadingPerson)), 1, 1);
+        assertScore(loaded.getScore(person), 2, 3);
+
+        loaded.attempt(person.withReading(personKanjiReadingPerson), true);
+        assertScore(loaded.getScore(person.withReading(personKanjiReadingPerson)), 2, 2);
+        assertScore(scores.getScore(person.withReading(personKanjiReadingPerson)), 1, 1);
+
+        assertThatThrownBy(() -> JapaneseUserScores.load(path, new JapaneseKanjiDictionary())).isInstanceOf(IOException.class);
+        Files.write(path, new byte[] { 1, 2, 3 });
+        assertThatThrownBy(() -> JapaneseUserScores.load(path, kanjiDictionary)).isInstanceOf(IOException.class);
+    }
+
+    /**
+     * Saves scores with the last reading attempted once, so every reading is in the file, overwrites the score of one reading in the file, and loads them.
+     * @param reading The {@link JapaneseKanjiWithReading} to overwrite.
+     * @param successes The number of successes to write.
+     * @param attempts The number of attempts to write.
+     * @return The loaded {@link JapaneseUserScores}.
+     * @throws IOException Thrown when the scores cannot be loaded.
+     */
+    private JapaneseUserScores loadWithScore(JapaneseKanjiWithReading reading, long successes, long attempts) throws IOException {
+        JapaneseUserScores scores = new JapaneseUserScores(kanjiDictionary);
+        scores.attempt(wordDictionary.get(wordPersonKanji), false);
+        Path path = folder.getRoot().toPath().resolve("user.scores");
+        scores.save(path);
+
+        ByteBuffer score = ByteBuffer.allocate(Long.BYTES);
+        score.putLong(successes << 32 | attempts).flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(score, 12L + 8L * reading.getId());
+        }
+        return JapaneseUserScores.load(path, kanjiDictionary);
+    }
+
+    /**
+     * Checks a score.
+     * @param score The {@link Score}.
+     * @param successes The expected number of successes.
+     * @param attempts The expected number of attempts.
+     */
+    private static void assertScore(Score score, long successes, long attempts) {
+        assertThat(score.getSuccesses()).isEqualTo(successes);
+        assertThat(score.getAttempts()).isEqualTo(attempts);
+    }
+}
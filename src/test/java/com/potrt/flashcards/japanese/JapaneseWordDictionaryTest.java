@@ -3,10 +3,17 @@ package com.potrt.flashcards.japanese;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
 import com.potrt.flashcards.TestingConstants;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+import com.potrt.flashcards.japanese.verb.JapaneseVerbForm;
 
 public class JapaneseWordDictionaryTest implements TestingConstants {
     private JapaneseWordDictionary wordDicitonary;
@@ -55,6 +62,63 @@ public class JapaneseWordDictionaryTest implements TestingConstants {
         assertThat(wordDicitonary.get(wordAmPerson.getKanji())).isEqualTo(wordAmPerson);
     }
 
+    /**
+     * Tests that words are given dense ids in the order they are added, which replacing a word does not change.
+     */
+    @Test
+    public void idTest() {
+        assertThat(wordOne.getId()).isEqualTo(-1);
+        wordDicitonary.put(wordOne);
+        wordDicitonary.putAll(Arrays.asList(wordOnePerson, wordAmPerson), (e, i) -> {});
+        assertThat(wordOne.getId()).isEqualTo(0);
+        assertThat(wordOnePerson.getId()).isEqualTo(1);
+        assertThat(wordAmPerson.getId()).isEqualTo(2);
+        for (int id = 0; id < wordDicitonary.size(); id++) {
+            assertThat(wordDicitonary.getWord(id).getId()).isEqualTo(id);
+        }
+
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiOne.withReading(wordOneFurigana));
+        wordDicitonary.replace(new JapaneseWord(builder, oneMeaning));
+        assertThat(wordDicitonary.getWord(0)).isSameAs(wordOne);
+        assertThat(wordOne.getId()).isEqualTo(0);
+
+        JapaneseWordDictionary other = new JapaneseWordDictionary(kanjiDictionary);
+        assertThatThrownBy(() -> other.put(wordOne)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> wordDicitonary.getWord(3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Tests that replacing a word only moves it between the readings that changed, and keeps it on kanji it still uses.
+     */
+    @Test
+    public void replaceReadingsTest() {
+        wordDicitonary.put(wordOnePerson);
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiOne.withReading(wordOneAlternateFurigana));
+        builder.add(kanjiPerson.withReading(wordOnePersonPersonFurigana));
+        wordDicitonary.replace(new JapaneseWord(builder, wordOnePersonDefinition));
+
+        assertThat(kanjiOne.numWords(wordOnePersonOneFurigana)).isZero();
+        assertThat(kanjiOne.numWords(wordOneAlternateFurigana)).isEqualTo(1);
+        assertThat(kanjiOne.getWords()).containsExactly(wordOnePerson);
+        assertThat(kanjiPerson.getWords(wordOnePersonPersonFurigana)).containsExactly(wordOnePerson);
+
+        JapaneseWordBuilder twice = new JapaneseWordBuilder();
+        twice.add(kanjiPerson.withReading(personKanjiReadingPerson));
+        twice.add(kanjiPerson.withReading(wordOnePersonPersonFurigana));
+        JapaneseWord people = new JapaneseWord(twice, wordPersonDefinition);
+        wordDicitonary.put(people);
+        twice = new JapaneseWordBuilder();
+        twice.add(kanjiPerson.withReading(personKanjiReadingPerson));
+        twice.add(kanjiPerson.withReading(personKanjiReadingPerson));
+        wordDicitonary.replace(new JapaneseWord(twice, wordPersonDefinition));
+
+        assertThat(kanjiPerson.getWords(wordOnePersonPersonFurigana)).containsExactly(wordOnePerson);
+        assertThat(kanjiPerson.getWords(personKanjiReadingPerson)).containsExactly(people);
+        assertThat(kanjiPerson.getWords()).containsExactlyInAnyOrder(wordOnePerson, people);
+    }
+
     /**
      * Test null.
      */
@@ -150,4 +214,137 @@ public class JapaneseWordDictionaryTest implements TestingConstants {
         JapaneseWord nonassociatedWordOne = new JapaneseWord(builder, wordOneDefinition);
         assertThatThrownBy(() -> wordDicitonary.put(nonassociatedWordOne)).isInstanceOf(IllegalArgumentException.class);
     }
+
+    /**
+     * Test that cached conjugations are invalidated when the verb is replaced.
+     */
+    @Test
+    public void conjugationCacheTest() {
+        wordDicitonary = new JapaneseWordDictionary(kanjiDictionary, 100);
+        JapaneseKanji kanjiDrink = kanjiDictionary.create(drinkKanji, drinkMeaning);
+        JapaneseVerbForm politeNegative = JapaneseVerbForm.of(false, false, presentIdicative);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiDrink.withReading(godanVerbToDrinkFuriganaBase));
+        builder.add(godanVerbToDrinkEnding);
+        JapaneseVerb verb = new JapaneseVerb(builder, godanVerbToDrinkDefinition, JapaneseVerbType.GODAN);
+        wordDicitonary.put(verb);
+
+        JapaneseWord.Representation conjugated = wordDicitonary.conjugate(verb, politeNegative);
+        assertThat(wordDicitonary.conjugate(verb, politeNegative)).isSameAs(conjugated);
+        assertThat(wordDicitonary.getConjugationCache().getHits()).isEqualTo(1);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiDrink.withReading(godanVerbToDrinkFuriganaBase));
+        builder.add(godanVerbToDrinkEnding);
+        wordDicitonary.replace(new JapaneseVerb(builder, drinkMeaning, JapaneseVerbType.GODAN));
+
+        assertThat(wordDicitonary.getConjugationCache().size()).isZero();
+        assertThat(wordDicitonary.conjugate(verb, politeNegative).getDefinition()).startsWith(drinkMeaning + " (");
+    }
+
+    /**
+     * Test that conjugating without a cache still works.
+     */
+    @Test
+    public void uncachedConjugationTest() {
+        assertThat(wordDicitonary.getConjugationCache()).isNull();
+        builder = new JapaneseWordBuilder();
+        builder.add(irregularVerbToDoKana);
+        JapaneseVerb verb = new JapaneseVerb(builder, irregularVerbToDoDefinition, JapaneseVerbType.IRREGULAR);
+        assertThat(wordDicitonary.conjugate(verb, JapaneseVerbForm.of(false, true, presentIdicative)).getKanji()).isEqualTo(irregularVerbToDoPolite);
+    }
+
+    /**
+     * Test looking words up by furigana, including homophones and replaced readings.
+     */
+    @Test
+    public void furiganaIndexTest() {
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiPerson.withReading(personKanjiReadingPerson));
+        JapaneseWord wordPerson = new JapaneseWord(builder, wordPersonDefinition);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiOne.withReading(wordOnePersonOneFurigana));
+        JapaneseWord homophone = new JapaneseWord(builder, oneMeaning);
+
+        wordDicitonary.put(wordOnePerson);
+        wordDicitonary.put(wordPerson);
+        wordDicitonary.put(homophone);
+
+        assertThat(wordDicitonary.getWordsByFurigana(wordPersonFurigana)).containsExactlyInAnyOrder(wordPerson, homophone);
+        assertThat(wordDicitonary.getWordsByFurigana(wordOnePersonFurigana)).containsExactly(wordOnePerson);
+        assertThat(wordDicitonary.getWordsByFurigana(wordOneFurigana)).isEmpty();
+
+        // Replacing the reading moves the word to its new furigana.
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiOne.withReading(wordOneAlternateFurigana));
+        wordDicitonary.replace(new JapaneseWord(builder, oneMeaning));
+
+        assertThat(wordDicitonary.getWordsByFurigana(wordPersonFurigana)).containsExactly(wordPerson);
+        assertThat(wordDicitonary.getWordsByFurigana(wordOneAlternateFurigana)).containsExactly(homophone);
+
+        // Replacing only the definition keeps the word where it is.
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiPerson.withReading(personKanjiReadingPerson));
+        wordDicitonary.replace(new JapaneseWord(builder, personMeaningAlternate));
+
+        assertThat(wordDicitonary.getWordsByFurigana(wordPersonFurigana)).containsExactly(wordPerson);
+    }
+
+    /**
+     * Test autocompleting words by kanji and by furigana.
+     */
+    @Test
+    public void prefixSearchTest() {
+        wordDicitonary.put(wordOne);
+        wordDicitonary.put(wordOnePerson);
+        wordDicitonary.put(wordAmPerson);
+
+        assertThat(wordDicitonary.prefixSearch(String.valueOf(oneKanji), 10)).containsExactlyInAnyOrder(wordOne, wordOnePerson);
+        assertThat(wordDicitonary.prefixSearch("ひと", 10)).containsExactlyInAnyOrder(wordOne, wordOnePerson, wordAmPerson);
+        assertThat(wordDicitonary.prefixSearch("ひと", 2)).hasSize(2);
+
+        // Replacing the reading moves the word to its new furigana.
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiOne.withReading(wordOneAlternateFurigana));
+        wordDicitonary.replace(new JapaneseWord(builder, wordOneDefinition));
+
+        assertThat(wordDicitonary.prefixSearch("ひと", 10)).containsExactlyInAnyOrder(wordOnePerson, wordAmPerson);
+        assertThat(wordDicitonary.prefixSearch(wordOneAlternateFurigana, 10)).containsExactly(wordOne);
+        assertThat(wordDicitonary.prefixSearch(String.valueOf(oneKanji), 10)).containsExactlyInAnyOrder(wordOne, wordOnePerson);
+    }
+
+    /**
+     * Test adding a batch of words, where some cannot be added.
+     */
+    @Test
+    public void putAllTest() {
+        wordDicitonary.put(wordOne);
+
+        JapaneseKanji nonassociatedPersonKanji = new JapaneseKanji(personKanji, personMeaning);
+        builder = new JapaneseWordBuilder();
+        builder.add(nonassociatedPersonKanji.withReading(personKanjiReadingPerson));
+        JapaneseWord nonassociatedWordPerson = new JapaneseWord(builder, wordPersonDefinition);
+
+        List<Integer> failed = new ArrayList<>();
+        List<RuntimeException> errors = new ArrayList<>();
+        int added = wordDicitonary.putAll(Arrays.asList(wordOnePerson, wordOne, nonassociatedWordPerson, wordAmPerson, wordOnePerson), (e, i) -> {
+            errors.add(e);
+            failed.add(i);
+        });
+
+        assertThat(added).isEqualTo(2);
+        assertThat(failed).containsExactly(1, 2, 4);
+        assertThat(errors.get(0)).isInstanceOf(IllegalStateException.class);
+        assertThat(errors.get(1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(errors.get(2)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(wordDicitonary.get(wordOnePerson.getKanji())).isSameAs(wordOnePerson);
+        assertThat(wordDicitonary.get(wordAmPerson.getKanji())).isSameAs(wordAmPerson);
+        assertThat(wordDicitonary.getWordsByFurigana(wordAmPerson.getFurigana())).containsExactly(wordAmPerson);
+        assertThat(wordDicitonary.prefixSearch(wordOnePersonKanji, 10)).containsExactly(wordOnePerson);
+        assertThat(kanjiOne.numWords()).isEqualTo(2);
+        assertThat(kanjiPerson.numWords()).isEqualTo(2);
+    }
 }
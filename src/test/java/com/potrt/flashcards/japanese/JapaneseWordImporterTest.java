@@ -0,0 +1,143 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.potrt.flashcards.TestingConstants;
+import com.potrt.flashcards.japanese.JapaneseWordImporter.Result;
+import com.potrt.flashcards.japanese.JapaneseWordImporter.RowError;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+
+public class JapaneseWordImporterTest implements TestingConstants {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JapaneseKanjiDictionary kanjiDictionary;
+    private JapaneseWordDictionary wordDictionary;
+    private List<RowError> errors;
+
+    @Before
+    public void setup() {
+        kanjiDictionary = new JapaneseKanjiDictionary();
+        kanjiDictionary.create(oneKanji, oneMeaning);
+        kanjiDictionary.create(personKanji, personMeaning);
+        kanjiDictionary.create(drinkKanji, drinkMeaning);
+        wordDictionary = new JapaneseWordDictionary(kanjiDictionary);
+        errors = new ArrayList<>();
+    }
+
+    /**
+     * Tests importing words, verbs, and kana-only words.
+     */
+    @Test
+    public void importTest() throws IOException {
+        String csv = "# kanji,readings,definition,verb type\n"
+            + wordOnePersonKanji + "," + wordOnePersonOneFurigana + "|" + wordOnePersonPersonFurigana + "," + wordOnePersonDefinition + "\n"
+            + "\n"
+            + wordAmPersonKanji + "," + personKanjiReadingPerson + "," + wordAmPersonDefinition + ",\n"
+            + godanVerbToDrinkKanjiBase + godanVerbToDrinkEnding + "," + godanVerbToDrinkFuriganaBase + ",\"" + godanVerbToDrinkDefinition + ", etc.\",godan\n"
+            + irregularVerbToDoKana + ",," + irregularVerbToDoDefinition + ",IRREGULAR\n";
+        Result result = JapaneseWordImporter.csv(wordDictionary).importFrom(new StringReader(csv), errors::add);
+
+        assertThat(errors).isEmpty();
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getFailed()).isZero();
+
+        JapaneseWord wordOnePerson = wordDictionary.get(wordOnePersonKanji);
+        assertThat(wordOnePerson.getFurigana()).isEqualTo(wordOnePersonFurigana);
+        assertThat(wordOnePerson.getDefinition()).isEqualTo(wordOnePersonDefinition);
+        assertThat(wordOnePerson.getSegments().getKanji(1)).isSameAs(kanjiDictionary.get(personKanji).withReading(wordOnePersonPersonFurigana));
+
+        assertThat(wordDictionary.get(wordAmPersonKanji).getFurigana()).isEqualTo(wordAmPersonFurigana);
+        assertThat(wordDictionary.get(wordAmPersonKanji)).isNotInstanceOf(JapaneseVerb.class);
+
+        JapaneseWord drink = wordDictionary.get(godanVerbToDrinkKanjiBase + godanVerbToDrinkEnding);
+        assertThat(drink).isInstanceOf(JapaneseVerb.class);
+        assertThat(((JapaneseVerb) drink).getVerbType()).isEqualTo(JapaneseVerbType.GODAN);
+        assertThat(drink.getDefinition()).isEqualTo(godanVerbToDrinkDefinition + ", etc.");
+
+        assertThat(((JapaneseVerb) wordDictionary.get(irregularVerbToDoKana)).getVerbType()).isEqualTo(JapaneseVerbType.IRREGULAR);
+        assertThat(kanjiDictionary.get(personKanji).numWords()).isEqualTo(2);
+    }
+
+    /**
+     * Tests that rows that cannot be imported are reported with their line, and do not stop the import.
+     */
+    @Test
+    public void rowErrorTest() throws IOException {
+        String tsv = wordOnePersonKanji + "\t" + wordOnePersonOneFurigana + "\t" + wordOnePersonDefinition + "\n"
+            + wordPersonKanji + "\t" + personKanjiReadingPerson + "\n"
+            + wordIKanji + "\t" + wordIFurigana + "\t" + wordIDefinition + "\n"
+            + wordPersonKanji + "\t" + personKanjiReadingPerson + "|" + desu + "\t" + wordPersonDefinition + "\n"
+            + godanVerbToDrinkKanjiBase + "\t" + godanVerbToDrinkFuriganaBase + "\t" + godanVerbToDrinkDefinition + "\tGODAN\n"
+            + godanVerbToDrinkKanjiBase + godanVerbToDrinkEnding + "\t" + godanVerbToDrinkFuriganaBase + "\t" + godanVerbToDrinkDefinition + "\tSOMETIMES\n"
+            + wordPersonKanji + "\t" + personKanjiReadingPerson + "\t" + wordPersonDefinition + "\n"
+            + wordPersonKanji + "\t" + personKanjiReadingPerson + "\t" + personMeaningAlternate + "\n"
+            + wordOneKanji + "\t\t" + wordOneDefinition + "\n"
+            + wordOneAlternateKanji + "\t" + wordOneAlternateFurigana + "\t" + wordOneDefinition + "\n"
+            + "\t\t" + godanVerbToDrinkDefinition + "\tGODAN\n";
+        Result result = new JapaneseWordImporter(wordDictionary, '\t', 3).importFrom(new StringReader(tsv), errors::add);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(9);
+        assertThat(errors).extracting(RowError::getLine).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L, 8L, 9L, 11L);
+        assertThat(errors).extracting(RowError::getMessage).allMatch(message -> !message.isEmpty());
+
+        assertThat(wordDictionary.get(wordPersonKanji).getDefinition()).isEqualTo(wordPersonDefinition);
+        assertThat(wordDictionary.get(wordOneAlternateKanji).getFurigana()).isEqualTo(wordOneAlternateFurigana);
+    }
+
+    /**
+     * Tests importing rows that give the reading of the whole word, split across the kanji by the readings already imported.
+     */
+    @Test
+    public void alignedTest() throws IOException {
+        String csv = wordOneKanji + "," + wordOneFurigana + "," + wordOneDefinition + "\n"
+            + wordOnePersonKanji + "," + wordOnePersonFurigana + "," + wordOnePersonDefinition + "\n"
+            + godanVerbToDrinkKanjiBase + godanVerbToDrinkEnding + "," + godanVerbToDrinkFuriganaBase + godanVerbToDrinkEnding + "," + godanVerbToDrinkDefinition + ",godan\n"
+            + wordIKanji + "," + wordIFurigana + "," + wordIDefinition + "\n";
+        Result result = new JapaneseWordImporter(wordDictionary, ',', 1).aligned().importFrom(new StringReader(csv), errors::add);
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(errors).extracting(RowError::getLine).containsExactly(4L);
+        JapaneseWordSegments segments = wordDictionary.get(wordOnePersonKanji).getSegments();
+        assertThat(segments.getKanji(0)).isSameAs(kanjiDictionary.get(oneKanji).withReading(wordOnePersonOneFurigana));
+        assertThat(segments.getKanji(1)).isSameAs(kanjiDictionary.get(personKanji).withReading(wordOnePersonPersonFurigana));
+        assertThat(wordDictionary.get(godanVerbToDrinkKanjiBase + godanVerbToDrinkEnding)).isInstanceOf(JapaneseVerb.class);
+    }
+
+    /**
+     * Tests importing from a file.
+     */
+    @Test
+    public void fileTest() throws IOException {
+        File file = folder.newFile("words.csv");
+        Files.write(file.toPath(), (wordPersonKanji + "," + personKanjiReadingPerson + "," + wordPersonDefinition + "\n").getBytes(StandardCharsets.UTF_8));
+
+        Result result = JapaneseWordImporter.csv(wordDictionary).importFrom(file.toPath());
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(wordDictionary.get(wordPersonKanji).getFurigana()).isEqualTo(wordPersonFurigana);
+    }
+
+    /**
+     * Tests that the batch size must be positive.
+     */
+    @Test
+    public void invalidBatchSizeTest() {
+        assertThatThrownBy(() -> new JapaneseWordImporter(wordDictionary, ',', 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,192 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+
+public class JapaneseWordSamplerTest implements TestingConstants {
+    private static final long NEW_READING = JapaneseWordSampler.WEIGHT_SCALE / 2;
+
+    private JapaneseWordDictionary dictionary;
+    private JapaneseWordSampler sampler;
+    private int onePerson;
+    private int person;
+    private int toDo;
+
+    @Before
+    public void setup() {
+        JapaneseKanjiDictionary kanjiDictionary = new JapaneseKanjiDictionary();
+        JapaneseKanji oneJapaneseKanji = kanjiDictionary.create(oneKanji, oneMeaning);
+        JapaneseKanji personJapaneseKanji = kanjiDictionary.create(personKanji, personMeaning);
+        dictionary = new JapaneseWordDictionary(kanjiDictionary);
+
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(oneJapaneseKanji.withReading(wordOnePersonOneFurigana));
+        builder.add(personJapaneseKanji.withReading(wordOnePersonPersonFurigana));
+        dictionary.put(new JapaneseWord(builder, wordOnePersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(personJapaneseKanji.withReading(personKanjiReadingPerson));
+        dictionary.put(new JapaneseWord(builder, wordPersonDefinition));
+
+        builder = new JapaneseWordBuilder();
+        builder.add(irregularVerbToDoKana);
+        dictionary.put(new JapaneseVerb(builder, irregularVerbToDoDefinition, JapaneseVerbType.IRREGULAR));
+
+        sampler = new JapaneseWordSampler(new Random(0));
+        kanjiDictionary.setAttemptListener(sampler);
+        onePerson = sampler.add(dictionary.get(wordOnePersonKanji));
+        person = sampler.add(dictionary.get(wordPersonKanji));
+        toDo = sampler.add(dictionary.get(irregularVerbToDoKana));
+    }
+
+    /**
+     * Tests the weights of new words, and that attempts change the weights of every word with the reading.
+     */
+    @Test
+    public void weightTest() {
+        assertThat(sampler.size()).isEqualTo(3);
+        assertThat(sampler.getWord(person)).isSameAs(dictionary.get(wordPersonKanji));
+        assertThat(sampler.getWeight(onePerson)).isEqualTo(JapaneseWordSampler.BASE_WEIGHT + 2 * NEW_READING);
+        assertThat(sampler.getWeight(person)).isEqualTo(JapaneseWordSampler.BASE_WEIGHT + NEW_READING);
+        assertThat(sampler.getWeight(toDo)).isEqualTo(JapaneseWordSampler.BASE_WEIGHT);
+
+        dictionary.get(wordPersonKanji).attempt(true);
+        dictionary.get(wordPersonKanji).attempt(true);
+        assertThat(sampler.getWeight(person)).isEqualTo(JapaneseWordSampler.BASE_WEIGHT + JapaneseWordSampler.WEIGHT_SCALE / 4);
+
+        dictionary.get(wordOnePersonKanji).attempt(false);
+        assertThat(sampler.getWeight(onePerson)).isEqualTo(JapaneseWordSampler.BASE_WEIGHT + 2 * (2 * JapaneseWordSampler.WEIGHT_SCALE / 3));
+        assertThat(sampler.getWeight(person)).isEqualTo(JapaneseWordSampler.BASE_WEIGHT + JapaneseWordSampler.WEIGHT_SCALE / 4);
+    }
+
+    /**
+     * Tests that words are sampled in proportion to their weights, and that failed words are sampled more.
+     */
+    @Test
+    public void sampleTest() {
+        for (int i = 0; i < 20; i++) {
+            dictionary.get(wordPersonKanji).attempt(true);
+        }
+        for (int i = 0; i < 20; i++) {
+            dictionary.get(wordOnePersonKanji).attempt(false);
+        }
+
+        int[] counts = sample(100_000);
+        long total = sampler.getWeight(onePerson) + sampler.getWeight(person) + sampler.getWeight(toDo);
+        for (int id : new int[] {onePerson, person, toDo}) {
+            double expected = 100_000.0 * sampler.getWeight(id) / total;
+            assertThat((double) counts[id]).isBetween(expected * 0.95, expected * 1.05);
+        }
+        assertThat(counts[onePerson]).isGreaterThan(counts[person]);
+    }
+
+    /**
+     * Tests that samplers with the same seed sample the same words.
+     */
+    @Test
+    public void seedTest() {
+        JapaneseWordSampler other = new JapaneseWordSampler(new Random(0));
+        other.add(dictionary.get(wordOnePersonKanji));
+        other.add(dictionary.get(wordPersonKanji));
+        other.add(dictionary.get(irregularVerbToDoKana));
+
+        List<JapaneseWord> samples = new ArrayList<>();
+        List<JapaneseWord> otherSamples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            samples.add(sampler.sample());
+            otherSamples.add(other.sample());
+        }
+        assertThat(samples).isEqualTo(otherSamples);
+    }
+
+    /**
+     * Tests that a sampler can share the attempt listener of a dictionary.
+     */
+    @Test
+    public void andThenTest() {
+        List<Boolean> attempts = new ArrayList<>();
+        AttemptListener recorder = (reading, succeeded) -> attempts.add(succeeded);
+        dictionary.getKanjiDictionary().setAttemptListener(recorder.andThen(sampler));
+
+        dictionary.get(wordPersonKanji).attempt(false);
+        assertThat(attempts).containsExactly(false);
+        assertThat(sampler.getWeight(person)).isEqualTo(JapaneseWordSampler.BASE_WEIGHT + 2 * JapaneseWordSampler.WEIGHT_SCALE / 3);
+    }
+
+    /**
+     * Tests that a word whose readings were replaced is sampled and weighed by its new readings once it is updated.
+     */
+    @Test
+    public void updateTest() {
+        dictionary.get(wordOnePersonKanji).attempt(false);
+        JapaneseKanji personJapaneseKanji = dictionary.getKanjiDictionary().get(personKanji);
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(personJapaneseKanji.withReading(wordOnePersonPersonFurigana));
+        dictionary.replace(new JapaneseWord(builder, wordPersonDefinition));
+
+        assertThat(sampler.getWeight(person)).isEqualTo(JapaneseWordSampler.BASE_WEIGHT + NEW_READING);
+        sampler.update(person);
+        long failed = 2 * JapaneseWordSampler.WEIGHT_SCALE / 3;
+        assertThat(sampler.getWeight(person)).isEqualTo(JapaneseWordSampler.BASE_WEIGHT + failed);
+        assertThat(sampler.getWeight(onePerson)).isEqualTo(JapaneseWordSampler.BASE_WEIGHT + 2 * failed);
+
+        // The old reading no longer counts for the word.
+        personJapaneseKanji.withReading(personKanjiReadingPerson).attempt(true);
+        assertThat(sampler.getWeight(person)).isEqualTo(JapaneseWordSampler.BASE_WEIGHT + failed);
+
+        int[] counts = sample(100_000);
+        long total = sampler.getWeight(onePerson) + sampler.getWeight(person) + sampler.getWeight(toDo);
+        for (int id : new int[] {onePerson, person, toDo}) {
+            double expected = 100_000.0 * sampler.getWeight(id) / total;
+            assertThat((double) counts[id]).isBetween(expected * 0.95, expected * 1.05);
+        }
+    }
+
+    /**
+     * Tests an empty sampler and invalid ids.
+     */
+    @Test
+    public void invalidTest() {
+        assertThat(new JapaneseWordSampler(new Random()).sample()).isNull();
+        assertThatThrownBy(() -> sampler.getWord(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sampler.getWeight(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sampler.update(3)).isInstanceOf(IllegalArgumentException.class);
+
+        JapaneseKanjiDictionary otherKanji = new JapaneseKanjiDictionary();
+        JapaneseWordDictionary other = new JapaneseWordDictionary(otherKanji);
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(otherKanji.create(personKanji, personMeaning).withReading(personKanjiReadingPerson));
+        other.put(new JapaneseWord(builder, wordPersonDefinition));
+        assertThatThrownBy(() -> sampler.add(other.get(wordPersonKanji))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(sampler.size()).isEqualTo(3);
+    }
+
+    /**
+     * Samples many times.
+     * @param samples The number of samples.
+     * @return The number of times each word id was sampled.
+     */
+    private int[] sample(int samples) {
+        int[] counts = new int[sampler.size()];
+        for (int i = 0; i < samples; i++) {
+            JapaneseWord word = sampler.sample();
+            for (int id = 0; id < counts.length; id++) {
+                if (sampler.getWord(id) == word) {
+                    counts[id]++;
+                }
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,94 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+import com.potrt.flashcards.japanese.JapaneseKanji.JapaneseKanjiWithReading;
+
+public class JapaneseWordSegmentsTest implements TestingConstants {
+    private JapaneseKanji kanjiOne;
+    private JapaneseKanji kanjiPerson;
+    private JapaneseWordBuilder builder;
+
+    @Before
+    public void setup() {
+        kanjiOne = new JapaneseKanji(oneKanji, oneMeaning);
+        kanjiPerson = new JapaneseKanji(personKanji, personMeaning);
+        builder = new JapaneseWordBuilder();
+    }
+
+    /**
+     * Tests that kanji and kana segments are packed with their positions in the surface and reading.
+     */
+    @Test
+    public void segmentsTest() {
+        JapaneseKanjiWithReading one = kanjiOne.withReading(wordOnePersonOneFurigana);
+        JapaneseKanjiWithReading person = kanjiPerson.withReading(wordOnePersonPersonFurigana);
+        builder.add(one);
+        builder.add(person);
+        builder.add("で");
+        builder.add("す");
+        JapaneseWordSegments segments = new JapaneseWord(builder, wordOnePersonDefinition).getSegments();
+
+        assertThat(segments.getSurface()).isEqualTo(wordOnePersonKanji + desu);
+        assertThat(segments.getReading()).isEqualTo(wordOnePersonFurigana + desu);
+        assertThat(segments.size()).isEqualTo(3);
+
+        assertThat(segments.isKanji(0)).isTrue();
+        assertThat(segments.getKanji(0)).isSameAs(one);
+        assertThat(segments.surfaceStart(0)).isZero();
+        assertThat(segments.surfaceEnd(0)).isEqualTo(1);
+        assertThat(segments.readingStart(0)).isZero();
+        assertThat(segments.readingEnd(0)).isEqualTo(2);
+
+        assertThat(segments.getKanji(1)).isSameAs(person);
+        assertThat(segments.surfaceStart(1)).isEqualTo(1);
+        assertThat(segments.surfaceEnd(1)).isEqualTo(2);
+        assertThat(segments.readingStart(1)).isEqualTo(2);
+        assertThat(segments.readingEnd(1)).isEqualTo(3);
+
+        // Consecutive kana are joined into one segment.
+        assertThat(segments.isKanji(2)).isFalse();
+        assertThat(segments.getKanji(2)).isNull();
+        assertThat(segments.getSurface().substring(segments.surfaceStart(2), segments.surfaceEnd(2))).isEqualTo(desu);
+        assertThat(segments.getReading().substring(segments.readingStart(2), segments.readingEnd(2))).isEqualTo(desu);
+    }
+
+    /**
+     * Tests that the builder can still be used after a word is created, without changing that word.
+     */
+    @Test
+    public void builderReuseTest() {
+        builder.add(kanjiPerson.withReading(personKanjiReadingPerson));
+        JapaneseWord wordPerson = new JapaneseWord(builder, wordPersonDefinition);
+        builder.add(desu);
+        JapaneseWord wordAmPerson = new JapaneseWord(builder, wordAmPersonDefinition);
+
+        assertThat(wordPerson.getKanji()).isEqualTo(wordPersonKanji);
+        assertThat(wordPerson.getSegments().size()).isEqualTo(1);
+        assertThat(wordAmPerson.getKanji()).isEqualTo(wordAmPersonKanji);
+        assertThat(wordAmPerson.getFurigana()).isEqualTo(wordAmPersonFurigana);
+        assertThat(wordAmPerson.getSegments().size()).isEqualTo(2);
+    }
+
+    /**
+     * Tests that empty kana and words too long to pack are handled.
+     */
+    @Test
+    public void limitsTest() {
+        builder.add("");
+        assertThat(new JapaneseWord(builder, wordOneDefinition).getSegments().size()).isZero();
+
+        StringBuilder kana = new StringBuilder();
+        for (int i = 0; i < JapaneseWordSegments.MAX_LENGTH; i++) {
+            kana.append('あ');
+        }
+        builder.add(kana.toString());
+        assertThatThrownBy(() -> builder.add(kanjiOne.withReading(wordOneFurigana))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new JapaneseWord(builder, wordOneDefinition).getKanji()).isEqualTo(kana.toString());
+    }
+}
@@ -0,0 +1,94 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+
+public class KanjiMapTest implements TestingConstants {
+    private KanjiMap map;
+
+    @Before
+    public void setup() {
+        map = new KanjiMap();
+    }
+
+    /**
+     * Tests adding and getting kanji.
+     */
+    @Test
+    public void putGetTest() {
+        JapaneseKanji person = new JapaneseKanji(personKanji, personMeaning);
+        assertThat(map.get(personKanji)).isNull();
+        assertThat(map.putIfAbsent(person)).isNull();
+        assertThat(map.get(personKanji)).isSameAs(person);
+        assertThat(map.get(oneKanji)).isNull();
+
+        assertThat(map.putIfAbsent(new JapaneseKanji(personKanji, personMeaningAlternate))).isSameAs(person);
+        assertThat(map.get(personKanji)).isSameAs(person);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    /**
+     * Tests that kanji whose slots collide, including across the whole char range, are still found after the map grows.
+     */
+    @Test
+    public void growTest() {
+        for (int c = 0; c <= Character.MAX_VALUE; c += 7) {
+            assertThat(map.putIfAbsent(new JapaneseKanji((char) c, "kanji"))).isNull();
+        }
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            JapaneseKanji kanji = map.get((char) c);
+            if (c % 7 == 0) {
+                assertThat(kanji.getKanji()).isEqualTo((char) c);
+            } else {
+                assertThat(kanji).isNull();
+            }
+        }
+        assertThat(map.size()).isEqualTo(Character.MAX_VALUE / 7 + 1);
+    }
+
+    /**
+     * Tests that several threads adding the same kanji all get the same {@link JapaneseKanji}.
+     */
+    @Test
+    public void concurrentPutTest() throws InterruptedException {
+        int threadCount = 4;
+        JapaneseKanji[][] added = new JapaneseKanji[threadCount][0x1000];
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            JapaneseKanji[] out = added[t];
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < out.length; i++) {
+                    JapaneseKanji kanji = new JapaneseKanji((char) (0x4E00 + i), "kanji");
+                    JapaneseKanji original = map.putIfAbsent(kanji);
+                    out[i] = original == null ? kanji : original;
+                    if (map.get(kanji.getKanji()) != out[i]) {
+                        failed.set(true);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(failed).isFalse();
+        assertThat(map.size()).isEqualTo(0x1000);
+        for (int i = 0; i < 0x1000; i++) {
+            for (int t = 1; t < threadCount; t++) {
+                assertThat(added[t][i]).isSameAs(added[0][i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.potrt.flashcards.japanese;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+
+public class PrefixIndexTest implements TestingConstants {
+    private PrefixIndex index;
+    private JapaneseKanji kanjiOne;
+    private JapaneseKanji kanjiPerson;
+    private JapaneseWord wordOne;
+    private JapaneseWord wordOnePerson;
+    private JapaneseWord wordPerson;
+
+    @Before
+    public void setup() {
+        index = new PrefixIndex();
+        kanjiOne = new JapaneseKanji(oneKanji, oneMeaning);
+        kanjiPerson = new JapaneseKanji(personKanji, personMeaning);
+
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(kanjiOne.withReading(wordOneFurigana));
+        wordOne = new JapaneseWord(builder, wordOneDefinition);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiOne.withReading(wordOnePersonOneFurigana));
+        builder.add(kanjiPerson.withReading(wordOnePersonPersonFurigana));
+        wordOnePerson = new JapaneseWord(builder, wordOnePersonDefinition);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(kanjiPerson.withReading(personKanjiReadingPerson));
+        wordPerson = new JapaneseWord(builder, wordPersonDefinition);
+    }
+
+    /**
+     * Tests that words are found by any prefix of their keys, in key order.
+     */
+    @Test
+    public void searchTest() {
+        index.add(wordOneFurigana, wordOne);
+        index.add(wordOnePersonFurigana, wordOnePerson);
+        index.add(wordPersonFurigana, wordPerson);
+
+        assertThat(index.search("ひと", 10)).containsExactly(wordPerson, wordOne, wordOnePerson);
+        assertThat(index.search("ひとつ", 10)).containsExactly(wordOne);
+        assertThat(index.search("ひ", 10)).hasSize(3);
+        assertThat(index.search("", 10)).hasSize(3);
+        assertThat(index.search("ひとつめ", 10)).isEmpty();
+        assertThat(index.search("み", 10)).isEmpty();
+    }
+
+    /**
+     * Tests that the limit is respected and that words with several matching keys are only returned once.
+     */
+    @Test
+    public void limitAndDistinctTest() {
+        index.add(wordOnePerson.getKanji(), wordOnePerson);
+        index.add(wordOnePersonFurigana, wordOnePerson);
+        index.add(wordOneFurigana, wordOne);
+
+        assertThat(index.search("ひと", 1)).containsExactly(wordOne);
+        assertThat(index.search("ひと", 0)).isEmpty();
+        assertThat(index.search("", 10)).containsExactlyInAnyOrder(wordOnePerson, wordOne);
+        assertThatThrownBy(() -> index.search("", -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Tests that removed words are no longer found, and that the rest of the tree still works.
+     */
+    @Test
+    public void removeTest() {
+        index.add(wordOneFurigana, wordOne);
+        index.add(wordOnePersonFurigana, wordOnePerson);
+        index.add(wordPersonFurigana, wordPerson);
+
+        index.remove(wordPersonFurigana, wordPerson);
+        assertThat(index.search("ひと", 10)).containsExactly(wordOne, wordOnePerson);
+
+        index.remove(wordOneFurigana, wordOne);
+        assertThat(index.search("ひと", 10)).containsExactly(wordOnePerson);
+        assertThat(index.search("ひとり", 10)).containsExactly(wordOnePerson);
+
+        // Removing a word that is not there does nothing.
+        index.remove(wordOneFurigana, wordOne);
+        index.remove(wordOnePersonFurigana, wordOne);
+        assertThat(index.search("ひ", 10)).containsExactly(wordOnePerson);
+
+        index.add(wordOneFurigana, wordOne);
+        assertThat(index.search("ひと", 10)).containsExactly(wordOne, wordOnePerson);
+    }
+
+    /**
+     * Tests random adds and removes against a sorted map.
+     */
+    @Test
+    public void randomTest() {
+        Random random = new Random(42);
+        String[] syllables = {"か", "き", "く", "さ", "し"};
+        TreeMap<String, JapaneseWord> expected = new TreeMap<>();
+
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder key = new StringBuilder();
+            int length = 1 + random.nextInt(4);
+            for (int j = 0; j < length; j++) {
+                key.append(syllables[random.nextInt(syllables.length)]);
+            }
+
+            JapaneseWordBuilder builder = new JapaneseWordBuilder();
+            builder.add(key.toString());
+            JapaneseWord word = new JapaneseWord(builder, key.toString());
+            if (random.nextBoolean()) {
+                index.add(key.toString(), word);
+                expected.put(key.toString(), word);
+            } else {
+                index.remove(key.toString(), word);
+                expected.remove(key.toString());
+            }
+
+            String prefix = key.substring(0, random.nextInt(key.length() + 1));
+            List<JapaneseWord> matches = new ArrayList<>();
+            for (String k : expected.tailMap(prefix).keySet()) {
+                if (!k.startsWith(prefix)) { break; }
+                matches.add(expected.get(k));
+            }
+            assertThat(index.search(prefix, Integer.MAX_VALUE)).isEqualTo(matches);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.potrt.flashcards.japanese.verb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.potrt.flashcards.TestingConstants;
+import com.potrt.flashcards.japanese.JapaneseKanji;
+import com.potrt.flashcards.japanese.JapaneseWord;
+import com.potrt.flashcards.japanese.JapaneseWordBuilder;
+import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+
+public class JapaneseVerbConjugationCacheTest implements TestingConstants {
+    private JapaneseVerb verbToDrink;
+    private JapaneseVerb verbToSee;
+    private JapaneseVerbForm politeNegative;
+
+    @Before
+    public void setup() {
+        JapaneseWordBuilder builder = new JapaneseWordBuilder();
+        builder.add(new JapaneseKanji(drinkKanji, drinkMeaning).withReading(godanVerbToDrinkFuriganaBase));
+        builder.add(godanVerbToDrinkEnding);
+        verbToDrink = new JapaneseVerb(builder, godanVerbToDrinkDefinition, JapaneseVerbType.GODAN);
+
+        builder = new JapaneseWordBuilder();
+        builder.add(new JapaneseKanji(seeKanji, seeMeaning).withReading(ichidanVerbToSeeFuriganaBase));
+        builder.add(ichidanDictionaryEnding);
+        verbToSee = new JapaneseVerb(builder, ichidanVerbToSeeDefinition, JapaneseVerbType.ICHIDAN);
+
+        politeNegative = JapaneseVerbForm.of(false, false, presentIdicative);
+    }
+
+    /**
+     * Checks that a cached conjugation is reused and counted as a hit.
+     */
+    @Test
+    public void hitMissTest() {
+        JapaneseVerbConjugationCache cache = new JapaneseVerbConjugationCache(10);
+        JapaneseWord.Representation first = cache.conjugate(verbToDrink, politeNegative);
+        JapaneseWord.Representation second = cache.conjugate(verbToDrink, new JapaneseVerbForm(false, false, presentIdicative));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getKanji()).isEqualTo(godanVerbToDrinkKanjiBase + godanVerbToDrinkPoliteNegativeEnding);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    /**
+     * Checks that the least recently used conjugation is evicted when the cache is full.
+     */
+    @Test
+    public void evictionTest() {
+        JapaneseVerbConjugationCache cache = new JapaneseVerbConjugationCache(2);
+        JapaneseWord.Representation drink = cache.conjugate(verbToDrink, politeNegative);
+        JapaneseWord.Representation see = cache.conjugate(verbToSee, politeNegative);
+        cache.conjugate(verbToDrink, politeNegative);
+        cache.conjugate(verbToDrink, verbFormDictionary);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.conjugate(verbToDrink, politeNegative)).isSameAs(drink);
+        assertThat(cache.conjugate(verbToSee, politeNegative)).isNotSameAs(see);
+    }
+
+    /**
+     * Checks that invalidating a verb removes all of its conjugations and only its conjugations.
+     */
+    @Test
+    public void invalidateTest() {
+        JapaneseVerbConjugationCache cache = new JapaneseVerbConjugationCache(10);
+        cache.conjugate(verbToDrink, politeNegative);
+        cache.conjugate(verbToDrink, verbFormDictionary);
+        JapaneseWord.Representation see = cache.conjugate(verbToSee, politeNegative);
+
+        cache.invalidate(verbToDrink);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.conjugate(verbToSee, politeNegative)).isSameAs(see);
+    }
+
+    /**
+     * Checks that a cache must be able to hold something.
+     */
+    @Test
+    public void invalidSizeTest() {
+        assertThatThrownBy(() -> new JapaneseVerbConjugationCache(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
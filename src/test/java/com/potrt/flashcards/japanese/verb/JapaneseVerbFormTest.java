@@ -150,4 +150,29 @@ public class JapaneseVerbFormTest implements TestingConstants {
         assertThat(new JapaneseVerbForm(false, false, presentIdicative)).hasToString(definitionPresentIndicativePoliteNegative);
         assertThat(new JapaneseVerbForm(true, true, pastIdicative)).hasToString(definitionPastIndicative);
     }
+
+    /**
+     * Checks that every distinct verb form has a distinct hash, including across forms.
+     */
+    @Test
+    public void noHashCollisionsTest() {
+        assertThat(new JapaneseVerbForm(false, true, presentIdicative).hashCode())
+            .isNotEqualTo(new JapaneseVerbForm(false, false, pastIdicative).hashCode());
+        assertThat(JapaneseVerbForm.values()).extracting(JapaneseVerbForm::hashCode).doesNotHaveDuplicates();
+    }
+
+    /**
+     * Checks that the canonical instances are reused and have dense ordinals.
+     */
+    @Test
+    public void canonicalInstanceTest() {
+        assertThat(JapaneseVerbForm.of(true, true, presentIdicative)).isSameAs(JapaneseVerbForm.of(true, true, presentIdicative)).isEqualTo(verbFormDictionary);
+
+        JapaneseVerbForm[] values = JapaneseVerbForm.values();
+        assertThat(values).hasSize(JapaneseVerbForm.COUNT).isSorted();
+        for (int i = 0; i < values.length; i++) {
+            assertThat(values[i].getOrdinal()).isEqualTo(i);
+            assertThat(JapaneseVerbForm.fromOrdinal(i)).isSameAs(values[i]);
+        }
+    }
 }
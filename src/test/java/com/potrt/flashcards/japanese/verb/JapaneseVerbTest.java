@@ -1,6 +1,7 @@
 package com.potrt.flashcards.japanese.verb;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -10,6 +11,7 @@ import com.potrt.flashcards.japanese.JapaneseKanji;
 import com.potrt.flashcards.japanese.JapaneseWord;
 import com.potrt.flashcards.japanese.JapaneseWordBuilder;
 import com.potrt.flashcards.japanese.verb.JapaneseVerb.JapaneseVerbType;
+import com.potrt.flashcards.japanese.verb.conjugation.JapaneseVerbConjugator;
 
 public class JapaneseVerbTest implements TestingConstants {
     private JapaneseWordBuilder builder;
@@ -208,4 +210,25 @@ public class JapaneseVerbTest implements TestingConstants {
         assertThat(verb).doesNotHaveSameHashCodeAs(duplicate).isNotEqualTo(duplicate);
         assertThat(duplicate).doesNotHaveSameHashCodeAs(verb).isEqualTo(verb); // Weird behavior, but technically the parent word class would see the 2 words as equal.
     }
+
+    /**
+     * Tests that a verb too short to have an ending is rejected.
+     */
+    @Test
+    public void emptyVerbTest() {
+        assertThatThrownBy(() -> new JapaneseVerb(builder, godanVerbToDrinkDefinition, JapaneseVerbType.GODAN))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Tests that an irregular verb that is not in the translation tables has no conjugations, and is looked up again rather than added.
+     * @implNote Adding its table is tested on a private table in ConjugationTableTest, so the default table is not changed for other tests.
+     */
+    @Test
+    public void unknownIrregularVerbTest() {
+        builder.add("ある");
+        JapaneseVerb verb = new JapaneseVerb(builder, "to be", JapaneseVerbType.IRREGULAR);
+        assertThat(verb.conjugate(new JapaneseVerbForm(true, false, presentIdicative)).getKanji()).isNull();
+        assertThat(JapaneseVerbConjugator.irregularColumn("ある")).isEqualTo(-1);
+    }
 }
@@ -0,0 +1,96 @@
+package com.potrt.flashcards.japanese.verb.conjugation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.opencsv.exceptions.CsvValidationException;
+import com.potrt.flashcards.TestingConstants;
+import com.potrt.flashcards.japanese.verb.JapaneseVerbEnding;
+import com.potrt.flashcards.japanese.verb.JapaneseVerbForm;
+
+public class ConjugationTableTest implements TestingConstants {
+
+    /**
+     * Checks that the binary form of the default table reads back to the same conjugations.
+     */
+    @Test
+    public void binaryRoundTripTest() throws IOException, CsvValidationException {
+        ConjugationTable csvTable = JapaneseVerbConjugator.parseDefaultCsv();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        csvTable.write(new DataOutputStream(bytes));
+        ConjugationTable binaryTable = ConjugationTable.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        int irregularColumn = csvTable.irregularColumn(irregularVerbToComeKana);
+        assertThat(binaryTable.irregularColumn(irregularVerbToComeKana)).isEqualTo(irregularColumn);
+        for (JapaneseVerbForm form : JapaneseVerbForm.values()) {
+            for (int column = 0; column <= irregularColumn; column++) {
+                assertThat(binaryTable.conjugate(form, column)).isEqualTo(csvTable.conjugate(form, column));
+            }
+        }
+    }
+
+    /**
+     * Checks that the default table compiled by the build matches the csv.
+     */
+    @Test
+    public void compiledDefaultTableTest() throws IOException, CsvValidationException {
+        ConjugationTable csvTable = JapaneseVerbConjugator.parseDefaultCsv();
+        JapaneseVerbForm politeNegative = new JapaneseVerbForm(false, false, presentIdicative);
+        assertThat(JapaneseVerbConjugator.conjugateGodanVerb(politeNegative, JapaneseVerbEnding.MU)).isEqualTo(csvTable.conjugate(politeNegative, JapaneseVerbEnding.MU.ordinal()));
+        assertThat(JapaneseVerbConjugator.class.getResource(JapaneseVerbConjugator.DEFAULT_BINARY)).isNotNull();
+    }
+
+    /**
+     * Checks that new irregular verbs get new columns, and that existing columns are updated in place.
+     */
+    @Test
+    public void addCsvTest() throws IOException, CsvValidationException {
+        ConjugationTable table = new ConjugationTable();
+        table.addCsv(new StringReader("Form,Plain,Positive,,む,Ichidan,くる\nPresent Indicative,TRUE,TRUE,,む,る,くる\n"));
+        int comeColumn = table.irregularColumn(irregularVerbToComeKana);
+        assertThat(comeColumn).isEqualTo(ConjugationTable.ICHIDAN_COLUMN + 1);
+
+        table.addCsv(new StringReader("Form,Plain,Positive,,する,くる\nPresent Indicative,FALSE,TRUE,,します,きます\n"));
+        assertThat(table.irregularColumn(irregularVerbToComeKana)).isEqualTo(comeColumn);
+        assertThat(table.irregularColumn(irregularVerbToDoKana)).isEqualTo(comeColumn + 1);
+        assertThat(table.conjugate(verbFormDictionary, comeColumn)).isEqualTo(irregularVerbToComeKana);
+        assertThat(table.conjugate(JapaneseVerbForm.of(false, true, presentIdicative), comeColumn + 1)).isEqualTo(irregularVerbToDoPolite);
+    }
+
+    /**
+     * Checks that an irregular verb added after the default table was loaded gets a column, and the other columns keep their conjugations.
+     */
+    @Test
+    public void lateIrregularColumnTest() throws IOException, CsvValidationException {
+        ConjugationTable table = JapaneseVerbConjugator.parseDefaultCsv();
+        JapaneseVerbForm plainNegative = new JapaneseVerbForm(true, false, presentIdicative);
+        int comeColumn = table.irregularColumn(irregularVerbToComeKana);
+        String comeNegative = table.conjugate(plainNegative, comeColumn);
+        assertThat(table.irregularColumn("ある")).isEqualTo(-1);
+        assertThat(table.conjugate(plainNegative, -1)).isNull();
+
+        table.addCsv(new StringReader("Form,Plain,Positive,ある\n" + presentIdicative + ",TRUE,FALSE,ない\n"));
+        int column = table.irregularColumn("ある");
+        assertThat(column).isGreaterThan(comeColumn);
+        assertThat(table.conjugate(plainNegative, column)).isEqualTo("ない");
+        assertThat(table.conjugate(verbFormDictionary, column)).isNull();
+        assertThat(table.conjugate(plainNegative, comeColumn)).isEqualTo(comeNegative);
+    }
+
+    /**
+     * Checks that data that is not a compiled table is rejected.
+     */
+    @Test
+    public void invalidBinaryTest() {
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> ConjugationTable.read(new DataInputStream(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}))));
+    }
+}
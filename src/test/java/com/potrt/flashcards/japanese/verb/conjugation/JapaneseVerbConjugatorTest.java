@@ -65,6 +65,37 @@ public class JapaneseVerbConjugatorTest implements TestingConstants {
         assertThat(JapaneseVerbConjugator.conjugateIrregularVerb(new JapaneseVerbForm(false, false, presentIdicative), irregularVerbToComeKana)).isEqualTo(irregularVerbToComePoliteNegativeKana);
     }
 
+    /**
+     * Checks that conjugating by column matches conjugating by ending or verb.
+     */
+    @Test
+    public void columnConjugationTest() {
+        JapaneseVerbForm politeNegative = new JapaneseVerbForm(false, false, presentIdicative);
+        assertThat(JapaneseVerbConjugator.conjugate(politeNegative, JapaneseVerbConjugator.godanColumn(JapaneseVerbEnding.MU))).isEqualTo(godanVerbToDrinkPoliteNegativeEnding);
+        assertThat(JapaneseVerbConjugator.conjugate(JapaneseVerbForm.of(true, true, pastIdicative), JapaneseVerbConjugator.ichidanColumn())).isEqualTo(ichidanPastIndicative);
+        assertThat(JapaneseVerbConjugator.conjugate(politeNegative, JapaneseVerbConjugator.irregularColumn(irregularVerbToComeKana))).isEqualTo(irregularVerbToComePoliteNegativeKana);
+    }
+
+    /**
+     * Checks that an unknown irregular verb has no conjugations.
+     */
+    @Test
+    public void unknownIrregularConjugationTest() {
+        assertThat(JapaneseVerbConjugator.irregularColumn(desu)).isNegative();
+        assertThat(JapaneseVerbConjugator.conjugateIrregularVerb(verbFormDictionary, desu)).isNull();
+    }
+
+    /**
+     * Checks that warming up loads the tables in the background.
+     */
+    @Test
+    public void warmUpTest() throws InterruptedException {
+        Thread thread = JapaneseVerbConjugator.warmUp();
+        assertThat(thread.isDaemon()).isTrue();
+        thread.join();
+        assertThat(JapaneseVerbConjugator.conjugateIchidanVerb(verbFormDictionary)).isEqualTo(ichidanDictionaryEnding);
+    }
+
     /**
      * Checks that a bad path throws an error.
      */